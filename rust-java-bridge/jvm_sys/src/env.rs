@@ -391,6 +391,15 @@ impl<'l> Scope<'l> {
         })
     }
 
+    /// Returns the address of the memory region that backs the direct byte buffer `buf`.
+    pub fn get_direct_buffer_address<O>(&self, buf: O) -> *mut u8
+    where
+        O: Into<JObject<'l>>,
+    {
+        let Scope { env, .. } = self;
+        system_call(self, || env.get_direct_buffer_address(JByteBuffer::from(buf.into())))
+    }
+
     pub fn auto_local<'s, 'o>(&'s self, obj: JObject<'o>) -> AutoLocal<'o, 's>
     where
         's: 'o,
@@ -200,6 +200,13 @@ pub trait JavaMethodExt<'j>: JavaObjectMethod<'j> {
     {
         MoldBool { method: self }
     }
+
+    fn i(&self) -> MoldInt<'_, Self>
+    where
+        Self: Sized,
+    {
+        MoldInt { method: self }
+    }
 }
 
 impl<'j, M> JavaMethodExt<'j> for M where M: JavaObjectMethod<'j> {}
@@ -373,6 +380,35 @@ where
     }
 }
 
+#[derive(Debug)]
+pub struct MoldInt<'m, M> {
+    method: &'m M,
+}
+
+impl<'m, 'j, M> JavaObjectMethod<'j> for MoldInt<'m, M>
+where
+    M: JavaObjectMethod<'j, Output = JValue<'j>>,
+{
+    type Output = i32;
+
+    fn invoke<'s, H, O>(
+        &self,
+        handler: &H,
+        scope: &'s Scope,
+        object: O,
+        args: &[JValue<'j>],
+    ) -> Result<Self::Output, H::Err>
+    where
+        H: JavaExceptionHandler,
+        O: Into<JObject<'j>>,
+        's: 'j,
+    {
+        let MoldInt { method } = self;
+        let value = method.invoke(handler, scope, object, args)?;
+        Ok(mold(self, scope, || value.i()))
+    }
+}
+
 #[derive(Debug)]
 pub struct MoldGlobalRef<'m, M> {
     method: &'m M,
@@ -19,10 +19,11 @@ use bytebridge::ByteCodecExt;
 use bytes::BytesMut;
 use client_runtime::{RemotePath, WebSocketConfig};
 use jni::objects::{JObject, JString};
-use jni::sys::{jbyteArray, jobject};
+use jni::sys::{jbyteArray, jint, jlong, jobject};
 use jvm_sys::null_pointer_check_abort;
 use std::str::FromStr;
 use swim_api::downlink::Downlink;
+use swim_client_core::downlink::demand::Demand;
 use swim_client_core::downlink::map::FfiMapDownlink;
 use url::ParseError;
 use url::Url;
@@ -153,6 +154,63 @@ client_fn! {
     }
 }
 
+client_fn! {
+    pub fn downlink_DownlinkDemand_createDemand(
+        env,
+        _class,
+    ) -> Demand {
+        Box::leak(Box::new(Demand::default()))
+    }
+}
+
+client_fn! {
+    pub fn downlink_DownlinkDemand_request(
+        env,
+        _class,
+        demand: *mut Demand,
+        n: jlong,
+    ) {
+        null_pointer_check_abort!(env, demand);
+        let demand = unsafe { &*demand };
+        demand.request(n.max(0) as u64);
+    }
+}
+
+client_fn! {
+    pub fn downlink_DownlinkDemand_cancel(
+        env,
+        _class,
+        demand: *mut Demand,
+    ) {
+        null_pointer_check_abort!(env, demand);
+        let demand = unsafe { &*demand };
+        demand.cancel();
+    }
+}
+
+client_fn! {
+    pub fn downlink_DownlinkDemand_dropDemand(
+        env,
+        _class,
+        demand: *mut Demand,
+    ) {
+        null_pointer_check_abort!(env, demand);
+        unsafe {
+            drop(Box::from_raw(demand));
+        }
+    }
+}
+
+/// Returns a handle to the demand that `demand` points to, or `None` if the downlink is not
+/// subscribed to through a publisher and so it reads notifications as soon as they are available.
+fn clone_demand(demand: *mut Demand) -> Option<Demand> {
+    if demand.is_null() {
+        None
+    } else {
+        Some(unsafe { &*demand }.clone())
+    }
+}
+
 const SWIM_CLIENT_EXCEPTION: &str = "ai/swim/client/SwimClientException";
 
 /// Attempts to open a downlink using the provided client handle. This function assumes that the
@@ -227,6 +285,9 @@ client_fn! {
         on_set: jobject,
         on_synced: jobject,
         on_unlinked: jobject,
+        on_batch: jobject,
+        max_batch_size: jint,
+        demand: *mut Demand,
     ) {
         null_pointer_check_abort!(env, handle, stopped_barrier, downlink_ref, config);
 
@@ -239,6 +300,9 @@ client_fn! {
             on_set,
             on_synced,
             on_unlinked,
+            on_batch,
+            max_batch_size.max(1) as usize,
+            clone_demand(demand),
         );
 
         open_downlink(
@@ -274,6 +338,9 @@ client_fn! {
         on_unlinked: jobject,
         take: jobject,
         drop: jobject,
+        on_batch: jobject,
+        max_batch_size: jint,
+        demand: *mut Demand,
     ) {
         null_pointer_check_abort!(env, handle, stopped_barrier, downlink_ref, config);
 
@@ -289,6 +356,9 @@ client_fn! {
             on_unlinked,
             take,
             drop,
+            on_batch,
+            max_batch_size.max(1) as usize,
+            clone_demand(demand),
         );
 
         open_downlink(
@@ -0,0 +1,218 @@
+// Copyright 2015-2024 Swim Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+use std::sync::atomic::{AtomicBool, AtomicU64, Ordering};
+use std::sync::Arc;
+
+use futures_util::StreamExt;
+use swim_api::error::FrameIoError;
+use swim_api::protocol::downlink::DownlinkNotification;
+use swim_utilities::io::byte_channel::ByteReader;
+use tokio::select;
+use tokio::sync::Notify;
+use tokio_util::codec::{Decoder, FramedRead};
+
+use crate::downlink::NextNotification;
+
+/// The number of events that a Java subscriber to a downlink has requested and not yet received.
+///
+/// A downlink task that has been provided with a demand only reads the next notification from its
+/// input once the subscriber has requested an event. While there is no demand, the runtime's
+/// buffers to the downlink fill up and it stops reading from the connection, so the memory that
+/// is used by a slow subscriber is bounded.
+///
+/// Cloning a demand produces a handle to the same counter.
+#[derive(Clone, Debug, Default)]
+pub struct Demand {
+    inner: Arc<Inner>,
+}
+
+#[derive(Debug, Default)]
+struct Inner {
+    credits: AtomicU64,
+    cancelled: AtomicBool,
+    requested: Notify,
+    cancelled_notify: Notify,
+}
+
+impl Demand {
+    /// Adds `n` to the number of events that have been requested.
+    pub fn request(&self, n: u64) {
+        let Inner {
+            credits, requested, ..
+        } = self.inner.as_ref();
+        let _ = credits.fetch_update(Ordering::AcqRel, Ordering::Acquire, |current| {
+            Some(current.saturating_add(n))
+        });
+        requested.notify_one();
+    }
+
+    /// Cancels the subscription. The downlink task terminates once it has observed the
+    /// cancellation.
+    pub fn cancel(&self) {
+        let Inner {
+            cancelled,
+            requested,
+            cancelled_notify,
+            ..
+        } = self.inner.as_ref();
+        cancelled.store(true, Ordering::Release);
+        requested.notify_one();
+        cancelled_notify.notify_waiters();
+    }
+
+    fn is_cancelled(&self) -> bool {
+        self.inner.cancelled.load(Ordering::Acquire)
+    }
+
+    /// Takes up to `max` credits, waiting until at least one is available. Returns `None` if the
+    /// subscription has been cancelled.
+    async fn acquire(&self, max: usize) -> Option<usize> {
+        loop {
+            let notified = self.inner.requested.notified();
+            if self.is_cancelled() {
+                return None;
+            }
+
+            let mut taken = 0;
+            let _ = self.inner.credits.fetch_update(
+                Ordering::AcqRel,
+                Ordering::Acquire,
+                |current| {
+                    taken = current.min(max as u64);
+                    Some(current - taken)
+                },
+            );
+
+            if taken > 0 {
+                return Some(taken as usize);
+            }
+
+            notified.await;
+        }
+    }
+
+    /// Completes once the subscription has been cancelled.
+    async fn cancelled(&self) {
+        loop {
+            let notified = self.inner.cancelled_notify.notified();
+            if self.is_cancelled() {
+                return;
+            }
+            notified.await;
+        }
+    }
+}
+
+/// Reads notifications from a downlink's input at the rate that is requested by its demand, if
+/// it has one.
+///
+/// Credits are taken from the demand in bulk, up to the downlink's maximum batch size, and are
+/// held by the gate until they are consumed by events that are dispatched to Java. Events that
+/// are not dispatched, such as those that are received before the downlink has synced, and
+/// notifications that are not events do not consume any credits.
+pub struct DemandGate {
+    demand: Option<Demand>,
+    credits: usize,
+    max_credits: usize,
+}
+
+impl DemandGate {
+    pub fn new(demand: Option<Demand>, max_credits: usize) -> DemandGate {
+        DemandGate {
+            demand,
+            credits: 0,
+            max_credits: max_credits.max(1),
+        }
+    }
+
+    /// Reads the next notification from `framed_read` once there is demand for an event. Returns
+    /// `None`, as if the input had terminated, if the subscription has been cancelled.
+    pub async fn next<D, T>(
+        &mut self,
+        framed_read: &mut FramedRead<ByteReader, D>,
+    ) -> NextNotification<T>
+    where
+        D: Decoder<Item = DownlinkNotification<T>, Error = FrameIoError>,
+    {
+        let DemandGate {
+            demand,
+            credits,
+            max_credits,
+        } = self;
+
+        match demand {
+            Some(demand) => {
+                if *credits == 0 {
+                    *credits = demand.acquire(*max_credits).await?;
+                }
+                select! {
+                    biased;
+                    _ = demand.cancelled() => None,
+                    next = framed_read.next() => next,
+                }
+            }
+            None => framed_read.next().await,
+        }
+    }
+
+    /// Returns the number of events that may be dispatched to Java without reading any further
+    /// notifications through this gate.
+    pub fn available(&self) -> usize {
+        match &self.demand {
+            Some(_) => self.credits,
+            None => usize::MAX,
+        }
+    }
+
+    /// Consumes the credits for `n` events that have been dispatched to Java.
+    pub fn consume(&mut self, n: usize) {
+        if self.demand.is_some() {
+            self.credits = self.credits.saturating_sub(n);
+        }
+    }
+}
+
+#[cfg(test)]
+mod tests {
+    use futures_util::FutureExt;
+
+    use super::Demand;
+
+    #[tokio::test]
+    async fn acquire_waits_for_demand() {
+        let demand = Demand::default();
+        assert!(demand.acquire(4).now_or_never().is_none());
+
+        demand.request(6);
+        assert_eq!(demand.acquire(4).await, Some(4));
+        assert_eq!(demand.acquire(4).await, Some(2));
+
+        let waiter = demand.clone();
+        let task = tokio::spawn(async move { waiter.acquire(4).await });
+        demand.request(1);
+        assert_eq!(task.await.unwrap(), Some(1));
+    }
+
+    #[tokio::test]
+    async fn cancel_wakes_waiters() {
+        let demand = Demand::default();
+        let waiter = demand.clone();
+        let task = tokio::spawn(async move { waiter.acquire(1).await });
+
+        demand.cancel();
+        assert_eq!(task.await.unwrap(), None);
+        assert!(demand.cancelled().now_or_never().is_some());
+    }
+}
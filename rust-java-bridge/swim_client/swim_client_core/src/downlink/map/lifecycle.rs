@@ -19,7 +19,7 @@ use jvm_sys::env::{IsTypeOfExceptionHandler, JavaEnv};
 
 use crate::downlink::vtable::{ExceptionHandler, JavaMethod};
 use crate::downlink::{
-    DISPATCH_DROP, DISPATCH_ON_CLEAR, DISPATCH_ON_REMOVE, DISPATCH_ON_UPDATE, DISPATCH_TAKE,
+    DISPATCH_BATCH, DISPATCH_DROP, DISPATCH_ON_CLEAR, DISPATCH_ON_REMOVE, DISPATCH_ON_UPDATE, DISPATCH_TAKE,
     ON_LINKED, ON_UNLINKED, ROUTINE_EXEC,
 };
 
@@ -38,6 +38,7 @@ impl MapDownlinkLifecycle {
         on_unlinked: jobject,
         take: jobject,
         drop: jobject,
+        on_batch: jobject,
     ) -> MapDownlinkLifecycle {
         MapDownlinkLifecycle {
             vtable: MapDownlinkVTable::new(
@@ -50,6 +51,7 @@ impl MapDownlinkLifecycle {
                 on_unlinked,
                 take,
                 drop,
+                on_batch,
             ),
         }
     }
@@ -95,6 +97,23 @@ impl MapDownlinkLifecycle {
         vtable.on_unlinked(env)
     }
 
+    /// Returns whether the Java downlink accepts batches of events.
+    pub fn accepts_batches(&self) -> bool {
+        let MapDownlinkLifecycle { vtable } = self;
+        vtable.on_batch.is_defined()
+    }
+
+    /// Delivers an encoded batch of events to the Java downlink in a single call.
+    pub fn on_batch(
+        &mut self,
+        env: &JavaEnv,
+        batch: &mut Vec<u8>,
+        dispatch: bool,
+    ) -> Result<(), DownlinkTaskError> {
+        let MapDownlinkLifecycle { vtable } = self;
+        vtable.on_batch(env, batch, dispatch)
+    }
+
     pub fn take(
         &mut self,
         env: &JavaEnv,
@@ -125,6 +144,7 @@ pub struct MapDownlinkVTable {
     on_unlinked: JavaMethod,
     take: JavaMethod,
     drop: JavaMethod,
+    on_batch: JavaMethod,
     handler: ExceptionHandler,
 }
 
@@ -139,6 +159,7 @@ impl MapDownlinkVTable {
         on_unlinked: jobject,
         take: jobject,
         drop: jobject,
+        on_batch: jobject,
     ) -> MapDownlinkVTable {
         MapDownlinkVTable {
             on_linked: JavaMethod::for_method(env, on_linked, ON_LINKED),
@@ -149,6 +170,7 @@ impl MapDownlinkVTable {
             on_unlinked: JavaMethod::for_method(env, on_unlinked, ON_UNLINKED),
             take: JavaMethod::for_method(env, take, DISPATCH_TAKE),
             drop: JavaMethod::for_method(env, drop, DISPATCH_DROP),
+            on_batch: JavaMethod::for_method(env, on_batch, DISPATCH_BATCH),
             handler: ExceptionHandler(IsTypeOfExceptionHandler::new(
                 env,
                 "ai/swim/client/downlink/DownlinkException",
@@ -231,4 +253,19 @@ impl MapDownlinkVTable {
         let MapDownlinkVTable { drop, handler, .. } = self;
         env.with_env(|scope| drop.execute(handler, &scope, &[n.into(), dispatch.into()]))
     }
+
+    fn on_batch(
+        &mut self,
+        env: &JavaEnv,
+        batch: &mut Vec<u8>,
+        dispatch: bool,
+    ) -> Result<(), DownlinkTaskError> {
+        let MapDownlinkVTable {
+            on_batch, handler, ..
+        } = self;
+        env.with_env(|scope| {
+            let batch = scope.new_direct_byte_buffer_exact(batch);
+            on_batch.execute(handler, &scope, &[batch.into(), dispatch.into()])
+        })
+    }
 }
@@ -28,9 +28,8 @@ mod lifecycle;
 // See the License for the specific language governing permissions and
 // limitations under the License.
 
-use bytes::Bytes;
+use bytes::{BufMut, Bytes};
 use futures_util::future::BoxFuture;
-use futures_util::StreamExt;
 use jni::sys::{jint, jobject};
 use jvm_sys::env::{JavaEnv, SpannedError};
 use swim_api::downlink::{Downlink, DownlinkConfig, DownlinkKind};
@@ -43,11 +42,15 @@ use swim_utilities::io::byte_channel::{ByteReader, ByteWriter};
 use tokio_util::codec::FramedRead;
 
 use crate::downlink::decoder::MapDlNotDecoder;
+use crate::downlink::demand::{Demand, DemandGate};
+use crate::downlink::{drain_events, NextNotification};
 pub use crate::downlink::map::lifecycle::MapDownlinkLifecycle;
 
 pub struct FfiMapDownlink {
     env: JavaEnv,
     lifecycle: MapDownlinkLifecycle,
+    max_batch_size: usize,
+    demand: Option<Demand>,
 }
 
 impl FfiMapDownlink {
@@ -61,6 +64,9 @@ impl FfiMapDownlink {
         on_unlinked: jobject,
         take: jobject,
         drop: jobject,
+        on_batch: jobject,
+        max_batch_size: usize,
+        demand: Option<Demand>,
     ) -> FfiMapDownlink {
         let lifecycle = MapDownlinkLifecycle::from_parts(
             &env,
@@ -72,8 +78,14 @@ impl FfiMapDownlink {
             on_unlinked,
             take,
             drop,
+            on_batch,
         );
-        FfiMapDownlink { env, lifecycle }
+        FfiMapDownlink {
+            env,
+            lifecycle,
+            max_batch_size: max_batch_size.max(1),
+            demand,
+        }
     }
 }
 
@@ -90,8 +102,23 @@ impl Downlink for FfiMapDownlink {
         output: ByteWriter,
     ) -> BoxFuture<'static, Result<(), DownlinkTaskError>> {
         Box::pin(async move {
-            let FfiMapDownlink { env, lifecycle } = self;
-            run_ffi_map_downlink(env, lifecycle, path, config, input, output).await
+            let FfiMapDownlink {
+                env,
+                lifecycle,
+                max_batch_size,
+                demand,
+            } = self;
+            run_ffi_map_downlink(
+                env,
+                lifecycle,
+                max_batch_size,
+                demand,
+                path,
+                config,
+                input,
+                output,
+            )
+            .await
         })
     }
 
@@ -139,6 +166,8 @@ enum State {
 async fn run_ffi_map_downlink(
     env: JavaEnv,
     mut lifecycle: MapDownlinkLifecycle,
+    max_batch_size: usize,
+    demand: Option<Demand>,
     _path: Address<Text>,
     config: DownlinkConfig,
     input: ByteReader,
@@ -152,8 +181,23 @@ async fn run_ffi_map_downlink(
 
     let mut state = State::Unlinked;
     let mut framed_read = FramedRead::new(input, MapDlNotDecoder::default());
+    let batching = max_batch_size > 1 && lifecycle.accepts_batches();
+    let mut batch = EventBatch::default();
+    // A notification that was read while batching events but that is not an event. This is
+    // processed before any further notifications are read.
+    let mut pending: Option<NextNotification<MapMessage<Bytes, Bytes>>> = None;
+    let mut gate = DemandGate::new(demand, max_batch_size);
+
+    loop {
+        let result = match pending.take() {
+            Some(next) => next,
+            None => gate.next(&mut framed_read).await,
+        };
+        let result = match result {
+            Some(result) => result,
+            None => break,
+        };
 
-    while let Some(result) = framed_read.next().await {
         match result? {
             DownlinkNotification::Linked => {
                 if matches!(&state, State::Unlinked) {
@@ -168,11 +212,40 @@ async fn run_ffi_map_downlink(
                 }
                 _ => {}
             },
-            DownlinkNotification::Event { body } => match &mut state {
-                State::Unlinked => {}
-                State::Linked => on_event(&env, &mut lifecycle, body, events_when_not_synced)?,
-                State::Synced => on_event(&env, &mut lifecycle, body, true)?,
-            },
+            DownlinkNotification::Event { body } => {
+                let dispatch = match &state {
+                    State::Unlinked => continue,
+                    State::Linked => events_when_not_synced,
+                    State::Synced => true,
+                };
+
+                if batching {
+                    // Only events that are dispatched are limited by the subscriber's demand.
+                    let max_events = if dispatch {
+                        max_batch_size.min(gate.available())
+                    } else {
+                        max_batch_size
+                    };
+                    let mut count = 1;
+                    batch.push(&body);
+                    pending = drain_events(&mut framed_read, max_events, |body| {
+                        batch.push(&body);
+                        count += 1;
+                    });
+                    lifecycle.on_batch(&env, batch.buf_mut(), dispatch)?;
+                    batch.clear();
+
+                    if dispatch {
+                        gate.consume(count);
+                    }
+                } else {
+                    on_event(&env, &mut lifecycle, body, dispatch)?;
+
+                    if dispatch {
+                        gate.consume(1);
+                    }
+                }
+            }
             DownlinkNotification::Unlinked => {
                 lifecycle.on_unlinked(&env)?;
                 if terminate_on_unlinked {
@@ -203,3 +276,61 @@ fn on_event(
         MapMessage::Drop(cnt) => lifecycle.drop(env, cnt as jint, dispatch),
     }
 }
+
+/// A reusable buffer of map events that are delivered to the Java downlink in a single call.
+///
+/// Each event is encoded as a record that starts with a one byte tag followed by:
+/// - Update: the length of the key as an i32, the key, the length of the value as an i32 and then
+///   the value.
+/// - Remove: the length of the key as an i32 and then the key.
+/// - Clear: nothing.
+/// - Take and drop: the number of entries as an i32.
+///
+/// The buffer's capacity is retained between batches.
+#[derive(Default)]
+struct EventBatch {
+    buf: Vec<u8>,
+}
+
+impl EventBatch {
+    const UPDATE: u8 = 0;
+    const REMOVE: u8 = 1;
+    const CLEAR: u8 = 2;
+    const TAKE: u8 = 3;
+    const DROP: u8 = 4;
+
+    fn push(&mut self, event: &MapMessage<Bytes, Bytes>) {
+        let EventBatch { buf } = self;
+        match event {
+            MapMessage::Update { key, value } => {
+                buf.put_u8(Self::UPDATE);
+                buf.put_i32(key.len() as i32);
+                buf.extend_from_slice(key);
+                buf.put_i32(value.len() as i32);
+                buf.extend_from_slice(value);
+            }
+            MapMessage::Remove { key } => {
+                buf.put_u8(Self::REMOVE);
+                buf.put_i32(key.len() as i32);
+                buf.extend_from_slice(key);
+            }
+            MapMessage::Clear => buf.put_u8(Self::CLEAR),
+            MapMessage::Take(cnt) => {
+                buf.put_u8(Self::TAKE);
+                buf.put_i32(*cnt as i32);
+            }
+            MapMessage::Drop(cnt) => {
+                buf.put_u8(Self::DROP);
+                buf.put_i32(*cnt as i32);
+            }
+        }
+    }
+
+    fn buf_mut(&mut self) -> &mut Vec<u8> {
+        &mut self.buf
+    }
+
+    fn clear(&mut self) {
+        self.buf.clear();
+    }
+}
@@ -17,14 +17,20 @@ use std::num::NonZeroUsize;
 use std::time::Duration;
 
 use bytes::{Buf, BytesMut};
+use futures_util::{FutureExt, StreamExt};
 use swim_api::downlink::DownlinkConfig;
+use swim_api::error::FrameIoError;
+use swim_api::protocol::downlink::DownlinkNotification;
 use swim_runtime::downlink::{DownlinkOptions, DownlinkRuntimeConfig};
+use swim_utilities::io::byte_channel::ByteReader;
+use tokio_util::codec::{Decoder, FramedRead};
 
 use jvm_sys::method::JavaObjectMethodDef;
 
 const CONFIG_LEN: usize = size_of::<u64>() * 5 + size_of::<u8>() * 4;
 
 mod decoder;
+pub mod demand;
 pub mod map;
 pub mod value;
 mod vtable;
@@ -63,9 +69,45 @@ pub const DISPATCH_DROP: JavaObjectMethodDef = JavaObjectMethodDef::new(
     "drop",
     "(IZ)V",
 );
+pub const DISPATCH_BATCH: JavaObjectMethodDef = JavaObjectMethodDef::new(
+    "ai/swim/client/downlink/map/dispatch/DispatchBatch",
+    "onBatch",
+    "(Ljava/nio/ByteBuffer;Z)V",
+);
 pub const ROUTINE_EXEC: JavaObjectMethodDef =
     JavaObjectMethodDef::new("ai/swim/client/downlink/map/Routine", "exec", "()V");
 
+/// The result of reading a notification from a downlink's input: `None` if the input has
+/// terminated.
+type NextNotification<T> = Option<Result<DownlinkNotification<T>, FrameIoError>>;
+
+/// Reads the events that are immediately available from `framed_read`, after an event has
+/// already been received, and passes their bodies to `push`. No more than `max_events - 1`
+/// events are read so that, including the event that has already been received, a batch does
+/// not exceed `max_events`.
+///
+/// Reading stops at the first notification that is not an event, or if the input terminates, and
+/// this is returned. It must be processed before any further notifications are read from
+/// `framed_read` so that the order in which the notifications were received is preserved.
+fn drain_events<D, T, F>(
+    framed_read: &mut FramedRead<ByteReader, D>,
+    max_events: usize,
+    mut push: F,
+) -> Option<NextNotification<T>>
+where
+    D: Decoder<Item = DownlinkNotification<T>, Error = FrameIoError>,
+    F: FnMut(T),
+{
+    for _ in 1..max_events {
+        match framed_read.next().now_or_never() {
+            Some(Some(Ok(DownlinkNotification::Event { body }))) => push(body),
+            Some(next) => return Some(next),
+            None => break,
+        }
+    }
+    None
+}
+
 /// A wrapper around a downlink runtime configuration, downlink configuration and downlink options
 /// that can be parsed from a Java-provided byte array of the following format:
 ///
@@ -28,6 +28,7 @@ pub struct ValueDownlinkVTable {
     on_event: JavaMethod,
     on_set: JavaMethod,
     on_unlinked: JavaMethod,
+    on_batch: JavaMethod,
     handler: ExceptionHandler,
 }
 
@@ -39,6 +40,7 @@ impl ValueDownlinkVTable {
         on_set: jobject,
         on_synced: jobject,
         on_unlinked: jobject,
+        on_batch: jobject,
     ) -> ValueDownlinkVTable {
         ValueDownlinkVTable {
             on_linked: JavaMethod::for_method(env, on_linked, ON_LINKED),
@@ -46,6 +48,7 @@ impl ValueDownlinkVTable {
             on_event: JavaMethod::for_method(env, on_event, Consumer::ACCEPT),
             on_set: JavaMethod::for_method(env, on_set, Consumer::ACCEPT),
             on_unlinked: JavaMethod::for_method(env, on_unlinked, ON_UNLINKED),
+            on_batch: JavaMethod::for_method(env, on_batch, Consumer::ACCEPT),
             handler: ExceptionHandler(IsTypeOfExceptionHandler::new(
                 env,
                 "ai/swim/client/downlink/DownlinkException",
@@ -106,6 +109,20 @@ impl ValueDownlinkVTable {
         } = self;
         env.with_env(|scope| on_unlinked.execute(handler, &scope, &[]))
     }
+
+    pub fn on_batch(
+        &mut self,
+        env: &JavaEnv,
+        batch: &mut Vec<u8>,
+    ) -> Result<(), DownlinkTaskError> {
+        let ValueDownlinkVTable {
+            on_batch, handler, ..
+        } = self;
+        env.with_env(|scope| {
+            let buffer = scope.new_direct_byte_buffer_exact(batch);
+            on_batch.execute(handler, &scope, &[buffer.into()])
+        })
+    }
 }
 
 pub struct ValueDownlinkLifecycle {
@@ -120,6 +137,7 @@ impl ValueDownlinkLifecycle {
         on_set: jobject,
         on_synced: jobject,
         on_unlinked: jobject,
+        on_batch: jobject,
     ) -> ValueDownlinkLifecycle {
         ValueDownlinkLifecycle {
             vtable: ValueDownlinkVTable::new(
@@ -129,6 +147,7 @@ impl ValueDownlinkLifecycle {
                 on_set,
                 on_synced,
                 on_unlinked,
+                on_batch,
             ),
         }
     }
@@ -172,4 +191,21 @@ impl ValueDownlinkLifecycle {
         let ValueDownlinkLifecycle { vtable } = self;
         vtable.on_unlinked(env)
     }
+
+    /// Returns whether the Java downlink accepts batches of events.
+    pub fn accepts_batches(&self) -> bool {
+        let ValueDownlinkLifecycle { vtable } = self;
+        vtable.on_batch.is_defined()
+    }
+
+    /// Delivers an encoded batch of events to the Java downlink in a single call. Each event is
+    /// dispatched to both the on event and on set callbacks.
+    pub fn on_batch(
+        &mut self,
+        env: &JavaEnv,
+        batch: &mut Vec<u8>,
+    ) -> Result<(), DownlinkTaskError> {
+        let ValueDownlinkLifecycle { vtable } = self;
+        vtable.on_batch(env, batch)
+    }
 }
@@ -12,9 +12,8 @@
 // See the License for the specific language governing permissions and
 // limitations under the License.
 
-use bytes::BytesMut;
+use bytes::{BufMut, Bytes, BytesMut};
 use futures_util::future::BoxFuture;
-use futures_util::StreamExt;
 use jni::sys::jobject;
 use swim_api::downlink::{Downlink, DownlinkConfig, DownlinkKind};
 use swim_api::error::DownlinkTaskError;
@@ -27,6 +26,8 @@ use tokio_util::codec::FramedRead;
 use jvm_sys::env::JavaEnv;
 
 use crate::downlink::decoder::ValueDlNotDecoder;
+use crate::downlink::demand::{Demand, DemandGate};
+use crate::downlink::{drain_events, NextNotification};
 use crate::downlink::value::lifecycle::ValueDownlinkLifecycle;
 
 mod lifecycle;
@@ -34,6 +35,8 @@ mod lifecycle;
 pub struct FfiValueDownlink {
     env: JavaEnv,
     lifecycle: ValueDownlinkLifecycle,
+    max_batch_size: usize,
+    demand: Option<Demand>,
 }
 
 impl FfiValueDownlink {
@@ -44,6 +47,9 @@ impl FfiValueDownlink {
         on_set: jobject,
         on_synced: jobject,
         on_unlinked: jobject,
+        on_batch: jobject,
+        max_batch_size: usize,
+        demand: Option<Demand>,
     ) -> FfiValueDownlink {
         let lifecycle = ValueDownlinkLifecycle::from_parts(
             &env,
@@ -52,8 +58,14 @@ impl FfiValueDownlink {
             on_set,
             on_synced,
             on_unlinked,
+            on_batch,
         );
-        FfiValueDownlink { env, lifecycle }
+        FfiValueDownlink {
+            env,
+            lifecycle,
+            max_batch_size: max_batch_size.max(1),
+            demand,
+        }
     }
 }
 
@@ -70,8 +82,23 @@ impl Downlink for FfiValueDownlink {
         output: ByteWriter,
     ) -> BoxFuture<'static, Result<(), DownlinkTaskError>> {
         Box::pin(async move {
-            let FfiValueDownlink { env, lifecycle } = self;
-            run_ffi_value_downlink(env, lifecycle, path, config, input, output).await
+            let FfiValueDownlink {
+                env,
+                lifecycle,
+                max_batch_size,
+                demand,
+            } = self;
+            run_ffi_value_downlink(
+                env,
+                lifecycle,
+                max_batch_size,
+                demand,
+                path,
+                config,
+                input,
+                output,
+            )
+            .await
         })
     }
 
@@ -95,6 +122,8 @@ enum LinkState {
 async fn run_ffi_value_downlink(
     env: JavaEnv,
     mut lifecycle: ValueDownlinkLifecycle,
+    max_batch_size: usize,
+    demand: Option<Demand>,
     _path: Address<Text>,
     config: DownlinkConfig,
     input: ByteReader,
@@ -109,8 +138,23 @@ async fn run_ffi_value_downlink(
     let mut state = LinkState::Unlinked;
     let mut framed_read = FramedRead::new(input, ValueDlNotDecoder::default());
     let mut ffi_buffer = BytesMut::new();
+    let batching = max_batch_size > 1 && lifecycle.accepts_batches();
+    let mut batch = EventBatch::default();
+    // A notification that was read while batching events but that is not an event. This is
+    // processed before any further notifications are read.
+    let mut pending: Option<NextNotification<Bytes>> = None;
+    let mut gate = DemandGate::new(demand, max_batch_size);
+
+    loop {
+        let result = match pending.take() {
+            Some(next) => next,
+            None => gate.next(&mut framed_read).await,
+        };
+        let result = match result {
+            Some(result) => result,
+            None => break,
+        };
 
-    while let Some(result) = framed_read.next().await {
         match result? {
             DownlinkNotification::Linked => {
                 if matches!(&state, LinkState::Unlinked) {
@@ -127,6 +171,33 @@ async fn run_ffi_value_downlink(
                     return Err(DownlinkTaskError::SyncedWithNoValue);
                 }
             },
+            DownlinkNotification::Event { body } if batching => match &mut state {
+                LinkState::Linked(value) if !events_when_not_synced => {
+                    *value = Some(body.to_vec());
+                }
+                LinkState::Unlinked => {}
+                state => {
+                    let mut last = body;
+                    let mut count = 1;
+                    batch.push(&last);
+                    pending = drain_events(
+                        &mut framed_read,
+                        max_batch_size.min(gate.available()),
+                        |body| {
+                            batch.push(&body);
+                            last = body;
+                            count += 1;
+                        },
+                    );
+                    lifecycle.on_batch(&env, batch.buf_mut())?;
+                    batch.clear();
+                    gate.consume(count);
+
+                    if let LinkState::Linked(value) = state {
+                        *value = Some(last.to_vec());
+                    }
+                }
+            },
             DownlinkNotification::Event { body } => {
                 let mut data = body.to_vec();
                 match &mut state {
@@ -134,12 +205,14 @@ async fn run_ffi_value_downlink(
                         if events_when_not_synced {
                             lifecycle.on_event(&env, &mut data, &mut ffi_buffer)?;
                             lifecycle.on_set(&env, &mut data, &mut ffi_buffer)?;
+                            gate.consume(1);
                         }
                         *value = Some(data);
                     }
                     LinkState::Synced => {
                         lifecycle.on_event(&env, &mut data, &mut ffi_buffer)?;
                         lifecycle.on_set(&env, &mut data, &mut ffi_buffer)?;
+                        gate.consume(1);
                     }
                     LinkState::Unlinked => {}
                 }
@@ -157,3 +230,28 @@ async fn run_ffi_value_downlink(
 
     Ok(())
 }
+
+/// A reusable buffer of value events that are delivered to the Java downlink in a single call.
+///
+/// Each event is encoded as a record of the length of the event's body as an i32 and then the
+/// body. The buffer's capacity is retained between batches.
+#[derive(Default)]
+struct EventBatch {
+    buf: Vec<u8>,
+}
+
+impl EventBatch {
+    fn push(&mut self, body: &Bytes) {
+        let EventBatch { buf } = self;
+        buf.put_i32(body.len() as i32);
+        buf.extend_from_slice(body);
+    }
+
+    fn buf_mut(&mut self) -> &mut Vec<u8> {
+        &mut self.buf
+    }
+
+    fn clear(&mut self) {
+        self.buf.clear();
+    }
+}
@@ -41,6 +41,11 @@ impl JavaMethod {
         JavaMethod { ptr, def }
     }
 
+    /// Returns whether a Java object was provided for this method.
+    pub fn is_defined(&self) -> bool {
+        self.ptr.is_some()
+    }
+
     #[track_caller]
     pub fn execute<H>(
         &mut self,
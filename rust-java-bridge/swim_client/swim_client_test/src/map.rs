@@ -59,7 +59,8 @@ client_fn! {
             on_clear,
             on_unlinked,
             take,
-            drop
+            drop,
+            std::ptr::null_mut()
         );
 
         let _r =env.with_env_throw("java/lang/RuntimeException", |_| {
@@ -119,6 +120,9 @@ client_fn! {
             on_unlinked,
             take,
             drop,
+            std::ptr::null_mut(),
+            1,
+            None,
         );
 
         lifecycle_test(downlink, env, lock, input, host, node, lane,false)
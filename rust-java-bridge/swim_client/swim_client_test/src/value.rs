@@ -101,6 +101,9 @@ client_fn! {
             on_set,
             on_synced,
             on_unlinked,
+            null_mut(),
+            1,
+            None,
         );
         lifecycle_test(downlink, env, lock, input, host, node, lane,true)
     }
@@ -153,6 +156,9 @@ client_fn! {
             null_mut(),
             null_mut(),
             null_mut(),
+            null_mut(),
+            1,
+            None,
         );
 
         let (stopped_barrier_gr,downlink_gr) = env.with_env(|scope| {
@@ -245,6 +251,9 @@ client_fn! {
             on_set,
             on_synced,
             on_unlinked,
+            null_mut(),
+            1,
+            None,
         );
 
         let (host, node, lane) = match env.with_env_throw("ai/swim/client/SwimClientException", move |scope| {
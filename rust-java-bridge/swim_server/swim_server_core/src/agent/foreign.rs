@@ -21,11 +21,12 @@ use jvm_sys::env::{
     IsTypeOfExceptionHandler, JavaEnv, JavaExceptionHandler, NotTypeOfExceptionHandler, Scope,
 };
 use jvm_sys::method::{
-    ByteArray, InitialisedJavaObjectMethod, JavaMethodExt, JavaObjectMethod, JavaObjectMethodDef,
+    InitialisedJavaObjectMethod, JavaMethodExt, JavaObjectMethod, JavaObjectMethodDef,
 };
 
 use crate::agent::context::JavaAgentContext;
 use crate::agent::foreign::buffer::Dispatcher;
+use crate::agent::foreign::response::ResponseBuffer;
 use crate::agent::GuestRuntimeRequest;
 
 pub trait GuestAgentVTable: Send + Sync + 'static {
@@ -39,6 +40,11 @@ pub trait GuestAgentVTable: Send + Sync + 'static {
 
     fn dispatch(&mut self, lane_id: i32, buffer: BytesMut) -> Self::Suspended<Vec<u8>>;
 
+    /// Dispatches a batch of commands to the agent, flushing its state once after all of the
+    /// commands have been dispatched. `batch` is a sequence of records containing the ID of the
+    /// lane as an i32, the length of the command as an i32 and then the bytes of the command.
+    fn dispatch_batch(&mut self, batch: BytesMut) -> Self::Suspended<Vec<u8>>;
+
     fn sync(&self, lane_id: i32, remote: Uuid) -> Self::Suspended<Vec<u8>>;
 
     fn init(&mut self, lane_id: i32, msg: BytesMut) -> Self::Suspended<()>;
@@ -200,16 +206,21 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
             ..
         } = self;
 
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
         let env = env.clone();
 
         BlockingJniCall::new(env.clone(), move || {
             trace!("Invoking agent did_start method");
-            let r = env.with_env(|scope| vtable.did_start(&scope, agent_obj.as_obj()));
+            let r = env.with_env(|scope| {
+                let len = vtable.did_start(&scope, agent_obj.as_obj())?;
+                Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
+            });
             debug!(result = ?r,"Agent did start invocation result");
             r
         })
@@ -220,16 +231,21 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
             ..
         } = self;
 
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
         let env = env.clone();
 
         BlockingJniCall::new(env.clone(), move || {
             trace!("Invoking agent did_stop method");
-            env.with_env(|scope| vtable.did_stop(&scope, agent_obj.as_obj()))
+            env.with_env(|scope| {
+                let len = vtable.did_stop(&scope, agent_obj.as_obj())?;
+                Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
+            })
         })
     }
 
@@ -239,15 +255,41 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
         } = self;
 
         let msg_len = msg.len();
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
 
         dispatcher.dispatch_to(env.clone(), msg, move |scope, buf_obj| {
             trace!("Dispatching event to agent");
-            vtable.dispatch(&scope, agent_obj.as_obj(), lane_id, buf_obj, msg_len as i32)
+            let len =
+                vtable.dispatch(&scope, agent_obj.as_obj(), lane_id, buf_obj, msg_len as i32)?;
+            Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
+        })
+    }
+
+    fn dispatch_batch(&mut self, batch: BytesMut) -> Self::Suspended<Vec<u8>> {
+        let JavaAgentRef {
+            dispatcher,
+            env,
+            agent_obj,
+            vtable,
+            responses,
+        } = self;
+
+        let batch_len = batch.len();
+        let vtable = vtable.clone();
+        let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
+
+        dispatcher.dispatch_to(env.clone(), batch, move |scope, buf_obj| {
+            trace!("Dispatching batch of events to agent");
+            let len =
+                vtable.dispatch_batch(&scope, agent_obj.as_obj(), buf_obj, batch_len as i32)?;
+            Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
         })
     }
 
@@ -256,16 +298,21 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
             ..
         } = self;
 
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
         let env = env.clone();
 
         BlockingJniCall::new(env.clone(), move || {
             trace!(lane_id, remote = %remote, "Dispatching sync for lane");
-            env.with_env(|scope| vtable.sync(&scope, agent_obj.as_obj(), lane_id, remote))
+            env.with_env(|scope| {
+                let len = vtable.sync(&scope, agent_obj.as_obj(), lane_id, remote)?;
+                Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
+            })
         })
     }
 
@@ -275,6 +322,7 @@ impl GuestAgentVTable for JavaAgentRef {
             agent_obj,
             vtable,
             dispatcher,
+            ..
         } = self;
 
         let vtable = vtable.clone();
@@ -294,16 +342,21 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
             ..
         } = self;
 
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
         let env = env.clone();
 
         BlockingJniCall::new(env.clone(), move || {
             trace!("Flushing agent state");
-            env.with_env(|scope| vtable.flush_state(&scope, agent_obj.as_obj()))
+            env.with_env(|scope| {
+                let len = vtable.flush_state(&scope, agent_obj.as_obj())?;
+                Ok(responses.read(&scope, &vtable, agent_obj.as_obj(), len))
+            })
         })
     }
 
@@ -312,24 +365,27 @@ impl GuestAgentVTable for JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses,
             ..
         } = self;
 
         let vtable = vtable.clone();
         let agent_obj = agent_obj.clone();
+        let responses = responses.clone();
         let env = env.clone();
 
         BlockingJniCall::new(env.clone(), move || {
             trace!(id = %id, complete, "Running task");
             let (id_msb, id_lsb) = id.as_u64_pair();
             Ok(env.with_env(|scope| {
-                vtable.run_task(
+                let len = vtable.run_task(
                     &scope,
                     agent_obj.as_obj(),
                     id_msb as i64,
                     id_lsb as i64,
                     complete,
-                )
+                );
+                responses.read(&scope, &vtable, agent_obj.as_obj(), len)
             }))
         })
     }
@@ -416,12 +472,74 @@ mod buffer {
     }
 }
 
+mod response {
+    use std::sync::Arc;
+
+    use jni::objects::{GlobalRef, JObject};
+    use jni::sys::jint;
+    use parking_lot::Mutex;
+
+    use jvm_sys::env::Scope;
+
+    use crate::agent::foreign::JavaAgentVTable;
+
+    /// A view of the direct buffer that a Java agent writes its lane responses into.
+    ///
+    /// The buffer is allocated by the agent's state collector and is only replaced when its
+    /// capacity changes, so its address is cached here and is only fetched again when a call into
+    /// the agent returns a negative length; which signals that the buffer has been reallocated.
+    #[derive(Debug, Clone, Default)]
+    pub struct ResponseBuffer {
+        inner: Arc<Mutex<Option<Inner>>>,
+    }
+
+    #[derive(Debug)]
+    struct Inner {
+        // Held to ensure that the buffer is not collected while its address is cached.
+        _buffer_obj: GlobalRef,
+        ptr: *mut u8,
+    }
+
+    // The pointer is only dereferenced while the agent's runtime is suspended on a call into the
+    // agent and the agent is not writing into the buffer.
+    unsafe impl Send for Inner {}
+
+    impl ResponseBuffer {
+        /// Reads the `len` bytes that the agent wrote into its response buffer during its last
+        /// invocation.
+        pub fn read(
+            &self,
+            scope: &Scope,
+            vtable: &JavaAgentVTable,
+            agent_obj: JObject,
+            len: jint,
+        ) -> Vec<u8> {
+            let mut guard = self.inner.lock();
+            let ptr = match guard.as_ref() {
+                Some(inner) if len >= 0 => inner.ptr,
+                _ => {
+                    let buffer_obj = vtable.response_buffer(scope, agent_obj);
+                    let ptr = scope.get_direct_buffer_address(buffer_obj);
+                    let _buffer_obj = scope.new_global_ref(buffer_obj);
+                    scope.delete_local_ref(buffer_obj);
+                    *guard = Some(Inner { _buffer_obj, ptr });
+                    ptr
+                }
+            };
+
+            let len = len.unsigned_abs() as usize;
+            unsafe { std::slice::from_raw_parts(ptr, len) }.to_vec()
+        }
+    }
+}
+
 #[derive(Debug)]
 pub struct JavaAgentRef {
     dispatcher: Dispatcher,
     env: JavaEnv,
     agent_obj: GlobalRef,
     vtable: Arc<JavaAgentVTable>,
+    responses: ResponseBuffer,
 }
 
 impl JavaAgentRef {
@@ -432,6 +550,7 @@ impl JavaAgentRef {
             env,
             agent_obj,
             vtable,
+            responses: ResponseBuffer::default(),
         }
     }
 }
@@ -473,44 +592,58 @@ pub struct JavaAgentVTable {
     did_start: InitialisedJavaObjectMethod,
     did_stop: InitialisedJavaObjectMethod,
     dispatch: InitialisedJavaObjectMethod,
+    dispatch_batch: InitialisedJavaObjectMethod,
     sync: InitialisedJavaObjectMethod,
     init: InitialisedJavaObjectMethod,
     run_task: InitialisedJavaObjectMethod,
     flush_state: InitialisedJavaObjectMethod,
+    response_buffer: InitialisedJavaObjectMethod,
     handler: ExceptionHandler,
 }
 
 impl JavaAgentVTable {
     const DID_START: JavaObjectMethodDef =
-        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "didStart", "()[B");
+        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "didStart", "()I");
     const DID_STOP: JavaObjectMethodDef =
-        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "didStop", "()[B");
+        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "didStop", "()I");
     const DISPATCH: JavaObjectMethodDef = JavaObjectMethodDef::new(
         "ai/swim/server/agent/AgentView",
         "dispatch",
-        "(ILjava/nio/ByteBuffer;I)[B",
+        "(ILjava/nio/ByteBuffer;I)I",
+    );
+    const DISPATCH_BATCH: JavaObjectMethodDef = JavaObjectMethodDef::new(
+        "ai/swim/server/agent/AgentView",
+        "dispatchBatch",
+        "(Ljava/nio/ByteBuffer;I)I",
     );
     const SYNC: JavaObjectMethodDef =
-        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "sync", "(IJJ)[B");
+        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "sync", "(IJJ)I");
     const INIT: JavaObjectMethodDef = JavaObjectMethodDef::new(
         "ai/swim/server/agent/AgentView",
         "init",
         "(ILjava/nio/ByteBuffer;)V",
     );
     const FLUSH_STATE: JavaObjectMethodDef =
-        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "flushState", "()[B");
+        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "flushState", "()I");
     const RUN_TASK: JavaObjectMethodDef =
-        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "runTask", "(JJZ)[B");
+        JavaObjectMethodDef::new("ai/swim/server/agent/AgentView", "runTask", "(JJZ)I");
+    const RESPONSE_BUFFER: JavaObjectMethodDef = JavaObjectMethodDef::new(
+        "ai/swim/server/agent/AgentView",
+        "responseBuffer",
+        "()Ljava/nio/ByteBuffer;",
+    );
 
     pub fn initialise(env: &JavaEnv) -> JavaAgentVTable {
         JavaAgentVTable {
             did_start: env.initialise(Self::DID_START),
             did_stop: env.initialise(Self::DID_STOP),
             dispatch: env.initialise(Self::DISPATCH),
+            dispatch_batch: env.initialise(Self::DISPATCH_BATCH),
             sync: env.initialise(Self::SYNC),
             init: env.initialise(Self::INIT),
             run_task: env.initialise(Self::RUN_TASK),
             flush_state: env.initialise(Self::FLUSH_STATE),
+            response_buffer: env.initialise(Self::RESPONSE_BUFFER),
             handler: ExceptionHandler {
                 user: NotTypeOfExceptionHandler::new(env, "ai/swim/server/agent/AgentException"),
                 deserialization: IsTypeOfExceptionHandler::new(
@@ -521,23 +654,21 @@ impl JavaAgentVTable {
         }
     }
 
-    fn did_start(&self, scope: &Scope, agent_obj: JObject) -> Result<Vec<u8>, AgentTaskError> {
+    fn did_start(&self, scope: &Scope, agent_obj: JObject) -> Result<jint, AgentTaskError> {
         let JavaAgentVTable {
             did_start, handler, ..
         } = self;
         did_start
-            .l()
-            .array::<ByteArray>()
+            .i()
             .invoke(handler, scope, agent_obj, &[])
     }
 
-    fn did_stop(&self, scope: &Scope, agent_obj: JObject) -> Result<Vec<u8>, AgentTaskError> {
+    fn did_stop(&self, scope: &Scope, agent_obj: JObject) -> Result<jint, AgentTaskError> {
         let JavaAgentVTable {
             did_stop, handler, ..
         } = self;
         did_stop
-            .l()
-            .array::<ByteArray>()
+            .i()
             .invoke(handler, scope, agent_obj, &[])
     }
 
@@ -548,11 +679,11 @@ impl JavaAgentVTable {
         lane_id: jint,
         msg: JObject,
         len: i32,
-    ) -> Result<Vec<u8>, AgentTaskError> {
+    ) -> Result<jint, AgentTaskError> {
         let JavaAgentVTable {
             dispatch, handler, ..
         } = self;
-        dispatch.l().array::<ByteArray>().invoke(
+        dispatch.i().invoke(
             handler,
             scope,
             agent_obj,
@@ -560,20 +691,40 @@ impl JavaAgentVTable {
         )
     }
 
+    fn dispatch_batch(
+        &self,
+        scope: &Scope,
+        agent_obj: JObject,
+        batch: JObject,
+        len: i32,
+    ) -> Result<jint, AgentTaskError> {
+        let JavaAgentVTable {
+            dispatch_batch,
+            handler,
+            ..
+        } = self;
+        dispatch_batch.i().invoke(
+            handler,
+            scope,
+            agent_obj,
+            &[batch.into(), len.into()],
+        )
+    }
+
     fn sync(
         &self,
         scope: &Scope,
         agent_obj: JObject,
         lane_id: jint,
         remote: Uuid,
-    ) -> Result<Vec<u8>, AgentTaskError> {
+    ) -> Result<jint, AgentTaskError> {
         let JavaAgentVTable { sync, handler, .. } = self;
 
         let (msb, lsb) = remote.as_u64_pair();
         let msb = msb as i64;
         let lsb = lsb as i64;
 
-        sync.l().array::<ByteArray>().invoke(
+        sync.i().invoke(
             handler,
             scope,
             agent_obj,
@@ -581,15 +732,14 @@ impl JavaAgentVTable {
         )
     }
 
-    fn flush_state(&self, scope: &Scope, agent_obj: JObject) -> Result<Vec<u8>, AgentTaskError> {
+    fn flush_state(&self, scope: &Scope, agent_obj: JObject) -> Result<jint, AgentTaskError> {
         let JavaAgentVTable {
             flush_state,
             handler,
             ..
         } = self;
         flush_state
-            .l()
-            .array::<ByteArray>()
+            .i()
             .invoke(handler, scope, agent_obj, &[])
     }
 
@@ -605,12 +755,19 @@ impl JavaAgentVTable {
         id_msb: i64,
         id_lsb: i64,
         complete: bool,
-    ) -> Vec<u8> {
+    ) -> jint {
         let JavaAgentVTable { run_task, .. } = self;
         scope.invoke(
-            run_task.l().array::<ByteArray>(),
+            run_task.i(),
             agent_obj,
             &[id_msb.into(), id_lsb.into(), complete.into()],
         )
     }
+
+    fn response_buffer<'l>(&self, scope: &'l Scope, agent_obj: JObject<'l>) -> JObject<'l> {
+        let JavaAgentVTable {
+            response_buffer, ..
+        } = self;
+        scope.invoke(response_buffer.l(), agent_obj, &[])
+    }
 }
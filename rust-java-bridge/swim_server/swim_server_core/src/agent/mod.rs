@@ -6,7 +6,7 @@ use std::ops::ControlFlow;
 use std::pin::Pin;
 use std::task::{ready, Context, Poll};
 
-use bytes::BytesMut;
+use bytes::{BufMut, BytesMut};
 use futures::Stream;
 use futures::{pin_mut, StreamExt};
 use futures_util::future::BoxFuture;
@@ -431,6 +431,10 @@ pub struct JavaGuestConfig {
     ///
     /// For Java, this is Integer.MAX_VALUE - 8. See ArrayList#MAX_ARRAY_SIZE.
     max_message_size: u64,
+    /// The maximum number of commands that will be coalesced into a single dispatch to the guest
+    /// runtime. Only commands that are immediately available are coalesced so batching never
+    /// delays the dispatch of a command. A value of 1 disables batching.
+    max_batch_size: usize,
 }
 
 impl JavaGuestConfig {
@@ -439,8 +443,16 @@ impl JavaGuestConfig {
             // This is the maximum array size that Java can handle. It varies by VM so it may be
             // better to reflect ArrayList#MAX_ARRAY_SIZE and provide it at runtime.
             max_message_size: i32::MAX as u64,
+            max_batch_size: 64,
         }
     }
+
+    /// Returns a copy of this configuration that coalesces at most `max_batch_size` commands into
+    /// a single dispatch.
+    pub fn with_max_batch_size(mut self, max_batch_size: usize) -> JavaGuestConfig {
+        self.max_batch_size = max_batch_size.max(1);
+        self
+    }
 }
 
 struct GuestEnvironment<V> {
@@ -477,7 +489,12 @@ impl<A, C> GuestAgentTask<A, C> {
         info!("Running agent");
 
         let mut task_scheduler = TaskScheduler::default();
-        let max_message_size = agent_environment.guest_config.max_message_size;
+        let guest_config = agent_environment.guest_config;
+        let max_message_size = guest_config.max_message_size;
+        let mut batch = CommandBatch::default();
+        // An event that was read while coalescing commands but that could not be added to the
+        // batch. This is processed before any further events are read.
+        let mut pending: Option<RuntimeEvent> = None;
 
         let did_start_call = agent_environment.guest_agent.did_start();
 
@@ -495,23 +512,15 @@ impl<A, C> GuestAgentTask<A, C> {
         }
 
         loop {
-            let event: Option<RuntimeEvent> = if task_scheduler.is_empty() {
+            let event: Option<RuntimeEvent> = if pending.is_some() {
+                pending.take()
+            } else if task_scheduler.is_empty() {
                 select! {
-                    message = agent_environment.lane_readers.next() => message.map(|(id, request)| {
-                        match request {
-                            Ok(request) => RuntimeEvent::Request { id, request },
-                            Err(error) => RuntimeEvent::RequestError { id, error }
-                        }
-                    }),
+                    message = agent_environment.lane_readers.next() => message.map(lane_event),
                 }
             } else {
                 select! {
-                    message = agent_environment.lane_readers.next() => message.map(|(id, request)| {
-                        match request {
-                            Ok(request) => RuntimeEvent::Request { id, request },
-                            Err(error) => RuntimeEvent::RequestError { id, error }
-                        }
-                    }),
+                    message = agent_environment.lane_readers.next() => message.map(lane_event),
                     task = task_scheduler.next() => task.map(|event| RuntimeEvent::ScheduledEvent { event })
                 }
             };
@@ -527,7 +536,24 @@ impl<A, C> GuestAgentTask<A, C> {
                             }
 
                             trace!("Received a command request");
-                            agent_environment.guest_agent.dispatch(id, msg)
+                            let (dispatch, next) = coalesce_commands(
+                                &mut agent_environment.lane_readers,
+                                &guest_config,
+                                &mut batch,
+                                id,
+                                msg,
+                            );
+                            pending = next;
+
+                            match dispatch {
+                                CommandDispatch::Single { id, msg } => {
+                                    agent_environment.guest_agent.dispatch(id, msg)
+                                }
+                                CommandDispatch::Batch { count, batch } => {
+                                    trace!(count, "Dispatching a batch of commands");
+                                    agent_environment.guest_agent.dispatch_batch(batch)
+                                }
+                            }
                         }
                         LaneRequest::Sync(remote_id) => {
                             trace!("Received a sync request");
@@ -595,6 +621,117 @@ impl<A, C> GuestAgentTask<A, C> {
     }
 }
 
+fn lane_event((id, request): (i32, Result<LaneRequest<BytesMut>, FrameIoError>)) -> RuntimeEvent {
+    match request {
+        Ok(request) => RuntimeEvent::Request { id, request },
+        Err(error) => RuntimeEvent::RequestError { id, error },
+    }
+}
+
+/// A reusable buffer of commands that are dispatched to the guest runtime in a single call.
+///
+/// Each command is encoded as a record of: the ID of the lane as an i32, the length of the
+/// command as an i32 and then the bytes of the command.
+#[derive(Default)]
+struct CommandBatch {
+    buf: BytesMut,
+    count: usize,
+}
+
+impl CommandBatch {
+    const RECORD_HEADER_LEN: usize = 2 * size_of::<i32>();
+
+    fn push(&mut self, lane_id: i32, msg: &[u8]) {
+        let CommandBatch { buf, count } = self;
+        buf.reserve(Self::RECORD_HEADER_LEN + msg.len());
+        buf.put_i32(lane_id);
+        buf.put_i32(msg.len() as i32);
+        buf.extend_from_slice(msg);
+        *count += 1;
+    }
+
+    fn take(&mut self) -> (usize, BytesMut) {
+        let CommandBatch { buf, count } = self;
+        (std::mem::take(count), buf.split())
+    }
+}
+
+enum CommandDispatch {
+    /// A single command that should be dispatched directly to its lane.
+    Single { id: i32, msg: BytesMut },
+    /// An encoded batch of `count` commands.
+    Batch { count: usize, batch: BytesMut },
+}
+
+/// Coalesces any commands that are immediately available from `lane_readers` with the command
+/// `msg` that was received by lane `id`. No more than `JavaGuestConfig::max_batch_size` commands
+/// are coalesced and the encoded batch will not exceed `JavaGuestConfig::max_message_size`.
+///
+/// Returns the commands to dispatch and, if one was read, the first event that could not be
+/// added to the batch. This must be processed before any further events are read from
+/// `lane_readers` so that the order in which the events were received is preserved.
+fn coalesce_commands(
+    lane_readers: &mut SelectAll<LaneReader>,
+    guest_config: &JavaGuestConfig,
+    batch: &mut CommandBatch,
+    id: i32,
+    msg: BytesMut,
+) -> (CommandDispatch, Option<RuntimeEvent>) {
+    let JavaGuestConfig {
+        max_message_size,
+        max_batch_size,
+    } = *guest_config;
+
+    let mut batch_len = (CommandBatch::RECORD_HEADER_LEN + msg.len()) as u64;
+    let mut first = Some((id, msg));
+    let mut count = 1;
+    let mut pending = None;
+
+    while count < max_batch_size {
+        match lane_readers.next().now_or_never() {
+            Some(Some((id, Ok(LaneRequest::Command(msg))))) => {
+                if msg.len() as u64 > max_message_size {
+                    continue;
+                }
+
+                let record_len = (CommandBatch::RECORD_HEADER_LEN + msg.len()) as u64;
+                if batch_len + record_len > max_message_size {
+                    pending = Some(RuntimeEvent::Request {
+                        id,
+                        request: LaneRequest::Command(msg),
+                    });
+                    break;
+                }
+
+                if let Some((first_id, first_msg)) = first.take() {
+                    batch.push(first_id, first_msg.as_ref());
+                }
+
+                batch.push(id, msg.as_ref());
+                batch_len += record_len;
+                count += 1;
+            }
+            Some(Some(item)) => {
+                pending = Some(lane_event(item));
+                break;
+            }
+            // Either no commands are immediately available or there are no lanes left to read
+            // from. In the latter case, the next read will observe the same state.
+            Some(None) | None => break,
+        }
+    }
+
+    let dispatch = match first {
+        Some((id, msg)) => CommandDispatch::Single { id, msg },
+        None => {
+            let (count, batch) = batch.take();
+            CommandDispatch::Batch { count, batch }
+        }
+    };
+
+    (dispatch, pending)
+}
+
 enum SuspendedRuntimeEvent {
     Request(Option<GuestRuntimeRequest>),
     SuspendComplete(Result<Vec<u8>, AgentTaskError>),
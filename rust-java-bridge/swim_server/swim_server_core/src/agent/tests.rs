@@ -117,6 +117,10 @@ enum VTableRequest {
         buffer: BytesMut,
         promise: PromiseSender<Vec<u8>>,
     },
+    DispatchBatch {
+        batch: BytesMut,
+        promise: PromiseSender<Vec<u8>>,
+    },
     Sync {
         lane_id: i32,
         remote: Uuid,
@@ -195,6 +199,32 @@ impl VTableChannelReceiver {
         }
     }
 
+    async fn dispatch_batch(
+        &mut self,
+        expected_commands: Vec<(i32, &str)>,
+        result: Result<Vec<u8>, AgentTaskError>,
+    ) {
+        match self.rx.recv().await {
+            Some(VTableRequest::DispatchBatch { batch, promise }) => {
+                let mut expected = BytesMut::new();
+                for (lane_id, command) in expected_commands {
+                    expected.put_i32(lane_id);
+                    expected.put_i32(command.len() as i32);
+                    expected.extend_from_slice(command.as_bytes());
+                }
+
+                assert_eq!(expected.as_ref(), batch.as_ref());
+                promise.send(result).expect("VTable channel dropped")
+            }
+            Some(req) => {
+                panic!("Expected a dispatch batch request. Received: {:?}", req)
+            }
+            None => {
+                panic!("VTable channel dropped")
+            }
+        }
+    }
+
     async fn sync(
         &mut self,
         expected_lane_id: i32,
@@ -349,6 +379,15 @@ impl GuestAgentVTable for TestAgentVTable {
         })
     }
 
+    fn dispatch_batch(&mut self, batch: BytesMut) -> Self::Suspended<Vec<u8>> {
+        let channel = self.channel.clone();
+        Box::pin(async move {
+            channel
+                .send(|promise| VTableRequest::DispatchBatch { batch, promise })
+                .await
+        })
+    }
+
     fn sync(&self, lane_id: i32, remote: Uuid) -> Self::Suspended<Vec<u8>> {
         let channel = self.channel.clone();
         Box::pin(async move {
@@ -913,6 +952,53 @@ async fn dispatches() {
     assert!(result.is_ok());
 }
 
+#[tokio::test]
+async fn dispatches_batch() {
+    let (vtable_tx, mut vtable_rx) = vtable_channel();
+    let spec = AgentSpec::new(
+        "agent".to_string(),
+        HashMap::from([(
+            "lane".to_string(),
+            LaneSpec::new(true, 0, LaneKindRepr::Value),
+        )]),
+    );
+
+    let result = run_agent(spec, vtable_tx, |runtime_tx, mut channels| async move {
+        // Both commands are available by the time that the agent has started and so they are
+        // coalesced into a single dispatch.
+        for command in ["1", "2"] {
+            channels
+                .send(
+                    "lane".to_string(),
+                    LaneRequest::<BytesMut>::Command(BytesMut::from(command)),
+                )
+                .await;
+        }
+
+        vtable_rx.did_start(Ok(Vec::new())).await;
+        vtable_rx
+            .dispatch_batch(vec![(0, "1"), (0, "2")], {
+                Ok(encode_to_vec(
+                    vec![IdentifiedLaneResponse::new(
+                        0,
+                        LaneResponse::StandardEvent(Vec::from("2")),
+                    )],
+                    DispatchEncoder::new(DispatchStatus::Complete, IdentifiedLaneResponseEncoder),
+                ))
+            })
+            .await;
+
+        expect_event(&mut channels, "lane", BytesMut::from("2")).await;
+
+        channels.drop_all().await;
+        vtable_rx.did_stop(Ok(Vec::new())).await;
+        drop(runtime_tx);
+    })
+    .await;
+
+    assert!(result.is_ok());
+}
+
 #[tokio::test]
 async fn flushes() {
     let (vtable_tx, mut vtable_rx) = vtable_channel();
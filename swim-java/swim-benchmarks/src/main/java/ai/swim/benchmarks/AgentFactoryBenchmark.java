@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.benchmarks;
+
+import ai.swim.benchmarks.agent.BenchmarkAgent;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.AgentFactory;
+import ai.swim.server.agent.AgentView;
+import ai.swim.server.agent.ReflectiveAgentInitializer;
+import ai.swim.server.schema.AgentSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AgentFactory#newInstance(long)}, as invoked by the Rust runtime when it starts an agent, using the
+ * initializer that has been derived for the {@link BenchmarkAgent} and by reflecting the agent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AgentFactoryBenchmark {
+  private AgentFactory<BenchmarkAgent> derived;
+  private AgentFactory<BenchmarkAgent> reflective;
+
+  @Setup
+  public void setup() throws SwimServerException, NoSuchMethodException {
+    AgentSchema<BenchmarkAgent> schema = AgentSchema.reflectSchema(BenchmarkAgent.class);
+    derived = AgentFactory.forSchema(schema);
+    reflective = AgentFactory.forSchema(schema, ReflectiveAgentInitializer.forClass(BenchmarkAgent.class));
+  }
+
+  @Benchmark
+  public AgentView derived() {
+    return derived.newInstance(0);
+  }
+
+  @Benchmark
+  public AgentView reflective() {
+    return reflective.newInstance(0);
+  }
+
+}
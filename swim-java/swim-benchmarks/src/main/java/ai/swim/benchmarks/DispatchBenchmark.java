@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks;
+
+import ai.swim.benchmarks.agent.AgentFixture;
+import ai.swim.benchmarks.agent.BenchmarkAgent;
+import ai.swim.codec.decoder.DecoderException;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.AgentView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AgentView#dispatch(int, ByteBuffer, int)} for the lanes that accept envelopes: decoding the
+ * envelope, invoking the lane's lifecycle callbacks and flushing the lane's state.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+  /**
+   * The number of map operations that are contained in a single map lane envelope.
+   */
+  @Param({"1", "16"})
+  private int operations;
+
+  private AgentFixture fixture;
+  private AgentView view;
+  private int valueLaneId;
+  private int mapLaneId;
+  private int commandLaneId;
+  private ByteBuffer valueEnvelope;
+  private int valueLen;
+  private ByteBuffer mapEnvelope;
+  private int mapLen;
+
+  @Setup
+  public void setup() throws SwimServerException, NoSuchMethodException {
+    fixture = AgentFixture.create();
+    view = fixture.getView();
+    valueLaneId = fixture.laneId(BenchmarkAgent.VALUE_LANE);
+    mapLaneId = fixture.laneId(BenchmarkAgent.MAP_LANE);
+    commandLaneId = fixture.laneId(BenchmarkAgent.COMMAND_LANE);
+
+    byte[] value = AgentFixture.encodeValue(13);
+    valueEnvelope = AgentFixture.envelope(value);
+    valueLen = value.length;
+
+    byte[] map = AgentFixture.encodeMapUpdates(operations);
+    mapEnvelope = AgentFixture.envelope(map);
+    mapLen = map.length;
+  }
+
+  @Benchmark
+  public int valueLane() throws DecoderException {
+    return fixture.drain(view.dispatch(valueLaneId, valueEnvelope, valueLen));
+  }
+
+  @Benchmark
+  public int mapLane() throws DecoderException {
+    return fixture.drain(view.dispatch(mapLaneId, mapEnvelope, mapLen));
+  }
+
+  @Benchmark
+  public int commandLane() throws DecoderException {
+    return fixture.drain(view.dispatch(commandLaneId, valueEnvelope, valueLen));
+  }
+
+}
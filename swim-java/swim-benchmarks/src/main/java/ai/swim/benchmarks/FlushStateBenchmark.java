@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks;
+
+import ai.swim.benchmarks.agent.AgentFixture;
+import ai.swim.benchmarks.agent.BenchmarkAgent;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.server.lanes.value.ValueLane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link StateCollector#flushState()} after {@code events} lane events have been generated between flushes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FlushStateBenchmark {
+  /**
+   * The number of events that are generated before the state is flushed.
+   */
+  @Param({"1", "64"})
+  private int events;
+
+  private AgentFixture fixture;
+  private StateCollector collector;
+  private ValueLane<Integer> valueLane;
+  private MapLane<Integer, Integer> mapLane;
+
+  @Setup
+  public void setup() throws SwimServerException, NoSuchMethodException {
+    fixture = AgentFixture.create();
+    collector = fixture.getView().getNode().getCollector();
+
+    BenchmarkAgent agent = fixture.getAgent();
+    valueLane = agent.getValueLane();
+    mapLane = agent.getMapLane();
+  }
+
+  @Benchmark
+  public int valueLane() {
+    CallContext.enter();
+    try {
+      for (int i = 0; i < events; i++) {
+        valueLane.set(i);
+      }
+      return fixture.drain(collector.flushState());
+    } finally {
+      CallContext.exit();
+    }
+  }
+
+  @Benchmark
+  public int mapLane() {
+    CallContext.enter();
+    try {
+      for (int i = 0; i < events; i++) {
+        mapLane.put(i, i);
+      }
+      return fixture.drain(collector.flushState());
+    } finally {
+      CallContext.exit();
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.benchmarks;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.input.Utf8Input;
+import ai.swim.structure.FormParser;
+import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.recognizer.DirectRecognizer;
+import ai.swim.structure.recognizer.Recognizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a flat record of scalar fields with the derived {@link DirectRecognizer}, which is driven by
+ * parser callbacks, against the derived labelled recognizer, which is fed a {@link ai.swim.recon.event.ReadEvent} for
+ * each token.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RecognizerBenchmark {
+  private static final String RECORD = "@Reading{id:1234567,sequence:9876543210,temperature:21.5,pressure:1013.25," +
+      "humidity:40,active:true,sensor:\"sensor-0042\",zone:north,battery:87.5,error:false}";
+
+  @Param({"labelled", "direct"})
+  private String recognizer;
+
+  private FormParser<Reading> formParser;
+  private DirectRecognizer<Reading> direct;
+  private byte[] bytes;
+  private Utf8Input input;
+
+  @Setup
+  public void setup() {
+    direct = new ReadingDirectRecognizer();
+    formParser = new FormParser<>(direct);
+    bytes = RECORD.getBytes(StandardCharsets.UTF_8);
+    input = new Utf8Input(null);
+  }
+
+  private Recognizer<Reading> nextRecognizer() {
+    if (recognizer.equals("direct")) {
+      return direct.clear();
+    } else {
+      return new ReadingRecognizer();
+    }
+  }
+
+  @Benchmark
+  public Reading decode() {
+    Parser<Reading> result = formParser.reset(nextRecognizer()).feed(input.reset(ReadBuffer.fromArray(bytes)));
+    if (result.isDone()) {
+      return result.bind();
+    } else {
+      throw new IllegalStateException(result.toString());
+    }
+  }
+
+  @AutoForm
+  public static class Reading {
+    public int id;
+    public long sequence;
+    public double temperature;
+    public double pressure;
+    public int humidity;
+    public boolean active;
+    public String sensor;
+    public String zone;
+    public float battery;
+    public boolean error;
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.input.Utf8Input;
+import ai.swim.recon.ReconEventParser;
+import ai.swim.recon.ReconParserFactory;
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.recon.result.ParseResult;
+import ai.swim.structure.FormParser;
+import ai.swim.structure.recognizer.value.ValueRecognizer;
+import ai.swim.structure.value.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the combinator-based {@link ai.swim.recon.ReconParser} with the {@link ai.swim.recon.ReconPullParser} when
+ * parsing UTF-8 encoded Recon: producing the raw {@link ReadEvent}s and recognizing a {@link Value} through a
+ * {@link FormParser}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReconParserBenchmark {
+  private static final String SCALAR = "\"a moderately long text value\"";
+  private static final String RECORD = "{ first: 1, second: two, third: 3.5, fourth: \"four\", fifth: true }";
+  private static final String MAP_UPDATE = "@update(key:\"a key\"){ id: 123456789, name: \"entry\", tags: {a, b, c} }";
+
+  @Param({"combinator", "pull"})
+  private String parser;
+
+  @Param({"scalar", "record", "mapUpdate"})
+  private String document;
+
+  private ReconParserFactory factory;
+  private ReconEventParser eventParser;
+  private FormParser<Value> formParser;
+  private byte[] bytes;
+  private Utf8Input input;
+
+  @Setup
+  public void setup() {
+    factory = parser.equals("pull") ? ReconParserFactory.pull() : ReconParserFactory.combinator();
+    eventParser = factory.create();
+    formParser = new FormParser<>(new ValueRecognizer(), factory);
+
+    String recon;
+    switch (document) {
+      case "scalar":
+        recon = SCALAR;
+        break;
+      case "record":
+        recon = RECORD;
+        break;
+      default:
+        recon = MAP_UPDATE;
+        break;
+    }
+
+    bytes = recon.getBytes(StandardCharsets.UTF_8);
+    input = new Utf8Input(null);
+  }
+
+  private Utf8Input rewind() {
+    return input.reset(ReadBuffer.fromArray(bytes));
+  }
+
+  @Benchmark
+  public void events(Blackhole blackhole) {
+    ReconEventParser parser = eventParser.reset(rewind());
+    while (true) {
+      ParseResult<ReadEvent> result = parser.next();
+      if (result.isOk()) {
+        blackhole.consume(result.bind());
+      } else if (result.isDone()) {
+        return;
+      } else {
+        throw new IllegalStateException(result.toString());
+      }
+    }
+  }
+
+  @Benchmark
+  public Value form() {
+    Parser<Value> result = formParser.reset(new ValueRecognizer()).feed(rewind());
+    if (result.isDone()) {
+      return result.bind();
+    } else {
+      throw new IllegalStateException(result.toString());
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks;
+
+import ai.swim.benchmarks.agent.AgentFixture;
+import ai.swim.benchmarks.agent.BenchmarkAgent;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.AgentView;
+import ai.swim.server.agent.task.Task;
+import ai.swim.server.lanes.demand.DemandLane;
+import ai.swim.server.lanes.demandmap.DemandMapLane;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.supply.SupplyLane;
+import ai.swim.server.lanes.value.ValueLane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AgentView#runTask(long, long, boolean)} using tasks that write to each of the lanes that may be
+ * written to from within an agent, including flushing the resulting lane events.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RunTaskBenchmark {
+  private AgentFixture fixture;
+  private AgentView view;
+  private UUID valueTask;
+  private UUID mapTask;
+  private UUID supplyTask;
+  private UUID demandTask;
+  private UUID demandMapTask;
+  private int counter;
+
+  @Setup
+  public void setup() throws SwimServerException, NoSuchMethodException {
+    fixture = AgentFixture.create();
+    view = fixture.getView();
+
+    BenchmarkAgent agent = fixture.getAgent();
+    ValueLane<Integer> valueLane = agent.getValueLane();
+    MapLane<Integer, Integer> mapLane = agent.getMapLane();
+    SupplyLane<Integer> supplyLane = agent.getSupplyLane();
+    DemandLane<Integer> demandLane = agent.getDemandLane();
+    DemandMapLane<Integer, Integer> demandMapLane = agent.getDemandMapLane();
+    agent.getDemandMapEntries().put(13, 13);
+
+    valueTask = register(() -> valueLane.set(counter++));
+    mapTask = register(() -> mapLane.put(counter++ & 0xff, counter));
+    supplyTask = register(() -> supplyLane.push(counter++));
+    demandTask = register(demandLane::cue);
+    demandMapTask = register(() -> demandMapLane.cueKey(13));
+  }
+
+  private UUID register(Runnable runnable) {
+    Task task = fixture.registerTask(runnable);
+    return task.getId();
+  }
+
+  private int run(UUID id) {
+    return fixture.drain(view.runTask(id.getMostSignificantBits(), id.getLeastSignificantBits(), false));
+  }
+
+  @Benchmark
+  public int valueLane() {
+    return run(valueTask);
+  }
+
+  @Benchmark
+  public int mapLane() {
+    return run(mapTask);
+  }
+
+  @Benchmark
+  public int supplyLane() {
+    return run(supplyTask);
+  }
+
+  @Benchmark
+  public int demandLane() {
+    return run(demandTask);
+  }
+
+  @Benchmark
+  public int demandMapLane() {
+    return run(demandMapTask);
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks;
+
+import ai.swim.benchmarks.agent.AgentFixture;
+import ai.swim.benchmarks.agent.BenchmarkAgent;
+import ai.swim.codec.decoder.DecoderException;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.AgentView;
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.map.MapLane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AgentView#sync(int, long, long)} for every lane kind, including flushing the sync response until
+ * the lane has no more data available.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SyncBenchmark {
+  private static final long REMOTE_MSB = 0x0123456789abcdefL;
+  private static final long REMOTE_LSB = 0xfedcba9876543210L;
+
+  /**
+   * The number of entries in the map and demand map lanes.
+   */
+  @Param({"1", "64", "1024"})
+  private int entries;
+
+  private AgentFixture fixture;
+  private AgentView view;
+  private int valueLaneId;
+  private int mapLaneId;
+  private int supplyLaneId;
+  private int demandLaneId;
+  private int demandMapLaneId;
+
+  @Setup
+  public void setup() throws SwimServerException, NoSuchMethodException {
+    fixture = AgentFixture.create();
+    view = fixture.getView();
+    valueLaneId = fixture.laneId(BenchmarkAgent.VALUE_LANE);
+    mapLaneId = fixture.laneId(BenchmarkAgent.MAP_LANE);
+    supplyLaneId = fixture.laneId(BenchmarkAgent.SUPPLY_LANE);
+    demandLaneId = fixture.laneId(BenchmarkAgent.DEMAND_LANE);
+    demandMapLaneId = fixture.laneId(BenchmarkAgent.DEMAND_MAP_LANE);
+
+    BenchmarkAgent agent = fixture.getAgent();
+    MapLane<Integer, Integer> mapLane = agent.getMapLane();
+    Map<Integer, Integer> demandMapEntries = agent.getDemandMapEntries();
+
+    CallContext.enter();
+    try {
+      agent.getValueLane().set(13);
+      for (int i = 0; i < entries; i++) {
+        mapLane.put(i, i);
+        demandMapEntries.put(i, i);
+      }
+    } finally {
+      CallContext.exit();
+    }
+
+    fixture.drain(view.flushState());
+  }
+
+  @Benchmark
+  public int valueLane() throws DecoderException {
+    return fixture.drain(view.sync(valueLaneId, REMOTE_MSB, REMOTE_LSB));
+  }
+
+  @Benchmark
+  public int mapLane() throws DecoderException {
+    return fixture.drain(view.sync(mapLaneId, REMOTE_MSB, REMOTE_LSB));
+  }
+
+  @Benchmark
+  public int supplyLane() throws DecoderException {
+    return fixture.drain(view.sync(supplyLaneId, REMOTE_MSB, REMOTE_LSB));
+  }
+
+  @Benchmark
+  public int demandLane() throws DecoderException {
+    return fixture.drain(view.sync(demandLaneId, REMOTE_MSB, REMOTE_LSB));
+  }
+
+  @Benchmark
+  public int demandMapLane() throws DecoderException {
+    return fixture.drain(view.sync(demandMapLaneId, REMOTE_MSB, REMOTE_LSB));
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.benchmarks;
+
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.WriteResult;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.server.lanes.value.ConflationPolicy;
+import ai.swim.server.lanes.value.ValueLaneView;
+import ai.swim.structure.Form;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a hot value lane, which has {@code events} values set between flushes, under each
+ * {@link ConflationPolicy}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueLaneConflationBenchmark {
+  /**
+   * The number of values that are set before the state is flushed.
+   */
+  @Param({"64", "1024"})
+  private int events;
+
+  @Param({"none", "latest"})
+  private String policy;
+
+  private StateCollector collector;
+  private ValueLaneView<Integer> valueLane;
+
+  @Setup
+  public void setup() {
+    collector = new StateCollector();
+    valueLane = new ValueLaneView<>(Form.forClass(Integer.class))
+        .conflationPolicy("latest".equals(policy) ? ConflationPolicy.latest() : ConflationPolicy.none());
+    valueLane.initLaneModel(collector, 0);
+  }
+
+  @Benchmark
+  public int setAndFlush() {
+    CallContext.enter();
+    try {
+      for (int i = 0; i < events; i++) {
+        valueLane.set(i);
+      }
+
+      int len = 0;
+
+      do {
+        len += Math.abs(collector.flushState());
+      } while (collector.responseBuffer().get(0) == WriteResult.DataStillAvailable.statusCode());
+
+      return len;
+    } finally {
+      CallContext.exit();
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks.agent;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.server.SwimServerException;
+import ai.swim.server.agent.AgentFactory;
+import ai.swim.server.agent.AgentView;
+import ai.swim.server.agent.task.Schedule;
+import ai.swim.server.agent.task.Task;
+import ai.swim.server.lanes.WriteResult;
+import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.codec.MapOperationEncoder;
+import ai.swim.server.schema.AgentSchema;
+import ai.swim.structure.writer.std.ScalarWriters;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link BenchmarkAgent} that has been initialised in the same manner as the Rust runtime would, minus the native
+ * agent context. Operations that require calling into the Rust runtime are not available.
+ */
+public final class AgentFixture {
+  /**
+   * The size of the direct buffer that the Rust runtime reuses for dispatching envelopes that fit into it.
+   */
+  private static final int DISPATCH_BUFFER_SIZE = 128;
+
+  private final AgentFactory<BenchmarkAgent> factory;
+  private final AgentView view;
+
+  private AgentFixture(AgentFactory<BenchmarkAgent> factory, AgentView view) {
+    this.factory = factory;
+    this.view = view;
+  }
+
+  /**
+   * Reflects and initialises a new {@link BenchmarkAgent}.
+   */
+  public static AgentFixture create() throws SwimServerException, NoSuchMethodException {
+    AgentSchema<BenchmarkAgent> schema = AgentSchema.reflectSchema(BenchmarkAgent.class);
+    AgentFactory<BenchmarkAgent> factory = AgentFactory.forSchema(schema);
+    return new AgentFixture(factory, factory.newInstance(0));
+  }
+
+  /**
+   * Returns a direct buffer containing {@code bytes} that is ready to be passed to
+   * {@link AgentView#dispatch(int, ByteBuffer, int)}, with the same capacity that the Rust runtime uses.
+   */
+  public static ByteBuffer envelope(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(DISPATCH_BUFFER_SIZE, bytes.length));
+    buffer.put(bytes);
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Encodes {@code value} as a Recon value envelope.
+   */
+  public static byte[] encodeValue(int value) {
+    return Integer.toString(value).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encodes {@code count} map update operations, for the keys {@code 0..count}, into a single envelope.
+   */
+  public static byte[] encodeMapUpdates(int count) {
+    MapOperationEncoder<Integer, Integer> encoder = new MapOperationEncoder<>(
+        ScalarWriters.INTEGER,
+        ScalarWriters.INTEGER);
+    ByteWriter writer = new ByteWriter();
+
+    for (int i = 0; i < count; i++) {
+      encoder.encode(MapOperation.update(i, i), writer);
+    }
+
+    return writer.getArray();
+  }
+
+  /**
+   * Flushes the agent's state until no more data is available, in the same manner as the Rust runtime would after
+   * being returned {@code len}, and returns the total number of bytes that were produced.
+   */
+  public int drain(int len) {
+    int total = Math.abs(len);
+
+    while (view.responseBuffer().get(0) == WriteResult.DataStillAvailable.statusCode()) {
+      total += Math.abs(view.flushState());
+    }
+
+    return total;
+  }
+
+  /**
+   * Registers a task that may be run an unbounded number of times using {@link AgentView#runTask(long, long, boolean)}.
+   */
+  public Task registerTask(Runnable runnable) {
+    return view.getNode()
+        .getTaskRegistry()
+        .registerTask(getAgent().getContext(), new Schedule(Integer.MAX_VALUE), runnable);
+  }
+
+  public int laneId(String laneUri) {
+    return factory.idFor(laneUri);
+  }
+
+  public AgentView getView() {
+    return view;
+  }
+
+  public BenchmarkAgent getAgent() {
+    return (BenchmarkAgent) view.getAgent();
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.benchmarks.agent;
+
+import ai.swim.server.agent.AbstractAgent;
+import ai.swim.server.agent.AgentContext;
+import ai.swim.server.annotations.SwimAgent;
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.command.CommandLane;
+import ai.swim.server.lanes.demand.DemandLane;
+import ai.swim.server.lanes.demandmap.DemandMapLane;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.supply.SupplyLane;
+import ai.swim.server.lanes.value.ValueLane;
+import java.util.Map;
+import java.util.TreeMap;
+import static ai.swim.server.lanes.Lanes.commandLane;
+import static ai.swim.server.lanes.Lanes.demandLane;
+import static ai.swim.server.lanes.Lanes.demandMapLane;
+import static ai.swim.server.lanes.Lanes.mapLane;
+import static ai.swim.server.lanes.Lanes.supplyLane;
+import static ai.swim.server.lanes.Lanes.valueLane;
+
+/**
+ * An agent containing one lane of every kind, with lifecycle callbacks that do the minimum amount of work possible so
+ * that the benchmarks measure the runtime rather than the agent.
+ */
+@SwimAgent("benchmarkAgent")
+public class BenchmarkAgent extends AbstractAgent {
+  public static final String VALUE_LANE = "valueLane";
+  public static final String MAP_LANE = "mapLane";
+  public static final String COMMAND_LANE = "commandLane";
+  public static final String SUPPLY_LANE = "supplyLane";
+  public static final String DEMAND_LANE = "demandLane";
+  public static final String DEMAND_MAP_LANE = "demandMapLane";
+
+  /**
+   * The entries that are served by the demand map lane.
+   */
+  private final Map<Integer, Integer> demandMapEntries = new TreeMap<>();
+
+  @SwimLane(VALUE_LANE)
+  private final ValueLane<Integer> valueLane = valueLane(Integer.class);
+
+  @SwimLane(MAP_LANE)
+  private final MapLane<Integer, Integer> mapLane = mapLane(Integer.class, Integer.class);
+
+  @SwimLane(COMMAND_LANE)
+  private final CommandLane<Integer> commandLane = commandLane(Integer.class);
+
+  @SwimLane(SUPPLY_LANE)
+  private final SupplyLane<Integer> supplyLane = supplyLane(Integer.class);
+
+  @SwimLane(DEMAND_LANE)
+  private final DemandLane<Integer> demandLane = demandLane(Integer.class).onCue(() -> 13);
+
+  @SwimLane(DEMAND_MAP_LANE)
+  private final DemandMapLane<Integer, Integer> demandMapLane = demandMapLane(Integer.class, Integer.class)
+      .onCueKey(demandMapEntries::get)
+      .onSyncKeys(() -> demandMapEntries.keySet().iterator());
+
+  protected BenchmarkAgent(AgentContext context) {
+    super(context);
+  }
+
+  public ValueLane<Integer> getValueLane() {
+    return valueLane;
+  }
+
+  public MapLane<Integer, Integer> getMapLane() {
+    return mapLane;
+  }
+
+  public SupplyLane<Integer> getSupplyLane() {
+    return supplyLane;
+  }
+
+  public DemandLane<Integer> getDemandLane() {
+    return demandLane;
+  }
+
+  public DemandMapLane<Integer, Integer> getDemandMapLane() {
+    return demandMapLane;
+  }
+
+  public Map<Integer, Integer> getDemandMapEntries() {
+    return demandMapEntries;
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package ai.swim.client;
 
+import ai.swim.client.downlink.DownlinkRegistry;
 import ai.swim.client.downlink.map.MapDownlinkBuilder;
 import ai.swim.client.downlink.value.ValueDownlinkBuilder;
 import ai.swim.lang.ffi.AtomicDestructor;
@@ -46,10 +47,15 @@ public class SwimClient implements NativeResource, AutoCloseable {
    */
   private final long runtime;
   private final AtomicDestructor destructor;
+  /**
+   * The downlinks that have been opened with {@code openShared} on a builder from this client.
+   */
+  private final DownlinkRegistry registry;
 
   private SwimClient(long ptr) {
     this.runtime = ptr;
     this.destructor = new AtomicDestructor(this, () -> shutdownClient(ptr));
+    this.registry = new DownlinkRegistry();
   }
 
   /**
@@ -89,7 +95,7 @@ public class SwimClient implements NativeResource, AutoCloseable {
    * @return A value downlink builder.
    */
   public <T> ValueDownlinkBuilder<T> valueDownlink(String host, String node, String lane, Class<T> formType) {
-    return new ValueDownlinkBuilder<>(Handle.create(runtime), formType, host, node, lane);
+    return new ValueDownlinkBuilder<>(Handle.create(runtime), registry, formType, host, node, lane);
   }
 
   /**
@@ -109,6 +115,6 @@ public class SwimClient implements NativeResource, AutoCloseable {
       String lane,
       Class<K> keyForm,
       Class<V> valueForm) {
-    return new MapDownlinkBuilder<>(Handle.create(runtime), keyForm, valueForm, host, node, lane);
+    return new MapDownlinkBuilder<>(Handle.create(runtime), registry, keyForm, valueForm, host, node, lane);
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import ai.swim.client.lifecycle.OnLinked;
+import ai.swim.client.lifecycle.OnUnlinked;
+
+/**
+ * Invokes a downlink's lifecycle callbacks in accordance with its {@link CallbackExecution} policy. Callbacks are
+ * dispatched by the runtime thread that owns the downlink and are invoked in the order in which they were dispatched.
+ */
+public abstract class CallbackDispatcher {
+  static final CallbackDispatcher INLINE = new CallbackDispatcher() {
+    @Override
+    public void dispatch(Object key, Runnable callback) {
+      try {
+        callback.run();
+      } catch (Throwable e) {
+        throw new DownlinkException(e);
+      }
+    }
+
+    @Override
+    public boolean isInline() {
+      return true;
+    }
+  };
+
+  CallbackDispatcher() {
+  }
+
+  /**
+   * Dispatches a callback.
+   *
+   * @param key      the key of the event that the callback is for, which determines the pending callback that it may
+   *                 be merged with, or null if the callback must not be merged with or discarded for another callback;
+   *                 e.g, a change to the link's state.
+   * @param callback to invoke.
+   * @throws DownlinkException if a callback has thrown or the calling thread was interrupted while the downlink's
+   *                           queue was full.
+   */
+  public abstract void dispatch(Object key, Runnable callback);
+
+  /**
+   * Returns whether this dispatcher invokes callbacks on the calling thread.
+   */
+  public abstract boolean isInline();
+
+  /**
+   * Wraps an on linked callback so that it is dispatched by this dispatcher, or returns null if it is null.
+   */
+  public OnLinked wrapOnLinked(OnLinked onLinked) {
+    if (onLinked == null || isInline()) {
+      return onLinked;
+    } else {
+      return () -> dispatch(null, onLinked::onLinked);
+    }
+  }
+
+  /**
+   * Wraps an on unlinked callback so that it is dispatched by this dispatcher, or returns null if it is null.
+   */
+  public OnUnlinked wrapOnUnlinked(OnUnlinked onUnlinked) {
+    if (onUnlinked == null || isInline()) {
+      return onUnlinked;
+    } else {
+      return () -> dispatch(null, onUnlinked::onUnlinked);
+    }
+  }
+}
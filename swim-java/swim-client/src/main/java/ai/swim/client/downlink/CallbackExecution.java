@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * A policy that determines the threads on which a downlink's lifecycle callbacks are invoked.
+ * <p>
+ * By default, callbacks are invoked inline on the runtime thread that received the event and so a slow callback
+ * delays every other downlink that is scheduled on the same thread. A downlink that is opened with an executor
+ * applies each event to its state on the runtime thread and then hands its callback off to a bounded queue that is
+ * drained by the executor, one callback at a time, in the order in which the events were received. Callbacks are
+ * invoked with an immutable snapshot of the downlink's state at the time of the event.
+ * <p>
+ * If a callback throws when it is invoked by the executor then the remaining callbacks are discarded and the
+ * downlink terminates with the exception when its next callback is dispatched.
+ */
+public final class CallbackExecution {
+  /**
+   * The capacity of a downlink's hand-off queue if one is not provided.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+  private static final CallbackExecution INLINE = new CallbackExecution(null, 0, OverflowPolicy.BLOCK);
+
+  private final Executor executor;
+  private final int queueCapacity;
+  private final OverflowPolicy overflowPolicy;
+
+  private CallbackExecution(Executor executor, int queueCapacity, OverflowPolicy overflowPolicy) {
+    this.executor = executor;
+    this.queueCapacity = queueCapacity;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Returns a policy that invokes callbacks on the runtime thread that received the event. This is the default
+   * policy of a downlink.
+   *
+   * @return a policy that invokes callbacks inline.
+   */
+  public static CallbackExecution inline() {
+    return INLINE;
+  }
+
+  /**
+   * Returns a policy that invokes callbacks on {@code executor} with a queue of {@link #DEFAULT_QUEUE_CAPACITY}
+   * callbacks that blocks the runtime thread when it is full.
+   *
+   * @param executor to invoke the callbacks on.
+   * @return a policy that invokes callbacks on {@code executor}.
+   * @throws NullPointerException if the executor is null.
+   */
+  public static CallbackExecution executor(Executor executor) {
+    return executor(executor, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
+  }
+
+  /**
+   * Returns a policy that invokes callbacks on {@code executor}. Each downlink has its own queue of, at most,
+   * {@code queueCapacity} pending callbacks and {@code overflowPolicy} is applied when it is full. The downlink's
+   * state is always updated, regardless of the policy; only callbacks are discarded or merged.
+   * <p>
+   * On Java 21 or later, {@code Executors.newVirtualThreadPerTaskExecutor()} runs the callbacks of each downlink on
+   * a virtual thread without reserving a platform thread per downlink.
+   *
+   * @param executor       to invoke the callbacks on.
+   * @param queueCapacity  the maximum number of pending callbacks per downlink.
+   * @param overflowPolicy the action to take when a downlink's queue is full.
+   * @return a policy that invokes callbacks on {@code executor}.
+   * @throws NullPointerException     if the executor or overflow policy is null.
+   * @throws IllegalArgumentException if {@code queueCapacity} is less than one.
+   */
+  public static CallbackExecution executor(Executor executor, int queueCapacity, OverflowPolicy overflowPolicy) {
+    Objects.requireNonNull(executor);
+    Objects.requireNonNull(overflowPolicy);
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be at least one: " + queueCapacity);
+    }
+    return new CallbackExecution(executor, queueCapacity, overflowPolicy);
+  }
+
+  /**
+   * Returns whether callbacks are invoked on the runtime thread.
+   */
+  public boolean isInline() {
+    return executor == null;
+  }
+
+  /**
+   * Returns the maximum number of pending callbacks per downlink, or zero if callbacks are invoked inline.
+   */
+  public int queueCapacity() {
+    return queueCapacity;
+  }
+
+  public OverflowPolicy overflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Returns a new dispatcher for a single downlink.
+   */
+  public CallbackDispatcher newDispatcher() {
+    if (executor == null) {
+      return CallbackDispatcher.INLINE;
+    } else {
+      return new SerialCallbackDispatcher(executor, queueCapacity, overflowPolicy);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CallbackExecution{" +
+        "executor=" + executor +
+        ", queueCapacity=" + queueCapacity +
+        ", overflowPolicy=" + overflowPolicy +
+        '}';
+  }
+}
@@ -26,7 +26,6 @@ import ai.swim.concurrent.Trigger;
 public abstract class Downlink<S> {
   private final Trigger trigger;
   // Referenced through FFI. Do not remove.
-  @SuppressWarnings({"FieldCanBeLocal", "unused"})
   private final S state;
   /// Referenced through FFI and *possibly* set to an error that occurred while the downlink was running. Iff this is
   /// non-null *after* calling 'awaitStopped' then the downlink terminated with an error, and it *must* be thrown from
@@ -42,6 +41,10 @@ public abstract class Downlink<S> {
     this.state = state;
   }
 
+  protected S getState() {
+    return state;
+  }
+
   /**
    * Blocks the current thread until the downlink has been terminated.
    *
@@ -54,8 +57,21 @@ public abstract class Downlink<S> {
       throw new DownlinkException(e);
     }
 
+    DownlinkException error = error();
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Returns the error that the downlink terminated with, or null if it terminated successfully or has not yet
+   * terminated.
+   */
+  DownlinkException error() {
     if (cause != null || message != null) {
-      throw new DownlinkException(message, cause);
+      return new DownlinkException(message, cause);
+    } else {
+      return null;
     }
   }
 
@@ -32,6 +32,7 @@ public class DownlinkConfig {
   private int channelSize = 1024;
   private boolean keepLinked = true;
   private boolean keepSynced = true;
+  private int maxBatchSize = 64;
 
   private static byte booleanToByte(boolean b) {
     return (byte) (b ? 1 : 0);
@@ -147,6 +148,29 @@ public class DownlinkConfig {
     return this;
   }
 
+  /**
+   * Returns the maximum number of events that are delivered to the downlink in a single call from the runtime.
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of events that are delivered to the downlink in a single call from the runtime. Only
+   * events that the runtime has already received are batched, so an event is never delayed waiting for a batch to
+   * fill, and the downlink's callbacks are still invoked once per event in the order that the events were received. A
+   * value of 1 delivers every event in its own call.
+   *
+   * @param maxBatchSize the maximum number of events in a batch.
+   * @throws IllegalArgumentException if the batch size is less than 1.
+   */
+  public DownlinkConfig setMaxBatchSize(int maxBatchSize) {
+    nonZero(maxBatchSize);
+
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
   /**
    * Returns a byte array representation of the current configuration.
    */
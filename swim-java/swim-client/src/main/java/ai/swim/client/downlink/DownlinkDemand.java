@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import ai.swim.lang.ffi.AtomicDestructor;
+import ai.swim.lang.ffi.NativeResource;
+
+/**
+ * A handle to the native counter of the events that a subscriber to a downlink has requested.
+ * <p>
+ * A downlink that is opened with a demand only reads its next event from the runtime once an event has been requested
+ * and it terminates once the demand has been cancelled. While there is no demand, the runtime's buffers to the
+ * downlink fill up and it stops reading from the connection.
+ * <p>
+ * Created through swim_client/src/lib.rs#Java_ai_swim_client_downlink_DownlinkDemand_createDemand
+ */
+public final class DownlinkDemand implements NativeResource {
+  private final long demandPtr;
+  // Frees this handle once it is unreachable. The downlink retains its own handle to the demand until it terminates.
+  @SuppressWarnings({"FieldCanBeLocal", "unused"})
+  private final AtomicDestructor destructor;
+
+  private DownlinkDemand(long demandPtr) {
+    this.demandPtr = demandPtr;
+    this.destructor = new AtomicDestructor(this, () -> dropDemand(demandPtr));
+  }
+
+  public static DownlinkDemand create() {
+    return new DownlinkDemand(createDemand());
+  }
+
+  private static native long createDemand();
+
+  private static native void request(long demandPtr, long n);
+
+  private static native void cancel(long demandPtr);
+
+  private static native void dropDemand(long demandPtr);
+
+  /**
+   * Returns a pointer to the native demand.
+   */
+  public long get() {
+    return demandPtr;
+  }
+
+  /**
+   * Requests a further {@code n} events from the downlink.
+   */
+  public void request(long n) {
+    request(demandPtr, n);
+  }
+
+  /**
+   * Signals to the downlink that no more events are required and that it should terminate.
+   */
+  public void cancel() {
+    cancel(demandPtr);
+  }
+}
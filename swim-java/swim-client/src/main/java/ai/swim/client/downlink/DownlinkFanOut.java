@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink;
+
+import ai.swim.concurrent.Trigger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A downlink that is shared by a number of subscribers through a {@link DownlinkRegistry}.
+ * <p>
+ * The native downlink is opened with a lifecycle that fans each of its events out to the lifecycles of the
+ * subscribers that have joined it. Each event is decoded once and every subscriber is provided with the same
+ * instance, so the values that are provided to the callbacks must not be mutated. A subscriber that joins the downlink
+ * after it has linked or synced is first provided with the notifications that it missed by {@link #replay(Object)}, on
+ * the thread that joins the downlink.
+ * <p>
+ * The downlink is opened with the configuration and callback execution of the subscriber that opens it and all of
+ * the subscribers' callbacks are invoked serially on that execution.
+ *
+ * @param <L> the type of the subscribers' lifecycles.
+ */
+public abstract class DownlinkFanOut<L> implements DownlinkObserver {
+  private final Runnable cancel;
+  private final List<Subscriber<L>> subscribers;
+  // The registry's bookkeeping. These are guarded by the registry and are only set once the downlink has been opened.
+  volatile DownlinkRegistry registry;
+  List<?> key;
+  int references;
+  boolean terminated;
+  private volatile Downlink<?> downlink;
+  // Guarded by this. The stopped flag may also be read without holding the lock.
+  private volatile boolean stopped;
+  private DownlinkException error;
+
+  /**
+   * Creates a shared downlink.
+   *
+   * @param cancel terminates the native downlink once its last subscriber has left it.
+   */
+  protected DownlinkFanOut(Runnable cancel) {
+    this.cancel = cancel;
+    this.subscribers = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public void attach(Downlink<?> downlink) {
+    this.downlink = downlink;
+  }
+
+  @Override
+  public Trigger newTrigger(CallbackDispatcher dispatcher) {
+    return new Trigger() {
+      @Override
+      public void trigger() {
+        super.trigger();
+        Downlink<?> downlink = DownlinkFanOut.this.downlink;
+        DownlinkException error = downlink == null ? null : downlink.error();
+
+        try {
+          dispatcher.dispatch(null, () -> stopped(error));
+        } catch (DownlinkException e) {
+          // A callback failed and so the downlink's remaining callbacks have been discarded.
+          stopped(e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Joins a subscriber to this downlink. The subscriber must hold a reference to the downlink that has been acquired
+   * from the registry.
+   *
+   * @param lifecycle the subscriber's lifecycle.
+   * @param handle    the subscriber's handle to the downlink. If the downlink terminates then the handle is provided
+   *                  with the error that the downlink terminated with and {@code trigger} is triggered.
+   * @param trigger   the trigger that the handle awaits.
+   * @return a task that removes the subscriber from this downlink, triggers {@code trigger} and releases the
+   * subscriber's reference to the downlink. Only the first invocation of the task has any effect.
+   */
+  protected final Runnable join(L lifecycle, Downlink<?> handle, Trigger trigger) {
+    DownlinkRegistry registry = this.registry;
+    Subscriber<L> subscriber = new Subscriber<>(lifecycle, handle, trigger);
+
+    synchronized (this) {
+      if (stopped) {
+        subscriber.stop(error);
+      } else {
+        subscribers.add(subscriber);
+        replay(lifecycle);
+      }
+    }
+
+    return () -> {
+      if (subscriber.left.compareAndSet(false, true)) {
+        synchronized (this) {
+          subscribers.remove(subscriber);
+        }
+        trigger.trigger();
+
+        if (registry != null) {
+          registry.release(this);
+        }
+      }
+    };
+  }
+
+  /**
+   * Provides a subscriber that has just joined the downlink with any notifications that it has missed; e.g, that the
+   * downlink has linked. This is invoked while holding the lock that the subscribers are notified under.
+   */
+  protected abstract void replay(L lifecycle);
+
+  /**
+   * Invokes {@code callback} with the lifecycle of each of the downlink's subscribers.
+   */
+  protected final synchronized void forEachSubscriber(Consumer<? super L> callback) {
+    for (Subscriber<L> subscriber : subscribers) {
+      callback.accept(subscriber.lifecycle);
+    }
+  }
+
+  /**
+   * Returns the number of subscribers that have joined the downlink and not yet left it.
+   */
+  public final int subscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Returns whether the native downlink has stopped.
+   */
+  public final boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Terminates the native downlink.
+   */
+  void close() {
+    cancel.run();
+  }
+
+  private void stopped(DownlinkException error) {
+    synchronized (this) {
+      this.error = error;
+      stopped = true;
+
+      for (Subscriber<L> subscriber : subscribers) {
+        subscriber.stop(error);
+      }
+      subscribers.clear();
+    }
+
+    DownlinkRegistry registry = this.registry;
+    if (registry != null) {
+      registry.terminated(this);
+    }
+  }
+
+  private static final class Subscriber<L> {
+    private final L lifecycle;
+    private final Downlink<?> handle;
+    private final Trigger trigger;
+    private final AtomicBoolean left;
+
+    private Subscriber(L lifecycle, Downlink<?> handle, Trigger trigger) {
+      this.lifecycle = lifecycle;
+      this.handle = handle;
+      this.trigger = trigger;
+      this.left = new AtomicBoolean();
+    }
+
+    private void stop(DownlinkException error) {
+      if (error != null) {
+        handle.message = error.getMessage();
+        handle.cause = error.getCause();
+      }
+      trigger.trigger();
+    }
+  }
+}
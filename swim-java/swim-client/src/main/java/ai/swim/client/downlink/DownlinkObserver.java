@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink;
+
+import ai.swim.concurrent.Trigger;
+
+/**
+ * Observes the termination of a downlink that is opened on its behalf.
+ */
+public interface DownlinkObserver {
+  /**
+   * Attaches the downlink that is being observed so that the error that it terminates with, if any, is available once
+   * it has stopped. This must be invoked before the downlink is opened.
+   */
+  void attach(Downlink<?> downlink);
+
+  /**
+   * Returns a trigger for the attached downlink that notifies this observer once the downlink has stopped. The
+   * notification is dispatched through {@code dispatcher} so that it follows any of the downlink's callbacks that
+   * are still pending.
+   */
+  Trigger newTrigger(CallbackDispatcher dispatcher);
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A registry of the downlinks that are shared by the subscribers of a client.
+ * <p>
+ * Shared downlinks are keyed by their address and types. A subscriber that acquires a downlink with the same key as
+ * one that is still running is attached to the running downlink, rather than a new native downlink being opened, and
+ * so each event is only decoded once and the downlink's state is only held once regardless of the number of its
+ * subscribers. Each downlink is reference counted and it is closed once its last subscriber has released it.
+ * <p>
+ * This class is thread safe.
+ */
+public final class DownlinkRegistry {
+  private final Map<List<?>, DownlinkFanOut<?>> downlinks;
+
+  public DownlinkRegistry() {
+    this.downlinks = new HashMap<>();
+  }
+
+  /**
+   * Opens a shared downlink.
+   *
+   * @param <F> the type of the shared downlink.
+   */
+  @FunctionalInterface
+  public interface Opener<F extends DownlinkFanOut<?>> {
+    /**
+     * Opens a new shared downlink.
+     *
+     * @throws DownlinkException if there was an error opening the downlink.
+     */
+    F open() throws DownlinkException;
+  }
+
+  /**
+   * Acquires a reference to the running downlink that is registered with {@code key}, or opens a new downlink using
+   * {@code opener} if there is not one. The reference must be handed to a subscriber that joins the downlink and it
+   * is released once the subscriber leaves it.
+   *
+   * @param key    the address and types of the downlink. Keys must only map to downlinks of the same type.
+   * @param opener to open a new downlink with if there is not a running one.
+   * @return the shared downlink.
+   * @throws DownlinkException if there was an error opening the downlink.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <F extends DownlinkFanOut<?>> F acquire(List<?> key, Opener<F> opener) throws DownlinkException {
+    DownlinkFanOut<?> existing = downlinks.get(key);
+    if (existing != null) {
+      existing.references += 1;
+      return (F) existing;
+    }
+
+    F downlink = opener.open();
+    downlink.registry = this;
+    downlink.key = key;
+    downlink.references = 1;
+    // The downlink either observes that it has been registered once it stops or it is not registered.
+    if (!downlink.terminated && !downlink.isStopped()) {
+      downlinks.put(key, downlink);
+    }
+    return downlink;
+  }
+
+  /**
+   * Returns the number of running downlinks in this registry.
+   */
+  public synchronized int size() {
+    return downlinks.size();
+  }
+
+  /**
+   * Releases a reference to {@code downlink} and closes it if this was the last reference.
+   */
+  synchronized void release(DownlinkFanOut<?> downlink) {
+    downlink.references -= 1;
+    if (downlink.references == 0 && !downlink.terminated) {
+      terminated(downlink);
+      downlink.close();
+    }
+  }
+
+  /**
+   * Removes {@code downlink} from this registry so that it is not acquired again.
+   */
+  synchronized void terminated(DownlinkFanOut<?> downlink) {
+    downlink.terminated = true;
+    if (downlink.key != null) {
+      downlinks.remove(downlink.key, downlink);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "DownlinkRegistry{" +
+        "downlinks=" + downlinks.keySet() +
+        '}';
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import ai.swim.concurrent.Trigger;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * A subscription to the items that are published by a downlink.
+ * <p>
+ * The demand that is signalled by the subscriber is forwarded to the downlink so that it only reads as many events
+ * from the runtime as have been requested. Some items are not produced by events; e.g, a synced snapshot or the
+ * entries that are removed by a take or drop operation on a map. These are not limited by the downlink and so they are
+ * queued until they have been requested. Items are delivered to the subscriber serially, in the order in which they
+ * were published, by either the thread that published the item or the thread that requested it.
+ *
+ * @param <T> the type of the published items.
+ */
+public final class DownlinkSubscription<T> implements Flow.Subscription, DownlinkObserver {
+  private final Flow.Subscriber<? super T> subscriber;
+  private final LongConsumer onRequest;
+  private final Runnable onCancel;
+  private final Queue<T> queue;
+  private final AtomicLong requested;
+  /**
+   * The number of times that the subscription has been signalled while it was being drained.
+   */
+  private final AtomicInteger wip;
+  private volatile Downlink<?> downlink;
+  private volatile boolean cancelled;
+  private volatile boolean done;
+  private Throwable error;
+
+  /**
+   * Creates a subscription.
+   *
+   * @param subscriber to deliver the items to.
+   * @param onRequest  invoked with the number of items that the subscriber requests.
+   * @param onCancel   invoked if the subscriber cancels the subscription or requests a non-positive number of items.
+   */
+  public DownlinkSubscription(Flow.Subscriber<? super T> subscriber, LongConsumer onRequest, Runnable onCancel) {
+    this.subscriber = Objects.requireNonNull(subscriber);
+    this.onRequest = onRequest;
+    this.onCancel = onCancel;
+    this.queue = new ConcurrentLinkedQueue<>();
+    this.requested = new AtomicLong();
+    this.wip = new AtomicInteger();
+  }
+
+  /**
+   * Signals a subscriber that may not subscribe to a publisher with an error.
+   */
+  public static void reject(Flow.Subscriber<?> subscriber, Throwable error) {
+    DownlinkSubscription<?> subscription = new DownlinkSubscription<>(subscriber, n -> {
+    }, () -> {
+    });
+    subscription.start();
+    subscription.complete(error);
+  }
+
+  /**
+   * Provides the subscriber with this subscription. This must be invoked before the downlink is opened.
+   */
+  public void start() {
+    subscriber.onSubscribe(this);
+  }
+
+  /**
+   * Attaches the downlink that publishes the items so that the subscription may be completed with the error that the
+   * downlink terminated with, if there is one.
+   */
+  @Override
+  public void attach(Downlink<?> downlink) {
+    this.downlink = downlink;
+  }
+
+  /**
+   * Returns a trigger for the attached downlink that completes this subscription once the downlink has stopped. The
+   * completion is dispatched through {@code dispatcher} so that it follows any items that are still to be published
+   * by the downlink's callbacks.
+   */
+  @Override
+  public Trigger newTrigger(CallbackDispatcher dispatcher) {
+    return new Trigger() {
+      @Override
+      public void trigger() {
+        super.trigger();
+        Downlink<?> downlink = DownlinkSubscription.this.downlink;
+        DownlinkException error = downlink == null ? null : downlink.error();
+
+        try {
+          dispatcher.dispatch(null, () -> complete(error));
+        } catch (DownlinkException e) {
+          // A callback failed and so the downlink's remaining callbacks have been discarded.
+          complete(e.getCause());
+        }
+      }
+    };
+  }
+
+  /**
+   * Publishes an item.
+   */
+  public void next(T item) {
+    if (!cancelled && !done) {
+      queue.offer(item);
+      drain();
+    }
+  }
+
+  /**
+   * Completes the subscription once any pending items have been delivered.
+   *
+   * @param error the error to complete the subscription with, or null if it completed successfully.
+   */
+  public void complete(Throwable error) {
+    if (!done) {
+      this.error = error;
+      done = true;
+      drain();
+    }
+  }
+
+  /**
+   * Returns whether the subscriber has cancelled the subscription.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      onCancel.run();
+      queue.clear();
+      complete(new IllegalArgumentException("Non-positive subscription request: " + n));
+      return;
+    }
+
+    long current;
+    long next;
+    do {
+      current = requested.get();
+      next = current + n < 0 ? Long.MAX_VALUE : current + n;
+    } while (!requested.compareAndSet(current, next));
+
+    onRequest.accept(n);
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      onCancel.run();
+      drain();
+    }
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+
+    do {
+      long demand = requested.get();
+      long emitted = 0;
+
+      while (true) {
+        if (cancelled) {
+          queue.clear();
+          return;
+        }
+
+        // Items are not published once the subscription is done, so the queue only drains from here.
+        boolean terminated = done;
+        if (emitted == demand) {
+          if (terminated && queue.isEmpty()) {
+            terminate();
+            return;
+          }
+          break;
+        }
+
+        T item = queue.poll();
+        if (item == null) {
+          if (terminated) {
+            terminate();
+            return;
+          }
+          break;
+        }
+
+        subscriber.onNext(item);
+        emitted += 1;
+      }
+
+      if (emitted != 0 && demand != Long.MAX_VALUE) {
+        requested.addAndGet(-emitted);
+      }
+
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void terminate() {
+    cancelled = true;
+    queue.clear();
+
+    Throwable error = this.error;
+    if (error == null) {
+      subscriber.onComplete();
+    } else {
+      subscriber.onError(error);
+    }
+  }
+}
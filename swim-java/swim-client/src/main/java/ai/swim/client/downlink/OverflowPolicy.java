@@ -0,0 +1,39 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+/**
+ * The action that is taken when a callback is dispatched to a downlink whose hand-off queue is full.
+ *
+ * @see CallbackExecution
+ */
+public enum OverflowPolicy {
+  /**
+   * The runtime thread that dispatched the callback blocks until the executor has taken a callback from the queue.
+   */
+  BLOCK,
+  /**
+   * The oldest pending event callback is discarded to make room for the new callback.
+   */
+  DROP_OLDEST,
+  /**
+   * A callback is merged with the pending callback for the same key, if there is one, which keeps its place in the
+   * queue and is then invoked with the arguments of the latest event. If there is no pending callback for the key and
+   * the queue is full then the runtime thread blocks as with {@link OverflowPolicy#BLOCK}.
+   */
+  CONFLATE
+}
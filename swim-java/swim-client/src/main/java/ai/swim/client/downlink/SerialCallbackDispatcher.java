@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A dispatcher that hands a downlink's callbacks off to a bounded queue that is drained by an executor. At most one
+ * task that drains the queue is scheduled on the executor at a time and so the downlink's callbacks are invoked
+ * serially and in order, even if the executor is multithreaded.
+ */
+final class SerialCallbackDispatcher extends CallbackDispatcher {
+  /**
+   * The maximum number of callbacks that are invoked before the draining task yields the executor's thread.
+   */
+  static final int MAX_CALLBACKS_PER_RUN = 64;
+
+  private final Executor executor;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final ReentrantLock lock;
+  private final Condition notFull;
+  private final ArrayDeque<Slot> queue;
+  /**
+   * The pending callbacks that a callback with the same key may be merged with. Only used by
+   * {@link OverflowPolicy#CONFLATE}.
+   */
+  private final Map<Object, Slot> pending;
+  private boolean scheduled;
+  private volatile Throwable failure;
+
+  SerialCallbackDispatcher(Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+    this.executor = executor;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.lock = new ReentrantLock();
+    this.notFull = lock.newCondition();
+    this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+    this.pending = new HashMap<>();
+  }
+
+  @Override
+  public void dispatch(Object key, Runnable callback) {
+    Throwable failure = this.failure;
+    if (failure != null) {
+      throw new DownlinkException(failure);
+    }
+
+    boolean schedule;
+
+    lock.lock();
+    try {
+      if (key == null) {
+        // Callbacks must not be merged across a change to the link's state.
+        pending.clear();
+      } else if (overflowPolicy == OverflowPolicy.CONFLATE) {
+        Slot slot = pending.get(key);
+        if (slot != null) {
+          slot.callback = callback;
+          return;
+        }
+      }
+
+      while (queue.size() >= capacity) {
+        if (overflowPolicy != OverflowPolicy.DROP_OLDEST || !dropOldest()) {
+          notFull.await();
+
+          if (this.failure != null) {
+            throw new DownlinkException(this.failure);
+          }
+        }
+      }
+
+      Slot slot = new Slot(key, callback);
+      queue.addLast(slot);
+
+      if (key != null && overflowPolicy == OverflowPolicy.CONFLATE) {
+        pending.put(key, slot);
+      }
+
+      schedule = !scheduled;
+      scheduled = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DownlinkException("Interrupted while dispatching a callback", e);
+    } finally {
+      lock.unlock();
+    }
+
+    if (schedule) {
+      schedule();
+    }
+  }
+
+  @Override
+  public boolean isInline() {
+    return false;
+  }
+
+  /**
+   * Removes the oldest callback that was dispatched with a key.
+   *
+   * @return whether a callback was removed.
+   */
+  private boolean dropOldest() {
+    Iterator<Slot> slots = queue.iterator();
+    while (slots.hasNext()) {
+      if (slots.next().key != null) {
+        slots.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void schedule() {
+    try {
+      executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      lock.lock();
+      try {
+        scheduled = false;
+      } finally {
+        lock.unlock();
+      }
+      fail(e);
+    }
+  }
+
+  private void drain() {
+    for (int i = 0; i < MAX_CALLBACKS_PER_RUN; i++) {
+      Runnable callback;
+
+      lock.lock();
+      try {
+        Slot slot = queue.pollFirst();
+        if (slot == null) {
+          scheduled = false;
+          return;
+        }
+        if (slot.key != null) {
+          pending.remove(slot.key, slot);
+        }
+        callback = slot.callback;
+        notFull.signal();
+      } finally {
+        lock.unlock();
+      }
+
+      if (failure == null) {
+        try {
+          callback.run();
+        } catch (Throwable e) {
+          fail(e);
+        }
+      }
+    }
+
+    schedule();
+  }
+
+  /**
+   * Records the first failure and discards the pending callbacks.
+   */
+  private void fail(Throwable e) {
+    lock.lock();
+    try {
+      if (failure == null) {
+        failure = e;
+      }
+      queue.clear();
+      pending.clear();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class Slot {
+    private final Object key;
+    private Runnable callback;
+
+    private Slot(Object key, Runnable callback) {
+      this.key = key;
+      this.callback = callback;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink.map;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A change to the state of a map downlink that is published to the subscribers of its
+ * {@link MapDownlinkBuilder#publisher() publisher}.
+ * <p>
+ * Each delta carries the same map that the corresponding lifecycle callback is invoked with, which is an immutable
+ * snapshot of the downlink's state: the state after an update or removal, the state that is about to be cleared for
+ * a clear, and the state that the downlink synced with for a sync. The entries that are removed by a take or drop
+ * operation on the remote lane are published as one removal per entry.
+ *
+ * @param <K> the type of the map's keys.
+ * @param <V> the type of the map's values.
+ */
+public final class MapDelta<K, V> {
+  /**
+   * The kinds of change to a map downlink's state.
+   */
+  public enum Kind {
+    /**
+     * The downlink has synced with the remote lane and {@link MapDelta#map()} is its complete state.
+     */
+    SYNCED,
+    /**
+     * {@link MapDelta#value()} has been associated with {@link MapDelta#key()}.
+     */
+    UPDATE,
+    /**
+     * {@link MapDelta#key()} has been removed; {@link MapDelta#value()} is the value that was removed.
+     */
+    REMOVE,
+    /**
+     * Every entry has been removed.
+     */
+    CLEAR
+  }
+
+  private final Kind kind;
+  private final K key;
+  private final V value;
+  private final Map<K, V> map;
+
+  private MapDelta(Kind kind, K key, V value, Map<K, V> map) {
+    this.kind = kind;
+    this.key = key;
+    this.value = value;
+    this.map = map;
+  }
+
+  static <K, V> MapDelta<K, V> synced(Map<K, V> map) {
+    return new MapDelta<>(Kind.SYNCED, null, null, map);
+  }
+
+  static <K, V> MapDelta<K, V> update(K key, V value, Map<K, V> map) {
+    return new MapDelta<>(Kind.UPDATE, key, value, map);
+  }
+
+  static <K, V> MapDelta<K, V> remove(K key, V value, Map<K, V> map) {
+    return new MapDelta<>(Kind.REMOVE, key, value, map);
+  }
+
+  static <K, V> MapDelta<K, V> clear(Map<K, V> map) {
+    return new MapDelta<>(Kind.CLEAR, null, null, map);
+  }
+
+  public Kind kind() {
+    return kind;
+  }
+
+  /**
+   * Returns the key that was updated or removed, or null for any other kind of delta.
+   */
+  public K key() {
+    return key;
+  }
+
+  /**
+   * Returns the value that was associated with or removed from the key, or null for any other kind of delta.
+   */
+  public V value() {
+    return value;
+  }
+
+  /**
+   * Returns an immutable snapshot of the downlink's state.
+   */
+  public Map<K, V> map() {
+    return map;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MapDelta<?, ?> that = (MapDelta<?, ?>) o;
+    return kind == that.kind &&
+        Objects.equals(key, that.key) &&
+        Objects.equals(value, that.value) &&
+        Objects.equals(map, that.map);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kind, key, value, map);
+  }
+
+  @Override
+  public String toString() {
+    return "MapDelta{" +
+        "kind=" + kind +
+        ", key=" + key +
+        ", value=" + value +
+        ", map=" + map +
+        '}';
+  }
+}
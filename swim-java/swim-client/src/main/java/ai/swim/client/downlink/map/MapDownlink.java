@@ -18,11 +18,15 @@ package ai.swim.client.downlink.map;
 
 import ai.swim.client.downlink.Downlink;
 import ai.swim.concurrent.Trigger;
+import java.util.Map;
 
 /**
  * A Swim Map Downlink representation. A MapDownlink synchronizes a shared real-time value with a remote map lane
  * and provides lifecycle callbacks that may be registered to be notified of certain events.
  * <p>
+ * The downlink's state may be read from any thread. Each read is served from an immutable snapshot of the state and
+ * so it neither blocks the runtime from applying events nor copies the map.
+ * <p>
  * This class is thread safe.
  *
  * @param <K> the type of the map's key.
@@ -32,4 +36,33 @@ public abstract class MapDownlink<K, V> extends Downlink<MapDownlinkState<K, V>>
   protected MapDownlink(Trigger trigger, MapDownlinkState<K, V> state) {
     super(trigger, state);
   }
+
+  /**
+   * Returns an immutable snapshot of the downlink's state. The snapshot is not modified by any events that the
+   * downlink subsequently receives.
+   *
+   * @return the downlink's current state.
+   */
+  public Map<K, V> snapshot() {
+    return getState().view();
+  }
+
+  /**
+   * Returns the value associated with {@code key} in the downlink's current state.
+   *
+   * @param key whose associated value is to be returned.
+   * @return the value associated with {@code key}, or null if there is not one.
+   */
+  public V get(K key) {
+    return getState().view().get(key);
+  }
+
+  /**
+   * Returns the number of entries in the downlink's current state.
+   *
+   * @return the number of entries in the downlink's current state.
+   */
+  public int size() {
+    return getState().view().size();
+  }
 }
@@ -16,8 +16,11 @@
 
 package ai.swim.client.downlink.map;
 
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkConfig;
 import ai.swim.client.downlink.DownlinkException;
+import ai.swim.client.downlink.DownlinkRegistry;
+import ai.swim.client.downlink.DownlinkSubscription;
 import ai.swim.client.lifecycle.OnClear;
 import ai.swim.client.lifecycle.OnLinked;
 import ai.swim.client.lifecycle.OnRemove;
@@ -25,11 +28,15 @@ import ai.swim.client.lifecycle.OnSynced;
 import ai.swim.client.lifecycle.OnUnlinked;
 import ai.swim.client.lifecycle.OnUpdate;
 import ai.swim.lang.ffi.NativeHandle;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MapDownlinkBuilder<K, V> {
   private final NativeHandle handle;
+  private final DownlinkRegistry registry;
   private final String host;
   private final String lane;
   private final Class<K> keyType;
@@ -37,6 +44,8 @@ public class MapDownlinkBuilder<K, V> {
   private final String node;
   private final MapDownlinkLifecycle<K, V> lifecycle;
   private DownlinkConfig downlinkConfig;
+  private Comparator<? super K> keyOrder;
+  private CallbackExecution callbackExecution;
 
   public MapDownlinkBuilder(NativeHandle handle,
       Class<K> keyType,
@@ -44,7 +53,18 @@ public class MapDownlinkBuilder<K, V> {
       String host,
       String node,
       String lane) {
+    this(handle, new DownlinkRegistry(), keyType, valueType, host, node, lane);
+  }
+
+  public MapDownlinkBuilder(NativeHandle handle,
+      DownlinkRegistry registry,
+      Class<K> keyType,
+      Class<V> valueType,
+      String host,
+      String node,
+      String lane) {
     this.handle = handle;
+    this.registry = registry;
     this.keyType = keyType;
     this.valueType = valueType;
     this.host = host;
@@ -52,6 +72,7 @@ public class MapDownlinkBuilder<K, V> {
     this.lane = lane;
     this.lifecycle = new MapDownlinkLifecycle<>();
     this.downlinkConfig = new DownlinkConfig();
+    this.callbackExecution = CallbackExecution.inline();
   }
 
   /**
@@ -102,6 +123,32 @@ public class MapDownlinkBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Orders the downlink's state by its keys using {@code keyOrder}; e.g, {@code setKeyOrder(Comparator.naturalOrder())}.
+   * The map that is provided to the lifecycle callbacks is then a {@link java.util.SortedMap} and take and drop
+   * operations from the remote lane remove entries by the order of their keys in O(log n).
+   *
+   * @throws NullPointerException if the comparator is null.
+   */
+  public MapDownlinkBuilder<K, V> setKeyOrder(Comparator<? super K> keyOrder) {
+    Objects.requireNonNull(keyOrder);
+    this.keyOrder = keyOrder;
+    return this;
+  }
+
+  /**
+   * Sets the policy that determines the threads on which the downlink's lifecycle callbacks are invoked; e.g,
+   * {@code setCallbackExecution(CallbackExecution.executor(executor))}. If the callbacks are not invoked inline then
+   * the map that is provided to them is an immutable snapshot of the downlink's state.
+   *
+   * @throws NullPointerException if the policy is null.
+   */
+  public MapDownlinkBuilder<K, V> setCallbackExecution(CallbackExecution callbackExecution) {
+    Objects.requireNonNull(callbackExecution);
+    this.callbackExecution = callbackExecution;
+    return this;
+  }
+
   /**
    * Attempts to open the downlink.
    *
@@ -109,7 +156,70 @@ public class MapDownlinkBuilder<K, V> {
    * @throws DownlinkException if there was an error opening the downlink.
    */
   public MapDownlink<K, V> open() throws DownlinkException {
-    return MapDownlinkModel.open(handle, host, node, lane, keyType, valueType, lifecycle, downlinkConfig);
+    return MapDownlinkModel.open(handle, host, node, lane, keyType, valueType, lifecycle, downlinkConfig, keyOrder,
+        callbackExecution);
+  }
+
+  /**
+   * Attempts to open the downlink as one that is shared with the client's other subscribers to the same lane, types
+   * and key order. If the client already has a running shared downlink to the lane then the registered callbacks are
+   * attached to it, rather than a new downlink being opened, and they are first invoked with its link state and
+   * current state. Each event is decoded once, the downlink's state is held once and every subscriber is provided
+   * with the same immutable snapshots of it.
+   * <p>
+   * The shared downlink is opened with the configuration and callback execution of the subscriber that opens it and
+   * it is closed once every subscriber has closed its handle.
+   *
+   * @return the subscriber's handle to the shared downlink.
+   * @throws DownlinkException if there was an error opening the downlink.
+   */
+  public SharedMapDownlink<K, V> openShared() throws DownlinkException {
+    return MapDownlinkModel.openShared(
+        handle,
+        registry,
+        host,
+        node,
+        lane,
+        keyType,
+        valueType,
+        lifecycle,
+        downlinkConfig,
+        keyOrder,
+        callbackExecution);
+  }
+
+  /**
+   * Returns a publisher of the changes to the downlink's state. The downlink is opened when the publisher is
+   * subscribed to and it publishes a {@link MapDelta.Kind#SYNCED} delta with its complete state once it has synced
+   * and then a delta for each change. Any registered callbacks are invoked before each delta is published.
+   * <p>
+   * The downlink only reads as many events from the runtime as the subscriber has requested, so a subscriber that
+   * does not keep up applies backpressure to the connection rather than its events being buffered. Cancelling the
+   * subscription terminates the downlink. As with {@link #open()}, the publisher may only be subscribed to once.
+   *
+   * @return a publisher of the changes to the downlink's state.
+   */
+  public Flow.Publisher<MapDelta<K, V>> publisher() {
+    AtomicBoolean subscribed = new AtomicBoolean();
+    return subscriber -> {
+      Objects.requireNonNull(subscriber);
+      if (subscribed.compareAndSet(false, true)) {
+        MapDownlinkModel.subscribe(
+            handle,
+            host,
+            node,
+            lane,
+            keyType,
+            valueType,
+            lifecycle,
+            downlinkConfig,
+            keyOrder,
+            callbackExecution,
+            subscriber);
+      } else {
+        DownlinkSubscription.reject(subscriber, new IllegalStateException("Publisher has already been subscribed to"));
+      }
+    };
   }
 
   /**
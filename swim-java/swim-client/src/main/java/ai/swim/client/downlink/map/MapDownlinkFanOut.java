@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink.map;
+
+import ai.swim.client.downlink.DownlinkFanOut;
+import ai.swim.client.lifecycle.OnClear;
+import ai.swim.client.lifecycle.OnLinked;
+import ai.swim.client.lifecycle.OnRemove;
+import ai.swim.client.lifecycle.OnSynced;
+import ai.swim.client.lifecycle.OnUnlinked;
+import ai.swim.client.lifecycle.OnUpdate;
+import ai.swim.concurrent.Trigger;
+import java.util.Map;
+
+/**
+ * A map downlink that is shared by a number of subscribers and which fans each of its decoded events out to them.
+ * Every subscriber is provided with the same immutable snapshots of the downlink's single state.
+ */
+final class MapDownlinkFanOut<K, V> extends DownlinkFanOut<MapDownlinkLifecycle<K, V>> {
+  private MapDownlinkState<K, V> state;
+  // Guarded by this. The link state and the map as of the last callback that was invoked.
+  private boolean linked;
+  private boolean synced;
+  private Map<K, V> map;
+
+  MapDownlinkFanOut(Runnable cancel) {
+    super(cancel);
+    this.map = Map.of();
+  }
+
+  /**
+   * Returns the lifecycle that the native downlink is opened with.
+   */
+  MapDownlinkLifecycle<K, V> lifecycle() {
+    return new MapDownlinkLifecycle<K, V>()
+        .setOnLinked(this::onLinked)
+        .setOnSynced(this::onSynced)
+        .setOnUpdate(this::onUpdate)
+        .setOnRemove(this::onRemove)
+        .setOnClear(this::onClear)
+        .setOnUnlinked(this::onUnlinked);
+  }
+
+  void setState(MapDownlinkState<K, V> state) {
+    this.state = state;
+  }
+
+  MapDownlinkState<K, V> getState() {
+    return state;
+  }
+
+  /**
+   * Joins a subscriber's handle to this downlink.
+   *
+   * @see DownlinkFanOut#join(Object, ai.swim.client.downlink.Downlink, Trigger)
+   */
+  Runnable subscribe(MapDownlinkLifecycle<K, V> lifecycle, SharedMapDownlink<K, V> handle, Trigger trigger) {
+    return join(lifecycle, handle, trigger);
+  }
+
+  @Override
+  protected void replay(MapDownlinkLifecycle<K, V> lifecycle) {
+    OnLinked onLinked = lifecycle.getOnLinked();
+    if (linked && onLinked != null) {
+      onLinked.onLinked();
+    }
+
+    OnSynced<Map<K, V>> onSynced = lifecycle.getOnSynced();
+    if (synced && onSynced != null) {
+      onSynced.onSynced(map);
+    }
+  }
+
+  private synchronized void onLinked() {
+    linked = true;
+    forEachSubscriber(lifecycle -> {
+      OnLinked onLinked = lifecycle.getOnLinked();
+      if (onLinked != null) {
+        onLinked.onLinked();
+      }
+    });
+  }
+
+  private synchronized void onSynced(Map<K, V> map) {
+    this.synced = true;
+    this.map = map;
+    forEachSubscriber(lifecycle -> {
+      OnSynced<Map<K, V>> onSynced = lifecycle.getOnSynced();
+      if (onSynced != null) {
+        onSynced.onSynced(map);
+      }
+    });
+  }
+
+  private synchronized void onUpdate(K key, Map<K, V> map, V previous, V newValue) {
+    this.map = map;
+    forEachSubscriber(lifecycle -> {
+      OnUpdate<K, V> onUpdate = lifecycle.getOnUpdate();
+      if (onUpdate != null) {
+        onUpdate.onUpdate(key, map, previous, newValue);
+      }
+    });
+  }
+
+  private synchronized void onRemove(K key, Map<K, V> map, V removed) {
+    this.map = map;
+    forEachSubscriber(lifecycle -> {
+      OnRemove<K, V> onRemove = lifecycle.getOnRemove();
+      if (onRemove != null) {
+        onRemove.onRemove(key, map, removed);
+      }
+    });
+  }
+
+  private synchronized void onClear(Map<K, V> map) {
+    // The callbacks are provided with the map's state before it was cleared.
+    this.map = Map.of();
+    forEachSubscriber(lifecycle -> {
+      OnClear<K, V> onClear = lifecycle.getOnClear();
+      if (onClear != null) {
+        onClear.onClear(map);
+      }
+    });
+  }
+
+  private synchronized void onUnlinked() {
+    linked = false;
+    synced = false;
+    forEachSubscriber(lifecycle -> {
+      OnUnlinked onUnlinked = lifecycle.getOnUnlinked();
+      if (onUnlinked != null) {
+        onUnlinked.onUnlinked();
+      }
+    });
+  }
+}
@@ -86,5 +86,17 @@ public class MapDownlinkLifecycle<K, V> {
     return this;
   }
 
+  /**
+   * Returns a copy of this lifecycle that is not affected by any callbacks that are subsequently registered.
+   */
+  MapDownlinkLifecycle<K, V> copy() {
+    return new MapDownlinkLifecycle<K, V>()
+        .setOnUpdate(onUpdate)
+        .setOnLinked(onLinked)
+        .setOnSynced(onSynced)
+        .setOnRemove(onRemove)
+        .setOnUnlinked(onUnlinked)
+        .setOnClear(onClear);
+  }
 
 }
@@ -16,18 +16,36 @@
 
 package ai.swim.client.downlink.map;
 
+import ai.swim.client.downlink.CallbackDispatcher;
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkConfig;
+import ai.swim.client.downlink.DownlinkDemand;
 import ai.swim.client.downlink.DownlinkException;
+import ai.swim.client.downlink.DownlinkObserver;
+import ai.swim.client.downlink.DownlinkRegistry;
+import ai.swim.client.downlink.DownlinkSubscription;
+import ai.swim.client.downlink.map.dispatch.DispatchBatch;
 import ai.swim.client.downlink.map.dispatch.DispatchDrop;
 import ai.swim.client.downlink.map.dispatch.DispatchOnClear;
 import ai.swim.client.downlink.map.dispatch.DispatchOnRemove;
 import ai.swim.client.downlink.map.dispatch.DispatchOnUpdate;
 import ai.swim.client.downlink.map.dispatch.DispatchTake;
+import ai.swim.client.lifecycle.OnClear;
 import ai.swim.client.lifecycle.OnLinked;
+import ai.swim.client.lifecycle.OnRemove;
+import ai.swim.client.lifecycle.OnSynced;
 import ai.swim.client.lifecycle.OnUnlinked;
+import ai.swim.client.lifecycle.OnUpdate;
 import ai.swim.concurrent.Trigger;
 import ai.swim.lang.ffi.NativeHandle;
 import ai.swim.structure.Form;
+import ai.swim.util.BalancedTreeMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
   private MapDownlinkModel(Trigger trigger, MapDownlinkState<K, V> state) {
@@ -45,6 +63,8 @@ public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
    * @param valueType      A form class representing the structure of the map's value type.
    * @param lifecycle      Downlink lifecycle event callbacks.
    * @param downlinkConfig Downlink and runtime configuration.
+   * @param keyOrder       The order of the map's keys, or null if the map is unordered.
+   * @param execution      The policy that determines the threads on which the lifecycle callbacks are invoked.
    * @return An established ValueDownlink.
    * @throws DownlinkException if there is an error opening the downlink or by a malformed address.
    */
@@ -55,14 +75,206 @@ public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
       Class<K> keyType,
       Class<V> valueType,
       MapDownlinkLifecycle<K, V> lifecycle,
-      DownlinkConfig downlinkConfig) throws DownlinkException {
-    MapDownlinkState<K, V> state = new MapDownlinkState<>(
-        Form.forClass(keyType),
-        Form.forClass(valueType),
-        lifecycle.getOnRemove());
-    Trigger trigger = new Trigger();
+      DownlinkConfig downlinkConfig,
+      Comparator<? super K> keyOrder,
+      CallbackExecution execution) throws DownlinkException {
+    return open(
+        handle,
+        host,
+        node,
+        lane,
+        keyType,
+        valueType,
+        lifecycle,
+        downlinkConfig,
+        keyOrder,
+        execution,
+        null,
+        null);
+  }
+
+  /**
+   * Opens a MapDownlink to host/node/lane that publishes its deltas to {@code subscriber}. The downlink only reads as
+   * many events from the runtime as the subscriber has requested and it terminates if the subscriber cancels its
+   * subscription. The lifecycle callbacks are invoked before each delta is published.
+   *
+   * @param subscriber to publish the deltas to. If there is an error opening the downlink then the subscriber is
+   *                   signalled with it.
+   * @see #open(NativeHandle, String, String, String, Class, Class, MapDownlinkLifecycle, DownlinkConfig, Comparator,
+   * CallbackExecution)
+   */
+  static <K, V> void subscribe(NativeHandle handle,
+      String host,
+      String node,
+      String lane,
+      Class<K> keyType,
+      Class<V> valueType,
+      MapDownlinkLifecycle<K, V> lifecycle,
+      DownlinkConfig downlinkConfig,
+      Comparator<? super K> keyOrder,
+      CallbackExecution execution,
+      Flow.Subscriber<? super MapDelta<K, V>> subscriber) {
+    DownlinkDemand demand = DownlinkDemand.create();
+    DownlinkSubscription<MapDelta<K, V>> subscription = new DownlinkSubscription<>(
+        subscriber,
+        demand::request,
+        demand::cancel);
+    subscription.start();
+
+    if (subscription.isCancelled()) {
+      handle.drop();
+      return;
+    }
+
+    try {
+      open(
+          handle,
+          host,
+          node,
+          lane,
+          keyType,
+          valueType,
+          publishing(lifecycle, subscription),
+          downlinkConfig,
+          keyOrder,
+          execution,
+          demand,
+          subscription);
+    } catch (DownlinkException e) {
+      subscription.complete(e);
+    }
+  }
+
+  /**
+   * Returns a lifecycle that invokes the callbacks of {@code lifecycle} and then publishes the corresponding delta to
+   * {@code subscription}.
+   */
+  private static <K, V> MapDownlinkLifecycle<K, V> publishing(MapDownlinkLifecycle<K, V> lifecycle,
+      DownlinkSubscription<MapDelta<K, V>> subscription) {
+    OnSynced<Map<K, V>> onSynced = lifecycle.getOnSynced();
+    OnUpdate<K, V> onUpdate = lifecycle.getOnUpdate();
+    OnRemove<K, V> onRemove = lifecycle.getOnRemove();
+    OnClear<K, V> onClear = lifecycle.getOnClear();
+
+    return new MapDownlinkLifecycle<K, V>()
+        .setOnLinked(lifecycle.getOnLinked())
+        .setOnUnlinked(lifecycle.getOnUnlinked())
+        .setOnSynced(map -> {
+          if (onSynced != null) {
+            onSynced.onSynced(map);
+          }
+          subscription.next(MapDelta.synced(map));
+        })
+        .setOnUpdate((key, map, previous, newValue) -> {
+          if (onUpdate != null) {
+            onUpdate.onUpdate(key, map, previous, newValue);
+          }
+          subscription.next(MapDelta.update(key, newValue, map));
+        })
+        .setOnRemove((key, map, value) -> {
+          if (onRemove != null) {
+            onRemove.onRemove(key, map, value);
+          }
+          subscription.next(MapDelta.remove(key, value, map));
+        })
+        .setOnClear(map -> {
+          if (onClear != null) {
+            onClear.onClear(map);
+          }
+          subscription.next(MapDelta.clear(map));
+        });
+  }
+
+  /**
+   * Opens a MapDownlink to host/node/lane that is shared with the other subscribers of {@code registry} to the same
+   * lane, types and key order, or attaches to the running downlink if there is one. The native downlink is closed once
+   * every subscriber has closed its handle.
+   *
+   * @param handle   a single-use SwimClient native handle that is dropped once the downlink has been acquired.
+   * @param registry the registry of the client's shared downlinks.
+   * @return the subscriber's handle to the shared downlink.
+   * @see #open(NativeHandle, String, String, String, Class, Class, MapDownlinkLifecycle, DownlinkConfig, Comparator,
+   * CallbackExecution)
+   */
+  static <K, V> SharedMapDownlink<K, V> openShared(NativeHandle handle,
+      DownlinkRegistry registry,
+      String host,
+      String node,
+      String lane,
+      Class<K> keyType,
+      Class<V> valueType,
+      MapDownlinkLifecycle<K, V> lifecycle,
+      DownlinkConfig downlinkConfig,
+      Comparator<? super K> keyOrder,
+      CallbackExecution execution) throws DownlinkException {
+    List<?> key = Arrays.asList(MapDownlink.class, host, node, lane, keyType, valueType, keyOrder);
+    AtomicBoolean opened = new AtomicBoolean();
+    MapDownlinkFanOut<K, V> fanOut;
+
+    try {
+      fanOut = registry.acquire(key, () -> {
+        opened.set(true);
+        DownlinkDemand demand = DownlinkDemand.create();
+        // The downlink's events are not limited; the demand is only used to close it once it has no subscribers.
+        demand.request(Long.MAX_VALUE);
+
+        MapDownlinkFanOut<K, V> created = new MapDownlinkFanOut<>(demand::cancel);
+        MapDownlinkModel<K, V> downlink = open(
+            handle,
+            host,
+            node,
+            lane,
+            keyType,
+            valueType,
+            created.lifecycle(),
+            downlinkConfig,
+            keyOrder,
+            execution,
+            demand,
+            created);
+        created.setState(downlink.getState());
+        return created;
+      });
+    } finally {
+      if (!opened.get()) {
+        handle.drop();
+      }
+    }
+
+    return SharedMapDownlink.join(fanOut, lifecycle.copy());
+  }
+
+  private static <K, V> MapDownlinkModel<K, V> open(NativeHandle handle,
+      String host,
+      String node,
+      String lane,
+      Class<K> keyType,
+      Class<V> valueType,
+      MapDownlinkLifecycle<K, V> lifecycle,
+      DownlinkConfig downlinkConfig,
+      Comparator<? super K> keyOrder,
+      CallbackExecution execution,
+      DownlinkDemand demand,
+      DownlinkObserver observer) throws DownlinkException {
+    CallbackDispatcher dispatcher = execution.newDispatcher();
+    Form<K> keyForm = Form.forClass(keyType);
+    Form<V> valueForm = Form.forClass(valueType);
+    OnRemove<K, V> onRemove = lifecycle.getOnRemove();
+
+    MapDownlinkState<K, V> state;
+    if (keyOrder != null) {
+      state = new OrderedMapDownlinkState<>(keyForm, valueForm, onRemove, dispatcher, BalancedTreeMap.empty(keyOrder));
+    } else {
+      state = new MapDownlinkState<>(keyForm, valueForm, onRemove, dispatcher);
+    }
+
+    Trigger trigger = observer == null ? new Trigger() : observer.newTrigger(dispatcher);
     MapDownlinkModel<K, V> downlink = new MapDownlinkModel<>(trigger, state);
 
+    if (observer != null) {
+      observer.attach(downlink);
+    }
+
     try {
       open(
           handle.get(),
@@ -72,14 +284,17 @@ public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
           host,
           node,
           lane,
-          lifecycle.getOnLinked(),
+          dispatcher.wrapOnLinked(lifecycle.getOnLinked()),
           state.wrapOnSynced(lifecycle.getOnSynced()),
           state.wrapOnUpdate(lifecycle.getOnUpdate()),
           state.wrapOnRemove(lifecycle.getOnRemove()),
           state.wrapOnClear(lifecycle.getOnClear()),
-          lifecycle.getOnUnlinked(),
+          dispatcher.wrapOnUnlinked(lifecycle.getOnUnlinked()),
           state.take(),
-          state.drop());
+          state.drop(),
+          state.wrapOnBatch(lifecycle.getOnUpdate(), lifecycle.getOnRemove(), lifecycle.getOnClear()),
+          downlinkConfig.getMaxBatchSize(),
+          demand == null ? 0 : demand.get());
     } finally {
       handle.drop();
     }
@@ -108,6 +323,9 @@ public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
    * @param onUnlinked onUnlinked callback. If this is null, then it will not be invoked.
    * @param take       callback to invoke for a take operation.
    * @param drop       callback to invoke for a take operation.
+   * @param onBatch      callback to deliver a batch of events to. If this is null, then events are not batched.
+   * @param maxBatchSize the maximum number of events in a batch.
+   * @param demandPtr    A DownlinkDemand pointer that limits the events that are read, or 0 if they are not limited.
    */
   private static native <K, V> void open(long handlePtr,
       MapDownlinkModel<K, V> downlink,
@@ -123,6 +341,9 @@ public final class MapDownlinkModel<K, V> extends MapDownlink<K, V> {
       DispatchOnClear onClear,
       OnUnlinked onUnlinked,
       DispatchTake take,
-      DispatchDrop drop) throws DownlinkException;
+      DispatchDrop drop,
+      DispatchBatch onBatch,
+      int maxBatchSize,
+      long demandPtr) throws DownlinkException;
 
 }
@@ -16,7 +16,10 @@
 
 package ai.swim.client.downlink.map;
 
+import ai.swim.client.downlink.CallbackDispatcher;
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkException;
+import ai.swim.client.downlink.map.dispatch.DispatchBatch;
 import ai.swim.client.downlink.map.dispatch.DispatchDrop;
 import ai.swim.client.downlink.map.dispatch.DispatchOnClear;
 import ai.swim.client.downlink.map.dispatch.DispatchOnRemove;
@@ -26,35 +29,61 @@ import ai.swim.client.lifecycle.OnClear;
 import ai.swim.client.lifecycle.OnRemove;
 import ai.swim.client.lifecycle.OnSynced;
 import ai.swim.client.lifecycle.OnUpdate;
-import ai.swim.codec.Parser;
-import ai.swim.codec.ParserError;
-import ai.swim.codec.input.Input;
+import ai.swim.codec.data.ReadBuffer;
 import ai.swim.structure.Form;
-import ai.swim.structure.FormParser;
-import ai.swim.structure.recognizer.Recognizer;
-import ai.swim.structure.recognizer.RecognizerException;
+import ai.swim.structure.ReconDecoder;
+import ai.swim.util.HashTrieMap;
 import java.nio.ByteBuffer;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * An unordered map downlink's state.
+ * <p>
+ * The state is a persistent hash trie and so every update produces a new map that shares the unmodified entries
+ * with the previous one. Only the runtime thread updates the state and each new map is published through a volatile
+ * reference, so the state may be read from any thread without locking or copying it. The lifecycle callbacks are
+ * provided with the state itself, which is an immutable snapshot as of the event that they were invoked for, and so
+ * they may read it while the runtime thread continues to update the downlink's state.
+ */
 class MapDownlinkState<K, V> {
-  private static final int DEFAULT_MAP_SIZE = 16;
-  private final Form<K> keyForm;
-  private final Form<V> valueForm;
+  private final ReconDecoder<K> keyDecoder;
+  private final ReconDecoder<V> valueDecoder;
   private final OnRemove<K, V> onRemove;
-  private HashMap<K, V> state;
+  private final CallbackDispatcher dispatcher;
+  private volatile HashTrieMap<K, V> state;
 
   MapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove) {
-    this(keyForm, valueForm, onRemove, new HashMap<>());
+    this(keyForm, valueForm, onRemove, Map.of());
+  }
+
+  MapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove, Map<K, V> init) {
+    this(keyForm, valueForm, onRemove, CallbackExecution.inline().newDispatcher(), init);
+  }
+
+  MapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove, CallbackDispatcher dispatcher) {
+    this(keyForm, valueForm, onRemove, dispatcher, Map.of());
   }
 
-  MapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove, HashMap<K, V> init) {
-    this.keyForm = keyForm;
-    this.valueForm = valueForm;
+  MapDownlinkState(Form<K> keyForm,
+      Form<V> valueForm,
+      OnRemove<K, V> onRemove,
+      CallbackDispatcher dispatcher,
+      Map<K, V> init) {
+    this.keyDecoder = new ReconDecoder<>(keyForm);
+    this.valueDecoder = new ReconDecoder<>(valueForm);
     this.onRemove = onRemove;
-    this.state = init;
+    this.dispatcher = dispatcher;
+
+    HashTrieMap<K, V> state = HashTrieMap.empty();
+    if (init != null) {
+      for (Map.Entry<K, V> entry : init.entrySet()) {
+        state = state.updated(entry.getKey(), entry.getValue());
+      }
+    }
+    this.state = state;
   }
 
   DispatchOnUpdate wrapOnUpdate(OnUpdate<K, V> onUpdate) {
@@ -68,26 +97,15 @@ class MapDownlinkState<K, V> {
         throw new DownlinkException("Invalid frame body", e);
       }
 
-      V oldValue = state.put(key, value);
-
-      if (dispatch && onUpdate != null) {
-        try {
-          onUpdate.onUpdate(key, Collections.unmodifiableMap(state), oldValue, value);
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
-        }
-      }
+      update(onUpdate, key, value, dispatch);
     };
   }
 
   Routine wrapOnSynced(OnSynced<Map<K, V>> onSynced) {
     if (onSynced != null) {
       return () -> {
-        try {
-          onSynced.onSynced(Collections.unmodifiableMap(state));
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
-        }
+        Map<K, V> view = view();
+        dispatcher.dispatch(null, () -> onSynced.onSynced(view));
       };
     } else {
       return null;
@@ -103,65 +121,110 @@ class MapDownlinkState<K, V> {
         throw new DownlinkException("Invalid frame body", e);
       }
 
-      V value = state.remove(key);
-
-      if (dispatch && onRemove != null) {
-        try {
-          onRemove.onRemove(key, Collections.unmodifiableMap(state), value);
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
-        }
-      }
+      remove(onRemove, key, dispatch);
     };
   }
 
   /**
-   * Wraps the provided on clear interface so that it is invoked with a read-only view of the map's current state.
+   * Wraps the provided on clear interface so that it is invoked with a snapshot of the map's state before it was
+   * cleared.
    */
   DispatchOnClear wrapOnClear(OnClear<K, V> onClear) {
-    return (dispatch) -> {
-      if (dispatch && onClear != null) {
-        try {
-          onClear.onClear(Collections.unmodifiableMap(state));
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
+    return (dispatch) -> clear(onClear, dispatch);
+  }
+
+  /**
+   * Wraps the provided lifecycle callbacks so that a batch of events that is delivered by the runtime in a single call
+   * is decoded in place and dispatched to them one event at a time. The key and value decoders are reused across the
+   * events in the batch.
+   */
+  DispatchBatch wrapOnBatch(OnUpdate<K, V> onUpdate, OnRemove<K, V> onRemove, OnClear<K, V> onClear) {
+    DispatchTake take = take();
+    DispatchDrop drop = drop();
+
+    return (batch, dispatch) -> {
+      ReadBuffer buffer = ReadBuffer.byteBuffer(batch);
+
+      while (buffer.remaining() > 0) {
+        byte tag = buffer.getByte();
+        switch (tag) {
+          case DispatchBatch.UPDATE: {
+            K key;
+            V value;
+            try {
+              key = keyDecoder.decode(buffer, buffer.getInteger());
+              value = valueDecoder.decode(buffer, buffer.getInteger());
+            } catch (RuntimeException e) {
+              throw new DownlinkException("Invalid frame body", e);
+            }
+            update(onUpdate, key, value, dispatch);
+            break;
+          }
+          case DispatchBatch.REMOVE: {
+            K key;
+            try {
+              key = keyDecoder.decode(buffer, buffer.getInteger());
+            } catch (RuntimeException e) {
+              throw new DownlinkException("Invalid frame body", e);
+            }
+            remove(onRemove, key, dispatch);
+            break;
+          }
+          case DispatchBatch.CLEAR:
+            clear(onClear, dispatch);
+            break;
+          case DispatchBatch.TAKE:
+            take.take(buffer.getInteger(), dispatch);
+            break;
+          case DispatchBatch.DROP:
+            drop.drop(buffer.getInteger(), dispatch);
+            break;
+          default:
+            throw new DownlinkException("Invalid batch record tag: " + tag);
         }
       }
-      state.clear();
     };
   }
 
+  private void update(OnUpdate<K, V> onUpdate, K key, V value, boolean dispatch) {
+    V oldValue = put(key, value);
+
+    if (dispatch && onUpdate != null) {
+      Map<K, V> view = view();
+      dispatcher.dispatch(key, () -> onUpdate.onUpdate(key, view, oldValue, value));
+    }
+  }
+
+  private void remove(OnRemove<K, V> onRemove, K key, boolean dispatch) {
+    V value = remove(key);
+
+    if (dispatch && onRemove != null) {
+      dispatchRemoved(onRemove, key, view(), value);
+    }
+  }
+
+  private void clear(OnClear<K, V> onClear, boolean dispatch) {
+    if (dispatch && onClear != null) {
+      Map<K, V> view = view();
+      dispatcher.dispatch(null, () -> onClear.onClear(view));
+    }
+    clear();
+  }
+
   /**
    * Dispatches a take operation on the map; this is more efficient than repeated FFI calls for each remove operation.
    */
   DispatchTake take() {
     return (n, dispatch) -> {
+      HashTrieMap<K, V> state = this.state;
       Iterator<Map.Entry<K, V>> entries = state.entrySet().iterator();
-      HashMap<K, V> newState = new HashMap<>(Math.min(state.size() - n, DEFAULT_MAP_SIZE));
-
-      int idx = 0;
-
-      while (entries.hasNext() && idx < n) {
-        Map.Entry<K, V> entry = entries.next();
-
-        idx += 1;
-        K key = entry.getKey();
-        V value = entry.getValue();
-        newState.put(key, value);
+      for (int idx = 0; idx < n && entries.hasNext(); idx++) {
+        entries.next();
       }
 
-      if (dispatch) {
-        while (entries.hasNext()) {
-          Map.Entry<K, V> entry = entries.next();
-
-          K key = entry.getKey();
-          V value = entry.getValue();
-
-          onRemove.onRemove(key, newState, value);
-        }
-      }
-
-      state = newState;
+      List<Map.Entry<K, V>> removed = new ArrayList<>(Math.max(state.size() - n, 0));
+      entries.forEachRemaining(removed::add);
+      removeAll(state, removed, dispatch);
     };
   }
 
@@ -170,54 +233,84 @@ class MapDownlinkState<K, V> {
    */
   DispatchDrop drop() {
     return (n, dispatch) -> {
+      HashTrieMap<K, V> state = this.state;
       Iterator<Map.Entry<K, V>> entries = state.entrySet().iterator();
-      HashMap<K, V> newState = new HashMap<>(Math.min(state.size() - n, DEFAULT_MAP_SIZE));
-      int idx = 0;
+      List<Map.Entry<K, V>> removed = new ArrayList<>(Math.min(state.size(), n));
+      for (int idx = 0; idx < n && entries.hasNext(); idx++) {
+        removed.add(entries.next());
+      }
+      removeAll(state, removed, dispatch);
+    };
+  }
 
-      while (entries.hasNext() && idx < n) {
-        idx += 1;
+  /**
+   * Removes the entries from the state, publishes the resulting state and then dispatches an on remove callback for
+   * each entry with it.
+   */
+  private void removeAll(HashTrieMap<K, V> state, List<Map.Entry<K, V>> removed, boolean dispatch) {
+    for (Map.Entry<K, V> entry : removed) {
+      state = state.removed(entry.getKey());
+    }
+    this.state = state;
 
-        if (dispatch) {
-          Map.Entry<K, V> entry = entries.next();
+    if (dispatch && onRemove != null) {
+      for (Map.Entry<K, V> entry : removed) {
+        dispatchRemoved(onRemove, entry.getKey(), state, entry.getValue());
+      }
+    }
+  }
 
-          K key = entry.getKey();
-          V value = entry.getValue();
+  /**
+   * Dispatches an on remove callback for an entry that has been removed from the map's state.
+   */
+  void dispatchRemoved(OnRemove<K, V> onRemove, K key, Map<K, V> map, V value) {
+    dispatcher.dispatch(key, () -> onRemove.onRemove(key, map, value));
+  }
 
-          onRemove.onRemove(key, newState, value);
-        }
-      }
+  /**
+   * Associates {@code value} with {@code key} in the map's state.
+   *
+   * @return the previous value associated with {@code key}, or null.
+   */
+  V put(K key, V value) {
+    HashTrieMap<K, V> state = this.state;
+    this.state = state.updated(key, value);
+    return state.get(key);
+  }
 
-      while (entries.hasNext()) {
-        Map.Entry<K, V> entry = entries.next();
+  /**
+   * Removes the mapping for {@code key} from the map's state.
+   *
+   * @return the value that was associated with {@code key}, or null.
+   */
+  V remove(K key) {
+    HashTrieMap<K, V> state = this.state;
+    this.state = state.removed(key);
+    return state.get(key);
+  }
 
-        K key = entry.getKey();
-        V value = entry.getValue();
-        newState.put(key, value);
-      }
+  void clear() {
+    state = HashTrieMap.empty();
+  }
 
-      state = newState;
-    };
+  /**
+   * Returns an immutable snapshot of the map's current state. This is provided to the lifecycle callbacks and it may
+   * be invoked from any thread.
+   */
+  Map<K, V> view() {
+    return state;
   }
 
-  private K tryParseKey(ByteBuffer buffer) {
-    return parse(keyForm.reset(), buffer);
+  OnRemove<K, V> getOnRemove() {
+    return onRemove;
   }
 
-  private V tryParseValue(ByteBuffer buffer) {
-    return parse(valueForm.reset(), buffer);
+  private K tryParseKey(ByteBuffer buffer) {
+    return keyDecoder.decode(ReadBuffer.byteBuffer(buffer));
   }
 
-  private <F> F parse(Recognizer<F> recognizer, ByteBuffer buffer) {
-    Parser<F> parser = new FormParser<>(recognizer);
-    parser = parser.feed(Input.byteBuffer(buffer));
-    if (parser.isDone()) {
-      return parser.bind();
-    } else if (parser.isError()) {
-      ParserError<F> error = (ParserError<F>) parser;
-      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
-    } else {
-      throw new RecognizerException("Unconsumed input");
-    }
+  private V tryParseValue(ByteBuffer buffer) {
+    return valueDecoder.decode(ReadBuffer.byteBuffer(buffer));
   }
 
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink.map;
+
+import ai.swim.client.downlink.CallbackDispatcher;
+import ai.swim.client.downlink.CallbackExecution;
+import ai.swim.client.downlink.map.dispatch.DispatchDrop;
+import ai.swim.client.downlink.map.dispatch.DispatchTake;
+import ai.swim.client.lifecycle.OnRemove;
+import ai.swim.structure.Form;
+import ai.swim.util.BalancedTreeMap;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * A map downlink's state whose entries are ordered by their keys.
+ * <p>
+ * The state is a persistent balanced tree and so take and drop operations update the state in O(log n), rather than
+ * rebuilding it, and select the entries by the order of their keys. The lifecycle callbacks are provided with the
+ * state itself, which is an immutable {@link java.util.SortedMap}, rather than a read-only view of it, and so it may
+ * also be used when the callbacks are not invoked inline. As with an unordered map, each new state is published through a
+ * volatile reference and so it may be read from any thread.
+ */
+final class OrderedMapDownlinkState<K, V> extends MapDownlinkState<K, V> {
+  private volatile BalancedTreeMap<K, V> state;
+
+  OrderedMapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove, Comparator<? super K> keyOrder) {
+    this(keyForm, valueForm, onRemove, CallbackExecution.inline().newDispatcher(), BalancedTreeMap.empty(keyOrder));
+  }
+
+  OrderedMapDownlinkState(Form<K> keyForm, Form<V> valueForm, OnRemove<K, V> onRemove, BalancedTreeMap<K, V> init) {
+    this(keyForm, valueForm, onRemove, CallbackExecution.inline().newDispatcher(), init);
+  }
+
+  OrderedMapDownlinkState(Form<K> keyForm,
+      Form<V> valueForm,
+      OnRemove<K, V> onRemove,
+      CallbackDispatcher dispatcher,
+      BalancedTreeMap<K, V> init) {
+    super(keyForm, valueForm, onRemove, dispatcher, null);
+    this.state = init;
+  }
+
+  @Override
+  V put(K key, V value) {
+    BalancedTreeMap<K, V> state = this.state;
+    this.state = state.updated(key, value);
+    return state.get(key);
+  }
+
+  @Override
+  V remove(K key) {
+    BalancedTreeMap<K, V> state = this.state;
+    this.state = state.removed(key);
+    return state.get(key);
+  }
+
+  @Override
+  void clear() {
+    state = state.take(0);
+  }
+
+  @Override
+  Map<K, V> view() {
+    return state;
+  }
+
+  @Override
+  DispatchTake take() {
+    return (n, dispatch) -> {
+      BalancedTreeMap<K, V> state = this.state;
+      BalancedTreeMap<K, V> removed = state.drop(n);
+      this.state = state.take(n);
+
+      if (dispatch) {
+        dispatchAllRemoved(removed);
+      }
+    };
+  }
+
+  @Override
+  DispatchDrop drop() {
+    return (n, dispatch) -> {
+      BalancedTreeMap<K, V> state = this.state;
+      BalancedTreeMap<K, V> removed = state.take(n);
+      this.state = state.drop(n);
+
+      if (dispatch) {
+        dispatchAllRemoved(removed);
+      }
+    };
+  }
+
+  private void dispatchAllRemoved(BalancedTreeMap<K, V> removed) {
+    OnRemove<K, V> onRemove = getOnRemove();
+    if (onRemove != null) {
+      for (Map.Entry<K, V> entry : removed.entrySet()) {
+        dispatchRemoved(onRemove, entry.getKey(), state, entry.getValue());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink.map.dispatch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Dispatches a batch of map events that the runtime delivers in a single call.
+ * <p>
+ * The batch is a sequence of records, each of which starts with a one byte tag followed by:
+ * <ul>
+ *   <li>{@link #UPDATE}: the length of the key as an int, the key, the length of the value as an int and then the
+ *   value.</li>
+ *   <li>{@link #REMOVE}: the length of the key as an int and then the key.</li>
+ *   <li>{@link #CLEAR}: nothing.</li>
+ *   <li>{@link #TAKE} and {@link #DROP}: the number of entries as an int.</li>
+ * </ul>
+ * The buffer is only valid for the duration of the call as the runtime reuses it for the next batch.
+ */
+@FunctionalInterface
+public interface DispatchBatch {
+  byte UPDATE = 0;
+  byte REMOVE = 1;
+  byte CLEAR = 2;
+  byte TAKE = 3;
+  byte DROP = 4;
+
+  void onBatch(ByteBuffer batch, boolean dispatch);
+}
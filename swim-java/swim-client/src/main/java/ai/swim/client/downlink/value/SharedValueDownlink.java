@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink.value;
+
+import ai.swim.concurrent.Trigger;
+
+/**
+ * A subscriber's handle to a value downlink that is shared with the client's other subscribers to the same lane.
+ * <p>
+ * The subscriber's callbacks are invoked until the handle is closed. Closing the handle detaches the subscriber from
+ * the downlink and the downlink is closed once all of its subscribers have been detached. {@link #awaitStopped()}
+ * returns once either the handle has been closed or the downlink has terminated.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <T> the type of the value.
+ */
+public final class SharedValueDownlink<T> extends ValueDownlink<T> implements AutoCloseable {
+  private Runnable leave;
+
+  private SharedValueDownlink(Trigger trigger, ValueDownlinkState<T> state) {
+    super(trigger, state);
+  }
+
+  /**
+   * Joins a subscriber to a shared downlink that it has acquired a reference to.
+   */
+  static <T> SharedValueDownlink<T> join(ValueDownlinkFanOut<T> fanOut, ValueDownlinkLifecycle<T> lifecycle) {
+    Trigger trigger = new Trigger();
+    SharedValueDownlink<T> downlink = new SharedValueDownlink<>(trigger, fanOut.getState());
+    downlink.leave = fanOut.subscribe(lifecycle, downlink, trigger);
+    return downlink;
+  }
+
+  /**
+   * Detaches the subscriber from the downlink. Its callbacks are not invoked again once this has returned, unless this
+   * is invoked from one of them.
+   */
+  @Override
+  public void close() {
+    leave.run();
+  }
+}
@@ -23,6 +23,8 @@ import ai.swim.concurrent.Trigger;
  * A Swim Value Downlink representation. A ValueDownlink synchronizes a shared real-time value with a remote value lane
  * and provides lifecycle callbacks that may be registered to be notified of certain events.
  * <p>
+ * The downlink's value may be read from any thread without blocking the runtime from applying events.
+ * <p>
  * This class is thread safe.
  *
  * @param <T> the type of the value.
@@ -31,4 +33,13 @@ public abstract class ValueDownlink<T> extends Downlink<ValueDownlinkState<T>> {
   protected ValueDownlink(Trigger trigger, ValueDownlinkState<T> state) {
     super(trigger, state);
   }
+
+  /**
+   * Returns the downlink's current value.
+   *
+   * @return the value that the downlink most recently received, or null if it has not yet synced.
+   */
+  public T get() {
+    return getState().get();
+  }
 }
@@ -17,32 +17,50 @@
 package ai.swim.client.downlink.value;
 
 import ai.swim.client.Handle;
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkConfig;
 import ai.swim.client.downlink.DownlinkException;
+import ai.swim.client.downlink.DownlinkRegistry;
+import ai.swim.client.downlink.DownlinkSubscription;
 import ai.swim.client.lifecycle.OnEvent;
 import ai.swim.client.lifecycle.OnLinked;
 import ai.swim.client.lifecycle.OnSet;
 import ai.swim.client.lifecycle.OnSynced;
 import ai.swim.client.lifecycle.OnUnlinked;
 import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ValueDownlinkBuilder<T> {
   private final Handle handle;
+  private final DownlinkRegistry registry;
   private final String host;
   private final String lane;
   private final Class<T> formType;
   private final String node;
   private final ValueDownlinkLifecycle<T> lifecycle;
   private DownlinkConfig downlinkConfig;
+  private CallbackExecution callbackExecution;
 
   public ValueDownlinkBuilder(Handle handle, Class<T> formType, String host, String node, String lane) {
+    this(handle, new DownlinkRegistry(), formType, host, node, lane);
+  }
+
+  public ValueDownlinkBuilder(Handle handle,
+      DownlinkRegistry registry,
+      Class<T> formType,
+      String host,
+      String node,
+      String lane) {
     this.handle = handle;
+    this.registry = registry;
     this.formType = formType;
     this.host = host;
     this.node = node;
     this.lane = lane;
     this.lifecycle = new ValueDownlinkLifecycle<>();
     this.downlinkConfig = new DownlinkConfig();
+    this.callbackExecution = CallbackExecution.inline();
   }
 
   /**
@@ -85,6 +103,18 @@ public class ValueDownlinkBuilder<T> {
     return this;
   }
 
+  /**
+   * Sets the policy that determines the threads on which the downlink's lifecycle callbacks are invoked; e.g,
+   * {@code setCallbackExecution(CallbackExecution.executor(executor))}.
+   *
+   * @throws NullPointerException if the policy is null.
+   */
+  public ValueDownlinkBuilder<T> setCallbackExecution(CallbackExecution callbackExecution) {
+    Objects.requireNonNull(callbackExecution);
+    this.callbackExecution = callbackExecution;
+    return this;
+  }
+
   /**
    * Attempts to open the downlink.
    *
@@ -92,7 +122,64 @@ public class ValueDownlinkBuilder<T> {
    * @throws DownlinkException if there was an error opening the downlink.
    */
   public ValueDownlink<T> open() throws DownlinkException {
-    return ValueDownlinkModel.open(handle, host, node, lane, formType, lifecycle, downlinkConfig);
+    return ValueDownlinkModel.open(handle, host, node, lane, formType, lifecycle, downlinkConfig, callbackExecution);
+  }
+
+  /**
+   * Attempts to open the downlink as one that is shared with the client's other subscribers to the same lane and type.
+   * If the client already has a running shared downlink to the lane then the registered callbacks are attached to it,
+   * rather than a new downlink being opened, and they are first invoked with its link state and current value. Each
+   * event is decoded once and provided to the callbacks of every subscriber.
+   * <p>
+   * The shared downlink is opened with the configuration and callback execution of the subscriber that opens it and
+   * it is closed once every subscriber has closed its handle.
+   *
+   * @return the subscriber's handle to the shared downlink.
+   * @throws DownlinkException if there was an error opening the downlink.
+   */
+  public SharedValueDownlink<T> openShared() throws DownlinkException {
+    return ValueDownlinkModel.openShared(
+        handle,
+        registry,
+        host,
+        node,
+        lane,
+        formType,
+        lifecycle,
+        downlinkConfig,
+        callbackExecution);
+  }
+
+  /**
+   * Returns a publisher of the downlink's values. The downlink is opened when the publisher is subscribed to and it
+   * publishes the value that it syncs with and then each event that it receives. Any registered callbacks are invoked
+   * before each value is published.
+   * <p>
+   * The downlink only reads as many events from the runtime as the subscriber has requested, so a subscriber that
+   * does not keep up applies backpressure to the connection rather than its events being buffered. Cancelling the
+   * subscription terminates the downlink. As with {@link #open()}, the publisher may only be subscribed to once.
+   *
+   * @return a publisher of the downlink's values.
+   */
+  public Flow.Publisher<T> publisher() {
+    AtomicBoolean subscribed = new AtomicBoolean();
+    return subscriber -> {
+      Objects.requireNonNull(subscriber);
+      if (subscribed.compareAndSet(false, true)) {
+        ValueDownlinkModel.subscribe(
+            handle,
+            host,
+            node,
+            lane,
+            formType,
+            lifecycle,
+            downlinkConfig,
+            callbackExecution,
+            subscriber);
+      } else {
+        DownlinkSubscription.reject(subscriber, new IllegalStateException("Publisher has already been subscribed to"));
+      }
+    };
   }
 
   /**
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink.value;
+
+import ai.swim.client.downlink.DownlinkFanOut;
+import ai.swim.client.lifecycle.OnEvent;
+import ai.swim.client.lifecycle.OnLinked;
+import ai.swim.client.lifecycle.OnSet;
+import ai.swim.client.lifecycle.OnSynced;
+import ai.swim.client.lifecycle.OnUnlinked;
+import ai.swim.concurrent.Trigger;
+
+/**
+ * A value downlink that is shared by a number of subscribers and which fans each of its decoded values out to them.
+ */
+final class ValueDownlinkFanOut<T> extends DownlinkFanOut<ValueDownlinkLifecycle<T>> {
+  private ValueDownlinkState<T> state;
+  // Guarded by this. The link state and the value as of the last callback that was invoked.
+  private boolean linked;
+  private boolean synced;
+  private T value;
+
+  ValueDownlinkFanOut(Runnable cancel) {
+    super(cancel);
+  }
+
+  /**
+   * Returns the lifecycle that the native downlink is opened with.
+   */
+  ValueDownlinkLifecycle<T> lifecycle() {
+    return new ValueDownlinkLifecycle<T>()
+        .setOnLinked(this::onLinked)
+        .setOnSynced(this::onSynced)
+        .setOnEvent(this::onEvent)
+        .setOnSet(this::onSet)
+        .setOnUnlinked(this::onUnlinked);
+  }
+
+  void setState(ValueDownlinkState<T> state) {
+    this.state = state;
+  }
+
+  ValueDownlinkState<T> getState() {
+    return state;
+  }
+
+  /**
+   * Joins a subscriber's handle to this downlink.
+   *
+   * @see DownlinkFanOut#join(Object, ai.swim.client.downlink.Downlink, Trigger)
+   */
+  Runnable subscribe(ValueDownlinkLifecycle<T> lifecycle, SharedValueDownlink<T> handle, Trigger trigger) {
+    return join(lifecycle, handle, trigger);
+  }
+
+  @Override
+  protected void replay(ValueDownlinkLifecycle<T> lifecycle) {
+    OnLinked onLinked = lifecycle.getOnLinked();
+    if (linked && onLinked != null) {
+      onLinked.onLinked();
+    }
+
+    OnSynced<T> onSynced = lifecycle.getOnSynced();
+    if (synced && onSynced != null) {
+      onSynced.onSynced(value);
+    }
+  }
+
+  private synchronized void onLinked() {
+    linked = true;
+    forEachSubscriber(lifecycle -> {
+      OnLinked onLinked = lifecycle.getOnLinked();
+      if (onLinked != null) {
+        onLinked.onLinked();
+      }
+    });
+  }
+
+  private synchronized void onSynced(T value) {
+    this.synced = true;
+    this.value = value;
+    forEachSubscriber(lifecycle -> {
+      OnSynced<T> onSynced = lifecycle.getOnSynced();
+      if (onSynced != null) {
+        onSynced.onSynced(value);
+      }
+    });
+  }
+
+  private synchronized void onEvent(T value) {
+    forEachSubscriber(lifecycle -> {
+      OnEvent<T> onEvent = lifecycle.getOnEvent();
+      if (onEvent != null) {
+        onEvent.onEvent(value);
+      }
+    });
+  }
+
+  private synchronized void onSet(T oldValue, T newValue) {
+    this.value = newValue;
+    forEachSubscriber(lifecycle -> {
+      OnSet<T> onSet = lifecycle.getOnSet();
+      if (onSet != null) {
+        onSet.onSet(oldValue, newValue);
+      }
+    });
+  }
+
+  private synchronized void onUnlinked() {
+    linked = false;
+    synced = false;
+    forEachSubscriber(lifecycle -> {
+      OnUnlinked onUnlinked = lifecycle.getOnUnlinked();
+      if (onUnlinked != null) {
+        onUnlinked.onUnlinked();
+      }
+    });
+  }
+}
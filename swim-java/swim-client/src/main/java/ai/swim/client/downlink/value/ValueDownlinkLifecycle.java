@@ -73,4 +73,16 @@ public class ValueDownlinkLifecycle<T> {
     this.onUnlinked = onUnlinked;
     return this;
   }
+
+  /**
+   * Returns a copy of this lifecycle that is not affected by any callbacks that are subsequently registered.
+   */
+  ValueDownlinkLifecycle<T> copy() {
+    return new ValueDownlinkLifecycle<T>()
+        .setOnEvent(onEvent)
+        .setOnLinked(onLinked)
+        .setOnSynced(onSynced)
+        .setOnSet(onSet)
+        .setOnUnlinked(onUnlinked);
+  }
 }
@@ -17,13 +17,24 @@
 package ai.swim.client.downlink.value;
 
 import ai.swim.client.Handle;
+import ai.swim.client.downlink.CallbackDispatcher;
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkConfig;
+import ai.swim.client.downlink.DownlinkDemand;
 import ai.swim.client.downlink.DownlinkException;
+import ai.swim.client.downlink.DownlinkObserver;
+import ai.swim.client.downlink.DownlinkRegistry;
+import ai.swim.client.downlink.DownlinkSubscription;
+import ai.swim.client.lifecycle.OnEvent;
 import ai.swim.client.lifecycle.OnLinked;
+import ai.swim.client.lifecycle.OnSynced;
 import ai.swim.client.lifecycle.OnUnlinked;
 import ai.swim.concurrent.Trigger;
 import ai.swim.structure.Form;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
@@ -41,6 +52,7 @@ public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
    * @param formType       A form class representing the structure of the downlink's value.
    * @param lifecycle      Downlink lifecycle event callbacks.
    * @param downlinkConfig Downlink and runtime configuration.
+   * @param execution      The policy that determines the threads on which the lifecycle callbacks are invoked.
    * @return An established ValueDownlink.
    * @throws DownlinkException if there is an error opening the downlink or by a malformed address.
    */
@@ -50,11 +62,132 @@ public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
       String lane,
       Class<T> formType,
       ValueDownlinkLifecycle<T> lifecycle,
-      DownlinkConfig downlinkConfig) throws DownlinkException {
-    ValueDownlinkState<T> state = new ValueDownlinkState<>(Form.forClass(formType));
-    Trigger trigger = new Trigger();
+      DownlinkConfig downlinkConfig,
+      CallbackExecution execution) throws DownlinkException {
+    return open(handle, host, node, lane, formType, lifecycle, downlinkConfig, execution, null, null);
+  }
+
+  /**
+   * Opens a ValueDownlink to host/node/lane that publishes the value that it syncs with and then each of its events to
+   * {@code subscriber}. The downlink only reads as many events from the runtime as the subscriber has requested and
+   * it terminates if the subscriber cancels its subscription. The lifecycle callbacks are invoked before each value is
+   * published.
+   *
+   * @param subscriber to publish the values to. If there is an error opening the downlink then the subscriber is
+   *                   signalled with it.
+   * @see #open(Handle, String, String, String, Class, ValueDownlinkLifecycle, DownlinkConfig, CallbackExecution)
+   */
+  static <T> void subscribe(Handle handle,
+      String host,
+      String node,
+      String lane,
+      Class<T> formType,
+      ValueDownlinkLifecycle<T> lifecycle,
+      DownlinkConfig downlinkConfig,
+      CallbackExecution execution,
+      Flow.Subscriber<? super T> subscriber) {
+    DownlinkDemand demand = DownlinkDemand.create();
+    DownlinkSubscription<T> subscription = new DownlinkSubscription<>(subscriber, demand::request, demand::cancel);
+    subscription.start();
+
+    if (subscription.isCancelled()) {
+      handle.close();
+      return;
+    }
+
+    OnSynced<T> onSynced = lifecycle.getOnSynced();
+    OnEvent<T> onEvent = lifecycle.getOnEvent();
+    ValueDownlinkLifecycle<T> published = new ValueDownlinkLifecycle<T>()
+        .setOnLinked(lifecycle.getOnLinked())
+        .setOnUnlinked(lifecycle.getOnUnlinked())
+        .setOnSet(lifecycle.getOnSet())
+        .setOnSynced(value -> {
+          if (onSynced != null) {
+            onSynced.onSynced(value);
+          }
+          subscription.next(value);
+        })
+        .setOnEvent(value -> {
+          if (onEvent != null) {
+            onEvent.onEvent(value);
+          }
+          subscription.next(value);
+        });
+
+    try {
+      open(handle, host, node, lane, formType, published, downlinkConfig, execution, demand, subscription);
+    } catch (DownlinkException e) {
+      subscription.complete(e);
+    }
+  }
+
+  /**
+   * Opens a ValueDownlink to host/node/lane that is shared with the other subscribers of {@code registry} to the same
+   * lane and type, or attaches to the running downlink if there is one. The native downlink is closed once every
+   * subscriber has closed its handle.
+   *
+   * @param handle   a single-use SwimClient native handle that is dropped once the downlink has been acquired.
+   * @param registry the registry of the client's shared downlinks.
+   * @return the subscriber's handle to the shared downlink.
+   * @see #open(Handle, String, String, String, Class, ValueDownlinkLifecycle, DownlinkConfig, CallbackExecution)
+   */
+  static <T> SharedValueDownlink<T> openShared(Handle handle,
+      DownlinkRegistry registry,
+      String host,
+      String node,
+      String lane,
+      Class<T> formType,
+      ValueDownlinkLifecycle<T> lifecycle,
+      DownlinkConfig downlinkConfig,
+      CallbackExecution execution) throws DownlinkException {
+    List<?> key = Arrays.asList(ValueDownlink.class, host, node, lane, formType);
+    ValueDownlinkFanOut<T> fanOut;
+
+    try (handle) {
+      fanOut = registry.acquire(key, () -> {
+        DownlinkDemand demand = DownlinkDemand.create();
+        // The downlink's events are not limited; the demand is only used to close it once it has no subscribers.
+        demand.request(Long.MAX_VALUE);
+
+        ValueDownlinkFanOut<T> created = new ValueDownlinkFanOut<>(demand::cancel);
+        ValueDownlinkModel<T> downlink = open(
+            handle,
+            host,
+            node,
+            lane,
+            formType,
+            created.lifecycle(),
+            downlinkConfig,
+            execution,
+            demand,
+            created);
+        created.setState(downlink.getState());
+        return created;
+      });
+    }
+
+    return SharedValueDownlink.join(fanOut, lifecycle.copy());
+  }
+
+  private static <T> ValueDownlinkModel<T> open(Handle handle,
+      String host,
+      String node,
+      String lane,
+      Class<T> formType,
+      ValueDownlinkLifecycle<T> lifecycle,
+      DownlinkConfig downlinkConfig,
+      CallbackExecution execution,
+      DownlinkDemand demand,
+      DownlinkObserver observer) throws DownlinkException {
+    CallbackDispatcher dispatcher = execution.newDispatcher();
+    ValueDownlinkState<T> state = new ValueDownlinkState<>(Form.forClass(formType), dispatcher);
+    Trigger trigger = observer == null ? new Trigger() : observer.newTrigger(dispatcher);
     ValueDownlinkModel<T> downlink = new ValueDownlinkModel<>(trigger, state);
 
+    if (observer != null) {
+      observer.attach(downlink);
+    }
+
     try (handle) {
       open(
           handle.get(),
@@ -65,10 +198,13 @@ public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
           node,
           lane,
           state.wrapOnEvent(lifecycle.getOnEvent()),
-          lifecycle.getOnLinked(),
+          dispatcher.wrapOnLinked(lifecycle.getOnLinked()),
           state.wrapOnSet(lifecycle.getOnSet()),
           state.wrapOnSynced(lifecycle.getOnSynced()),
-          lifecycle.getOnUnlinked());
+          dispatcher.wrapOnUnlinked(lifecycle.getOnUnlinked()),
+          state.wrapOnBatch(lifecycle.getOnEvent(), lifecycle.getOnSet()),
+          downlinkConfig.getMaxBatchSize(),
+          demand == null ? 0 : demand.get());
     }
 
     return downlink;
@@ -90,6 +226,9 @@ public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
    * @param onSet      onSet callback. If this is null, then it will not be invoked.
    * @param onSynced   onSynced callback. If this is null, then it will not be invoked.
    * @param onUnlinked onUnlinked callback. If this is null, then it will not be invoked.
+   * @param onBatch      callback to deliver a batch of events to. If this is null, then events are not batched.
+   * @param maxBatchSize the maximum number of events in a batch.
+   * @param demandPtr    A DownlinkDemand pointer that limits the events that are read, or 0 if they are not limited.
    * @param <T>        The type of the value.
    */
   private static native <T> void open(long handlePtr,
@@ -103,6 +242,9 @@ public final class ValueDownlinkModel<T> extends ValueDownlink<T> {
       OnLinked onLinked,
       Consumer<ByteBuffer> onSet,
       Consumer<ByteBuffer> onSynced,
-      OnUnlinked onUnlinked) throws DownlinkException;
+      OnUnlinked onUnlinked,
+      Consumer<ByteBuffer> onBatch,
+      int maxBatchSize,
+      long demandPtr) throws DownlinkException;
 
 }
@@ -16,25 +16,41 @@
 
 package ai.swim.client.downlink.value;
 
+import ai.swim.client.downlink.CallbackDispatcher;
+import ai.swim.client.downlink.CallbackExecution;
 import ai.swim.client.downlink.DownlinkException;
 import ai.swim.client.lifecycle.OnEvent;
 import ai.swim.client.lifecycle.OnSet;
 import ai.swim.client.lifecycle.OnSynced;
-import ai.swim.codec.Parser;
-import ai.swim.codec.ParserError;
-import ai.swim.codec.input.Input;
+import ai.swim.codec.data.ReadBuffer;
 import ai.swim.structure.Form;
-import ai.swim.structure.FormParser;
-import ai.swim.structure.recognizer.RecognizerException;
+import ai.swim.structure.ReconDecoder;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
+/**
+ * A value downlink's state.
+ * <p>
+ * The state is updated by the runtime thread and published through a volatile reference so that it may be read from
+ * any thread. It is tracked whether or not any lifecycle callbacks are registered.
+ */
 public class ValueDownlinkState<T> {
-  private final Form<T> form;
-  private T state;
+  /**
+   * The keys that pending on event and on set callbacks are merged by.
+   */
+  private static final Object EVENT_KEY = new Object();
+  private static final Object SET_KEY = new Object();
+  private final ReconDecoder<T> decoder;
+  private final CallbackDispatcher dispatcher;
+  private volatile T state;
 
   ValueDownlinkState(Form<T> form) {
-    this.form = form;
+    this(form, CallbackExecution.inline().newDispatcher());
+  }
+
+  ValueDownlinkState(Form<T> form, CallbackDispatcher dispatcher) {
+    this.decoder = new ReconDecoder<>(form);
+    this.dispatcher = dispatcher;
   }
 
   Consumer<ByteBuffer> wrapOnEvent(OnEvent<T> onEvent) {
@@ -47,72 +63,95 @@ public class ValueDownlinkState<T> {
           throw new DownlinkException("Invalid frame body", e);
         }
 
-        try {
-          onEvent.onEvent(value);
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
-        }
+        dispatcher.dispatch(EVENT_KEY, () -> onEvent.onEvent(value));
       };
     } else {
       return null;
     }
   }
 
+  /**
+   * Wraps the provided on synced callback so that the state is updated with the value that the downlink synced with.
+   * The returned callback is never null as the state must be tracked even if {@code onSynced} is null.
+   */
   Consumer<ByteBuffer> wrapOnSynced(OnSynced<T> onSynced) {
-    if (onSynced != null) {
-      return buffer -> {
-        T value;
-        try {
-          value = parse(buffer);
-        } catch (RuntimeException e) {
-          throw new DownlinkException("Invalid frame body", e);
-        }
+    return buffer -> {
+      T value;
+      try {
+        value = parse(buffer);
+      } catch (RuntimeException e) {
+        throw new DownlinkException("Invalid frame body", e);
+      }
 
-        try {
-          this.state = value;
-          onSynced.onSynced(value);
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
-        }
-      };
-    } else {
-      return null;
-    }
+      this.state = value;
+      if (onSynced != null) {
+        dispatcher.dispatch(null, () -> onSynced.onSynced(value));
+      }
+    };
   }
 
+  /**
+   * Wraps the provided on set callback so that the state is updated with each value that is set. The returned
+   * callback is never null as the state must be tracked even if {@code onSet} is null.
+   */
   Consumer<ByteBuffer> wrapOnSet(OnSet<T> onSet) {
-    if (onSet != null) {
-      return buffer -> {
+    return buffer -> {
+      T value;
+      try {
+        value = parse(buffer);
+      } catch (RuntimeException e) {
+        throw new DownlinkException("Invalid frame body", e);
+      }
+
+      set(onSet, value);
+    };
+  }
+
+  /**
+   * Wraps the provided lifecycle callbacks so that a batch of events that is delivered by the runtime in a single call
+   * is decoded in place and each event is dispatched to {@code onEvent} and then {@code onSet}. The batch is a sequence
+   * of records of the length of an event as an int followed by the event and it is only valid for the duration of the
+   * call. As with {@link #wrapOnSet(OnSet)}, the state is updated with each event even if both callbacks are null.
+   */
+  Consumer<ByteBuffer> wrapOnBatch(OnEvent<T> onEvent, OnSet<T> onSet) {
+    return batch -> {
+      ReadBuffer buffer = ReadBuffer.byteBuffer(batch);
+
+      while (buffer.remaining() > 0) {
         T value;
         try {
-          value = parse(buffer);
+          value = decoder.decode(buffer, buffer.getInteger());
         } catch (RuntimeException e) {
           throw new DownlinkException("Invalid frame body", e);
         }
 
-        try {
-          onSet.onSet(state, value);
-          this.state = value;
-        } catch (Throwable e) {
-          throw new DownlinkException(e);
+        if (onEvent != null) {
+          dispatcher.dispatch(EVENT_KEY, () -> onEvent.onEvent(value));
         }
-      };
-    } else {
-      return null;
+        set(onSet, value);
+      }
+    };
+  }
+
+  private void set(OnSet<T> onSet, T value) {
+    T oldValue = state;
+    this.state = value;
+
+    if (onSet != null) {
+      dispatcher.dispatch(SET_KEY, () -> onSet.onSet(oldValue, value));
     }
   }
 
+  /**
+   * Returns the current value of the state, or null if the downlink has not yet synced. This may be invoked from any
+   * thread.
+   */
+  T get() {
+    return state;
+  }
+
   private T parse(ByteBuffer buffer) {
-    Parser<T> parser = new FormParser<>(form.reset());
-    parser = parser.feed(Input.byteBuffer(buffer));
-    if (parser.isDone()) {
-      return parser.bind();
-    } else if (parser.isError()) {
-      ParserError<T> error = (ParserError<T>) parser;
-      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
-    } else {
-      throw new RecognizerException("Unconsumed input");
-    }
+    return decoder.decode(ReadBuffer.byteBuffer(buffer));
   }
 
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink;
+
+import ai.swim.concurrent.Trigger;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownlinkRegistryTest {
+  private static final List<?> KEY = List.of("host", "node", "lane");
+
+  @Test
+  void sharesRunningDownlinks() throws DownlinkException {
+    DownlinkRegistry registry = new DownlinkRegistry();
+    AtomicInteger opened = new AtomicInteger();
+    DownlinkRegistry.Opener<TestFanOut> opener = () -> {
+      opened.incrementAndGet();
+      return new TestFanOut(() -> {
+      });
+    };
+
+    TestFanOut first = registry.acquire(KEY, opener);
+    TestFanOut second = registry.acquire(KEY, opener);
+    TestFanOut other = registry.acquire(List.of("host", "node", "other"), opener);
+
+    assertSame(first, second);
+    assertNotSame(first, other);
+    assertEquals(2, opened.get());
+    assertEquals(2, registry.size());
+  }
+
+  @Test
+  void closesOnceLastSubscriberLeaves() throws DownlinkException {
+    DownlinkRegistry registry = new DownlinkRegistry();
+    AtomicInteger cancelled = new AtomicInteger();
+    DownlinkRegistry.Opener<TestFanOut> opener = () -> new TestFanOut(cancelled::incrementAndGet);
+
+    TestFanOut fanOut = registry.acquire(KEY, opener);
+    Runnable first = fanOut.join(new Trigger());
+    Runnable second = registry.acquire(KEY, opener).join(new Trigger());
+    assertEquals(2, fanOut.subscriberCount());
+
+    first.run();
+    first.run();
+    assertEquals(0, cancelled.get());
+    assertEquals(1, fanOut.subscriberCount());
+
+    second.run();
+    assertEquals(1, cancelled.get());
+    assertEquals(0, fanOut.subscriberCount());
+    assertEquals(0, registry.size());
+
+    assertNotSame(fanOut, registry.acquire(KEY, opener));
+  }
+
+  @Test
+  void stopsSubscribersWhenDownlinkTerminates() throws DownlinkException {
+    DownlinkRegistry registry = new DownlinkRegistry();
+    TestFanOut fanOut = registry.acquire(KEY, () -> new TestFanOut(() -> {
+    }));
+
+    Trigger trigger = new Trigger();
+    TestDownlink handle = new TestDownlink(trigger);
+    fanOut.join(handle, trigger);
+
+    TestDownlink downlink = new TestDownlink(new Trigger());
+    downlink.message = "Connection failed";
+    fanOut.attach(downlink);
+    fanOut.newTrigger(CallbackExecution.inline().newDispatcher()).trigger();
+
+    assertTrue(fanOut.isStopped());
+    assertEquals(0, registry.size());
+    DownlinkException error = assertThrows(DownlinkException.class, handle::awaitStopped);
+    assertEquals("Connection failed", error.getMessage());
+
+    // A subscriber that joins a downlink that has stopped is stopped immediately.
+    Trigger late = new Trigger();
+    fanOut.join(late);
+    assertTrue(late.hasTriggered());
+    assertNotSame(fanOut, registry.acquire(KEY, () -> new TestFanOut(() -> {
+    })));
+  }
+
+  @Test
+  void replaysToLateSubscribers() throws DownlinkException {
+    DownlinkRegistry registry = new DownlinkRegistry();
+    TestFanOut fanOut = registry.acquire(KEY, () -> new TestFanOut(() -> {
+    }));
+
+    AtomicInteger replayed = new AtomicInteger();
+    fanOut.join(new TestDownlink(new Trigger()), new Trigger(), replayed::incrementAndGet);
+    assertEquals(1, replayed.get());
+
+    AtomicInteger notified = new AtomicInteger();
+    fanOut.join(new TestDownlink(new Trigger()), new Trigger(), notified::incrementAndGet);
+    fanOut.forEachSubscriber(Runnable::run);
+
+    assertEquals(2, replayed.get());
+    assertEquals(2, notified.get());
+    assertFalse(fanOut.isStopped());
+  }
+
+  private static final class TestDownlink extends Downlink<Object> {
+    private TestDownlink(Trigger trigger) {
+      super(trigger, null);
+    }
+  }
+
+  private static final class TestFanOut extends DownlinkFanOut<Runnable> {
+    private TestFanOut(Runnable cancel) {
+      super(cancel);
+    }
+
+    private Runnable join(Trigger trigger) {
+      return join(new TestDownlink(trigger), trigger);
+    }
+
+    private Runnable join(Downlink<?> handle, Trigger trigger) {
+      return join(handle, trigger, () -> {
+      });
+    }
+
+    private Runnable join(Downlink<?> handle, Trigger trigger, Runnable lifecycle) {
+      return join(lifecycle, handle, trigger);
+    }
+
+    @Override
+    protected void replay(Runnable lifecycle) {
+      lifecycle.run();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownlinkSubscriptionTest {
+
+  @Test
+  void deliversRequestedItems() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    List<Long> demand = new ArrayList<>();
+    DownlinkSubscription<Integer> subscription = new DownlinkSubscription<>(subscriber, demand::add, () -> {
+    });
+    subscription.start();
+
+    subscription.next(1);
+    subscription.next(2);
+    subscription.next(3);
+    assertEquals(List.of(), subscriber.items);
+
+    subscriber.subscription.request(2);
+    assertEquals(List.of(1, 2), subscriber.items);
+    assertEquals(List.of(2L), demand);
+
+    subscriber.subscription.request(2);
+    assertEquals(List.of(1, 2, 3), subscriber.items);
+
+    subscription.next(4);
+    assertEquals(List.of(1, 2, 3, 4), subscriber.items);
+
+    subscription.next(5);
+    assertEquals(List.of(1, 2, 3, 4), subscriber.items);
+  }
+
+  @Test
+  void completesOnceDrained() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    DownlinkSubscription<Integer> subscription = new DownlinkSubscription<>(subscriber, n -> {
+    }, () -> {
+    });
+    subscription.start();
+
+    subscription.next(1);
+    subscription.next(2);
+    subscription.complete(null);
+    subscription.next(3);
+    assertFalse(subscriber.completed);
+
+    subscriber.subscription.request(1);
+    assertFalse(subscriber.completed);
+
+    subscriber.subscription.request(1);
+    assertEquals(List.of(1, 2), subscriber.items);
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+
+  @Test
+  void completesWithError() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    DownlinkSubscription<Integer> subscription = new DownlinkSubscription<>(subscriber, n -> {
+    }, () -> {
+    });
+    subscription.start();
+
+    DownlinkException error = new DownlinkException("Downlink failed");
+    subscription.complete(error);
+
+    assertEquals(error, subscriber.error);
+    assertFalse(subscriber.completed);
+  }
+
+  @Test
+  void cancel() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    AtomicBoolean cancelled = new AtomicBoolean();
+    DownlinkSubscription<Integer> subscription = new DownlinkSubscription<>(subscriber, n -> {
+    }, () -> cancelled.set(true));
+    subscription.start();
+
+    subscription.next(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+    subscription.complete(null);
+
+    assertTrue(cancelled.get());
+    assertTrue(subscription.isCancelled());
+    assertEquals(List.of(), subscriber.items);
+    assertFalse(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+
+  @Test
+  void nonPositiveRequest() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    AtomicBoolean cancelled = new AtomicBoolean();
+    DownlinkSubscription<Integer> subscription = new DownlinkSubscription<>(subscriber, n -> {
+    }, () -> cancelled.set(true));
+    subscription.start();
+
+    subscription.next(1);
+    subscriber.subscription.request(0);
+
+    assertTrue(cancelled.get());
+    assertEquals(List.of(), subscriber.items);
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+  }
+
+  @Test
+  void reject() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    DownlinkSubscription.reject(subscriber, new IllegalStateException());
+
+    assertTrue(subscriber.error instanceof IllegalStateException);
+  }
+
+  private static final class RecordingSubscriber implements Flow.Subscriber<Integer> {
+    private final List<Integer> items = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private boolean completed;
+    private Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Integer item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
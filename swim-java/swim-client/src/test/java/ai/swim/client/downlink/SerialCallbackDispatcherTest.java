@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialCallbackDispatcherTest {
+
+  private static void runAll(ArrayDeque<Runnable> tasks) {
+    while (!tasks.isEmpty()) {
+      tasks.poll().run();
+    }
+  }
+
+  @Test
+  void preservesOrder() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      int count = 10_000;
+      List<Integer> invoked = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch latch = new CountDownLatch(count);
+      CallbackDispatcher dispatcher = CallbackExecution.executor(executor, 16, OverflowPolicy.BLOCK).newDispatcher();
+
+      for (int i = 0; i < count; i++) {
+        int event = i;
+        dispatcher.dispatch(event % 8, () -> {
+          invoked.add(event);
+          latch.countDown();
+        });
+      }
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+      assertEquals(IntStream.range(0, count).boxed().collect(Collectors.toList()), invoked);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void dropOldest() {
+    ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    List<String> invoked = new ArrayList<>();
+    CallbackDispatcher dispatcher = CallbackExecution.executor(tasks::add, 2, OverflowPolicy.DROP_OLDEST).newDispatcher();
+
+    dispatcher.dispatch(null, () -> invoked.add("linked"));
+    dispatcher.dispatch("a", () -> invoked.add("a"));
+    dispatcher.dispatch("b", () -> invoked.add("b"));
+    dispatcher.dispatch("c", () -> invoked.add("c"));
+    runAll(tasks);
+
+    assertEquals(List.of("linked", "c"), invoked);
+  }
+
+  @Test
+  void conflate() {
+    ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    List<String> invoked = new ArrayList<>();
+    CallbackDispatcher dispatcher = CallbackExecution.executor(tasks::add, 8, OverflowPolicy.CONFLATE).newDispatcher();
+
+    dispatcher.dispatch("a", () -> invoked.add("a1"));
+    dispatcher.dispatch("b", () -> invoked.add("b1"));
+    dispatcher.dispatch("a", () -> invoked.add("a2"));
+    dispatcher.dispatch(null, () -> invoked.add("clear"));
+    dispatcher.dispatch("a", () -> invoked.add("a3"));
+    dispatcher.dispatch("a", () -> invoked.add("a4"));
+    runAll(tasks);
+
+    assertEquals(List.of("a2", "b1", "clear", "a4"), invoked);
+  }
+
+  @Test
+  void failureTerminatesDispatch() {
+    ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    List<String> invoked = new ArrayList<>();
+    CallbackDispatcher dispatcher = CallbackExecution.executor(tasks::add).newDispatcher();
+    IllegalStateException failure = new IllegalStateException("callback failure");
+
+    dispatcher.dispatch("a", () -> {
+      throw failure;
+    });
+    dispatcher.dispatch("b", () -> invoked.add("b"));
+    runAll(tasks);
+
+    DownlinkException e = assertThrows(DownlinkException.class, () -> dispatcher.dispatch("c", () -> invoked.add("c")));
+    assertEquals(failure, e.getCause());
+    assertEquals(List.of(), invoked);
+  }
+
+}
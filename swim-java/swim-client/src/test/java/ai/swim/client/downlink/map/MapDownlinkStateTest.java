@@ -16,8 +16,17 @@
 
 package ai.swim.client.downlink.map;
 
+import ai.swim.client.downlink.CallbackExecution;
+import ai.swim.client.downlink.map.dispatch.DispatchBatch;
+import ai.swim.structure.Form;
+import ai.swim.util.BalancedTreeMap;
 import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -57,4 +66,140 @@ class MapDownlinkStateTest {
     assertEquals(init, removed);
   }
 
-}
\ No newline at end of file
+  @Test
+  void dropWithoutDispatch() {
+    HashMap<String, String> init = new HashMap<>(Map.of("a", "a", "b", "b", "c", "c"));
+    MapDownlinkState<String, String> state = new MapDownlinkState<>(null, null, null, init);
+
+    state.drop().drop(2, false);
+
+    HashMap<String, String> remaining = new HashMap<>();
+    state.wrapOnClear(remaining::putAll).onClear(true);
+    assertEquals(1, remaining.size());
+  }
+
+  @Test
+  void orderedTakeAndDrop() {
+    BalancedTreeMap<String, String> init = BalancedTreeMap.empty();
+    for (String key : List.of("e", "b", "d", "a", "c", "f")) {
+      init = init.updated(key, key.toUpperCase());
+    }
+
+    List<String> removed = new ArrayList<>();
+    MapDownlinkState<String, String> state = new OrderedMapDownlinkState<>(null, null, (key, map, value) -> {
+      assertEquals(key.toUpperCase(), value);
+      removed.add(key);
+    }, init);
+
+    state.drop().drop(2, true);
+    assertEquals(List.of("a", "b"), removed);
+
+    state.take().take(2, true);
+    assertEquals(List.of("a", "b", "e", "f"), removed);
+
+    // Take and drop without dispatching do not invoke the callback.
+    state.drop().drop(1, false);
+    assertEquals(4, removed.size());
+
+    List<String> remaining = new ArrayList<>();
+    state.wrapOnClear(map -> remaining.addAll(map.keySet())).onClear(true);
+    assertEquals(List.of("d"), remaining);
+  }
+
+  private static void putRecon(ByteBuffer buffer, String recon) {
+    byte[] bytes = recon.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  @Test
+  void batch() {
+    ByteBuffer batch = ByteBuffer.allocateDirect(256);
+    batch.put(DispatchBatch.UPDATE);
+    putRecon(batch, "a");
+    putRecon(batch, "1");
+    batch.put(DispatchBatch.UPDATE);
+    putRecon(batch, "b");
+    putRecon(batch, "2");
+    batch.put(DispatchBatch.UPDATE);
+    putRecon(batch, "a");
+    putRecon(batch, "3");
+    batch.put(DispatchBatch.REMOVE);
+    putRecon(batch, "b");
+    batch.put(DispatchBatch.UPDATE);
+    putRecon(batch, "c");
+    putRecon(batch, "4");
+    batch.flip();
+
+    List<String> events = new ArrayList<>();
+    MapDownlinkState<String, Integer> state = new MapDownlinkState<>(
+        Form.forClass(String.class),
+        Form.forClass(Integer.class),
+        (key, map, value) -> events.add("remove " + key + " " + value));
+
+    state.wrapOnBatch(
+        (key, map, oldValue, newValue) -> events.add("update " + key + " " + oldValue + " " + newValue),
+        state.getOnRemove(),
+        map -> events.add("clear")).onBatch(batch, true);
+
+    assertEquals(List.of("update a null 1", "update b null 2", "update a 1 3", "remove b 2", "update c null 4"),
+                 events);
+    assertEquals(Map.of("a", 3, "c", 4), state.view());
+
+    ByteBuffer clear = ByteBuffer.allocateDirect(8);
+    clear.put(DispatchBatch.CLEAR).flip();
+    state.wrapOnBatch(null, null, map -> events.add("clear " + map.size())).onBatch(clear, false);
+
+    assertEquals(5, events.size());
+    assertEquals(Map.of(), state.view());
+  }
+
+  @Test
+  void snapshotsWhenNotInline() {
+    ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    List<Map<String, String>> removals = new ArrayList<>();
+    List<Map<String, String>> clears = new ArrayList<>();
+    MapDownlinkState<String, String> state = new MapDownlinkState<>(
+        null,
+        null,
+        (key, map, value) -> removals.add(map),
+        CallbackExecution.executor(tasks::add).newDispatcher());
+
+    for (String key : List.of("a", "b", "c")) {
+      state.put(key, key);
+    }
+    state.take().take(1, true);
+    state.wrapOnClear(clears::add).onClear(true);
+
+    assertEquals(List.of(), removals);
+    assertEquals(Map.of(), state.view());
+
+    while (!tasks.isEmpty()) {
+      tasks.poll().run();
+    }
+
+    assertEquals(2, removals.size());
+    assertEquals(1, removals.get(0).size());
+    assertEquals(List.of(removals.get(0)), clears);
+  }
+
+  @Test
+  void viewIsSnapshot() {
+    MapDownlinkState<String, Integer> state = new MapDownlinkState<>(null, null, null, Map.of("a", 1, "b", 2));
+    Map<String, Integer> snapshot = state.view();
+
+    state.put("a", 3);
+    state.remove("b");
+    state.put("c", 4);
+    state.drop().drop(1, false);
+
+    assertEquals(Map.of("a", 1, "b", 2), snapshot);
+    assertEquals(1, state.view().size());
+
+    Map<String, Integer> dropped = state.view();
+    state.clear();
+    assertEquals(1, dropped.size());
+    assertEquals(Map.of(), state.view());
+  }
+
+}
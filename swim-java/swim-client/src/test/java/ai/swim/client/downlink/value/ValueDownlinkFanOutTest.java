@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.client.downlink.value;
+
+import ai.swim.structure.Form;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ValueDownlinkFanOutTest {
+
+  private static ValueDownlinkLifecycle<Integer> recording(String name, List<String> events) {
+    return new ValueDownlinkLifecycle<Integer>()
+        .setOnLinked(() -> events.add(name + " linked"))
+        .setOnSynced(value -> events.add(name + " synced " + value))
+        .setOnEvent(value -> events.add(name + " event " + value))
+        .setOnUnlinked(() -> events.add(name + " unlinked"));
+  }
+
+  @Test
+  void fansOutToSubscribers() throws InterruptedException {
+    ValueDownlinkFanOut<Integer> fanOut = new ValueDownlinkFanOut<>(() -> {
+    });
+    ValueDownlinkState<Integer> state = new ValueDownlinkState<>(Form.forClass(Integer.class));
+    fanOut.setState(state);
+
+    ValueDownlinkLifecycle<Integer> lifecycle = fanOut.lifecycle();
+    List<String> events = new ArrayList<>();
+
+    SharedValueDownlink<Integer> first = SharedValueDownlink.join(fanOut, recording("first", events));
+    lifecycle.getOnLinked().onLinked();
+    state.wrapOnSynced(lifecycle.getOnSynced()).accept(ByteBuffer.wrap("1".getBytes(StandardCharsets.UTF_8)));
+
+    // A late subscriber is provided with the link state and value that it missed.
+    SharedValueDownlink<Integer> second = SharedValueDownlink.join(fanOut, recording("second", events));
+    lifecycle.getOnEvent().onEvent(2);
+
+    assertEquals(
+        List.of("first linked", "first synced 1", "second linked", "second synced 1", "first event 2", "second event 2"),
+        events);
+    assertEquals(1, first.get());
+    assertSame(first.get(), second.get());
+
+    events.clear();
+    first.close();
+    first.awaitStopped();
+    lifecycle.getOnUnlinked().onUnlinked();
+
+    assertEquals(List.of("second unlinked"), events);
+    assertEquals(1, fanOut.subscriberCount());
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.client.downlink.value;
+
+import ai.swim.structure.Form;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ValueDownlinkStateTest {
+
+  @Test
+  void batch() {
+    ByteBuffer batch = ByteBuffer.allocateDirect(64);
+    for (String event : List.of("1", "2", "3")) {
+      byte[] bytes = event.getBytes(StandardCharsets.UTF_8);
+      batch.putInt(bytes.length);
+      batch.put(bytes);
+    }
+    batch.flip();
+
+    List<Integer> events = new ArrayList<>();
+    List<String> sets = new ArrayList<>();
+    ValueDownlinkState<Integer> state = new ValueDownlinkState<>(Form.forClass(Integer.class));
+    state.wrapOnBatch(events::add, (oldValue, newValue) -> sets.add(oldValue + " -> " + newValue)).accept(batch);
+
+    assertEquals(List.of(1, 2, 3), events);
+    assertEquals(List.of("null -> 1", "1 -> 2", "2 -> 3"), sets);
+  }
+
+  @Test
+  void tracksStateWithoutCallbacks() {
+    ValueDownlinkState<Integer> state = new ValueDownlinkState<>(Form.forClass(Integer.class));
+    assertNull(state.get());
+
+    state.wrapOnSynced(null).accept(ByteBuffer.wrap("1".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(1, state.get());
+
+    ByteBuffer batch = ByteBuffer.allocateDirect(16);
+    batch.putInt(1);
+    batch.put("2".getBytes(StandardCharsets.UTF_8));
+    batch.flip();
+    state.wrapOnBatch(null, null).accept(batch);
+    assertEquals(2, state.get());
+
+    state.wrapOnSet(null).accept(ByteBuffer.wrap("3".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(3, state.get());
+  }
+
+}
@@ -40,6 +40,13 @@ class ByteUtils {
     return acc;
   }
 
+  public static int accumulateHashCode(int acc, byte[] arr, int from, int to) {
+    for (int i = from; i < to; i++) {
+      acc = ODD_PRIME * acc + arr[i];
+    }
+    return acc;
+  }
+
   public static int checkedAdd(int a, int b) {
     int r = a + b;
     if (((a ^ r) & (b ^ r)) < 0) {
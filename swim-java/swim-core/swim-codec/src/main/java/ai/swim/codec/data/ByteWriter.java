@@ -18,6 +18,8 @@ package ai.swim.codec.data;
 
 import ai.swim.codec.Size;
 import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import static ai.swim.codec.data.ByteUtils.accumulateHashCode;
 import static ai.swim.codec.data.ByteUtils.accumulateHashcode;
@@ -62,6 +64,14 @@ public class ByteWriter {
     return new ByteWriterOutputStream(this);
   }
 
+  /**
+   * Returns a {@link Writer} that encodes characters as UTF-8 directly into this {@link ByteWriter}, without any
+   * intermediate buffering.
+   */
+  public Writer utf8Writer() {
+    return new ByteWriterUtf8Writer(this);
+  }
+
   /**
    * Ensures that the buffer has the capacity to hold at least 'extra' elements. This is a no-op if the buffer already
    * has sufficient capacity. If there is insufficient capacity and the buffer will not overflow {@link Integer#MAX_VALUE},
@@ -75,15 +85,52 @@ public class ByteWriter {
       throw new IllegalArgumentException("extra < 0");
     }
 
-    // If the current capacity minus the number of elements filled > the required extra capacity then grow to the
+    // If the number of elements filled plus the required extra capacity > the current capacity then grow to the
     // next power of 2.
-    int required = checkedAdd(remaining(), extra);
+    int required = checkedAdd(writePointer, extra);
     if (required > buffer.length) {
-      int pow2Length = Integer.highestOneBit(required);
-      if (pow2Length != required) {
-        pow2Length = pow2Length << 1;
-      }
-      buffer = Arrays.copyOf(buffer, pow2Length);
+      buffer = Arrays.copyOf(buffer, nextPowerOfTwo(required));
+    }
+  }
+
+  /**
+   * Shrinks the capacity of the buffer to the next power of two that can hold at least {@code capacity} elements, or
+   * the number of elements that have been written if that is greater. This is a no-op if the buffer's capacity is
+   * already less than or equal to the target capacity.
+   *
+   * @throws IllegalArgumentException is capacity < 0.
+   */
+  public void shrinkTo(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity < 0");
+    }
+
+    int target = nextPowerOfTwo(Math.max(capacity, writePointer));
+    if (target < buffer.length) {
+      buffer = Arrays.copyOf(buffer, target);
+    }
+  }
+
+  /**
+   * Clears the buffer, resetting the write position to the start of the buffer. The capacity of the buffer is
+   * retained so that it may be reused without reallocating.
+   */
+  public void clear() {
+    writePointer = 0;
+    elementHashcode = 1;
+  }
+
+  private static int nextPowerOfTwo(int value) {
+    if (value <= 1) {
+      return 1;
+    }
+
+    int pow2 = Integer.highestOneBit(value);
+    if (pow2 == value) {
+      return value;
+    } else {
+      // Saturate rather than overflowing into a negative capacity.
+      return pow2 == 1 << 30 ? Integer.MAX_VALUE : pow2 << 1;
     }
   }
 
@@ -230,6 +277,27 @@ public class ByteWriter {
     elementHashcode = accumulateHashCode(elementHashcode, target, count);
   }
 
+  /**
+   * Writes all the remaining bytes in {@code src} and advances its position past them.
+   */
+  public void writeByteBuffer(ByteBuffer src) {
+    int count = src.remaining();
+    reserve(count);
+    src.get(buffer, writePointer, count);
+    elementHashcode = accumulateHashCode(elementHashcode, buffer, writePointer, writePointer + count);
+    writePointer += count;
+  }
+
+  /**
+   * Copies the bytes that have been written into {@code dst}, starting at its current position, and advances its
+   * position past them.
+   *
+   * @throws java.nio.BufferOverflowException if {@code dst} does not have sufficient remaining capacity.
+   */
+  public void transferTo(ByteBuffer dst) {
+    dst.put(buffer, 0, writePointer);
+  }
+
   /**
    * Returns a {@link ByteReader} backed by the data that has been written into this {@link ByteWriter}.
    */
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.codec.data;
+
+import java.io.Writer;
+
+/**
+ * Wrapper around a {@link ByteWriter} that provides a {@link Writer} implementation which encodes characters as UTF-8
+ * directly into the {@link ByteWriter}.
+ * <p>
+ * Unlike wrapping {@link ByteWriter#outputStream()} in an {@link java.io.OutputStreamWriter}, this writer holds no
+ * intermediate character or byte buffers and so it does not need to be flushed. Unpaired surrogates are encoded as
+ * {@code '?'}.
+ */
+class ByteWriterUtf8Writer extends Writer {
+  private final ByteWriter inner;
+  /**
+   * A high surrogate that was the last character provided to a write call and is awaiting its low surrogate.
+   */
+  private char highSurrogate;
+
+  ByteWriterUtf8Writer(ByteWriter inner) {
+    this.inner = inner;
+  }
+
+  @Override
+  public void write(int c) {
+    writeChar((char) c);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) {
+    inner.reserve(len);
+    for (int i = off; i < off + len; i++) {
+      writeChar(cbuf[i]);
+    }
+  }
+
+  @Override
+  public void write(String str, int off, int len) {
+    inner.reserve(len);
+    for (int i = off; i < off + len; i++) {
+      writeChar(str.charAt(i));
+    }
+  }
+
+  private void writeChar(char c) {
+    if (highSurrogate != 0) {
+      char high = highSurrogate;
+      highSurrogate = 0;
+
+      if (Character.isLowSurrogate(c)) {
+        writeCodePoint(Character.toCodePoint(high, c));
+        return;
+      } else {
+        inner.writeByte((byte) '?');
+      }
+    }
+
+    if (c < 0x80) {
+      inner.writeByte((byte) c);
+    } else if (Character.isHighSurrogate(c)) {
+      highSurrogate = c;
+    } else if (Character.isLowSurrogate(c)) {
+      inner.writeByte((byte) '?');
+    } else {
+      writeCodePoint(c);
+    }
+  }
+
+  private void writeCodePoint(int codePoint) {
+    if (codePoint < 0x80) {
+      inner.writeByte((byte) codePoint);
+    } else if (codePoint < 0x800) {
+      inner.writeByte((byte) (0xc0 | (codePoint >> 6)));
+      inner.writeByte((byte) (0x80 | (codePoint & 0x3f)));
+    } else if (codePoint < 0x10000) {
+      inner.writeByte((byte) (0xe0 | (codePoint >> 12)));
+      inner.writeByte((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+      inner.writeByte((byte) (0x80 | (codePoint & 0x3f)));
+    } else {
+      inner.writeByte((byte) (0xf0 | (codePoint >> 18)));
+      inner.writeByte((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+      inner.writeByte((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+      inner.writeByte((byte) (0x80 | (codePoint & 0x3f)));
+    }
+  }
+
+  /**
+   * Writes out any pending unpaired high surrogate as {@code '?'}.
+   */
+  @Override
+  public void flush() {
+    if (highSurrogate != 0) {
+      highSurrogate = 0;
+      inner.writeByte((byte) '?');
+    }
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+}
@@ -19,6 +19,7 @@ package ai.swim.codec.input;
 import ai.swim.codec.data.ReadBuffer;
 import ai.swim.codec.location.Location;
 import java.nio.ByteBuffer;
+import java.util.function.IntPredicate;
 
 /**
  * A non-blocking symbol reader that provides single and multiple symbol lookahead.
@@ -49,6 +50,20 @@ public abstract class Input {
     return new ReadBufferInput(data);
   }
 
+  /**
+   * Creates a new {@code Input} that decodes the UTF-8 encoded contents of a {@link ReadBuffer} into code points.
+   */
+  public static Utf8Input utf8(ReadBuffer data) {
+    return new Utf8Input(data);
+  }
+
+  /**
+   * Creates a new {@code Input} that decodes the UTF-8 encoded contents of a {@link ByteBuffer} into code points.
+   */
+  public static Utf8Input utf8(ByteBuffer data) {
+    return new Utf8Input(ReadBuffer.byteBuffer(data));
+  }
+
   /**
    * Creates a new {@code Input} in the done state.
    */
@@ -76,6 +91,47 @@ public abstract class Input {
    */
   public abstract Input step();
 
+  /**
+   * Consumes the longest run of available symbols that satisfy {@code predicate}, appending them to {@code into} if it
+   * is not null. This {@code Input} is advanced in place to the first symbol that did not satisfy the predicate, or to
+   * the end of the available symbols.
+   * <p>
+   * Implementations backed by an encoded source may override this to scan the source directly.
+   *
+   * @param predicate to test each symbol with.
+   * @param into      to append the consumed symbols to. May be null.
+   * @return the number of symbols that were consumed.
+   */
+  public int takeWhile(IntPredicate predicate, StringBuilder into) {
+    int count = 0;
+
+    while (isContinuation()) {
+      int c = head();
+      if (!predicate.test(c)) {
+        break;
+      }
+
+      if (into != null) {
+        into.appendCodePoint(c);
+      }
+
+      step();
+      count += 1;
+    }
+
+    return count;
+  }
+
+  /**
+   * Consumes the longest run of available symbols that satisfy {@code predicate}.
+   *
+   * @param predicate to test each symbol with.
+   * @return the number of symbols that were consumed.
+   */
+  public int skipWhile(IntPredicate predicate) {
+    return takeWhile(predicate, null);
+  }
+
   /**
    * Returns the location of the offset into this {@code Input}.
    * <p>
@@ -40,6 +40,31 @@ public class ReadBufferInput extends Input {
     return new ReadBufferInput(bytes, isPartial, limit);
   }
 
+  /**
+   * Rebinds this input to {@code bytes} with no limit so that it may be reused without allocating a new input.
+   *
+   * @param bytes to read from.
+   * @return this input.
+   */
+  public ReadBufferInput reset(ReadBuffer bytes) {
+    return reset(bytes, NO_LIMIT);
+  }
+
+  /**
+   * Rebinds this input to {@code bytes}, bounded by the read pointer {@code limit}, so that it may be reused without
+   * allocating a new input.
+   *
+   * @param bytes to read from.
+   * @param limit the read pointer at which this input is exhausted.
+   * @return this input.
+   */
+  public ReadBufferInput reset(ReadBuffer bytes, int limit) {
+    this.bytes = bytes;
+    this.isPartial = false;
+    this.limit = limit;
+    return this;
+  }
+
   @Override
   public boolean has(int n) {
     if (n < 1) {
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.codec.input;
+
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.location.Location;
+import java.util.function.IntPredicate;
+
+/**
+ * An {@link Input} over a {@link ReadBuffer} that decodes its bytes as UTF-8 and produces Unicode code points.
+ * <p>
+ * Malformed byte sequences are replaced by U+FFFD, one byte at a time. If this input is partial and ends partway
+ * through a multibyte sequence then the sequence is not made available until the remaining bytes have been provided.
+ * <p>
+ * {@link #takeWhile(IntPredicate, StringBuilder)} is specialised to decode and consume a run of code points directly
+ * from the underlying buffer so that parsers consuming long runs of symbols do not pay for a {@link #head()} and
+ * {@link #step()} per symbol.
+ */
+public class Utf8Input extends Input {
+  private static final int NO_LIMIT = -1;
+  private static final int INCOMPLETE = -1;
+  private static final int REPLACEMENT = 0xfffd;
+
+  private ReadBuffer bytes;
+  private boolean isPartial;
+  private int limit;
+
+  public Utf8Input(ReadBuffer bytes, boolean isPartial, int limit) {
+    this.bytes = bytes;
+    this.isPartial = isPartial;
+    this.limit = limit;
+  }
+
+  public Utf8Input(ReadBuffer bytes) {
+    this(bytes, false, NO_LIMIT);
+  }
+
+  /**
+   * Rebinds this input to {@code bytes} with no limit so that it may be reused without allocating a new input.
+   *
+   * @param bytes to read from.
+   * @return this input.
+   */
+  public Utf8Input reset(ReadBuffer bytes) {
+    return reset(bytes, NO_LIMIT);
+  }
+
+  /**
+   * Rebinds this input to {@code bytes}, bounded by the read pointer {@code limit}, so that it may be reused without
+   * allocating a new input.
+   *
+   * @param bytes to read from.
+   * @param limit the read pointer at which this input is exhausted.
+   * @return this input.
+   */
+  public Utf8Input reset(ReadBuffer bytes, int limit) {
+    this.bytes = bytes;
+    this.isPartial = false;
+    this.limit = limit;
+    return this;
+  }
+
+  private int available() {
+    int remaining = bytes.remaining();
+    if (limit == NO_LIMIT) {
+      return remaining;
+    } else {
+      return Math.min(remaining, limit - bytes.readPointer());
+    }
+  }
+
+  private boolean isContinuationByte(int offset) {
+    return (bytes.peekByte(offset) & 0xc0) == 0x80;
+  }
+
+  /**
+   * Returns the number of bytes that the code point starting at {@code offset} spans, 1 if the byte at {@code offset}
+   * does not start a well-formed sequence or {@link #INCOMPLETE} if more bytes are required to decide.
+   */
+  private int widthAt(int offset, int available) {
+    int b = bytes.peekByte(offset) & 0xff;
+    int width;
+
+    if (b < 0x80) {
+      return 1;
+    } else if (b >= 0xc2 && b <= 0xdf) {
+      width = 2;
+    } else if (b >= 0xe0 && b <= 0xef) {
+      width = 3;
+    } else if (b >= 0xf0 && b <= 0xf4) {
+      width = 4;
+    } else {
+      return 1;
+    }
+
+    for (int i = 1; i < width; i++) {
+      if (offset + i >= available) {
+        return isPartial ? INCOMPLETE : 1;
+      } else if (!isContinuationByte(offset + i)) {
+        return 1;
+      } else if (i == 1) {
+        // Reject overlong encodings, surrogates and code points above U+10FFFF.
+        int c = bytes.peekByte(offset + 1) & 0xff;
+        if ((b == 0xe0 && c < 0xa0) || (b == 0xed && c > 0x9f) || (b == 0xf0 && c < 0x90) || (b == 0xf4 && c > 0x8f)) {
+          return 1;
+        }
+      }
+    }
+
+    return width;
+  }
+
+  private int decodeAt(int offset, int width) {
+    int b = bytes.peekByte(offset) & 0xff;
+    switch (width) {
+      case 1:
+        return b < 0x80 ? b : REPLACEMENT;
+      case 2:
+        return (b & 0x1f) << 6 | bytes.peekByte(offset + 1) & 0x3f;
+      case 3:
+        return (b & 0x0f) << 12 | (bytes.peekByte(offset + 1) & 0x3f) << 6 | bytes.peekByte(offset + 2) & 0x3f;
+      default:
+        return (b & 0x07) << 18
+            | (bytes.peekByte(offset + 1) & 0x3f) << 12
+            | (bytes.peekByte(offset + 2) & 0x3f) << 6
+            | bytes.peekByte(offset + 3) & 0x3f;
+    }
+  }
+
+  @Override
+  public boolean has(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n < 1");
+    }
+
+    int available = available();
+    int offset = 0;
+
+    for (int i = 0; i < n; i++) {
+      if (offset >= available) {
+        return false;
+      }
+
+      int width = widthAt(offset, available);
+      if (width == INCOMPLETE) {
+        return false;
+      }
+
+      offset += width;
+    }
+
+    return true;
+  }
+
+  @Override
+  public int head() {
+    int available = available();
+    if (available <= 0) {
+      throw new IllegalStateException();
+    }
+
+    int width = widthAt(0, available);
+    if (width == INCOMPLETE) {
+      throw new IllegalStateException();
+    }
+
+    return decodeAt(0, width);
+  }
+
+  @Override
+  public Input step() {
+    int available = available();
+    if (available > 0) {
+      int width = widthAt(0, available);
+      if (width != INCOMPLETE) {
+        bytes.advance(width);
+        return this;
+      }
+    }
+
+    return Input.done(this);
+  }
+
+  @Override
+  public int takeWhile(IntPredicate predicate, StringBuilder into) {
+    final ReadBuffer bytes = this.bytes;
+    final int available = available();
+    int offset = 0;
+    int count = 0;
+
+    while (offset < available) {
+      int b = bytes.peekByte(offset);
+      int c;
+      int width;
+
+      if (b >= 0) {
+        c = b;
+        width = 1;
+      } else {
+        width = widthAt(offset, available);
+        if (width == INCOMPLETE) {
+          break;
+        }
+        c = decodeAt(offset, width);
+      }
+
+      if (!predicate.test(c)) {
+        break;
+      }
+
+      if (into != null) {
+        if (c < 0x80) {
+          into.append((char) c);
+        } else {
+          into.appendCodePoint(c);
+        }
+      }
+
+      offset += width;
+      count += 1;
+    }
+
+    if (offset > 0) {
+      bytes.advance(offset);
+    }
+
+    return count;
+  }
+
+  @Override
+  public Location location() {
+    return Location.of(0, 0, bytes.readPointer());
+  }
+
+  @Override
+  public boolean isDone() {
+    return !this.isPartial && available() <= 0;
+  }
+
+  @Override
+  public boolean isContinuation() {
+    return has(1);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.isPartial && !has(1);
+  }
+
+  @Override
+  public Input setPartial(boolean isPartial) {
+    return new Utf8Input(bytes, isPartial, limit);
+  }
+
+  @Override
+  public void bind(int[] into) {
+    int available = available();
+    int offset = 0;
+
+    for (int i = 0; i < into.length && offset < available; i++) {
+      int width = widthAt(offset, available);
+      if (width == INCOMPLETE) {
+        return;
+      }
+
+      into[i] = decodeAt(offset, width);
+      offset += width;
+    }
+  }
+
+  /**
+   * Returns the number of bytes that are available to be read from this {@code Input}.
+   */
+  @Override
+  public int len() {
+    return Math.max(available(), 0);
+  }
+
+  @Override
+  public void take(int[] into) {
+    if (!has(into.length)) {
+      throw new IllegalStateException();
+    }
+
+    for (int i = 0; i < into.length; i++) {
+      int width = widthAt(0, available());
+      into[i] = decodeAt(0, width);
+      bytes.advance(width);
+    }
+  }
+
+  @Override
+  public Input clone() {
+    return new Utf8Input(bytes.clone(), isPartial, limit);
+  }
+
+  @Override
+  public Input extend(Input from) {
+    if (from instanceof Utf8Input) {
+      Utf8Input other = (Utf8Input) from;
+      bytes.unsplit(other.bytes);
+      return new Utf8Input(bytes, other.isPartial, limit);
+    } else {
+      throw new ClassCastException();
+    }
+  }
+
+  @Override
+  public void setFrom(Input from) {
+    if (from instanceof Utf8Input) {
+      Utf8Input other = (Utf8Input) from;
+      this.bytes = other.bytes;
+      this.limit = other.limit;
+      this.isPartial = other.isPartial;
+    } else {
+      throw new ClassCastException();
+    }
+  }
+}
@@ -163,6 +163,30 @@ public final class NumberParser extends Parser<TypedNumber> {
                    );
   }
 
+  /**
+   * Resumes parsing a number whose sign, and any leading integer digits, have already been consumed from
+   * {@code input} by the caller. This allows a caller to scan simple integers itself and only defer to this parser
+   * once it encounters a fractional part, an exponent, a hexadecimal literal or an integer that may overflow.
+   *
+   * @param input      positioned at the first symbol that the caller has not consumed.
+   * @param isNegative whether a '-' sign has been consumed.
+   * @param value      the signed value of the integer digits that have been consumed.
+   * @param hasDigits  whether any integer digits have been consumed.
+   * @return a parser in the done, error or continuation state.
+   */
+  public static Parser<TypedNumber> resume(Input input, boolean isNegative, long value, boolean hasDigits) {
+    Stage stage;
+    if (!hasDigits) {
+      stage = Stage.Alt;
+    } else if (value == 0) {
+      stage = Stage.Decimal;
+    } else {
+      stage = Stage.Integer;
+    }
+
+    return parse(input, isNegative, value, stage, null);
+  }
+
   public static boolean isFloatChar(int c) {
     return c == 'N' || c == 'n' || c == 'A' || c == 'a' || c == 'I' || c == 'i' || c == 'F' || c == 'f' || c == 'T' || c == 't' || c == 'Y' || c == 'y';
   }
@@ -13,33 +13,34 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package ai.swim.codec.parsers.text;
 
 import ai.swim.codec.Parser;
-import ai.swim.codec.parsers.combinators.TakeWhile0;
+import ai.swim.codec.input.Input;
+
+public class Multispace0 extends Parser<String> {
+  private final StringBuilder state;
 
-public class Multispace0 extends TakeWhile0<StringBuilder, String> {
   private Multispace0() {
-    super(new StringBuilder());
+    this.state = new StringBuilder();
   }
 
   public static Parser<String> multispace0() {
     return new Multispace0();
   }
 
-  @Override
-  protected boolean onAdvance(int c, StringBuilder state) {
-    if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
-      state.appendCodePoint(c);
-      return true;
-    } else {
-      return false;
-    }
+  static boolean isMultispace(int c) {
+    return c == ' ' || c == '\t' || c == '\r' || c == '\n';
   }
 
   @Override
-  protected String onDone(StringBuilder state) {
-    return state.toString();
+  public Parser<String> feed(Input input) {
+    input.takeWhile(Multispace0::isMultispace, state);
+
+    if (input.isContinuation() || input.isDone()) {
+      return Parser.done(state.toString());
+    } else {
+      return this;
+    }
   }
 }
@@ -18,12 +18,16 @@ package ai.swim.codec.parsers.text;
 
 import ai.swim.codec.Parser;
 import ai.swim.codec.input.Input;
+import java.util.function.IntPredicate;
 import static ai.swim.codec.parsers.combinators.Chain.chain;
 import static ai.swim.codec.parsers.combinators.Peek.peek;
 import static ai.swim.codec.parsers.text.EqChar.eqChar;
 
 public class StringParser extends Parser<String> {
 
+  private static final IntPredicate DOUBLE_QUOTED = c -> isUnescaped(c, '"');
+  private static final IntPredicate SINGLE_QUOTED = c -> isUnescaped(c, '\'');
+
   private final StringBuilder output;
   private final int code;
   private int quoteNeedle;
@@ -45,6 +49,10 @@ public class StringParser extends Parser<String> {
     return chain(peek(eqChar('\"')), new StringParser(new StringBuilder(), 0, 0, Stage.Head));
   }
 
+  private static boolean isUnescaped(int c, int quote) {
+    return c >= 0x20 && c != quote && c != '\\';
+  }
+
   static boolean isSpace(int c) {
     return c == 0x20 || c == 0x9;
   }
@@ -84,15 +92,9 @@ public class StringParser extends Parser<String> {
     int c = 0;
 
     if (this.stage == Stage.Head) {
-      while (input.isContinuation()) {
-        c = input.head();
-        if (isWhitespace(c)) {
-          input = input.step();
-        } else {
-          break;
-        }
-      }
+      input.skipWhile(StringParser::isWhitespace);
       if (input.isContinuation()) {
+        c = input.head();
         if ((c == '"' || c == '\'') && (quoteNeedle == c || quoteNeedle == 0)) {
           input = input.step();
           quoteNeedle = c;
@@ -108,16 +110,9 @@ public class StringParser extends Parser<String> {
     do {
       switch (this.stage) {
         case Contents:
-          while (input.isContinuation()) {
-            c = input.head();
-            if (c >= 0x20 && c != quoteNeedle && c != '\\') {
-              input = input.step();
-              output.appendCodePoint(c);
-            } else {
-              break;
-            }
-          }
+          input.takeWhile(quoteNeedle == '"' ? DOUBLE_QUOTED : SINGLE_QUOTED, output);
           if (input.isContinuation()) {
+            c = input.head();
             if (c == quoteNeedle) {
               input.step();
               return done(output.toString());
@@ -17,6 +17,10 @@
 package ai.swim.codec.data;
 
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -192,4 +196,115 @@ class BytesTest {
     assertEquals(left.getElementHashcode(), right.getElementHashcode());
   }
 
-}
\ No newline at end of file
+  @Test
+  void growsPastCapacity() {
+    ByteWriter writer = new ByteWriter(8);
+    byte[] expected = new byte[300];
+
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = (byte) i;
+      writer.writeByte((byte) i);
+    }
+
+    assertEquals(300, writer.length());
+    assertEquals(512, writer.capacity());
+    assertArrayEquals(expected, writer.getArray());
+
+    writer.writeByteArray(expected);
+    assertEquals(600, writer.length());
+    assertEquals(1024, writer.capacity());
+  }
+
+  @Test
+  void clearRetainsCapacity() {
+    ByteWriter writer = new ByteWriter();
+    writer.writeByteArray(new byte[100]);
+    int capacity = writer.capacity();
+
+    writer.clear();
+    assertEquals(0, writer.length());
+    assertEquals(capacity, writer.capacity());
+
+    writer.writeInteger(13);
+    assertArrayEquals(new byte[] {0, 0, 0, 13}, writer.getArray());
+
+    ByteWriter fresh = new ByteWriter();
+    fresh.writeInteger(13);
+    assertEquals(fresh.getElementHashcode(), writer.getElementHashcode());
+  }
+
+  @Test
+  void shrinkTo() {
+    ByteWriter writer = new ByteWriter();
+    writer.writeByteArray(new byte[1000]);
+    assertEquals(1024, writer.capacity());
+
+    // Cannot shrink below the number of bytes written.
+    writer.shrinkTo(10);
+    assertEquals(1024, writer.capacity());
+
+    writer.clear();
+    writer.shrinkTo(100);
+    assertEquals(128, writer.capacity());
+
+    // Never grows.
+    writer.shrinkTo(4096);
+    assertEquals(128, writer.capacity());
+  }
+
+  @Test
+  void utf8Writer() throws IOException {
+    String string = "a\u00e9\u20ac\ud83d\ude00z";
+
+    ByteWriter writer = new ByteWriter();
+    Writer utf8Writer = writer.utf8Writer();
+    utf8Writer.write(string);
+    utf8Writer.flush();
+
+    assertArrayEquals(string.getBytes(StandardCharsets.UTF_8), writer.getArray());
+  }
+
+  @Test
+  void utf8WriterSplitSurrogates() throws IOException {
+    String string = "\ud83d\ude00";
+
+    ByteWriter writer = new ByteWriter();
+    Writer utf8Writer = writer.utf8Writer();
+    utf8Writer.write(string.charAt(0));
+    utf8Writer.write(string.charAt(1));
+    utf8Writer.flush();
+
+    assertArrayEquals(string.getBytes(StandardCharsets.UTF_8), writer.getArray());
+  }
+
+  @Test
+  void utf8WriterUnpairedSurrogates() throws IOException {
+    ByteWriter writer = new ByteWriter();
+    Writer utf8Writer = writer.utf8Writer();
+    utf8Writer.write("a\ude00b\ud83d");
+    utf8Writer.flush();
+
+    assertArrayEquals("a?b?".getBytes(StandardCharsets.UTF_8), writer.getArray());
+  }
+
+  @Test
+  void byteBuffers() {
+    ByteBuffer src = ByteBuffer.allocateDirect(16);
+    src.put(new byte[] {1, 2, 3, 4, 5, 6}).flip().position(2);
+
+    ByteWriter writer = new ByteWriter(2);
+    writer.writeByte((byte) 0);
+    writer.writeByteBuffer(src);
+
+    assertEquals(0, src.remaining());
+    assertArrayEquals(new byte[] {0, 3, 4, 5, 6}, writer.getArray());
+
+    ByteBuffer dst = ByteBuffer.allocate(8);
+    dst.put((byte) 9);
+    writer.transferTo(dst);
+
+    assertEquals(6, dst.position());
+    assertArrayEquals(new byte[] {9, 0, 3, 4, 5, 6, 0, 0}, dst.array());
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.codec.input;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.data.ByteReader;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.parsers.text.StringParser;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Utf8InputTest {
+
+  private static ByteReader bytes(String data) {
+    return ReadBuffer.fromArray(data.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void decodesCodePoints() {
+    String data = "a\u00e9\u20ac\ud83d\ude00";
+    Input input = Input.utf8(bytes(data));
+
+    assertTrue(input.has(4));
+    assertFalse(input.has(5));
+
+    for (int c : data.codePoints().toArray()) {
+      assertTrue(input.isContinuation());
+      assertEquals(c, input.head());
+      input = input.step();
+    }
+
+    assertTrue(input.isDone());
+  }
+
+  @Test
+  void byteBuffer() {
+    ByteBuffer buffer = ByteBuffer.wrap("\u00f1x".getBytes(StandardCharsets.UTF_8));
+    Input input = Input.utf8(buffer);
+
+    assertEquals('\u00f1', input.head());
+    input = input.step();
+    assertEquals('x', input.head());
+    assertEquals(2, buffer.position());
+  }
+
+  @Test
+  void bounded() {
+    ByteReader reader = bytes("\u00e9\u20acxyz");
+    Input input = new Utf8Input(reader, false, 5);
+
+    assertTrue(input.has(2));
+    assertFalse(input.has(3));
+
+    StringBuilder into = new StringBuilder();
+    assertEquals(2, input.takeWhile(c -> true, into));
+    assertEquals("\u00e9\u20ac", into.toString());
+    assertTrue(input.isDone());
+    assertEquals(5, reader.readPointer());
+  }
+
+  @Test
+  void malformed() {
+    ByteReader reader = ReadBuffer.fromArray(new byte[] {(byte) 0xc3, 'a', (byte) 0xff, (byte) 0xe0, (byte) 0x80});
+    Input input = Input.utf8(reader);
+
+    int[] expected = new int[] {0xfffd, 'a', 0xfffd, 0xfffd, 0xfffd};
+    for (int c : expected) {
+      assertEquals(c, input.head());
+      input = input.step();
+    }
+
+    assertTrue(input.isDone());
+  }
+
+  @Test
+  void partialSequence() {
+    byte[] euro = "\u20ac".getBytes(StandardCharsets.UTF_8);
+    Input input = Input.utf8(ReadBuffer.fromArray(new byte[] {'a', euro[0], euro[1]})).setPartial(true);
+
+    StringBuilder into = new StringBuilder();
+    assertEquals(1, input.takeWhile(c -> true, into));
+    assertEquals("a", into.toString());
+    assertFalse(input.isContinuation());
+    assertTrue(input.isEmpty());
+    assertFalse(input.isDone());
+
+    input = input.setPartial(false);
+    assertEquals(0xfffd, input.head());
+  }
+
+  @Test
+  void takeWhileStopsAtPredicate() {
+    ByteReader reader = bytes("ab\u20acd;rest");
+    Input input = Input.utf8(reader);
+
+    StringBuilder into = new StringBuilder();
+    assertEquals(4, input.takeWhile(c -> c != ';', into));
+    assertEquals("ab\u20acd", into.toString());
+    assertEquals(';', input.head());
+
+    assertEquals(1, input.skipWhile(c -> c == ';'));
+    assertEquals('r', input.head());
+  }
+
+  @Test
+  void parsesStringLiteral() {
+    String expected = "h\u00e9llo w\u00f6rld \ud83d\ude00 \"quoted\"";
+    Parser<String> parser = new StringParser().feed(Input.utf8(bytes("\"h\u00e9llo w\u00f6rld \ud83d\ude00 \\\"quoted\\\"\"")));
+
+    assertTrue(parser.isDone());
+    assertEquals(expected, parser.bind());
+  }
+
+}
@@ -17,7 +17,9 @@
 package ai.swim.codec.parsers.text;
 
 import ai.swim.codec.Parser;
+import ai.swim.codec.data.ReadBuffer;
 import ai.swim.codec.input.Input;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import static ai.swim.codec.parsers.text.Multispace0.multispace0;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,6 +38,17 @@ class Multispace0Test {
     assertEquals(parser.bind(), "12345");
   }
 
+  @Test
+  void multispace0Partial() {
+    Input input = Input.utf8(ReadBuffer.fromArray(" \t".getBytes(StandardCharsets.UTF_8)));
+    Parser<String> parser = multispace0().feed(input.setPartial(true));
+    assertTrue(parser.isCont());
+
+    parser = parser.feed(Input.utf8(ReadBuffer.fromArray("\r\n\u00e4".getBytes(StandardCharsets.UTF_8))));
+    assertTrue(parser.isDone());
+    assertEquals(" \t\r\n", parser.bind());
+  }
+
   public static class Prop extends Parser<String> {
     private final StringBuilder state;
 
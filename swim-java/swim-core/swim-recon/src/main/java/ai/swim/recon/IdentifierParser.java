@@ -19,7 +19,6 @@ package ai.swim.recon;
 import ai.swim.codec.Parser;
 import ai.swim.codec.input.Input;
 import ai.swim.recon.models.identifier.Identifier;
-import static ai.swim.recon.ReconUtils.isIdentChar;
 import static ai.swim.recon.ReconUtils.isIdentStartChar;
 
 public class IdentifierParser extends Parser<Identifier> {
@@ -54,15 +53,7 @@ public class IdentifierParser extends Parser<Identifier> {
       }
     }
     if (state == State.Body) {
-      while (input.isContinuation()) {
-        c = input.head();
-        if (isIdentChar(c)) {
-          input = input.step();
-          data.appendCodePoint(c);
-        } else {
-          break;
-        }
-      }
+      input.takeWhile(ReconUtils::isIdentChar, data);
       if (!input.isEmpty()) {
         String output = this.data.toString();
         if (output.equals("true")) {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.recon;
+
+import ai.swim.codec.input.Input;
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.recon.event.ReadEventHandler;
+import ai.swim.recon.result.ParseResult;
+import ai.swim.recon.result.ResultError;
+
+/**
+ * An incremental parser that produces a stream of {@link ReadEvent}s from Recon.
+ *
+ * @see ReconParserFactory
+ */
+public interface ReconEventParser {
+
+  /**
+   * Returns whether the parser is in an error state.
+   */
+  boolean isError();
+
+  /**
+   * Returns the cause of the error if this parser is in an error state.
+   *
+   * @throws IllegalStateException if this parser is not in an error state
+   */
+  ResultError<ReadEvent> error();
+
+  /**
+   * Returns whether the parser is in a continuation state.
+   */
+  boolean isCont();
+
+  /**
+   * Returns whether the input is done.
+   */
+  boolean isDone();
+
+  /**
+   * Return whether there are any pending events available.
+   */
+  boolean hasEvents();
+
+  /**
+   * Feeds this parser more data to consume, extending any remaining and unconsumed {@code Input} with the provided
+   * {@code Input}.
+   *
+   * @param input the data to consume.
+   * @return a parser that will consume the extended input.
+   */
+  ReconEventParser feed(Input input);
+
+  /**
+   * Resets this parser back to its initial state and binds it to {@code input} so that a single parser may be reused
+   * for parsing many independent values.
+   *
+   * @param input the new input to parse.
+   * @return this parser.
+   */
+  ReconEventParser reset(Input input);
+
+  /**
+   * Incrementally parses as much data as possible from the provided {@code Input} and returns a result representing
+   * the operation.
+   *
+   * @return a {@code ParseResult} in one of the following states:
+   * - {@code ParseOk}: parsed successfully and an event was produced.
+   * - {@code ParseContinuation}: not enough data is available to produce an event.
+   * - {@code ParseError}: the {@code Input} is invalid.
+   * - {@code ParseEnd}: all events have been produced.
+   */
+  ParseResult<ReadEvent> next();
+
+  /**
+   * Incrementally parses as much data as possible from the provided {@code Input} and passes the next event, if one is
+   * produced, directly to {@code handler}. Parsers may override this to avoid materialising the event as a
+   * {@link ReadEvent}.
+   * <p>
+   * If no event is produced then the state of this parser describes why: {@link ReconEventParser#isError()} returns
+   * true if the input is invalid, {@link ReconEventParser#hasEvents()} returns false if all events have been produced
+   * and otherwise not enough data is available to produce an event.
+   *
+   * @param handler to pass the event to.
+   * @return whether an event was passed to {@code handler}.
+   */
+  default boolean next(ReadEventHandler handler) {
+    ParseResult<ReadEvent> result = next();
+    if (result.isOk()) {
+      handler.onEvent(result.bind());
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+}
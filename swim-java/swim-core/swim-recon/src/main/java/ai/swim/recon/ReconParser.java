@@ -47,7 +47,7 @@ import static ai.swim.recon.ReconParserParts.parseSlotValue;
 /**
  * An incremental recon parser.
  */
-public final class ReconParser {
+public final class ReconParser implements ReconEventParser {
 
   private final Deque<ParseState> state;
   private Input input;
@@ -95,6 +95,7 @@ public final class ReconParser {
   /**
    * Returns whether the parser is in an error state.
    */
+  @Override
   public boolean isError() {
     if (this.complete) {
       return false;
@@ -110,6 +111,7 @@ public final class ReconParser {
    *
    * @throws IllegalStateException if this parser is not in an error state
    */
+  @Override
   public ResultError<ReadEvent> error() {
     if (this.current != null && this.current.isError()) {
       ParserError<?> error = (ParserError<?>) this.current;
@@ -122,6 +124,7 @@ public final class ReconParser {
   /**
    * Returns whether the parser is in a continuation state.
    */
+  @Override
   public boolean isCont() {
     if (this.complete) {
       return false;
@@ -139,6 +142,7 @@ public final class ReconParser {
   /**
    * Returns whether the input is done.
    */
+  @Override
   public boolean isDone() {
     if (input == null) {
       return false;
@@ -150,6 +154,7 @@ public final class ReconParser {
   /**
    * Return whether there are any pending events available.
    */
+  @Override
   public boolean hasEvents() {
     return !(this.complete && this.pending == null);
   }
@@ -163,6 +168,7 @@ public final class ReconParser {
    * modified once it has been provided. Once an inner parser has decided on a parsing branch to take it will strip off
    * any consumed tokens from the {@code input}.
    */
+  @Override
   public ReconParser feed(Input input) {
     Objects.requireNonNull(input);
 
@@ -180,6 +186,29 @@ public final class ReconParser {
     return new ReconParser(newInput, this.state, this.current, this.pending, this.complete, this.clearIfNone);
   }
 
+  /**
+   * Resets this {@code ReconParser} back to its initial state and binds it to {@code input}. Unlike
+   * {@link ReconParser#feed(Input)}, this mutates and returns this instance so that a single parser may be reused for
+   * parsing many independent values.
+   *
+   * @param input the new input to parse.
+   * @return this parser.
+   */
+  @Override
+  public ReconParser reset(Input input) {
+    Objects.requireNonNull(input);
+
+    this.state.clear();
+    this.state.addLast(ParseState.Init);
+    this.input = input;
+    this.current = null;
+    this.pending = null;
+    this.complete = false;
+    this.clearIfNone = false;
+
+    return this;
+  }
+
   /**
    * Incrementally parses as much data as possible from the provided {@code Input} and returns a result representing
    * the operation.
@@ -189,6 +218,7 @@ public final class ReconParser {
    * - {@code ParseContinuation}: not enough data is available to produce an event.
    * - {@code ParseError}: the {@code Input} is invalid.
    */
+  @Override
   public ParseResult<ReadEvent> next() {
     if (input == null) {
       throw new IllegalStateException("No input provided to recon parser");
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.recon;
+
+/**
+ * A factory for creating {@link ReconEventParser}s.
+ */
+@FunctionalInterface
+public interface ReconParserFactory {
+
+  /**
+   * Returns a factory for the combinator-based {@link ReconParser}.
+   */
+  static ReconParserFactory combinator() {
+    return ReconParser::new;
+  }
+
+  /**
+   * Returns a factory for the state machine based {@link ReconPullParser}.
+   */
+  static ReconParserFactory pull() {
+    return ReconPullParser::new;
+  }
+
+  /**
+   * Returns the factory that should be used when no factory has been specified.
+   */
+  static ReconParserFactory defaultFactory() {
+    return pull();
+  }
+
+  /**
+   * Creates a new parser in its initial state.
+   */
+  ReconEventParser create();
+
+}
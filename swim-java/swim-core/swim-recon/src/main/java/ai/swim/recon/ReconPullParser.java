@@ -0,0 +1,1138 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.recon;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.ParserError;
+import ai.swim.codec.input.Input;
+import ai.swim.codec.parsers.number.NumberParser;
+import ai.swim.codec.parsers.number.TypedNumber;
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.recon.event.ReadEventHandler;
+import ai.swim.recon.models.ParseState;
+import ai.swim.recon.result.ParseResult;
+import ai.swim.recon.result.ResultError;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import static ai.swim.codec.parsers.DataParser.blob;
+import static ai.swim.codec.parsers.text.StringParser.decodeDigit;
+import static ai.swim.codec.parsers.text.StringParser.isDigit;
+import static ai.swim.recon.ReconUtils.isIdentStartChar;
+
+/**
+ * An incremental Recon parser that is implemented as a state machine over {@link ParseState}.
+ * <p>
+ * This parser produces the same events as {@link ReconParser} but it does not build a tree of parser combinators for
+ * each token and it does not buffer events into intermediate lists. Tokens are scanned directly from the
+ * {@link Input} into a reused buffer and each transition produces at most three events, which are held in a fixed
+ * size buffer until they are drained. Only numbers that are not simple integers, and blobs, are delegated to their
+ * respective parsers.
+ * <p>
+ * Pending events are held as a kind and the value of the token that was scanned, and they are only materialised as
+ * {@link ReadEvent}s by {@link ReconPullParser#next()}. {@link ReconPullParser#next(ReadEventHandler)} passes them to
+ * a handler without allocating an event and with text values as a view over the parser's buffer.
+ * <p>
+ * A parser may be reused to parse many values by calling {@link ReconPullParser#reset(Input)}.
+ */
+public final class ReconPullParser implements ReconEventParser {
+
+  private static final IntPredicate MULTISPACE = c -> c == ' ' || c == '\t' || c == '\r' || c == '\n';
+  private static final IntPredicate SPACE = c -> c == ' ' || c == '\t';
+  private static final IntPredicate UNESCAPED = c -> c >= 0x20 && c != '"' && c != '\\';
+  private static final IntPredicate IDENT_CHAR = ReconUtils::isIdentChar;
+
+  private ParseState[] stack;
+  private int depth;
+  private Input input;
+  private boolean complete;
+  private ResultError<ReadEvent> error;
+
+  private final Event[] pending;
+  private int pendingHead;
+  private int pendingLen;
+  private long longValue;
+  private double doubleValue;
+  private Object objectValue;
+
+  private Token token;
+  private final StringBuilder text;
+  private boolean isAttrName;
+  private int unicode;
+  private int unicodeDigits;
+  private boolean isNegative;
+  private long value;
+  private int digits;
+  private Parser<TypedNumber> number;
+  private Parser<byte[]> blob;
+
+  public ReconPullParser() {
+    this.stack = new ParseState[8];
+    this.pending = new Event[3];
+    this.text = new StringBuilder();
+    init();
+  }
+
+  private static boolean isNumberStart(int c) {
+    return c == '-' || c == '.' || c >= '0' && c <= '9';
+  }
+
+  /**
+   * Returns whether {@code c} would continue a number that the fast path would otherwise terminate.
+   */
+  private static boolean isNumberContinuation(int c) {
+    return c == '.' || c == 'e' || c == 'E' || c == 'x' || c >= '0' && c <= '9';
+  }
+
+  private void init() {
+    Arrays.fill(this.stack, 0, this.depth, null);
+    this.depth = 0;
+    push(ParseState.Init);
+    this.complete = false;
+    this.error = null;
+    Arrays.fill(this.pending, null);
+    this.pendingHead = 0;
+    this.pendingLen = 0;
+    this.token = Token.None;
+    this.text.setLength(0);
+    this.isAttrName = false;
+    this.objectValue = null;
+    this.number = null;
+    this.blob = null;
+  }
+
+  @Override
+  public boolean isError() {
+    return error != null;
+  }
+
+  @Override
+  public ResultError<ReadEvent> error() {
+    if (error != null) {
+      return error;
+    } else {
+      throw new IllegalStateException("Parser is not in an error state");
+    }
+  }
+
+  @Override
+  public boolean isCont() {
+    return !complete && error == null;
+  }
+
+  @Override
+  public boolean isDone() {
+    if (input == null) {
+      return false;
+    } else {
+      return input.isDone();
+    }
+  }
+
+  @Override
+  public boolean hasEvents() {
+    return !complete || pendingLen != 0;
+  }
+
+  @Override
+  public ReconPullParser feed(Input input) {
+    Objects.requireNonNull(input);
+
+    if (this.complete) {
+      throw new IllegalStateException("Cannot feed a completed parser more data");
+    }
+
+    if (this.input == null) {
+      this.input = input;
+    } else {
+      this.input = this.input.extend(input);
+    }
+
+    return this;
+  }
+
+  @Override
+  public ReconPullParser reset(Input input) {
+    Objects.requireNonNull(input);
+
+    init();
+    this.input = input;
+
+    return this;
+  }
+
+  @Override
+  public ParseResult<ReadEvent> next() {
+    if (advance()) {
+      return ParseResult.ok(materialise(poll()));
+    } else if (error != null) {
+      return error;
+    } else if (complete) {
+      return ParseResult.end();
+    } else {
+      return ParseResult.continuation();
+    }
+  }
+
+  @Override
+  public boolean next(ReadEventHandler handler) {
+    if (advance()) {
+      dispatch(poll(), handler);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Parses until an event is pending, the input is exhausted or an error is encountered.
+   *
+   * @return whether there is a pending event.
+   */
+  private boolean advance() {
+    if (input == null) {
+      throw new IllegalStateException("No input provided to recon parser");
+    }
+
+    if (pendingLen != 0) {
+      return true;
+    } else if (error != null) {
+      return false;
+    }
+
+    while (!complete) {
+      if (depth == 0) {
+        complete = true;
+        break;
+      }
+
+      boolean canContinue = token == Token.None ? parseState() : parseToken();
+
+      if (pendingLen != 0) {
+        return true;
+      } else if (error != null) {
+        return false;
+      } else if (!canContinue) {
+        if (input.isDone()) {
+          fail("Not enough data");
+        }
+        return false;
+      }
+    }
+
+    return false;
+  }
+
+  private ReadEvent materialise(Event event) {
+    switch (event) {
+      case Extant:
+        return ReadEvent.extant();
+      case Text:
+        return ReadEvent.text(text.toString());
+      case Int:
+        return ReadEvent.number((int) longValue);
+      case Long:
+        return ReadEvent.number(longValue);
+      case Float:
+        return ReadEvent.number((float) doubleValue);
+      case Double:
+        return ReadEvent.number(doubleValue);
+      case BigInt:
+        return ReadEvent.number((BigInteger) objectValue);
+      case BigDecimal:
+        return ReadEvent.number((BigDecimal) objectValue);
+      case Boolean:
+        return ReadEvent.bool(longValue != 0);
+      case Blob:
+        return ReadEvent.blob((byte[]) objectValue);
+      case StartAttribute:
+        return ReadEvent.startAttribute(text.toString());
+      case EndAttribute:
+        return ReadEvent.endAttribute();
+      case StartBody:
+        return ReadEvent.startBody();
+      case Slot:
+        return ReadEvent.slot();
+      case EndRecord:
+        return ReadEvent.endRecord();
+      default:
+        throw new AssertionError(event);
+    }
+  }
+
+  private void dispatch(Event event, ReadEventHandler handler) {
+    switch (event) {
+      case Extant:
+        handler.onExtant();
+        break;
+      case Text:
+        handler.onText(text);
+        break;
+      case Int:
+        handler.onInt((int) longValue);
+        break;
+      case Long:
+        handler.onLong(longValue);
+        break;
+      case Float:
+        handler.onFloat((float) doubleValue);
+        break;
+      case Double:
+        handler.onDouble(doubleValue);
+        break;
+      case BigInt:
+        handler.onBigInt((BigInteger) objectValue);
+        break;
+      case BigDecimal:
+        handler.onBigDecimal((BigDecimal) objectValue);
+        break;
+      case Boolean:
+        handler.onBoolean(longValue != 0);
+        break;
+      case Blob:
+        handler.onBlob((byte[]) objectValue);
+        break;
+      case StartAttribute:
+        handler.onStartAttribute(text);
+        break;
+      case EndAttribute:
+        handler.onEndAttribute();
+        break;
+      case StartBody:
+        handler.onStartBody();
+        break;
+      case Slot:
+        handler.onSlot();
+        break;
+      case EndRecord:
+        handler.onEndRecord();
+        break;
+      default:
+        throw new AssertionError(event);
+    }
+  }
+
+  private Event poll() {
+    Event event = pending[pendingHead];
+    pending[pendingHead] = null;
+    pendingHead += 1;
+    pendingLen -= 1;
+
+    if (pendingLen == 0) {
+      pendingHead = 0;
+    }
+
+    return event;
+  }
+
+  private void emit(Event event) {
+    pending[pendingHead + pendingLen] = event;
+    pendingLen += 1;
+  }
+
+  private void emit(Event first, Event second) {
+    emit(first);
+    emit(second);
+  }
+
+  private boolean fail(String cause) {
+    error = new ResultError<>(cause, input.location());
+    return false;
+  }
+
+  private void push(ParseState state) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+    }
+    stack[depth++] = state;
+  }
+
+  private ParseState pop() {
+    ParseState state = stack[--depth];
+    stack[depth] = null;
+    return state;
+  }
+
+  private void replace(ParseState state) {
+    stack[depth - 1] = state;
+  }
+
+  private void popAfterItem() {
+    pop();
+
+    if (depth != 0) {
+      ParseState parent = pop();
+      switch (parent) {
+        case Init:
+          push(ParseState.AfterAttr);
+          break;
+        case AttrBodyStartOrNl:
+        case AttrBodyAfterSep:
+          push(ParseState.AttrBodyAfterValue);
+          break;
+        case AttrBodySlot:
+          push(ParseState.AttrBodyAfterSlot);
+          break;
+        case RecordBodyStartOrNl:
+        case RecordBodyAfterSep:
+          push(ParseState.RecordBodyAfterValue);
+          break;
+        case RecordBodySlot:
+          push(ParseState.RecordBodyAfterSlot);
+          break;
+        default:
+          throw new IllegalStateException("Invalid state transition from: " + parent + " after an item");
+      }
+    }
+  }
+
+  private void popAfterAttr() {
+    pop();
+
+    if (depth != 0) {
+      pop();
+      push(ParseState.AfterAttr);
+    }
+  }
+
+  private void endItems(boolean isAttr) {
+    if (isAttr) {
+      emit(Event.EndAttribute);
+      popAfterAttr();
+    } else {
+      emit(Event.EndRecord);
+      popAfterItem();
+    }
+  }
+
+  /**
+   * Advances the parser from the state at the top of the stack, when no token is being scanned.
+   *
+   * @return whether parsing may continue without more input.
+   */
+  private boolean parseState() {
+    switch (stack[depth - 1]) {
+      case Init:
+        return parseInit();
+      case AfterAttr:
+        return parseAfterAttr();
+      case RecordBodyStartOrNl:
+        return parseNotAfterItem(false, false);
+      case RecordBodyAfterSep:
+        return parseNotAfterItem(false, true);
+      case AttrBodyStartOrNl:
+        return parseNotAfterItem(true, false);
+      case AttrBodyAfterSep:
+        return parseNotAfterItem(true, true);
+      case RecordBodyAfterValue:
+        return parseAfterItem(false, true);
+      case RecordBodyAfterSlot:
+        return parseAfterItem(false, false);
+      case AttrBodyAfterValue:
+        return parseAfterItem(true, true);
+      case AttrBodyAfterSlot:
+        return parseAfterItem(true, false);
+      case RecordBodySlot:
+        return parseSlotValue(false);
+      case AttrBodySlot:
+        return parseSlotValue(true);
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  private boolean parseInit() {
+    Input input = this.input;
+    input.skipWhile(MULTISPACE);
+
+    if (!input.isContinuation()) {
+      if (input.isDone()) {
+        emit(Event.Extant);
+        pop();
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    int c = input.head();
+    if (c == '@') {
+      input.step();
+      return startAttr();
+    } else if (c == '{') {
+      input.step();
+      emit(Event.StartBody);
+      replace(ParseState.RecordBodyStartOrNl);
+      return true;
+    } else {
+      return startValue(c);
+    }
+  }
+
+  private boolean parseAfterAttr() {
+    Input input = this.input;
+    input.skipWhile(MULTISPACE);
+
+    if (!input.isContinuation()) {
+      if (input.isDone()) {
+        emit(Event.StartBody, Event.EndRecord);
+        complete = true;
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    int c = input.head();
+    switch (c) {
+      case '@':
+        input.step();
+        return startAttr();
+      case '{':
+        input.step();
+        emit(Event.StartBody);
+        replace(ParseState.RecordBodyStartOrNl);
+        return true;
+      case ',':
+      case ';':
+      case ')':
+      case '}':
+        emit(Event.StartBody, Event.EndRecord);
+        popAfterItem();
+        return true;
+      default:
+        return startValue(c);
+    }
+  }
+
+  private boolean parseNotAfterItem(boolean isAttr, boolean itemsRequired) {
+    Input input = this.input;
+    input.skipWhile(MULTISPACE);
+
+    if (!input.isContinuation()) {
+      return input.isDone() ? fail("Unexpected end of input") : false;
+    }
+
+    int c = input.head();
+    switch (c) {
+      case ',':
+      case ';':
+        input.step();
+        emit(Event.Extant);
+        replace(isAttr ? ParseState.AttrBodyAfterSep : ParseState.RecordBodyAfterSep);
+        return true;
+      case ':':
+        input.step();
+        emit(Event.Extant, Event.Slot);
+        replace(isAttr ? ParseState.AttrBodySlot : ParseState.RecordBodySlot);
+        return true;
+      case '@':
+        input.step();
+        return startAttr();
+      case '{':
+        input.step();
+        emit(Event.StartBody);
+        push(ParseState.RecordBodyStartOrNl);
+        return true;
+      default:
+        if (c == (isAttr ? ')' : '}')) {
+          input.step();
+          if (itemsRequired) {
+            emit(Event.Extant);
+          }
+          endItems(isAttr);
+          return true;
+        } else {
+          return startValue(c);
+        }
+    }
+  }
+
+  private boolean parseAfterItem(boolean isAttr, boolean isAfterValue) {
+    Input input = this.input;
+    input.skipWhile(SPACE);
+
+    if (!input.isContinuation()) {
+      return input.isDone() ? fail("Unexpected end of input") : false;
+    }
+
+    int c = input.head();
+    switch (c) {
+      case ':':
+        if (isAfterValue) {
+          input.step();
+          emit(Event.Slot);
+          replace(isAttr ? ParseState.AttrBodySlot : ParseState.RecordBodySlot);
+          return true;
+        } else {
+          return fail("Unexpected ':'");
+        }
+      case '\r':
+      case '\n':
+        startLineEnding(c);
+        replace(isAttr ? ParseState.AttrBodyStartOrNl : ParseState.RecordBodyStartOrNl);
+        return true;
+      case ',':
+      case ';':
+        input.step();
+        replace(isAttr ? ParseState.AttrBodyAfterSep : ParseState.RecordBodyAfterSep);
+        return true;
+      default:
+        if (c == (isAttr ? ')' : '}')) {
+          input.step();
+          endItems(isAttr);
+          return true;
+        } else {
+          return fail("Expected a separator or the end of the " + (isAttr ? "attribute" : "record"));
+        }
+    }
+  }
+
+  private boolean parseSlotValue(boolean isAttr) {
+    Input input = this.input;
+    input.skipWhile(SPACE);
+
+    if (!input.isContinuation()) {
+      return input.isDone() ? fail("Unexpected end of input") : false;
+    }
+
+    int c = input.head();
+    switch (c) {
+      case '\r':
+      case '\n':
+        startLineEnding(c);
+        emit(Event.Extant);
+        replace(isAttr ? ParseState.AttrBodyStartOrNl : ParseState.RecordBodyStartOrNl);
+        return true;
+      case ',':
+      case ';':
+        input.step();
+        emit(Event.Extant);
+        replace(isAttr ? ParseState.AttrBodyAfterSep : ParseState.RecordBodyAfterSep);
+        return true;
+      case '@':
+        input.step();
+        return startAttr();
+      case '{':
+        input.step();
+        emit(Event.StartBody);
+        push(ParseState.RecordBodyStartOrNl);
+        return true;
+      default:
+        if (c == (isAttr ? ')' : '}')) {
+          input.step();
+          emit(Event.Extant);
+          endItems(isAttr);
+          return true;
+        } else {
+          return startValue(c);
+        }
+    }
+  }
+
+  private void startLineEnding(int c) {
+    input.step();
+    if (c == '\r') {
+      token = Token.CarriageReturn;
+    }
+  }
+
+  private boolean startAttr() {
+    text.setLength(0);
+    isAttrName = true;
+    token = Token.AttrName;
+    return true;
+  }
+
+  private boolean startValue(int c) {
+    if (c == '"') {
+      input.step();
+      text.setLength(0);
+      token = Token.Text;
+      return true;
+    } else if (isIdentStartChar(c)) {
+      text.setLength(0);
+      token = Token.Identifier;
+      return true;
+    } else if (isNumberStart(c)) {
+      isNegative = false;
+      value = 0;
+      digits = 0;
+      token = Token.NumberSign;
+      return true;
+    } else if (c == '%') {
+      token = Token.Blob;
+      blob = blob();
+      return true;
+    } else {
+      return fail("Unexpected character: '" + Character.toString(c) + "'");
+    }
+  }
+
+  /**
+   * Continues scanning the current token.
+   *
+   * @return whether parsing may continue without more input.
+   */
+  private boolean parseToken() {
+    Input input = this.input;
+
+    switch (token) {
+      case CarriageReturn:
+        if (input.isContinuation()) {
+          if (input.head() == '\n') {
+            input.step();
+            token = Token.None;
+            return true;
+          } else {
+            return fail("Expected a line ending");
+          }
+        } else {
+          return input.isDone() ? fail("Expected a line ending") : false;
+        }
+      case AttrName:
+        if (input.isContinuation()) {
+          int c = input.head();
+          if (c == '"') {
+            input.step();
+            token = Token.Text;
+            return true;
+          } else if (isIdentStartChar(c)) {
+            token = Token.Identifier;
+            return true;
+          } else {
+            return fail("Expected an attribute name");
+          }
+        } else {
+          return input.isDone() ? fail("Expected an attribute name") : false;
+        }
+      case AfterAttrName:
+        if (input.isContinuation()) {
+          if (input.head() == '(') {
+            input.step();
+            onAttr(true);
+          } else {
+            onAttr(false);
+          }
+          return true;
+        } else if (input.isDone()) {
+          onAttr(false);
+          return true;
+        } else {
+          return false;
+        }
+      case Text:
+        return parseText(input);
+      case TextEscape:
+        return parseEscape(input);
+      case TextUnicode:
+        return parseUnicode(input);
+      case Identifier:
+        input.takeWhile(IDENT_CHAR, text);
+        if (input.isContinuation() || input.isDone()) {
+          return onIdentifier();
+        } else {
+          return false;
+        }
+      case NumberSign:
+        if (input.head() == '-') {
+          input.step();
+          isNegative = true;
+        }
+        token = Token.NumberFirstDigit;
+        return parseFirstDigit(input);
+      case NumberFirstDigit:
+        return parseFirstDigit(input);
+      case NumberDigits:
+      case NumberZero:
+        return parseDigits(input);
+      case Number:
+        return onNumber(number.feed(input));
+      case Blob:
+        blob = blob.feed(input);
+        if (blob.isDone()) {
+          objectValue = blob.bind();
+          blob = null;
+          return onValue(Event.Blob);
+        } else if (blob.isError()) {
+          return fail(((ParserError<?>) blob).cause());
+        } else {
+          return false;
+        }
+      default:
+        throw new AssertionError(token);
+    }
+  }
+
+  private boolean parseText(Input input) {
+    input.takeWhile(UNESCAPED, text);
+
+    if (input.isContinuation()) {
+      int c = input.head();
+      input.step();
+      if (c == '"') {
+        if (isAttrName) {
+          token = Token.AfterAttrName;
+          return true;
+        } else {
+          return onValue(Event.Text);
+        }
+      } else if (c == '\\') {
+        token = Token.TextEscape;
+        return true;
+      } else {
+        return fail("Unexpected control character in a string");
+      }
+    } else {
+      return input.isDone() ? fail("Expected a string input") : false;
+    }
+  }
+
+  private boolean parseEscape(Input input) {
+    if (input.isContinuation()) {
+      int c = input.head();
+      input.step();
+      token = Token.Text;
+
+      switch (c) {
+        case '"':
+        case '$':
+        case '\'':
+        case '/':
+        case '@':
+        case '[':
+        case '\\':
+        case ']':
+        case '{':
+        case '}':
+          text.append((char) c);
+          return true;
+        case 'b':
+          text.append('\b');
+          return true;
+        case 'f':
+          text.append('\f');
+          return true;
+        case 'n':
+          text.append('\n');
+          return true;
+        case 'r':
+          text.append('\r');
+          return true;
+        case 't':
+          text.append('\t');
+          return true;
+        case 'u':
+          unicode = 0;
+          unicodeDigits = 0;
+          token = Token.TextUnicode;
+          return true;
+        default:
+          return fail("Expected an escape character");
+      }
+    } else {
+      return input.isDone() ? fail("Expected an escape character") : false;
+    }
+  }
+
+  private boolean parseUnicode(Input input) {
+    while (input.isContinuation()) {
+      int c = input.head();
+      if (isDigit(c)) {
+        input.step();
+        unicode = 16 * unicode + decodeDigit(c);
+        unicodeDigits += 1;
+
+        if (unicodeDigits == 4) {
+          text.append((char) unicode);
+          token = Token.Text;
+          return true;
+        }
+      } else {
+        return fail("Expected a hex digit");
+      }
+    }
+
+    return input.isDone() ? fail("Expected a hex digit") : false;
+  }
+
+  private boolean parseFirstDigit(Input input) {
+    if (input.isContinuation()) {
+      int c = input.head();
+      if (c == '0') {
+        input.step();
+        digits = 1;
+        token = Token.NumberZero;
+        return parseDigits(input);
+      } else if (c >= '1' && c <= '9') {
+        input.step();
+        value = isNegative ? '0' - c : c - '0';
+        digits = 1;
+        token = Token.NumberDigits;
+        return parseDigits(input);
+      } else {
+        return onNumber(NumberParser.resume(input, isNegative, 0, false));
+      }
+    } else if (input.isDone()) {
+      return fail("Expected a number");
+    } else {
+      return false;
+    }
+  }
+
+  private boolean parseDigits(Input input) {
+    if (token == Token.NumberDigits) {
+      // Stop before a digit that could overflow a long and let the number parser handle it.
+      while (digits < 18 && input.isContinuation()) {
+        int c = input.head();
+        if (c >= '0' && c <= '9') {
+          input.step();
+          value = isNegative ? 10 * value - (c - '0') : 10 * value + (c - '0');
+          digits += 1;
+        } else {
+          break;
+        }
+      }
+    }
+
+    if (input.isContinuation()) {
+      if (isNumberContinuation(input.head())) {
+        return onNumber(NumberParser.resume(input, isNegative, value, true));
+      } else {
+        return onInteger(value);
+      }
+    } else if (input.isDone()) {
+      return onInteger(value);
+    } else {
+      return false;
+    }
+  }
+
+  private boolean onNumber(Parser<TypedNumber> parser) {
+    if (parser.isDone()) {
+      number = null;
+      return onNumber(parser.bind());
+    } else if (parser.isError()) {
+      number = null;
+      return fail(((ParserError<?>) parser).cause());
+    } else {
+      number = parser;
+      token = Token.Number;
+      return false;
+    }
+  }
+
+  private boolean onInteger(long value) {
+    longValue = value;
+    return onValue((long) (int) value == value ? Event.Int : Event.Long);
+  }
+
+  private boolean onNumber(TypedNumber number) {
+    if (number.isInt()) {
+      longValue = number.intValue();
+      return onValue(Event.Int);
+    } else if (number.isLong()) {
+      longValue = number.longValue();
+      return onValue(Event.Long);
+    } else if (number.isFloat()) {
+      doubleValue = number.floatValue();
+      return onValue(Event.Float);
+    } else if (number.isDouble()) {
+      doubleValue = number.doubleValue();
+      return onValue(Event.Double);
+    } else if (number.isBigInt()) {
+      objectValue = number.bigIntValue();
+      return onValue(Event.BigInt);
+    } else if (number.isBigDecimal()) {
+      objectValue = number.bigDecimalValue();
+      return onValue(Event.BigDecimal);
+    } else {
+      throw new AssertionError(number);
+    }
+  }
+
+  /**
+   * Handles an identifier that has been scanned into the text buffer. The buffer is retained as the value of a text
+   * event or as the name of an attribute.
+   */
+  private boolean onIdentifier() {
+    if (isAttrName) {
+      if (textEquals("true") || textEquals("false") || isFloatLiteral()) {
+        return fail("Expected a string identifier");
+      } else {
+        token = Token.AfterAttrName;
+        return true;
+      }
+    }
+
+    if (textEquals("true")) {
+      longValue = 1;
+      return onValue(Event.Boolean);
+    } else if (textEquals("false")) {
+      longValue = 0;
+      return onValue(Event.Boolean);
+    } else if (textEqualsIgnoreCase("nan")) {
+      doubleValue = Float.NaN;
+      return onValue(Event.Float);
+    } else if (textEqualsIgnoreCase("inf") || textEqualsIgnoreCase("infinity")) {
+      doubleValue = Float.POSITIVE_INFINITY;
+      return onValue(Event.Float);
+    } else {
+      return onValue(Event.Text);
+    }
+  }
+
+  private boolean isFloatLiteral() {
+    return textEqualsIgnoreCase("nan") || textEqualsIgnoreCase("inf") || textEqualsIgnoreCase("infinity");
+  }
+
+  private boolean textEquals(String value) {
+    return text.length() == value.length() && text.indexOf(value) == 0;
+  }
+
+  private boolean textEqualsIgnoreCase(String value) {
+    int len = value.length();
+    if (text.length() != len) {
+      return false;
+    }
+
+    for (int i = 0; i < len; i++) {
+      if (Character.toLowerCase(text.charAt(i)) != value.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Emits a value that has been read in the state at the top of the stack and transitions to the following state.
+   */
+  private boolean onValue(Event event) {
+    token = Token.None;
+
+    switch (stack[depth - 1]) {
+      case Init:
+        emit(event);
+        pop();
+        break;
+      case AfterAttr:
+        emit(Event.StartBody, event);
+        emit(Event.EndRecord);
+        popAfterItem();
+        break;
+      case RecordBodyStartOrNl:
+      case RecordBodyAfterSep:
+        emit(event);
+        replace(ParseState.RecordBodyAfterValue);
+        break;
+      case AttrBodyStartOrNl:
+      case AttrBodyAfterSep:
+        emit(event);
+        replace(ParseState.AttrBodyAfterValue);
+        break;
+      case RecordBodySlot:
+        emit(event);
+        replace(ParseState.RecordBodyAfterSlot);
+        break;
+      case AttrBodySlot:
+        emit(event);
+        replace(ParseState.AttrBodyAfterSlot);
+        break;
+      default:
+        throw new AssertionError(stack[depth - 1]);
+    }
+
+    return true;
+  }
+
+  /**
+   * Emits an attribute that has been read in the state at the top of the stack and transitions to the following
+   * state.
+   */
+  private void onAttr(boolean hasBody) {
+    isAttrName = false;
+    token = Token.None;
+
+    emit(Event.StartAttribute);
+
+    ParseState state = stack[depth - 1];
+    boolean isSecondary = state == ParseState.Init || state == ParseState.AfterAttr;
+
+    if (hasBody) {
+      if (!isSecondary) {
+        push(ParseState.Init);
+      }
+      push(ParseState.AttrBodyStartOrNl);
+    } else {
+      emit(Event.EndAttribute);
+      if (isSecondary) {
+        replace(ParseState.AfterAttr);
+      } else {
+        push(ParseState.AfterAttr);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ReconPullParser{" +
+        "input=" + input +
+        ", state=" + Arrays.toString(Arrays.copyOf(stack, depth)) +
+        ", token=" + token +
+        ", complete=" + complete +
+        ", error=" + error +
+        '}';
+  }
+
+  private enum Event {
+    Extant,
+    Text,
+    Int,
+    Long,
+    Float,
+    Double,
+    BigInt,
+    BigDecimal,
+    Boolean,
+    Blob,
+    StartAttribute,
+    EndAttribute,
+    StartBody,
+    Slot,
+    EndRecord
+  }
+
+  private enum Token {
+    None,
+    CarriageReturn,
+    AttrName,
+    AfterAttrName,
+    Text,
+    TextEscape,
+    TextUnicode,
+    Identifier,
+    NumberSign,
+    NumberFirstDigit,
+    NumberDigits,
+    NumberZero,
+    Number,
+    Blob
+  }
+}
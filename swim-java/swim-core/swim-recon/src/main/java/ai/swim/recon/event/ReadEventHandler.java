@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.recon.event;
+
+import ai.swim.recon.event.number.ReadBigDecimalValue;
+import ai.swim.recon.event.number.ReadBigIntValue;
+import ai.swim.recon.event.number.ReadDoubleValue;
+import ai.swim.recon.event.number.ReadFloatValue;
+import ai.swim.recon.event.number.ReadIntValue;
+import ai.swim.recon.event.number.ReadLongValue;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A callback interface that receives Recon events directly from a parser rather than as {@link ReadEvent} instances.
+ * <p>
+ * A parser that supports this interface does not need to allocate an event object for each token that it reads and
+ * the text of a string value or an attribute name is provided as a view over the parser's buffer. Any
+ * {@link CharSequence} that is passed to a handler is only valid for the duration of the call and implementations
+ * must copy it if it is to be retained.
+ *
+ * @see ai.swim.recon.ReconEventParser#next(ReadEventHandler)
+ */
+public interface ReadEventHandler {
+
+  void onExtant();
+
+  void onText(CharSequence value);
+
+  void onInt(int value);
+
+  void onLong(long value);
+
+  void onFloat(float value);
+
+  void onDouble(double value);
+
+  void onBigInt(BigInteger value);
+
+  void onBigDecimal(BigDecimal value);
+
+  void onBoolean(boolean value);
+
+  void onBlob(byte[] value);
+
+  void onStartAttribute(CharSequence name);
+
+  void onEndAttribute();
+
+  void onStartBody();
+
+  void onSlot();
+
+  void onEndRecord();
+
+  /**
+   * Passes an already materialised {@link ReadEvent} to the corresponding callback of this handler.
+   *
+   * @param event to dispatch.
+   */
+  default void onEvent(ReadEvent event) {
+    if (event.isExtant()) {
+      onExtant();
+    } else if (event.isText()) {
+      onText(((ReadTextValue) event).getValue());
+    } else if (event.isReadInt()) {
+      onInt(((ReadIntValue) event).getValue());
+    } else if (event.isReadLong()) {
+      onLong(((ReadLongValue) event).getValue());
+    } else if (event.isReadFloat()) {
+      onFloat(((ReadFloatValue) event).getValue());
+    } else if (event.isReadDouble()) {
+      onDouble(((ReadDoubleValue) event).getValue());
+    } else if (event.isReadBigInt()) {
+      onBigInt(((ReadBigIntValue) event).getValue());
+    } else if (event.isReadBigDecimal()) {
+      onBigDecimal(((ReadBigDecimalValue) event).getValue());
+    } else if (event.isBoolean()) {
+      onBoolean(((ReadBooleanValue) event).getValue());
+    } else if (event.isBlob()) {
+      onBlob(((ReadBlobValue) event).getValue());
+    } else if (event.isStartAttribute()) {
+      onStartAttribute(((ReadStartAttribute) event).value());
+    } else if (event.isEndAttribute()) {
+      onEndAttribute();
+    } else if (event.isStartBody()) {
+      onStartBody();
+    } else if (event.isSlot()) {
+      onSlot();
+    } else if (event.isEndRecord()) {
+      onEndRecord();
+    } else {
+      throw new AssertionError(event);
+    }
+  }
+
+}
@@ -18,8 +18,10 @@ package ai.swim.recon;
 
 import ai.swim.codec.Parser;
 import ai.swim.codec.ParserError;
+import ai.swim.codec.data.ReadBuffer;
 import ai.swim.codec.input.Input;
 import ai.swim.recon.models.identifier.Identifier;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -34,6 +36,16 @@ class IdentifierParserTest {
     assertEquals(parseResult.bind(), expected);
   }
 
+  @Test
+  void identifierTestUtf8() {
+    Parser<Identifier> parser = IdentifierParser.identifier();
+    byte[] bytes = "\u00fcn\u00efc\u00f6d\u00e9_ident ".getBytes(StandardCharsets.UTF_8);
+    Parser<Identifier> parseResult = parser.feed(Input.utf8(ReadBuffer.fromArray(bytes)));
+
+    assertTrue(parseResult.isDone());
+    assertEquals(Identifier.string("\u00fcn\u00efc\u00f6d\u00e9_ident"), parseResult.bind());
+  }
+
   @Test
   void identifierTestTrue() {
     identifierTest("true", Identifier.bool(true));
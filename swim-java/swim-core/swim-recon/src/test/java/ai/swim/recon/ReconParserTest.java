@@ -30,13 +30,19 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 class ReconParserTest {
 
+  private static final List<ReconParserFactory> FACTORIES = List.of(
+      ReconParserFactory.combinator(),
+      ReconParserFactory.pull());
+
   void runTestOk(String string, List<ReadEvent> expected) {
-    testCompleteOk(string, expected);
-    testIncrementalOk(string, expected);
+    for (ReconParserFactory factory : FACTORIES) {
+      testCompleteOk(factory, string, expected);
+      testIncrementalOk(factory, string, expected);
+    }
   }
 
-  private void testIncrementalOk(String string, List<ReadEvent> expected) {
-    ReconParser parser = new ReconParser().feed(Input.string(String.valueOf(string.charAt(0))).setPartial(true));
+  private void testIncrementalOk(ReconParserFactory factory, String string, List<ReadEvent> expected) {
+    ReconEventParser parser = factory.create().feed(Input.string(String.valueOf(string.charAt(0))).setPartial(true));
     List<ReadEvent> actual = new ArrayList<>(expected.size());
 
     for (int i = 1; i < string.length(); i++) {
@@ -79,8 +85,8 @@ class ReconParserTest {
     assertEquals(expected, actual);
   }
 
-  void testCompleteOk(String input, List<ReadEvent> expected) {
-    ReconParser parser = new ReconParser().feed(Input.string(input));
+  void testCompleteOk(ReconParserFactory factory, String input, List<ReadEvent> expected) {
+    ReconEventParser parser = factory.create().feed(Input.string(input));
 
     for (ReadEvent event : expected) {
       assertEquals(ParseResult.ok(event), parser.next());
@@ -134,10 +140,12 @@ class ReconParserTest {
 
   @Test
   void emptyInput() {
-    ReconParser parser = new ReconParser().feed(Input.string(""));
-    assertEquals(ParseResult.ok(ReadEvent.extant()), parser.next());
-    assertEquals(ParseResult.end(), parser.next());
-    assertEquals(ParseResult.end(), parser.next());
+    for (ReconParserFactory factory : FACTORIES) {
+      ReconEventParser parser = factory.create().feed(Input.string(""));
+      assertEquals(ParseResult.ok(ReadEvent.extant()), parser.next());
+      assertEquals(ParseResult.end(), parser.next());
+      assertEquals(ParseResult.end(), parser.next());
+    }
   }
 
   @Test
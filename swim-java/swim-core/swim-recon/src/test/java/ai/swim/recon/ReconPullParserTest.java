@@ -0,0 +1,271 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.recon;
+
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.input.Input;
+import ai.swim.codec.location.StringLocation;
+import ai.swim.recon.event.ReadBlobValue;
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.recon.event.ReadEventHandler;
+import ai.swim.recon.result.ParseResult;
+import ai.swim.recon.result.ResultError;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ReconPullParserTest {
+
+  private static List<ReadEvent> parse(ReconEventParser parser) {
+    List<ReadEvent> events = new ArrayList<>();
+
+    while (true) {
+      ParseResult<ReadEvent> result = parser.next();
+      if (result.isOk()) {
+        events.add(result.bind());
+      } else if (result.isDone()) {
+        return events;
+      } else if (result.isError()) {
+        fail(((ResultError<ReadEvent>) result).getCause());
+      } else {
+        fail("Unexpected continuation");
+      }
+    }
+  }
+
+  private static void assertEvents(String input, List<ReadEvent> expected) {
+    assertEquals(expected, parse(new ReconPullParser().feed(Input.string(input))));
+  }
+
+  @Test
+  void numbers() {
+    assertEvents("-12", List.of(ReadEvent.number(-12)));
+    assertEvents("0", List.of(ReadEvent.number(0)));
+    assertEvents("9223372036854775807", List.of(ReadEvent.number(Long.MAX_VALUE)));
+    assertEvents("-9223372036854775808", List.of(ReadEvent.number(Long.MIN_VALUE)));
+    assertEvents("92233720368547758070", List.of(ReadEvent.number(new BigInteger("92233720368547758070"))));
+    assertEvents("1.5", List.of(ReadEvent.number(1.5f)));
+    assertEvents("-.5", List.of(ReadEvent.number(-0.5f)));
+    assertEvents("0xff", List.of(ReadEvent.number(255)));
+    assertEvents("-inf", List.of(ReadEvent.number(Float.NEGATIVE_INFINITY)));
+    assertEvents("{1.5,2}", List.of(
+        ReadEvent.startBody(),
+        ReadEvent.number(1.5f),
+        ReadEvent.number(2),
+        ReadEvent.endRecord()
+                                   ));
+  }
+
+  @Test
+  void escapes() {
+    assertEvents("\"a\\nb\\\"c\\u0041\"", List.of(ReadEvent.text("a\nb\"cA")));
+    assertEvents("@\"a b\"", List.of(
+        ReadEvent.startAttribute("a b"),
+        ReadEvent.endAttribute(),
+        ReadEvent.startBody(),
+        ReadEvent.endRecord()
+                                    ));
+  }
+
+  @Test
+  void blob() {
+    List<ReadEvent> events = parse(new ReconPullParser().feed(Input.string("%AQID")));
+    assertEquals(1, events.size());
+    assertTrue(events.get(0).isBlob());
+    assertArrayEquals(new byte[] {1, 2, 3}, ((ReadBlobValue) events.get(0)).getValue());
+  }
+
+  @Test
+  void utf8Input() {
+    byte[] bytes = "@update(key:\"cl\u00e9\")\u00fcber".getBytes(StandardCharsets.UTF_8);
+    ReconEventParser parser = new ReconPullParser().feed(Input.utf8(ReadBuffer.fromArray(bytes)));
+
+    assertEquals(List.of(
+        ReadEvent.startAttribute("update"),
+        ReadEvent.text("key"),
+        ReadEvent.slot(),
+        ReadEvent.text("cl\u00e9"),
+        ReadEvent.endAttribute(),
+        ReadEvent.startBody(),
+        ReadEvent.text("\u00fcber"),
+        ReadEvent.endRecord()
+                        ), parse(parser));
+  }
+
+  @Test
+  void reset() {
+    ReconPullParser parser = new ReconPullParser();
+
+    assertEquals(List.of(ReadEvent.number(1)), parse(parser.reset(Input.string("1"))));
+    assertEquals(
+        List.of(ReadEvent.startBody(), ReadEvent.text("a"), ReadEvent.endRecord()),
+        parse(parser.reset(Input.string("{a}"))));
+
+    // A parser that stopped in an error state may also be reused.
+    parser.reset(Input.string("{1 2}"));
+    while (!parser.next().isError()) {
+      assertTrue(parser.hasEvents());
+    }
+    assertEquals(List.of(ReadEvent.text("b")), parse(parser.reset(Input.string("b"))));
+  }
+
+  @Test
+  void error() {
+    ReconPullParser parser = new ReconPullParser().feed(Input.string("@!!!!"));
+
+    ParseResult<ReadEvent> parseResult = parser.next();
+    assertTrue(parser.isError());
+    assertTrue(parseResult.isError());
+
+    ResultError<ReadEvent> error = (ResultError<ReadEvent>) parseResult;
+    assertEquals(new StringLocation(1, 2, 1), error.getLocation());
+    assertEquals("Expected an attribute name", error.getCause());
+  }
+
+  @Test
+  void unterminated() {
+    for (String input : List.of("{1,2", "\"abc", "@tag(a:")) {
+      ReconPullParser parser = new ReconPullParser().feed(Input.string(input));
+      ParseResult<ReadEvent> result;
+
+      do {
+        result = parser.next();
+      } while (result.isOk());
+
+      assertTrue(result.isError(), input);
+    }
+  }
+
+  private static List<ReadEvent> parseWithHandler(ReconEventParser parser) {
+    List<ReadEvent> events = new ArrayList<>();
+    ReadEventHandler handler = new ReadEventHandler() {
+      @Override
+      public void onExtant() {
+        events.add(ReadEvent.extant());
+      }
+
+      @Override
+      public void onText(CharSequence value) {
+        events.add(ReadEvent.text(value.toString()));
+      }
+
+      @Override
+      public void onInt(int value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onLong(long value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onFloat(float value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onDouble(double value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onBigInt(BigInteger value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onBigDecimal(BigDecimal value) {
+        events.add(ReadEvent.number(value));
+      }
+
+      @Override
+      public void onBoolean(boolean value) {
+        events.add(ReadEvent.bool(value));
+      }
+
+      @Override
+      public void onBlob(byte[] value) {
+        events.add(ReadEvent.blob(value));
+      }
+
+      @Override
+      public void onStartAttribute(CharSequence name) {
+        events.add(ReadEvent.startAttribute(name.toString()));
+      }
+
+      @Override
+      public void onEndAttribute() {
+        events.add(ReadEvent.endAttribute());
+      }
+
+      @Override
+      public void onStartBody() {
+        events.add(ReadEvent.startBody());
+      }
+
+      @Override
+      public void onSlot() {
+        events.add(ReadEvent.slot());
+      }
+
+      @Override
+      public void onEndRecord() {
+        events.add(ReadEvent.endRecord());
+      }
+    };
+
+    while (parser.next(handler)) {
+      // drain the parser
+    }
+
+    assertTrue(!parser.isError() && !parser.hasEvents());
+    return events;
+  }
+
+  @Test
+  void handler() {
+    List<String> inputs = List.of(
+        "@update(key:\"a b\")@tag{x:1,y:-2.5,z:9223372036854775807,w:true,v:nan,u:%AQID,t:{},s:}",
+        "{1,2.25,92233720368547758070,\"q\\\"uote\",false,ident}",
+        "@attr(@nested(1),2)"
+                                 );
+
+    for (String input : inputs) {
+      List<ReadEvent> expected = parse(new ReconPullParser().feed(Input.string(input)));
+      List<ReadEvent> actual = parseWithHandler(new ReconPullParser().feed(Input.string(input)));
+      assertEquals(expected.size(), actual.size(), input);
+
+      for (int i = 0; i < expected.size(); i++) {
+        ReadEvent event = expected.get(i);
+        if (event.isBlob()) {
+          assertArrayEquals(((ReadBlobValue) event).getValue(), ((ReadBlobValue) actual.get(i)).getValue());
+        } else {
+          assertEquals(event, actual.get(i), input);
+        }
+      }
+    }
+  }
+
+}
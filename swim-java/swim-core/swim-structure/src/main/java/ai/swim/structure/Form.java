@@ -38,6 +38,20 @@ public final class Form<T> extends Recognizer<T> implements Writable<T> {
     return new Form<>(RecognizerProxy.getProxy().lookup(tClass), WriterProxy.getProxy().lookup(tClass));
   }
 
+  /**
+   * Returns the {@link Recognizer} that this form delegates to.
+   */
+  public Recognizer<T> getRecognizer() {
+    return recognizer;
+  }
+
+  /**
+   * Returns the {@link Writable} that this form delegates to.
+   */
+  public Writable<T> getWritable() {
+    return writable;
+  }
+
   @Override
   public Recognizer<T> feedEvent(ReadEvent event) {
     return recognizer.feedEvent(event);
@@ -18,29 +18,64 @@ package ai.swim.structure;
 
 import ai.swim.codec.Parser;
 import ai.swim.codec.input.Input;
-import ai.swim.recon.ReconParser;
+import ai.swim.recon.ReconEventParser;
+import ai.swim.recon.ReconParserFactory;
 import ai.swim.recon.event.ReadEvent;
 import ai.swim.recon.result.ParseResult;
 import ai.swim.recon.result.ResultError;
+import ai.swim.structure.recognizer.DirectRecognizer;
 import ai.swim.structure.recognizer.Recognizer;
 import ai.swim.structure.recognizer.proxy.RecognizerProxy;
 
 public class FormParser<T> extends Parser<T> {
+  private final ReconParserFactory parserFactory;
   private Recognizer<T> recognizer;
-  private ReconParser parser;
+  private ReconEventParser parser;
+  private boolean started;
 
   public FormParser(Class<T> clazz) {
-    this.recognizer = RecognizerProxy.getProxy().lookup(clazz);
+    this(RecognizerProxy.getProxy().lookup(clazz));
   }
 
   public FormParser(Recognizer<T> recognizer) {
+    this(recognizer, ReconParserFactory.defaultFactory());
+  }
+
+  /**
+   * Creates a new {@link FormParser} that feeds the events produced by a parser from {@code parserFactory} into
+   * {@code recognizer}.
+   *
+   * @param recognizer    to feed the parsed events into.
+   * @param parserFactory to create the underlying {@link ReconEventParser} with.
+   */
+  public FormParser(Recognizer<T> recognizer, ReconParserFactory parserFactory) {
+    this.recognizer = recognizer;
+    this.parserFactory = parserFactory;
+  }
+
+  /**
+   * Resets this parser so that it may be reused to parse a new value using {@code recognizer}. The underlying
+   * {@link ReconEventParser} is retained and reset on the next call to {@link FormParser#feed(Input)} rather than being
+   * reallocated.
+   *
+   * @param recognizer to feed the parsed events into.
+   * @return this parser.
+   */
+  public FormParser<T> reset(Recognizer<T> recognizer) {
     this.recognizer = recognizer;
+    this.started = false;
+    return this;
   }
 
   @Override
   public Parser<T> feed(Input input) {
-    if (parser == null) {
-      this.parser = new ReconParser().feed(input);
+    if (!started) {
+      this.parser = parser == null ? parserFactory.create().feed(input) : parser.reset(input);
+      this.started = true;
+    }
+
+    if (recognizer instanceof DirectRecognizer) {
+      return feedDirect(input, (DirectRecognizer<T>) recognizer);
     }
 
     while (this.parser.hasEvents()) {
@@ -68,6 +103,27 @@ public class FormParser<T> extends Parser<T> {
     return this;
   }
 
+  /**
+   * Drives {@code recognizer} with events from the parser without materialising them as {@link ReadEvent}s.
+   */
+  private Parser<T> feedDirect(Input input, DirectRecognizer<T> recognizer) {
+    while (this.parser.hasEvents()) {
+      if (this.parser.next(recognizer)) {
+        if (recognizer.isDone()) {
+          return Parser.done(recognizer.bind());
+        } else if (recognizer.isError()) {
+          return Parser.error(input, recognizer.trap().toString());
+        }
+      } else if (this.parser.isError()) {
+        return Parser.error(input, parser.error().getCause());
+      } else {
+        break;
+      }
+    }
+
+    return this;
+  }
+
   @Override
   public String toString() {
     return "FormParser{" +
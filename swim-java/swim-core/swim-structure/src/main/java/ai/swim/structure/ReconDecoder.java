@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.structure;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.ParserError;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.input.Utf8Input;
+import ai.swim.structure.recognizer.DirectRecognizer;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.structure.recognizer.RecognizerException;
+
+/**
+ * A reusable decoder that parses a Recon value from a {@link ReadBuffer} using a {@link Recognizer}.
+ * <p>
+ * The {@link FormParser} and {@link Utf8Input} that are required to decode a value are owned by this decoder and
+ * are reset between invocations rather than being reallocated, so that decoding a value on a hot path only allocates
+ * what the recognizer itself produces. If the recognizer is a {@link DirectRecognizer}, then the instance that this
+ * decoder resets the recognizer into is owned by the decoder and it is also reused.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <T> the type of the decoded value.
+ */
+public final class ReconDecoder<T> {
+  private final Recognizer<T> recognizer;
+  private final FormParser<T> parser;
+  private final Utf8Input input;
+  private Recognizer<T> current;
+
+  public ReconDecoder(Recognizer<T> recognizer) {
+    this.recognizer = recognizer;
+    this.parser = new FormParser<>(recognizer);
+    this.input = new Utf8Input(null);
+  }
+
+  /**
+   * Decodes a value from all the remaining bytes in {@code buffer}.
+   *
+   * @param buffer to decode from.
+   * @return the decoded value.
+   * @throws RecognizerException if the buffer did not contain a valid value.
+   */
+  public T decode(ReadBuffer buffer) {
+    return bind(parser.reset(nextRecognizer()).feed(input.reset(buffer)));
+  }
+
+  /**
+   * Decodes a value from the next {@code len} bytes in {@code buffer} and advances the buffer past them.
+   *
+   * @param buffer to decode from.
+   * @param len    the number of bytes that the value spans.
+   * @return the decoded value.
+   * @throws RecognizerException if the bytes did not contain a valid value.
+   */
+  public T decode(ReadBuffer buffer, int len) {
+    int start = buffer.readPointer();
+    T value = bind(parser.reset(nextRecognizer()).feed(input.reset(buffer, start + len)));
+
+    int consumed = buffer.readPointer() - start;
+    buffer.advance(len - consumed);
+
+    return value;
+  }
+
+  private Recognizer<T> nextRecognizer() {
+    if (current instanceof DirectRecognizer) {
+      return ((DirectRecognizer<T>) current).clear();
+    } else {
+      current = recognizer.reset();
+      return current;
+    }
+  }
+
+  private static <T> T bind(Parser<T> parser) {
+    if (parser.isDone()) {
+      return parser.bind();
+    } else if (parser.isError()) {
+      ParserError<T> error = (ParserError<T>) parser;
+      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
+    } else {
+      throw new RecognizerException("Unconsumed input");
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.structure.recognizer;
+
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.recon.event.ReadEventHandler;
+
+/**
+ * A recognizer that consumes events through the callbacks of a {@link ReadEventHandler} rather than through
+ * {@link ReadEvent} instances, so that a parser may drive it without materialising an event for each token.
+ * <p>
+ * Unlike other recognizers, a direct recognizer does not return a new recognizer when it is fed an event. It
+ * transitions in place to a done or error state and {@link DirectRecognizer#feedEvent(ReadEvent)} always returns this
+ * recognizer. It may also be reset in place using {@link DirectRecognizer#clear()} by an owner that holds the only
+ * reference to it.
+ *
+ * @param <T> the type that this recognizer produces.
+ * @see ai.swim.structure.FormParser
+ */
+public abstract class DirectRecognizer<T> extends Recognizer<T> implements ReadEventHandler {
+  private T target;
+  private RuntimeException error;
+  private boolean done;
+
+  @Override
+  public Recognizer<T> feedEvent(ReadEvent event) {
+    if (error != null) {
+      throw new IllegalStateException();
+    } else if (!done) {
+      onEvent(event);
+    }
+
+    return this;
+  }
+
+  @Override
+  public boolean isCont() {
+    return !done && error == null;
+  }
+
+  @Override
+  public boolean isDone() {
+    return done;
+  }
+
+  @Override
+  public boolean isError() {
+    return error != null;
+  }
+
+  @Override
+  public T bind() {
+    if (done) {
+      return target;
+    } else {
+      throw new IllegalStateException();
+    }
+  }
+
+  @Override
+  public RuntimeException trap() {
+    if (error != null) {
+      return error;
+    } else {
+      throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Transitions this recognizer into the done state.
+   *
+   * @param target the recognized value.
+   */
+  protected void complete(T target) {
+    this.target = target;
+    this.done = true;
+  }
+
+  /**
+   * Transitions this recognizer into the error state.
+   *
+   * @param error the cause.
+   */
+  protected void fail(RuntimeException error) {
+    this.error = error;
+  }
+
+  /**
+   * Resets this recognizer back to its initial state in place rather than returning a new instance, as
+   * {@link Recognizer#reset()} does. This must only be used by an owner that holds the only reference to this
+   * recognizer.
+   *
+   * @return this recognizer.
+   */
+  public DirectRecognizer<T> clear() {
+    this.target = null;
+    this.error = null;
+    this.done = false;
+    return this;
+  }
+
+}
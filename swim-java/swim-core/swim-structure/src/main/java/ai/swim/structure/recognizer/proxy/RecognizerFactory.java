@@ -22,49 +22,60 @@ import ai.swim.structure.recognizer.RecognizerException;
 import ai.swim.structure.recognizer.structural.StructuralRecognizer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 class RecognizerFactory<T> {
   private final Supplier<Recognizer<?>> supplier;
-  private final Constructor<Recognizer<?>> typedConstructor;
+  private final Function<RecognizerTypeParameter<?>[], Recognizer<?>> typedSupplier;
   private final boolean isStructural;
   private final Class<T> targetClass;
 
   private RecognizerFactory(Class<T> targetClass,
       Supplier<Recognizer<?>> supplier,
-      Constructor<Recognizer<?>> typedConstructor,
+      Function<RecognizerTypeParameter<?>[], Recognizer<?>> typedSupplier,
       boolean isStructural) {
     this.targetClass = targetClass;
     this.supplier = supplier;
-    this.typedConstructor = typedConstructor;
+    this.typedSupplier = typedSupplier;
     this.isStructural = isStructural;
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Builds a factory for a recognizer whose typed constructor, if any, is found using reflection.
+   */
   public static <T, R extends Recognizer<T>> RecognizerFactory<T> buildFrom(Class<T> targetClass,
       Class<R> recognizerClass,
       Supplier<Recognizer<?>> supplier) {
-    Constructor<Recognizer<?>> typedConstructor = null;
-    boolean isStructural = false;
+    Function<RecognizerTypeParameter<?>[], Recognizer<?>> typedSupplier = null;
 
     if (StructuralRecognizer.class.isAssignableFrom(recognizerClass)) {
-      isStructural = true;
-
       for (Constructor<?> constructor : recognizerClass.getConstructors()) {
         if (constructor.getAnnotation(AutoForm.TypedConstructor.class) != null) {
-          typedConstructor = (Constructor<Recognizer<?>>) constructor;
+          typedSupplier = typeParameters -> {
+            try {
+              return (Recognizer<?>) constructor.newInstance((Object[]) typeParameters);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+              throw new RecognizerException(e);
+            }
+          };
         }
       }
     }
 
-    return new RecognizerFactory<>(targetClass, supplier, typedConstructor, isStructural);
+    return buildFrom(targetClass, recognizerClass, supplier, typedSupplier);
   }
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
-  public static RecognizerFactory buildFromAny(Class<?> targetClass,
-      Class<? extends Recognizer> clazz,
-      Supplier<Recognizer<?>> supplier) {
-    return buildFrom(targetClass, clazz, supplier);
+  /**
+   * Builds a factory for a recognizer that creates typed instances using {@code typedSupplier}, which may be null if
+   * the recognizer is not generic.
+   */
+  public static <T> RecognizerFactory<T> buildFrom(Class<T> targetClass,
+      Class<?> recognizerClass,
+      Supplier<Recognizer<?>> supplier,
+      Function<RecognizerTypeParameter<?>[], Recognizer<?>> typedSupplier) {
+    boolean isStructural = StructuralRecognizer.class.isAssignableFrom(recognizerClass);
+    return new RecognizerFactory<>(targetClass, supplier, typedSupplier, isStructural);
   }
 
   public boolean isStructural() {
@@ -82,14 +93,10 @@ class RecognizerFactory<T> {
 
   @SuppressWarnings("unchecked")
   public Recognizer<T> newTypedInstance(RecognizerTypeParameter<?>... typeParameters) {
-    if (typedConstructor == null) {
+    if (typedSupplier == null) {
       throw new IllegalStateException("Not a generic recognizer");
     } else {
-      try {
-        return (Recognizer<T>) typedConstructor.newInstance((Object[]) typeParameters);
-      } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-        throw new RecognizerException(e);
-      }
+      return (Recognizer<T>) typedSupplier.apply(typeParameters);
     }
   }
 
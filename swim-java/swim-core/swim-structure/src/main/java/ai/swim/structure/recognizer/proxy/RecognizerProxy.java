@@ -17,7 +17,6 @@
 package ai.swim.structure.recognizer.proxy;
 
 
-import ai.swim.structure.annotations.AutoloadedRecognizer;
 import ai.swim.structure.recognizer.Recognizer;
 import ai.swim.structure.recognizer.RecognizerException;
 import ai.swim.structure.recognizer.SimpleRecognizer;
@@ -28,17 +27,13 @@ import ai.swim.structure.recognizer.structural.StructuralRecognizer;
 import ai.swim.structure.recognizer.untyped.UntypedRecognizer;
 import ai.swim.structure.recognizer.value.ValueRecognizer;
 import ai.swim.structure.value.Value;
-import org.reflections.Reflections;
-import org.reflections.util.ClasspathHelper;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class RecognizerProxy {
@@ -48,6 +43,7 @@ public class RecognizerProxy {
 
   private RecognizerProxy() {
     recognizers = loadRecognizers();
+    loadRegistries();
   }
 
   @SuppressWarnings("unchecked")
@@ -114,59 +110,22 @@ public class RecognizerProxy {
         RecognizerFactory.buildFrom(Void.class, SimpleRecognizer.class, () -> ScalarRecognizer.VOID));
     recognizers.put(Value.class, RecognizerFactory.buildFrom(Value.class, ValueRecognizer.class, ValueRecognizer::new));
 
-    loadFromClassPath(recognizers);
-
     return recognizers;
   }
 
-  @SuppressWarnings("unchecked")
-  private static void loadFromClassPath(ConcurrentHashMap<Class<?>, RecognizerFactory<?>> recognizers) {
-    Reflections reflections = new Reflections(ClasspathHelper.forJavaClassPath(), "ai.swim");
-    Set<Class<?>> classes = reflections.getTypesAnnotatedWith(AutoloadedRecognizer.class);
-
-    for (Class<?> clazz : classes) {
-      AutoloadedRecognizer annotation = clazz.getAnnotation(AutoloadedRecognizer.class);
-      Class<?> targetClass = annotation.value();
-
-      if (!Recognizer.class.isAssignableFrom(clazz)) {
-        String error = String.format(
-            "%s is annotated with @%s(%s.class) but %s does not extend %s",
-            clazz.getCanonicalName(),
-            AutoloadedRecognizer.class.getSimpleName(),
-            targetClass.getCanonicalName(),
-            clazz.getCanonicalName(),
-            Recognizer.class.getSimpleName()
-                                    );
-
-        throw new RuntimeException(error);
-      }
-
-      if (!clazz.getNestHost().equals(clazz)) {
-        if (!Modifier.isStatic(clazz.getModifiers())) {
-          throw new RuntimeException("Nested non-static classes are not supported by recognizers: " + clazz.getCanonicalName());
-        }
-      }
-
-      try {
-        Constructor<?> constructor = clazz.getConstructor();
-        Supplier<Recognizer<?>> supplier = () -> {
-          try {
-            return (Recognizer<?>) constructor.newInstance();
-          } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(String.format(
-                "Failed to created a new instance of recognizer '%s'",
-                clazz.getCanonicalName()), e);
-          }
-        };
-
-        // safety: checked that the class is assignable above
-        Class<Recognizer<?>> typedClass = (Class<Recognizer<?>>) clazz;
-        recognizers.put(targetClass, RecognizerFactory.buildFromAny(clazz, typedClass, supplier));
-      } catch (NoSuchMethodException e) {
-        throw new RuntimeException(String.format(
-            "Recognizer '%s' does not contain a zero-arg constructor",
-            clazz.getCanonicalName()), e);
-      }
+  /**
+   * Registers the recognizers of every {@link RecognizerRegistry} that is visible to the context class loader. These
+   * are derived by the annotation processor for classes annotated with
+   * {@link ai.swim.structure.annotations.AutoloadedRecognizer}.
+   */
+  private void loadRegistries() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = RecognizerProxy.class.getClassLoader();
+    }
+
+    for (RecognizerRegistry registry : ServiceLoader.load(RecognizerRegistry.class, classLoader)) {
+      registry.registerRecognizers(this);
     }
   }
 
@@ -216,6 +175,23 @@ public class RecognizerProxy {
     return (StructuralRecognizer<T>) factory.newTypedInstance(typeParameters);
   }
 
+  /**
+   * Registers a new recognizer, overwriting the previous registration if one existed.
+   *
+   * @param clazz           the type that the recognizer produces.
+   * @param recognizerClass the type of the recognizer.
+   * @param supplier        for creating new instances.
+   * @param typedSupplier   for creating new instances that are initialised with type parameters or null if the
+   *                        recognizer is not generic.
+   */
+  @SuppressWarnings("rawtypes")
+  public void register(Class<?> clazz,
+      Class<? extends Recognizer> recognizerClass,
+      Supplier<Recognizer<?>> supplier,
+      Function<RecognizerTypeParameter<?>[], Recognizer<?>> typedSupplier) {
+    recognizers.put(clazz, RecognizerFactory.buildFrom(clazz, recognizerClass, supplier, typedSupplier));
+  }
+
   @SuppressWarnings("unchecked")
   private <T> StructuralRecognizer<T> fromStdClass(Class<T> clazz, RecognizerTypeParameter<?>... typeParameters) {
     if (Map.class.isAssignableFrom(clazz)) {
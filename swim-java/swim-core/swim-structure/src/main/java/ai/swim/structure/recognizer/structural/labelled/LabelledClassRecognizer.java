@@ -26,12 +26,18 @@ import ai.swim.structure.recognizer.structural.IndexFn;
 import ai.swim.structure.recognizer.structural.tag.TagSpec;
 
 public class LabelledClassRecognizer<T> extends ClassRecognizer<LabelledClassRecognizer.State, LabelledFieldKey, T> {
+  /**
+   * The index function if it selects fields by name, in which case no {@link LabelledFieldKey} is allocated to look up
+   * a field.
+   */
+  private final LabelledIndexFn labelledIndexFn;
 
   public LabelledClassRecognizer(TagSpec tagSpec,
       RecognizingBuilder<T> builder,
       int fieldCount,
       IndexFn<LabelledFieldKey> indexFn) {
     super(tagSpec, builder, fieldCount, indexFn, State.Init);
+    this.labelledIndexFn = indexFn instanceof LabelledIndexFn ? (LabelledIndexFn) indexFn : null;
   }
 
   @Override
@@ -88,9 +94,9 @@ public class LabelledClassRecognizer<T> extends ClassRecognizer<LabelledClassRec
       }
     } else if (event.isText()) {
       ReadTextValue textValue = (ReadTextValue) event;
-      Integer idx = this.indexFn.selectIndex(LabelledFieldKey.item(textValue.getValue()));
+      int idx = selectItem(textValue.getValue());
 
-      if (idx == null) {
+      if (idx == LabelledIndexFn.NONE) {
         return Recognizer.error(new RuntimeException(String.format("Unexpected field \"%s\"", textValue.getValue())));
       } else {
         this.index = idx;
@@ -108,9 +114,9 @@ public class LabelledClassRecognizer<T> extends ClassRecognizer<LabelledClassRec
       return this;
     } else if (event.isStartAttribute()) {
       ReadStartAttribute startAttribute = (ReadStartAttribute) event;
-      Integer idx = this.indexFn.selectIndex(LabelledFieldKey.attr(startAttribute.value()));
+      int idx = selectAttr(startAttribute.value());
 
-      if (idx == null) {
+      if (idx == LabelledIndexFn.NONE) {
         return Recognizer.error(new RuntimeException(String.format(
             "Unexpected field: \"%s\"",
             startAttribute.value())));
@@ -129,10 +135,37 @@ public class LabelledClassRecognizer<T> extends ClassRecognizer<LabelledClassRec
     return Recognizer.error(new RuntimeException("Expected a record or an attribute"));
   }
 
+  private int selectItem(String name) {
+    if (this.labelledIndexFn != null) {
+      return this.labelledIndexFn.selectItem(name);
+    } else {
+      Integer idx = this.indexFn.selectIndex(LabelledFieldKey.item(name));
+      return idx == null ? LabelledIndexFn.NONE : idx;
+    }
+  }
+
+  private int selectAttr(String name) {
+    if (this.labelledIndexFn != null) {
+      return this.labelledIndexFn.selectAttr(name);
+    } else {
+      Integer idx = this.indexFn.selectIndex(LabelledFieldKey.attr(name));
+      return idx == null ? LabelledIndexFn.NONE : idx;
+    }
+  }
+
+  private int selectHeader() {
+    if (this.labelledIndexFn != null) {
+      return this.labelledIndexFn.selectHeader();
+    } else {
+      Integer idx = this.indexFn.selectIndex(LabelledFieldKey.HEADER);
+      return idx == null ? LabelledIndexFn.NONE : idx;
+    }
+  }
+
   protected void transitionFromInit() {
-    Integer idx = this.indexFn.selectIndex(LabelledFieldKey.HEADER);
+    int idx = selectHeader();
 
-    if (idx == null) {
+    if (idx == LabelledIndexFn.NONE) {
       this.state = State.NoHeader;
     } else {
       this.index = idx;
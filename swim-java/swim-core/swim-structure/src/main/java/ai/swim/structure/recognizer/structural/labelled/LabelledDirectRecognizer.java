@@ -0,0 +1,406 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.structure.recognizer.structural.labelled;
+
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.structure.recognizer.DirectRecognizer;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.structure.recognizer.RecognizerException;
+import ai.swim.structure.recognizer.std.ScalarRecognizer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A {@link DirectRecognizer} for classes that have a fixed tag and whose fields are all scalar slots in the body of
+ * the record. For example:
+ * <pre>
+ * {@code
+ * @Prop {
+ *   a: 1,
+ *   b: "text"
+ * }
+ * }
+ * </pre>
+ * The field values are stored by the subclass rather than by a builder for each field and, for the common scalar
+ * types, they are passed to it as primitives. Any other value is fed to the field's {@link ScalarRecognizer} so that
+ * the conversions between types are the same as those of {@link LabelledClassRecognizer}.
+ * <p>
+ * This class is extended by the recognizers that are derived for eligible classes that are annotated with
+ * {@code @AutoForm}.
+ *
+ * @param <T> the type that this recognizer produces.
+ */
+public abstract class LabelledDirectRecognizer<T> extends DirectRecognizer<T> {
+  private final String tag;
+  private final String[] names;
+  private final Recognizer<?>[] fields;
+  private final long required;
+  private long present;
+  private int index;
+  private State state;
+
+  /**
+   * Constructs a new recognizer.
+   *
+   * @param tag      the name of the tag attribute.
+   * @param names    the property name of each field.
+   * @param fields   the recognizer of each field, which must be a {@link ScalarRecognizer}.
+   * @param required a bit set of the fields which must be present in the record.
+   */
+  protected LabelledDirectRecognizer(String tag, String[] names, Recognizer<?>[] fields, long required) {
+    if (names.length > Long.SIZE) {
+      throw new IllegalArgumentException("Too many fields: " + names.length);
+    }
+
+    this.tag = tag;
+    this.names = names;
+    this.fields = fields;
+    this.required = required;
+    this.state = State.Init;
+  }
+
+  /**
+   * Returns the index of the field with the property name {@code name} or {@link LabelledIndexFn#NONE} if there is
+   * no such field. Derived recognizers override this with a lookup over their field names.
+   */
+  protected int selectIndex(CharSequence name) {
+    String[] names = this.names;
+    for (int i = 0; i < names.length; i++) {
+      if (LabelledIndexFn.contentEquals(name, names[i])) {
+        return i;
+      }
+    }
+
+    return LabelledIndexFn.NONE;
+  }
+
+  /**
+   * Sets the field at {@code index}, whose recognizer is {@link ScalarRecognizer#INTEGER}.
+   */
+  protected void setInt(int index, int value) {
+    setValue(index, value);
+  }
+
+  /**
+   * Sets the field at {@code index}, whose recognizer is {@link ScalarRecognizer#LONG}.
+   */
+  protected void setLong(int index, long value) {
+    setValue(index, value);
+  }
+
+  /**
+   * Sets the field at {@code index}, whose recognizer is {@link ScalarRecognizer#FLOAT}.
+   */
+  protected void setFloat(int index, float value) {
+    setValue(index, value);
+  }
+
+  /**
+   * Sets the field at {@code index}, whose recognizer is {@link ScalarRecognizer#DOUBLE}.
+   */
+  protected void setDouble(int index, double value) {
+    setValue(index, value);
+  }
+
+  /**
+   * Sets the field at {@code index}, whose recognizer is {@link ScalarRecognizer#BOOLEAN}.
+   */
+  protected void setBoolean(int index, boolean value) {
+    setValue(index, value);
+  }
+
+  /**
+   * Sets the field at {@code index} to {@code value}, which is never null and is of the type produced by the field's
+   * recognizer.
+   */
+  protected abstract void setValue(int index, Object value);
+
+  /**
+   * Builds the target from the current value of the fields.
+   */
+  protected abstract T build();
+
+  /**
+   * Resets the value of the fields to their defaults.
+   */
+  protected abstract void clearFields();
+
+  @Override
+  public LabelledDirectRecognizer<T> clear() {
+    super.clear();
+    clearFields();
+    this.present = 0;
+    this.index = 0;
+    this.state = State.Init;
+    return this;
+  }
+
+  @Override
+  public Recognizer<T> asBodyRecognizer() {
+    return this;
+  }
+
+  /**
+   * Returns whether a value for a field may be accepted in the current state.
+   */
+  private boolean expectValue() {
+    if (state != State.BodyItem) {
+      fail(new RuntimeException(unexpected()));
+      return false;
+    } else if ((present & (1L << index)) != 0) {
+      fail(new RecognizerException("Duplicate value"));
+      return false;
+    } else {
+      return true;
+    }
+  }
+
+  private void onFieldSet() {
+    present |= 1L << index;
+    state = State.BodyBetween;
+  }
+
+  private void onFieldEvent(ReadEvent event) {
+    if (expectValue()) {
+      onFallback(event);
+    }
+  }
+
+  private void onFallback(ReadEvent event) {
+    Recognizer<?> result = fields[index].reset().feedEvent(event);
+    if (result.isDone()) {
+      Object value = result.bind();
+      if (value != null) {
+        setValue(index, value);
+        present |= 1L << index;
+      }
+      state = State.BodyBetween;
+    } else if (result.isError()) {
+      fail(result.trap());
+    } else {
+      fail(new RecognizerException("Expected a scalar value for field: " + names[index]));
+    }
+  }
+
+  private String unexpected() {
+    switch (state) {
+      case Init:
+        return String.format("Expected an attribute with a name of \"%s\"", tag);
+      case Header:
+        return "Expected the end of an attribute";
+      case AttrBetween:
+        return "Expected a record or an attribute";
+      case BodyBetween:
+        return "Expected end of record or a text value";
+      case BodyExpectingSlot:
+        return "Expected a slot event";
+      default:
+        throw new AssertionError(state);
+    }
+  }
+
+  @Override
+  public void onExtant() {
+    if (state == State.Header) {
+      return;
+    }
+    onFieldEvent(ReadEvent.extant());
+  }
+
+  @Override
+  public void onText(CharSequence value) {
+    if (state == State.BodyBetween) {
+      int idx = selectIndex(value);
+      if (idx == LabelledIndexFn.NONE) {
+        fail(new RuntimeException(String.format("Unexpected field \"%s\"", value)));
+      } else {
+        index = idx;
+        state = State.BodyExpectingSlot;
+      }
+    } else if (expectValue()) {
+      if (fields[index] == ScalarRecognizer.STRING) {
+        setValue(index, value.toString());
+        onFieldSet();
+      } else {
+        onFallback(ReadEvent.text(value.toString()));
+      }
+    }
+  }
+
+  @Override
+  public void onInt(int value) {
+    if (expectValue()) {
+      Recognizer<?> field = fields[index];
+      if (field == ScalarRecognizer.INTEGER) {
+        setInt(index, value);
+      } else if (field == ScalarRecognizer.LONG) {
+        setLong(index, value);
+      } else if (field == ScalarRecognizer.FLOAT) {
+        setFloat(index, value);
+      } else if (field == ScalarRecognizer.DOUBLE) {
+        setDouble(index, value);
+      } else {
+        onFallback(ReadEvent.number(value));
+        return;
+      }
+      onFieldSet();
+    }
+  }
+
+  @Override
+  public void onLong(long value) {
+    if (expectValue()) {
+      Recognizer<?> field = fields[index];
+      if (field == ScalarRecognizer.LONG) {
+        setLong(index, value);
+      } else if (field == ScalarRecognizer.FLOAT) {
+        setFloat(index, value);
+      } else if (field == ScalarRecognizer.DOUBLE) {
+        setDouble(index, value);
+      } else {
+        onFallback(ReadEvent.number(value));
+        return;
+      }
+      onFieldSet();
+    }
+  }
+
+  @Override
+  public void onFloat(float value) {
+    if (expectValue()) {
+      Recognizer<?> field = fields[index];
+      if (field == ScalarRecognizer.FLOAT) {
+        setFloat(index, value);
+      } else if (field == ScalarRecognizer.DOUBLE) {
+        setDouble(index, value);
+      } else {
+        onFallback(ReadEvent.number(value));
+        return;
+      }
+      onFieldSet();
+    }
+  }
+
+  @Override
+  public void onDouble(double value) {
+    if (expectValue()) {
+      if (fields[index] == ScalarRecognizer.DOUBLE) {
+        setDouble(index, value);
+        onFieldSet();
+      } else {
+        onFallback(ReadEvent.number(value));
+      }
+    }
+  }
+
+  @Override
+  public void onBigInt(BigInteger value) {
+    onFieldEvent(ReadEvent.number(value));
+  }
+
+  @Override
+  public void onBigDecimal(BigDecimal value) {
+    onFieldEvent(ReadEvent.number(value));
+  }
+
+  @Override
+  public void onBoolean(boolean value) {
+    if (expectValue()) {
+      if (fields[index] == ScalarRecognizer.BOOLEAN) {
+        setBoolean(index, value);
+        onFieldSet();
+      } else {
+        onFallback(ReadEvent.bool(value));
+      }
+    }
+  }
+
+  @Override
+  public void onBlob(byte[] value) {
+    onFieldEvent(ReadEvent.blob(value));
+  }
+
+  @Override
+  public void onStartAttribute(CharSequence name) {
+    switch (state) {
+      case Init:
+        if (LabelledIndexFn.contentEquals(name, tag)) {
+          state = State.Header;
+        } else {
+          fail(new RuntimeException("Unexpected attribute: " + name));
+        }
+        break;
+      case AttrBetween:
+        fail(new RuntimeException(String.format("Unexpected field: \"%s\"", name)));
+        break;
+      default:
+        onFieldEvent(ReadEvent.startAttribute(name.toString()));
+    }
+  }
+
+  @Override
+  public void onEndAttribute() {
+    if (state == State.Header) {
+      state = State.AttrBetween;
+    } else {
+      onFieldEvent(ReadEvent.endAttribute());
+    }
+  }
+
+  @Override
+  public void onStartBody() {
+    if (state == State.AttrBetween) {
+      state = State.BodyBetween;
+    } else {
+      onFieldEvent(ReadEvent.startBody());
+    }
+  }
+
+  @Override
+  public void onSlot() {
+    if (state == State.BodyExpectingSlot) {
+      state = State.BodyItem;
+    } else {
+      onFieldEvent(ReadEvent.slot());
+    }
+  }
+
+  @Override
+  public void onEndRecord() {
+    if (state != State.BodyBetween) {
+      onFieldEvent(ReadEvent.endRecord());
+    } else if ((present & required) != required) {
+      long missing = required & ~present;
+      fail(new RecognizerException("Missing field: " + names[Long.numberOfTrailingZeros(missing)]));
+    } else {
+      try {
+        complete(build());
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    }
+  }
+
+  private enum State {
+    Init,
+    Header,
+    AttrBetween,
+    BodyBetween,
+    BodyExpectingSlot,
+    BodyItem,
+  }
+}
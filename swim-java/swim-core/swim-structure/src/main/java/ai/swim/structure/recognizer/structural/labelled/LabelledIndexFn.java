@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.recognizer.structural.labelled;
+
+import ai.swim.structure.recognizer.structural.IndexFn;
+
+/**
+ * An {@link IndexFn} for a {@link LabelledClassRecognizer} that selects the index of a field by its name directly
+ * rather than from a {@link LabelledFieldKey}. This avoids allocating a key for every attribute and slot that is read
+ * and boxing the index that is returned.
+ * <p>
+ * Implementations of this interface are derived for classes that are annotated with {@code @AutoForm} and select a
+ * field by switching on the length of its name and then on the characters at which the field names differ.
+ */
+public interface LabelledIndexFn extends IndexFn<LabelledFieldKey> {
+
+  /**
+   * The index that is returned when there is no matching field.
+   */
+  int NONE = -1;
+
+  /**
+   * Returns whether the characters of {@code name} are equal to those of {@code field}.
+   */
+  static boolean contentEquals(CharSequence name, String field) {
+    int len = field.length();
+    if (name.length() != len) {
+      return false;
+    }
+
+    for (int i = 0; i < len; i++) {
+      if (name.charAt(i) != field.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the index of the field that the header of the record is read into or {@link #NONE}.
+   */
+  int selectHeader();
+
+  /**
+   * Returns the index of the field that is read from the attribute {@code name} or {@link #NONE}.
+   */
+  int selectAttr(CharSequence name);
+
+  /**
+   * Returns the index of the field that is read from the slot with a key of {@code name} or {@link #NONE}.
+   */
+  int selectItem(CharSequence name);
+
+  @Override
+  default Integer selectIndex(LabelledFieldKey key) {
+    int idx;
+
+    if (key.isHeader()) {
+      idx = selectHeader();
+    } else if (key.isAttribute()) {
+      idx = selectAttr(((LabelledFieldKey.AttrFieldKey) key).getKey());
+    } else if (key.isItem()) {
+      idx = selectItem(((LabelledFieldKey.ItemFieldKey) key).getName());
+    } else {
+      idx = NONE;
+    }
+
+    return idx == NONE ? null : idx;
+  }
+
+}
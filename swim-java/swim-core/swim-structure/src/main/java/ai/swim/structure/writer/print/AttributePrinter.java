@@ -109,7 +109,8 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
       hasAttr = true;
     }
 
-    writer.writeUnchecked(String.format("@%s", key));
+    writer.writeUnchecked('@');
+    writer.writeUnchecked(key);
 
     AttributePrinter attrPrinter = new AttributePrinter(writer, printStrategy);
     valueWriter.writeInto(value, attrPrinter);
@@ -125,7 +126,8 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
       hasAttr = true;
     }
 
-    writer.writeUnchecked(String.format("@%s", key));
+    writer.writeUnchecked('@');
+    writer.writeUnchecked(key);
     writable.writeInto(this);
 
     return this;
@@ -212,7 +214,8 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
         writer.writeUnchecked(" ");
       }
     } else {
-      writer.writeUnchecked(String.format("(%s", printStrategy.attrBodyPadding()));
+      writer.writeUnchecked('(');
+      printStrategy.attrBodyPadding().writeInto(writer);
     }
 
     if (StringUtils.isIdentifier(value)) {
@@ -221,7 +224,9 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
       value = StringUtils.escape(value);
     }
 
-    writer.writeUnchecked(String.format("\"%s\"", value));
+    writer.writeUnchecked('"');
+    writer.writeUnchecked(value);
+    writer.writeUnchecked('"');
 
     return "";
   }
@@ -237,7 +242,8 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
 
   @Override
   public HeaderWriter<String> record(int numAttrs) {
-    writer.writeUnchecked(String.format("(%s", printStrategy.attrBodyPadding()));
+    writer.writeUnchecked('(');
+    printStrategy.attrBodyPadding().writeInto(writer);
     return this;
   }
 
@@ -247,17 +253,16 @@ public class AttributePrinter implements HeaderWriter<String>, BodyWriter<String
     } else {
       if (delegated) {
         if (hasAttr) {
-          writer.writeUnchecked(String.format(" %s%s)", value, printStrategy.attrBodyPadding()));
-        } else {
-          writer.writeUnchecked(String.format("%s%s)", value, printStrategy.attrBodyPadding()));
+          writer.writeUnchecked(' ');
         }
       } else {
-        writer.writeUnchecked(String.format(
-            "(%s%s%s)",
-            printStrategy.attrBodyPadding(),
-            value,
-            printStrategy.attrBodyPadding()));
+        writer.writeUnchecked('(');
+        printStrategy.attrBodyPadding().writeInto(writer);
       }
+
+      writer.writeUnchecked(value);
+      printStrategy.attrBodyPadding().writeInto(writer);
+      writer.writeUnchecked(')');
     }
 
     return "";
@@ -39,7 +39,8 @@ public class StructurePrinter implements HeaderWriter<String>, BodyWriter<String
   private boolean first;
 
   public StructurePrinter(java.io.Writer writer, PrintStrategy printStrategy) {
-    this.writer = new SuppressingWriter(writer);
+    // Nested printers share their parent's writer rather than wrapping it again.
+    this.writer = writer instanceof SuppressingWriter ? (SuppressingWriter) writer : new SuppressingWriter(writer);
     this.printStrategy = printStrategy;
     this.hasAttr = false;
     this.braceWritten = false;
@@ -115,7 +116,8 @@ public class StructurePrinter implements HeaderWriter<String>, BodyWriter<String
       hasAttr = true;
     }
 
-    writer.writeUnchecked(String.format("@%s", key));
+    writer.writeUnchecked('@');
+    writer.writeUnchecked(key);
     return this;
   }
 
@@ -209,7 +211,15 @@ public class StructurePrinter implements HeaderWriter<String>, BodyWriter<String
       value = StringUtils.escape(value);
     }
 
-    return write(String.format("\"%s\"", value));
+    if (hasAttr) {
+      writer.writeUnchecked(' ');
+    }
+
+    writer.writeUnchecked('"');
+    writer.writeUnchecked(value);
+    writer.writeUnchecked('"');
+
+    return "";
   }
 
   @Override
@@ -231,10 +241,10 @@ public class StructurePrinter implements HeaderWriter<String>, BodyWriter<String
       writer.writeUnchecked("null");
     } else {
       if (hasAttr) {
-        writer.writeUnchecked(String.format(" %s", value));
-      } else {
-        writer.writeUnchecked(String.format("%s", value));
+        writer.writeUnchecked(' ');
       }
+
+      writer.writeUnchecked(value);
     }
 
     return "";
@@ -22,6 +22,7 @@ import ai.swim.structure.writer.StructuralWritable;
 import ai.swim.structure.writer.Writable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -36,9 +37,9 @@ class WriterFactory<T> {
   private final Supplier<Writable<?>> supplier;
 
   /**
-   * The constructor to initialise for a {@code Writable} that has generic type parameters.
+   * A function for creating a new {@code Writable<T>} that has generic type parameters.
    */
-  private final Constructor<Writable<?>> typedConstructor;
+  private final Function<WriterTypeParameter<?>[], Writable<?>> typedSupplier;
 
   /**
    * Whether this {@code Writable} is a class-like writable.
@@ -51,17 +52,17 @@ class WriterFactory<T> {
   private final Class<T> targetClass;
 
   WriterFactory(Supplier<Writable<?>> supplier,
-      Constructor<Writable<?>> typedConstructor,
+      Function<WriterTypeParameter<?>[], Writable<?>> typedSupplier,
       boolean isStructural,
       Class<T> targetClass) {
     this.supplier = supplier;
-    this.typedConstructor = typedConstructor;
+    this.typedSupplier = typedSupplier;
     this.isStructural = isStructural;
     this.targetClass = targetClass;
   }
 
   /**
-   * Builds a new {@code WriterFactory<T>}
+   * Builds a new {@code WriterFactory<T>} whose typed constructor, if any, is found using reflection.
    *
    * @param targetClass the type that this {@code Writable} produces.
    * @param writerClass the type of the {@code Writable} class.
@@ -70,39 +71,45 @@ class WriterFactory<T> {
    * @param <W>         the type of the {@code Writable}.
    * @return a factory for {@code Writable<T>}.
    */
-  @SuppressWarnings("unchecked")
   public static <T, W extends Writable<T>> WriterFactory<T> buildFrom(Class<T> targetClass,
       Class<W> writerClass,
       Supplier<Writable<?>> supplier) {
-    Constructor<Writable<?>> typedConstructor = null;
-    boolean isStructural = false;
+    Function<WriterTypeParameter<?>[], Writable<?>> typedSupplier = null;
 
     if (StructuralWritable.class.isAssignableFrom(writerClass)) {
-      isStructural = true;
-
       for (Constructor<?> constructor : writerClass.getConstructors()) {
         if (constructor.getAnnotation(AutoForm.TypedConstructor.class) != null) {
-          typedConstructor = (Constructor<Writable<?>>) constructor;
+          typedSupplier = typeParameters -> {
+            try {
+              return (Writable<?>) constructor.newInstance((Object[]) typeParameters);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+              throw new RecognizerException(e);
+            }
+          };
         }
       }
     }
 
-    return new WriterFactory<>(supplier, typedConstructor, isStructural, targetClass);
+    return buildFrom(targetClass, writerClass, supplier, typedSupplier);
   }
 
   /**
-   * Builds a new {@code WriterFactory<T>} using wildcard types; useful when working with heterogeneous collections of
-   * writable types.
+   * Builds a new {@code WriterFactory<T>}.
    *
-   * @param targetClass the type that this {@code Writable} produces.
-   * @param supplier    for creating new instances.
+   * @param targetClass   the type that this {@code Writable} produces.
+   * @param writerClass   the type of the {@code Writable} class.
+   * @param supplier      for creating new instances.
+   * @param typedSupplier for creating new instances that are initialised with type parameters or null if the
+   *                      {@code Writable} is not generic.
+   * @param <T>           the type that the {@code Writable} produces.
    * @return a factory for {@code Writable<T>}.
    */
-  @SuppressWarnings({"rawtypes", "unchecked"})
-  public static WriterFactory buildFromAny(Class<?> targetClass,
-      Class<? extends Writable> clazz,
-      Supplier<Writable<?>> supplier) {
-    return buildFrom(targetClass, clazz, supplier);
+  public static <T> WriterFactory<T> buildFrom(Class<T> targetClass,
+      Class<?> writerClass,
+      Supplier<Writable<?>> supplier,
+      Function<WriterTypeParameter<?>[], Writable<?>> typedSupplier) {
+    boolean isStructural = StructuralWritable.class.isAssignableFrom(writerClass);
+    return new WriterFactory<>(supplier, typedSupplier, isStructural, targetClass);
   }
 
   /**
@@ -129,14 +136,10 @@ class WriterFactory<T> {
    */
   @SuppressWarnings("unchecked")
   public Writable<T> newTypedInstance(WriterTypeParameter<?>... typeParameters) {
-    if (typedConstructor == null) {
+    if (typedSupplier == null) {
       throw new IllegalStateException(String.format("%s is not a generic writer", targetClass));
     } else {
-      try {
-        return (Writable<T>) typedConstructor.newInstance((Object[]) typeParameters);
-      } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-        throw new RecognizerException(e);
-      }
+      return (Writable<T>) typedSupplier.apply(typeParameters);
     }
   }
 
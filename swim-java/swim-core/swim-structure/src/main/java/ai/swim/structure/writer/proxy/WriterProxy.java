@@ -16,7 +16,6 @@
 
 package ai.swim.structure.writer.proxy;
 
-import ai.swim.structure.annotations.AutoloadedWriter;
 import ai.swim.structure.value.Value;
 import ai.swim.structure.writer.StructuralWritable;
 import ai.swim.structure.writer.Writable;
@@ -26,20 +25,16 @@ import ai.swim.structure.writer.std.ListStructuralWritable;
 import ai.swim.structure.writer.std.MapStructuralWritable;
 import ai.swim.structure.writer.std.ScalarWriters;
 import ai.swim.structure.writer.value.ValueStructuralWritable;
-import org.reflections.Reflections;
-import org.reflections.util.ClasspathHelper;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -59,6 +54,7 @@ public class WriterProxy {
 
   private WriterProxy() {
     writers = loadWriters();
+    loadRegistries();
   }
 
   @SuppressWarnings("unchecked")
@@ -123,57 +119,22 @@ public class WriterProxy {
         Collection.class,
         WriterFactory.buildFrom(Collection.class, ListStructuralWritable.class, ListStructuralWritable::new));
 
-    loadFromClassPath(writers);
-
     return writers;
   }
 
-  @SuppressWarnings("unchecked")
-  private static void loadFromClassPath(ConcurrentHashMap<Class<?>, WriterFactory<?>> writers) {
-    Reflections reflections = new Reflections(ClasspathHelper.forJavaClassPath(), "ai.swim");
-    Set<Class<?>> classes = reflections.getTypesAnnotatedWith(AutoloadedWriter.class);
-
-    for (Class<?> clazz : classes) {
-      AutoloadedWriter annotation = clazz.getAnnotation(AutoloadedWriter.class);
-      Class<?> targetClass = annotation.value();
-
-      if (!Writable.class.isAssignableFrom(clazz)) {
-        String error = String.format(
-            "%s is annotated with @%s(%s.class) but %s does not extend %s",
-            clazz.getCanonicalName(),
-            AutoloadedWriter.class.getSimpleName(),
-            targetClass.getCanonicalName(),
-            clazz.getCanonicalName(),
-            Writable.class.getSimpleName()
-                                    );
-        throw new RuntimeException(error);
-      }
-
-      if (!clazz.getNestHost().equals(clazz)) {
-        if (!Modifier.isStatic(clazz.getModifiers())) {
-          throw new RuntimeException("Nested non-static classes are not supported by writers: " + clazz.getCanonicalName());
-        }
-      }
-
-      try {
-        Constructor<?> constructor = clazz.getConstructor();
-        Supplier<Writable<?>> supplier = () -> {
-          try {
-            return (Writable<?>) constructor.newInstance();
-          } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(String.format(
-                "Failed to create a new instance of writable '%s'",
-                clazz.getCanonicalName()), e);
-          }
-        };
-        // safety: checked that the class is assignable above
-        Class<Writable<?>> typedClass = (Class<Writable<?>>) clazz;
-        writers.put(targetClass, WriterFactory.buildFromAny(clazz, typedClass, supplier));
-      } catch (NoSuchMethodException e) {
-        throw new RuntimeException(String.format(
-            "Writable '%s' does not contain a zero-arg constructor",
-            clazz.getCanonicalName()), e);
-      }
+  /**
+   * Registers the writers of every {@link WriterRegistry} that is visible to the context class loader. These are
+   * derived by the annotation processor for classes annotated with
+   * {@link ai.swim.structure.annotations.AutoloadedWriter}.
+   */
+  private void loadRegistries() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = WriterProxy.class.getClassLoader();
+    }
+
+    for (WriterRegistry registry : ServiceLoader.load(WriterRegistry.class, classLoader)) {
+      registry.registerWriters(this);
     }
   }
 
@@ -353,4 +314,21 @@ public class WriterProxy {
     writers.put(clazz, WriterFactory.buildFrom(clazz, writableClass, supplier));
   }
 
+  /**
+   * Registers a new writable, overwriting the previous registration if one existed.
+   *
+   * @param clazz         the type that this {@code Writable} produces.
+   * @param writableClass the type of the {@code Writable} class.
+   * @param supplier      for creating new instances.
+   * @param typedSupplier for creating new instances that are initialised with type parameters or null if the
+   *                      {@code Writable} is not generic.
+   */
+  @SuppressWarnings("rawtypes")
+  public void register(Class<?> clazz,
+      Class<? extends Writable> writableClass,
+      Supplier<Writable<?>> supplier,
+      Function<WriterTypeParameter<?>[], Writable<?>> typedSupplier) {
+    writers.put(clazz, WriterFactory.buildFrom(clazz, writableClass, supplier, typedSupplier));
+  }
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.writer.proxy;
+
+/**
+ * A set of writers that is registered with the {@link WriterProxy} when it is initialised.
+ * <p>
+ * Implementations are discovered using a {@link java.util.ServiceLoader} and the annotation processor derives one for
+ * each package of a compilation unit that contains classes annotated with
+ * {@link ai.swim.structure.annotations.AutoloadedWriter}, including the writers that it derives for classes annotated
+ * with {@link ai.swim.structure.annotations.AutoForm}. This allows the proxy to find these writers without scanning
+ * the classpath and to create instances of them without reflection.
+ */
+public interface WriterRegistry {
+
+  /**
+   * Registers the writers in this set with {@code proxy}.
+   *
+   * @param proxy to register the writers with.
+   */
+  void registerWriters(WriterProxy proxy);
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.processor;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.input.Input;
+import ai.swim.recon.event.ReadEvent;
+import ai.swim.structure.FormParser;
+import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.recognizer.DirectRecognizer;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.structure.recognizer.proxy.RecognizerProxy;
+import org.junit.jupiter.api.Test;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Objects;
+import static ai.swim.structure.RecognizerTestUtil.runTest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DirectRecognizerTest {
+
+  private static final Object ERROR = new Object();
+
+  private static <T> Object parse(Recognizer<T> recognizer, String input) {
+    try {
+      Parser<T> parser = new FormParser<>(recognizer).feed(Input.string(input));
+      if (parser.isDone()) {
+        return parser.bind();
+      } else {
+        return ERROR;
+      }
+    } catch (RuntimeException e) {
+      return ERROR;
+    }
+  }
+
+  @Test
+  void registeredInPlaceOfLabelledRecognizer() {
+    assertInstanceOf(PropDirectRecognizer.class, RecognizerProxy.getProxy().lookup(Prop.class));
+    assertInstanceOf(DirectRecognizer.class, RecognizerProxy.getProxy().lookup(ProcessorTest.SimpleClass.class));
+  }
+
+  @Test
+  void matchesLabelledRecognizer() {
+    List<String> inputs = List.of(
+        "@Prop{a:1,b:2,c:1.5,d:2.5,e:true,f:text,g:3,h:4,i:x,j:5}",
+        "@Prop{j:92233720368547758070,i:\"y\",g:-1,f:\"a b\",e:false,d:3,c:2,b:9223372036854775807,a:-7}",
+        "@Prop{a:1,b:2,c:1,d:1,e:true,f:\"\",g:,i:z,j:0,}",
+        "@Prop{a:1,b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop{a:1,b:2,c:1,d:1e300,e:true,f:t,i:z,j:0}",
+        "@Prop{a:1,b:2,c:1,d:1,e:true,f:t,i:z,j:0,a:2}",
+        "@Prop{a:9223372036854775807,b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop{a:\"1\",b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop{b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop{a:1,b:2,c:1,d:1,e:1,f:t,i:z,j:0}",
+        "@Prop{a:1,b:2,c:1,d:1,e:true,f:t,i:z,j:{}}",
+        "@Other{a:1,b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop(1){a:1,b:2,c:1,d:1,e:true,f:t,i:z,j:0}",
+        "@Prop{1,2}",
+        "@Prop"
+                                 );
+
+    for (String input : inputs) {
+      assertEquals(parse(new PropRecognizer(), input), parse(new PropDirectRecognizer(), input), input);
+    }
+  }
+
+  @Test
+  void readsFields() {
+    Object prop = parse(new PropDirectRecognizer(), "@Prop{j:5,i:x,h:4,g:3,f:text,e:true,d:2.5,c:1.5,b:2,a:1}");
+    assertEquals(new Prop(1, 2L, 1.5f, 2.5d, true, "text", 3, 4, 'x', BigInteger.valueOf(5)), prop);
+
+    prop = parse(new PropDirectRecognizer(), "@Prop{a:1,b:2,c:1.5,d:2.5,e:false,f:text,i:x,j:5}");
+    assertEquals(new Prop(1, 2L, 1.5f, 2.5d, false, "text", null, 0, 'x', BigInteger.valueOf(5)), prop);
+  }
+
+  @Test
+  void errors() {
+    List<String> inputs = List.of(
+        "@Prop{a:1,a:1,b:2,c:1.5,d:2.5,e:true,f:text,i:x,j:5}",
+        "@Prop{b:2,c:1.5,d:2.5,e:true,f:text,i:x,j:5}",
+        "@Prop{a:1,b:2,c:1.5,d:2.5,e:true,f:text,i:x,j:5,k:6}",
+        "@Prop{a:true,b:2,c:1.5,d:2.5,e:true,f:text,i:x,j:5}",
+        "@Other{a:1,b:2,c:1.5,d:2.5,e:true,f:text,i:x,j:5}"
+                                 );
+
+    for (String input : inputs) {
+      assertEquals(ERROR, parse(new PropDirectRecognizer(), input), input);
+    }
+  }
+
+  @Test
+  void feedEvents() {
+    Prop prop = runTest(new PropDirectRecognizer(), List.of(
+        ReadEvent.startAttribute("Prop"),
+        ReadEvent.extant(),
+        ReadEvent.endAttribute(),
+        ReadEvent.startBody(),
+        ReadEvent.text("a"),
+        ReadEvent.slot(),
+        ReadEvent.number(1),
+        ReadEvent.text("b"),
+        ReadEvent.slot(),
+        ReadEvent.number(2),
+        ReadEvent.text("c"),
+        ReadEvent.slot(),
+        ReadEvent.number(1.5f),
+        ReadEvent.text("d"),
+        ReadEvent.slot(),
+        ReadEvent.number(2.5d),
+        ReadEvent.text("e"),
+        ReadEvent.slot(),
+        ReadEvent.bool(true),
+        ReadEvent.text("f"),
+        ReadEvent.slot(),
+        ReadEvent.text("text"),
+        ReadEvent.text("i"),
+        ReadEvent.slot(),
+        ReadEvent.text("x"),
+        ReadEvent.text("j"),
+        ReadEvent.slot(),
+        ReadEvent.number(BigInteger.TEN),
+        ReadEvent.endRecord()
+                                                                ));
+
+    assertEquals(new Prop(1, 2L, 1.5f, 2.5d, true, "text", null, 0, 'x', BigInteger.TEN), prop);
+  }
+
+  @Test
+  void clear() {
+    DirectRecognizer<Prop> recognizer = new PropDirectRecognizer();
+    assertEquals(
+        new Prop(1, 2L, 1.5f, 2.5d, true, "text", 3, 4, 'x', BigInteger.valueOf(5)),
+        parse(recognizer, "@Prop{a:1,b:2,c:1.5,d:2.5,e:true,f:text,g:3,h:4,i:x,j:5}"));
+
+    assertEquals(ERROR, parse(recognizer.clear(), "@Prop{a:true}"));
+    assertTrue(recognizer.isError());
+
+    assertEquals(
+        new Prop(6, 7L, 0.5f, 0.25d, false, "other", null, 0, 'y', BigInteger.ONE),
+        parse(recognizer.clear(), "@Prop{a:6,b:7,c:0.5,d:0.25,e:false,f:other,i:y,j:1}"));
+  }
+
+  @AutoForm
+  public static class Prop {
+    public int a;
+    public long b;
+    public float c;
+    public double d;
+    public boolean e;
+    public String f;
+    public Integer g;
+    @AutoForm.Optional
+    public int h;
+    public char i;
+    public BigInteger j;
+
+    public Prop() {
+
+    }
+
+    public Prop(int a, long b, float c, double d, boolean e, String f, Integer g, int h, char i, BigInteger j) {
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.d = d;
+      this.e = e;
+      this.f = f;
+      this.g = g;
+      this.h = h;
+      this.i = i;
+      this.j = j;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Prop prop = (Prop) o;
+      return a == prop.a && b == prop.b && Float.compare(prop.c, c) == 0 && Double.compare(prop.d, d) == 0 && e == prop.e && h == prop.h && i == prop.i && Objects.equals(f, prop.f) && Objects.equals(g, prop.g) && Objects.equals(j, prop.j);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(a, b, c, d, e, f, g, h, i, j);
+    }
+
+    @Override
+    public String toString() {
+      return "Prop{" +
+          "a=" + a +
+          ", b=" + b +
+          ", c=" + c +
+          ", d=" + d +
+          ", e=" + e +
+          ", f='" + f + '\'' +
+          ", g=" + g +
+          ", h=" + h +
+          ", i=" + i +
+          ", j=" + j +
+          '}';
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.processor;
+
+import ai.swim.codec.Parser;
+import ai.swim.codec.input.Input;
+import ai.swim.structure.FormParser;
+import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.structure.recognizer.structural.labelled.LabelledFieldKey;
+import ai.swim.structure.recognizer.structural.labelled.LabelledIndexFn;
+import org.junit.jupiter.api.Test;
+import java.util.Objects;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexFnTest {
+
+  private static final String INPUT = "@Names{values:7,abd:4,ab:1,value:6,xyz:5,ba:2,abc:3}";
+
+  private static <T> T parse(Recognizer<T> recognizer, String input) {
+    Parser<T> parser = new FormParser<>(recognizer).feed(Input.string(input));
+    assertTrue(parser.isDone(), input);
+    return parser.bind();
+  }
+
+  @Test
+  void selectsFieldsByName() {
+    Names expected = new Names(1, 2, 3, 4, 5, 6, 7);
+    assertEquals(expected, parse(new NamesRecognizer(), INPUT));
+    assertEquals(expected, parse(new NamesDirectRecognizer(), INPUT));
+  }
+
+  @Test
+  void unknownFields() {
+    for (String field : new String[] {"abe", "a", "bb", "valuez", "", "zyx"}) {
+      String input = String.format("@Names{\"%s\":1}", field);
+
+      RuntimeException e = assertThrows(RuntimeException.class, () -> parse(new NamesRecognizer(), input));
+      assertTrue(e.getMessage().startsWith("Unexpected key"), e.getMessage());
+
+      Parser<Names> parser = new FormParser<>(new NamesDirectRecognizer()).feed(Input.string(input));
+      assertTrue(parser.isError(), input);
+    }
+  }
+
+  @Test
+  void selectIndexFromKeys() {
+    LabelledIndexFn indexFn = new LabelledIndexFn() {
+      @Override
+      public int selectHeader() {
+        return 0;
+      }
+
+      @Override
+      public int selectAttr(CharSequence name) {
+        return LabelledIndexFn.contentEquals(name, "attr") ? 1 : NONE;
+      }
+
+      @Override
+      public int selectItem(CharSequence name) {
+        return LabelledIndexFn.contentEquals(name, "item") ? 2 : NONE;
+      }
+    };
+
+    assertEquals(0, indexFn.selectIndex(LabelledFieldKey.HEADER));
+    assertEquals(1, indexFn.selectIndex(LabelledFieldKey.attr("attr")));
+    assertEquals(2, indexFn.selectIndex(LabelledFieldKey.item("item")));
+    assertNull(indexFn.selectIndex(LabelledFieldKey.attr("item")));
+    assertNull(indexFn.selectIndex(LabelledFieldKey.item("attr")));
+    assertNull(indexFn.selectIndex(LabelledFieldKey.TAG));
+  }
+
+  @AutoForm
+  public static class Names {
+    public int ab;
+    public int ba;
+    public int abc;
+    public int abd;
+    public int xyz;
+    public int value;
+    public int values;
+
+    public Names() {
+
+    }
+
+    public Names(int ab, int ba, int abc, int abd, int xyz, int value, int values) {
+      this.ab = ab;
+      this.ba = ba;
+      this.abc = abc;
+      this.abd = abd;
+      this.xyz = xyz;
+      this.value = value;
+      this.values = values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Names names = (Names) o;
+      return ab == names.ab && ba == names.ba && abc == names.abc && abd == names.abd && xyz == names.xyz && value == names.value && values == names.values;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(ab, ba, abc, abd, xyz, value, values);
+    }
+
+    @Override
+    public String toString() {
+      return "Names{" +
+          "ab=" + ab +
+          ", ba=" + ba +
+          ", abc=" + abc +
+          ", abd=" + abd +
+          ", xyz=" + xyz +
+          ", value=" + value +
+          ", values=" + values +
+          '}';
+    }
+  }
+
+}
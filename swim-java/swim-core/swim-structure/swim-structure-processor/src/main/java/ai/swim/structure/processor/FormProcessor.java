@@ -17,10 +17,13 @@
 package ai.swim.structure.processor;
 
 import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.annotations.AutoloadedRecognizer;
+import ai.swim.structure.annotations.AutoloadedWriter;
 import ai.swim.structure.processor.model.Model;
 import ai.swim.structure.processor.model.ModelInspector;
 import ai.swim.structure.processor.model.StructuralModel;
 import ai.swim.structure.processor.writer.recognizerForm.RecognizerFormWriter;
+import ai.swim.structure.processor.writer.registry.RegistryWriter;
 import ai.swim.structure.processor.writer.writerForm.WriterFormWriter;
 import com.google.auto.service.AutoService;
 import javax.annotation.processing.AbstractProcessor;
@@ -31,6 +34,7 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -39,14 +43,29 @@ import java.util.Set;
  * Annotation processor for deriving recognizer and writable implementations for type elements annotated with
  * {@link AutoForm}.
  * <p>
+ * Recognizers and writables, both derived and those annotated with {@link AutoloadedRecognizer} or
+ * {@link AutoloadedWriter}, are registered with the recognizer and writer proxies through generated registries that
+ * are discovered using a {@link java.util.ServiceLoader}.
+ * <p>
  * See README.md in the project's directory for a detailed design document on its control flow.
  */
 @AutoService(Processor.class)
 public class FormProcessor extends AbstractProcessor {
   private ModelInspector models;
+  private RegistryWriter registries;
 
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    try {
+      if (roundEnv.processingOver()) {
+        registries.writeServices();
+      } else {
+        registries.writeRegistries(roundEnv);
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString());
+    }
+
     for (Element element : roundEnv.getElementsAnnotatedWith(AutoForm.class)) {
       AutoForm autoForm = element.getAnnotation(AutoForm.class);
 
@@ -86,12 +105,15 @@ public class FormProcessor extends AbstractProcessor {
   public synchronized void init(ProcessingEnvironment processingEnv) {
     super.init(processingEnv);
     this.models = new ModelInspector();
+    this.registries = new RegistryWriter(processingEnv);
   }
 
   @Override
   public Set<String> getSupportedAnnotationTypes() {
     Set<String> annotations = new LinkedHashSet<>();
     annotations.add(AutoForm.class.getCanonicalName());
+    annotations.add(AutoloadedRecognizer.class.getCanonicalName());
+    annotations.add(AutoloadedWriter.class.getCanonicalName());
 
     return Collections.unmodifiableSet(annotations);
   }
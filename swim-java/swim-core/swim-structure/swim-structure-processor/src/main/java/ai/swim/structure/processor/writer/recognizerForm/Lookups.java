@@ -32,16 +32,19 @@ public class Lookups {
   public static final String MAP_RECOGNIZER_CLASS = "MapRecognizer";
   public static final String STRUCTURAL_RECOGNIZER_CLASS = "ai.swim.structure.recognizer.structural.StructuralRecognizer";
   public static final String LABELLED_CLASS_RECOGNIZER = "ai.swim.structure.recognizer.structural.labelled.LabelledClassRecognizer";
+  public static final String LABELLED_DIRECT_RECOGNIZER = "ai.swim.structure.recognizer.structural.labelled.LabelledDirectRecognizer";
   public static final String DELEGATE_CLASS_RECOGNIZER = "ai.swim.structure.recognizer.structural.delegate.DelegateClassRecognizer";
   public static final String FIXED_TAG_SPEC = "ai.swim.structure.recognizer.structural.tag.FixedTagSpec";
   public static final String ENUM_TAG_SPEC = "ai.swim.structure.recognizer.structural.tag.EnumerationTagSpec";
   public static final String FIELD_TAG_SPEC = "ai.swim.structure.recognizer.structural.tag.FieldTagSpec";
   public static final String LABELLED_ITEM_FIELD_KEY = "ai.swim.structure.recognizer.structural.labelled.LabelledFieldKey.ItemFieldKey";
+  public static final String LABELLED_INDEX_FN = "ai.swim.structure.recognizer.structural.labelled.LabelledIndexFn";
   public static final String LABELLED_ATTR_FIELD_KEY = "ai.swim.structure.recognizer.structural.labelled.LabelledFieldKey.AttrFieldKey";
   public static final String DELEGATE_HEADER_SLOT_KEY = "ai.swim.structure.recognizer.structural.delegate.HeaderFieldKey.HeaderSlotKey";
   public static final String DELEGATE_ORDINAL_ATTR_KEY = "ai.swim.structure.recognizer.structural.delegate.OrdinalFieldKey.OrdinalFieldKeyAttr";
   public static final String TYPE_PARAMETER = "ai.swim.structure.recognizer.proxy.RecognizerTypeParameter";
   public static final String RECOGNIZER_PROXY = "ai.swim.structure.recognizer.proxy.RecognizerProxy";
+  public static final String RECOGNIZER_REGISTRY = "ai.swim.structure.recognizer.proxy.RecognizerRegistry";
   public static final String UNTYPED_RECOGNIZER = "ai.swim.structure.recognizer.untyped.UntypedRecognizer";
   public static final String POLYMORPHIC_RECOGNIZER = "ai.swim.structure.recognizer.structural.PolymorphicRecognizer";
 
@@ -104,6 +104,13 @@ public class RecognizerNameFormatter extends NameFormatter {
     return String.format("%sRecognizer", name);
   }
 
+  /**
+   * Returns a string with "DirectRecognizer" suffixed.
+   */
+  public String directRecognizerClassName() {
+    return String.format("%sDirectRecognizer", this.name);
+  }
+
   /**
    * Returns a string with "ConcreteRecognizer" suffixed.
    */
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.structure.processor.writer.recognizerForm.recognizer;
+
+import ai.swim.structure.annotations.AutoloadedRecognizer;
+import ai.swim.structure.processor.model.ClassLikeModel;
+import ai.swim.structure.processor.model.CoreTypeModel;
+import ai.swim.structure.processor.model.FieldModel;
+import ai.swim.structure.processor.schema.PartitionedFields;
+import ai.swim.structure.processor.writer.recognizerForm.RecognizerContext;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Modifier;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_DIRECT_RECOGNIZER;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_INDEX_FN;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_CLASS;
+
+/**
+ * Direct recognizer writer functionality.
+ * <p>
+ * A direct recognizer is written in addition to the standard recognizer for classes that have a fixed tag and whose
+ * fields are all scalar slots. It extends {@code LabelledDirectRecognizer} and stores the value of each field itself,
+ * rather than in a builder for each field, so that it may be driven by a parser without materialising any events:
+ * <pre>
+ * {@code
+ * @AutoloadedRecognizer(Prop.class)
+ * public final class PropDirectRecognizer extends LabelledDirectRecognizer<Prop> {
+ *   private static final String[] NAMES = {"a", "b"};
+ *   private static final Recognizer<?>[] FIELDS = {ScalarRecognizer.INTEGER, ScalarRecognizer.STRING};
+ *   private int a;
+ *   private String b;
+ *
+ *   public PropDirectRecognizer() {
+ *     super("Prop", NAMES, FIELDS, 1L);
+ *   }
+ *
+ *   @Override
+ *   protected int selectIndex(CharSequence name) {
+ *     switch (name.length()) {
+ *       case 1:
+ *         switch (name.charAt(0)) {
+ *           case 'a':
+ *             return 0;
+ *           case 'b':
+ *             return 1;
+ *         }
+ *         break;
+ *     }
+ *     return LabelledIndexFn.NONE;
+ *   }
+ *
+ *   @Override
+ *   protected void setInt(int index, int value) {
+ *     switch (index) {
+ *       case 0:
+ *         this.a = value;
+ *         break;
+ *       default:
+ *         throw new AssertionError(index);
+ *     }
+ *   }
+ *
+ *   ...
+ * }
+ * }
+ * </pre>
+ * The direct recognizer is registered with the recognizer proxy in place of the standard recognizer.
+ */
+public class DirectRecognizer {
+
+  /**
+   * Returns whether a direct recognizer can be derived for the provided class model.
+   */
+  public static boolean isSupported(ClassLikeModel model, PartitionedFields fields) {
+    if (!model.isClass() || model.isAbstract() || !model.getSubTypes().isEmpty() || !model.getTypeParameters()
+        .isEmpty()) {
+      return false;
+    }
+
+    if (fields.hasHeaderFields() || fields.headerSpec.hasTagName() || !fields.headerSpec.attributes.isEmpty() || fields.body.isReplaced()) {
+      return false;
+    }
+
+    List<FieldModel> items = fields.body.getFields();
+    if (items.size() > Long.SIZE) {
+      return false;
+    }
+
+    for (FieldModel field : items) {
+      if (!(field.getModel() instanceof CoreTypeModel)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Writes a direct recognizer for the provided class model.
+   *
+   * @param model   that a recognizer will be derived for.
+   * @param fields  the partitioned fields of the model.
+   * @param context recognizer scoped context to the root processing element.
+   * @throws IOException if there is a failure to write the recognizer to disk.
+   */
+  public static void writeDirectRecognizer(ClassLikeModel model,
+      PartitionedFields fields,
+      RecognizerContext context) throws IOException {
+    String className = context.getFormatter().directRecognizerClassName();
+    TypeName targetType = TypeName.get(context.getRoot().asType());
+    List<FieldModel> items = fields.body.getFields();
+
+    TypeSpec.Builder classSpec = TypeSpec
+        .classBuilder(className)
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        .superclass(ParameterizedTypeName.get(ClassName.bestGuess(LABELLED_DIRECT_RECOGNIZER), targetType))
+        .addAnnotation(AnnotationSpec
+                           .builder(AutoloadedRecognizer.class)
+                           .addMember("value", "$L.class", model.qualifiedName())
+                           .build());
+
+    TypeName recognizerType = ParameterizedTypeName.get(
+        ClassName.bestGuess(RECOGNIZER_CLASS),
+        WildcardTypeName.subtypeOf(Object.class));
+    CodeBlock.Builder names = CodeBlock.builder();
+    CodeBlock.Builder recognizers = CodeBlock.builder();
+    long required = 0;
+
+    for (int i = 0; i < items.size(); i++) {
+      FieldModel field = items.get(i);
+      String separator = i == 0 ? "" : ", ";
+
+      names.add("$L$S", separator, field.propertyName());
+      recognizers.add("$L$L", separator, field.instantiate(context.getInitializer(), false).getInitializer());
+
+      if (isPrimitive(field) && !field.isOptional()) {
+        required |= 1L << i;
+      }
+
+      classSpec.addField(FieldSpec
+                             .builder(TypeName.get(field.getElement().asType()), storageName(field), Modifier.PRIVATE)
+                             .initializer(defaultValue(field))
+                             .build());
+    }
+
+    classSpec.addField(FieldSpec
+                           .builder(ArrayTypeName.of(String.class), "NAMES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                           .initializer("{$L}", names.build())
+                           .build());
+    classSpec.addField(FieldSpec
+                           .builder(ArrayTypeName.of(recognizerType), "FIELDS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                           .initializer("{$L}", recognizers.build())
+                           .build());
+
+    classSpec.addMethod(MethodSpec
+                            .constructorBuilder()
+                            .addModifiers(Modifier.PUBLIC)
+                            .addStatement("super($S, NAMES, FIELDS, $LL)", model.getTag(), required)
+                            .build());
+
+    ClassName indexFnClass = ClassName.bestGuess(LABELLED_INDEX_FN);
+    CodeBlock.Builder selectIndex = CodeBlock.builder();
+    FieldIndexTree.write(
+        selectIndex,
+        indexFnClass,
+        "name",
+        items.stream().map(FieldModel::propertyName).collect(Collectors.toList()),
+        0);
+    selectIndex.addStatement("return $T.NONE", indexFnClass);
+
+    classSpec.addMethod(MethodSpec
+                            .methodBuilder("selectIndex")
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PROTECTED)
+                            .returns(TypeName.INT)
+                            .addParameter(CharSequence.class, "name")
+                            .addCode(selectIndex.build())
+                            .build());
+
+    ProcessingEnvironment environment = context.getProcessingEnvironment();
+    addSetter(classSpec, environment, items, "setInt", TypeName.INT, CoreTypeModel.Kind.Integer);
+    addSetter(classSpec, environment, items, "setLong", TypeName.LONG, CoreTypeModel.Kind.Long);
+    addSetter(classSpec, environment, items, "setFloat", TypeName.FLOAT, CoreTypeModel.Kind.Float);
+    addSetter(classSpec, environment, items, "setDouble", TypeName.DOUBLE, CoreTypeModel.Kind.Double);
+    addSetter(classSpec, environment, items, "setBoolean", TypeName.BOOLEAN, CoreTypeModel.Kind.Boolean);
+    addSetter(classSpec, environment, items, "setValue", TypeName.OBJECT, null);
+
+    CodeBlock.Builder build = CodeBlock.builder();
+    build.addStatement("$T obj = new $T()", targetType, targetType);
+    for (FieldModel field : items) {
+      field.getAccessor().writeSet(build, "obj", "this." + storageName(field));
+    }
+    build.addStatement("return obj");
+
+    classSpec.addMethod(MethodSpec
+                            .methodBuilder("build")
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PROTECTED)
+                            .returns(targetType)
+                            .addCode(build.build())
+                            .build());
+
+    CodeBlock.Builder clearFields = CodeBlock.builder();
+    for (FieldModel field : items) {
+      clearFields.addStatement("this.$L = $L", storageName(field), defaultValue(field));
+    }
+
+    classSpec.addMethod(MethodSpec
+                            .methodBuilder("clearFields")
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PROTECTED)
+                            .addCode(clearFields.build())
+                            .build());
+    classSpec.addMethod(MethodSpec
+                            .methodBuilder("reset")
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PUBLIC)
+                            .returns(ParameterizedTypeName.get(ClassName.bestGuess(RECOGNIZER_CLASS), targetType))
+                            .addStatement("return new $L()", className)
+                            .build());
+
+    JavaFile javaFile = JavaFile
+        .builder(model.getDeclaredPackage().getQualifiedName().toString(), classSpec.build())
+        .build();
+    javaFile.writeTo(context.getProcessingEnvironment().getFiler());
+  }
+
+  /**
+   * Adds a setter for the fields of {@code kind} if there are any, or for all the fields if {@code kind} is null.
+   */
+  private static void addSetter(TypeSpec.Builder classSpec,
+      ProcessingEnvironment environment,
+      List<FieldModel> items,
+      String name,
+      TypeName valueType,
+      CoreTypeModel.Kind kind) {
+    List<Integer> indices = new ArrayList<>();
+    for (int i = 0; i < items.size(); i++) {
+      if (kind == null || kindOf(items.get(i)) == kind) {
+        indices.add(i);
+      }
+    }
+
+    if (indices.isEmpty() && kind != null) {
+      return;
+    }
+
+    CodeBlock.Builder body = CodeBlock.builder();
+    body.beginControlFlow("switch (index)");
+
+    for (int i : indices) {
+      FieldModel field = items.get(i);
+      body.add("case $L:\n", i).indent();
+
+      if (kind == null) {
+        body.addStatement("this.$L = ($T) value", storageName(field), field.boxedType(environment));
+      } else {
+        body.addStatement("this.$L = value", storageName(field));
+      }
+
+      body.addStatement("break").unindent();
+    }
+
+    body.add("default:\n").indent().addStatement("throw new AssertionError(index)").unindent();
+    body.endControlFlow();
+
+    classSpec.addMethod(MethodSpec
+                            .methodBuilder(name)
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PROTECTED)
+                            .addParameter(TypeName.INT, "index")
+                            .addParameter(valueType, "value")
+                            .addCode(body.build())
+                            .build());
+  }
+
+  private static String storageName(FieldModel field) {
+    return field.getName().toString();
+  }
+
+  private static CoreTypeModel.Kind kindOf(FieldModel field) {
+    return ((CoreTypeModel<?>) field.getModel()).getKind();
+  }
+
+  private static boolean isPrimitive(FieldModel field) {
+    return field.getElement().asType().getKind().isPrimitive();
+  }
+
+  private static CodeBlock defaultValue(FieldModel field) {
+    if (!isPrimitive(field)) {
+      if (field.isOptional() && kindOf(field) == CoreTypeModel.Kind.String) {
+        return CodeBlock.of("$S", "");
+      } else {
+        return CodeBlock.of("null");
+      }
+    }
+
+    switch (kindOf(field)) {
+      case Character:
+        return CodeBlock.of("(char) 0");
+      case Byte:
+        return CodeBlock.of("(byte) 0");
+      case Short:
+        return CodeBlock.of("(short) 0");
+      case Integer:
+        return CodeBlock.of("0");
+      case Long:
+        return CodeBlock.of("0L");
+      case Float:
+        return CodeBlock.of("0f");
+      case Double:
+        return CodeBlock.of("0d");
+      case Boolean:
+        return CodeBlock.of("false");
+      default:
+        throw new AssertionError(field);
+    }
+  }
+
+}
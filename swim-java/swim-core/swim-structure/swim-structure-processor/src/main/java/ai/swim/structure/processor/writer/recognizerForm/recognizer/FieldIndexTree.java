@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.processor.writer.recognizerForm.recognizer;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Field name lookup emitter. Writes a decision tree that maps a {@link CharSequence} to the index of the field with
+ * that name without allocating or hashing. The tree switches on the length of the name and then on the character at
+ * the position that best separates the names of that length until a single candidate remains, which is checked in
+ * full:
+ *
+ * <pre>
+ *   {@code
+ *     switch (name.length()) {
+ *       case 1:
+ *         switch (name.charAt(0)) {
+ *           case 'a':
+ *             return 0;
+ *           case 'b':
+ *             return 1;
+ *         }
+ *         break;
+ *       case 5:
+ *         if (LabelledIndexFn.contentEquals(name, "value")) {
+ *           return 2;
+ *         }
+ *         break;
+ *     }
+ *   }
+ * </pre>
+ * <p>
+ * Control falls out of the tree if there is no matching name.
+ */
+final class FieldIndexTree {
+  private final ClassName indexFnClass;
+  private final String nameVar;
+
+  private FieldIndexTree(ClassName indexFnClass, String nameVar) {
+    this.indexFnClass = indexFnClass;
+    this.nameVar = nameVar;
+  }
+
+  /**
+   * Writes a lookup of {@code names} into {@code body}.
+   *
+   * @param body         to write into.
+   * @param indexFnClass the class that provides the {@code contentEquals} method.
+   * @param nameVar      the name of the {@link CharSequence} variable to look up.
+   * @param names        the field names, in index order.
+   * @param startAt      the index of the first name.
+   */
+  static void write(CodeBlock.Builder body, ClassName indexFnClass, String nameVar, List<String> names, int startAt) {
+    Map<Integer, List<Entry>> byLength = new TreeMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i);
+      byLength.computeIfAbsent(name.length(), k -> new ArrayList<>()).add(new Entry(name, i + startAt));
+    }
+
+    if (byLength.isEmpty()) {
+      return;
+    }
+
+    FieldIndexTree tree = new FieldIndexTree(indexFnClass, nameVar);
+
+    body.beginControlFlow("switch ($L.length())", nameVar);
+    for (Map.Entry<Integer, List<Entry>> group : byLength.entrySet()) {
+      body.add("case $L:\n", group.getKey());
+      body.indent();
+      if (!tree.writeNode(body, group.getValue(), new BitSet())) {
+        body.addStatement("break");
+      }
+      body.unindent();
+    }
+    body.endControlFlow();
+  }
+
+  private static String charLiteral(char c) {
+    if (c >= 0x20 && c < 0x7f && c != '\'' && c != '\\') {
+      return "'" + c + "'";
+    } else {
+      return String.format("'\\u%04x'", (int) c);
+    }
+  }
+
+  /**
+   * Selects the position at which {@code entries}, which all have the same length, have the most distinct characters.
+   */
+  private static int selectPosition(List<Entry> entries, BitSet checked) {
+    int length = entries.get(0).name.length();
+    int position = -1;
+    int best = 0;
+
+    for (int i = 0; i < length; i++) {
+      if (checked.get(i)) {
+        continue;
+      }
+
+      int at = i;
+      int distinct = (int) entries.stream().mapToInt(e -> e.name.charAt(at)).distinct().count();
+      if (distinct > best) {
+        best = distinct;
+        position = i;
+      }
+    }
+
+    return position;
+  }
+
+  /**
+   * Writes the lookup of {@code entries}, whose characters at the {@code checked} positions are known to match.
+   *
+   * @return whether the written code always returns.
+   */
+  private boolean writeNode(CodeBlock.Builder body, List<Entry> entries, BitSet checked) {
+    int position = entries.size() == 1 ? -1 : selectPosition(entries, checked);
+
+    if (position == -1) {
+      Entry entry = entries.get(0);
+
+      if (checked.cardinality() == entry.name.length()) {
+        body.addStatement("return $L", entry.index);
+        return true;
+      } else {
+        body.beginControlFlow("if ($T.contentEquals($L, $S))", indexFnClass, nameVar, entry.name);
+        body.addStatement("return $L", entry.index);
+        body.endControlFlow();
+        return false;
+      }
+    }
+
+    Map<Character, List<Entry>> byChar = new LinkedHashMap<>();
+    for (Entry entry : entries) {
+      byChar.computeIfAbsent(entry.name.charAt(position), k -> new ArrayList<>()).add(entry);
+    }
+
+    BitSet nextChecked = (BitSet) checked.clone();
+    nextChecked.set(position);
+
+    body.beginControlFlow("switch ($L.charAt($L))", nameVar, position);
+    for (Map.Entry<Character, List<Entry>> branch : byChar.entrySet()) {
+      body.add("case $L:\n", charLiteral(branch.getKey()));
+      body.indent();
+      if (!writeNode(body, branch.getValue(), nextChecked)) {
+        body.addStatement("break");
+      }
+      body.unindent();
+    }
+    body.endControlFlow();
+
+    return false;
+  }
+
+  private static final class Entry {
+    private final String name;
+    private final int index;
+
+    private Entry(String name, int index) {
+      this.name = name;
+      this.index = index;
+    }
+  }
+}
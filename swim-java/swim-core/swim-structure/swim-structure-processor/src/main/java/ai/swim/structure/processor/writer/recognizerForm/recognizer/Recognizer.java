@@ -61,9 +61,8 @@ import static ai.swim.structure.processor.writer.recognizerForm.Lookups.DELEGATE
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.ENUM_TAG_SPEC;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.FIELD_TAG_SPEC;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.FIXED_TAG_SPEC;
-import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_ATTR_FIELD_KEY;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_CLASS_RECOGNIZER;
-import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_ITEM_FIELD_KEY;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.LABELLED_INDEX_FN;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_CLASS;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_PROXY;
 import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZING_BUILDER_BIND;
@@ -89,6 +88,7 @@ public class Recognizer {
     TypeSpec typeSpec;
 
     PartitionedFields fields = PartitionedFields.buildFrom(model.getFields());
+    boolean isDirect = DirectRecognizer.isSupported(model, fields);
 
     if (model.isAbstract()) {
       // Write an abstract class recognizer
@@ -97,6 +97,7 @@ public class Recognizer {
       boolean isPolymorphic = !subTypes.isEmpty();
       TypeSpec.Builder concreteRecognizer = writeClassRecognizer(
           isPolymorphic,
+          !isDirect,
           model,
           fields,
           context,
@@ -128,7 +129,13 @@ public class Recognizer {
       }
     } else if (model.isEnum()) {
       // Write a class recognizer for the enum.
-      typeSpec = writeClassRecognizer(false, model, fields, context, new EnumTransposition(model, fields)).build();
+      typeSpec = writeClassRecognizer(
+          false,
+          true,
+          model,
+          fields,
+          context,
+          new EnumTransposition(model, fields)).build();
     } else {
       throw new AssertionError("Unhandled class map type: " + model.getClass().getCanonicalName());
     }
@@ -139,9 +146,15 @@ public class Recognizer {
         .addStaticImport(ClassName.bestGuess(RECOGNIZER_PROXY), "getProxy")
         .build();
     javaFile.writeTo(context.getProcessingEnvironment().getFiler());
+
+    if (isDirect) {
+      // The direct recognizer is registered in place of the standard recognizer.
+      DirectRecognizer.writeDirectRecognizer(model, fields, context);
+    }
   }
 
   private static TypeSpec.Builder writeClassRecognizer(boolean isPolymorphic,
+      boolean isAutoloaded,
       ClassLikeModel model,
       PartitionedFields fields,
       RecognizerContext context,
@@ -157,7 +170,7 @@ public class Recognizer {
 
     if (isPolymorphic) {
       classSpec.addModifiers(Modifier.STATIC);
-    } else {
+    } else if (isAutoloaded) {
       AnnotationSpec recognizerAnnotationSpec = AnnotationSpec
           .builder(AutoloadedRecognizer.class)
           .addMember("value", "$L.class", model.qualifiedName())
@@ -183,6 +196,9 @@ public class Recognizer {
     classSpec.superclass(superclassRecognizerTypeName);
     classSpec.addField(FieldSpec.builder(recognizerTypeName, "recognizer", Modifier.PRIVATE).build());
     classSpec.addField(transposition.tagSpec(context));
+    if (!fields.body.isReplaced()) {
+      classSpec.addField(buildStandardIndexFn(fields, context));
+    }
     classSpec.addMethods(buildConstructors(model, fields, context, transposition));
     classSpec.addMethods(buildMethods(context, className, transposition));
 
@@ -346,7 +362,16 @@ public class Recognizer {
   }
 
   /**
-   * Builds the constructor which accepts the delegate field builder.
+   * Builds the constructor which accepts the delegate field builder. If the body of the class is not replaced, the
+   * recognizer uses the index function that is written by {@link #buildStandardIndexFn}:
+   * <pre>
+   *   {@code
+   *     private PropRecognizer(PropBuilder builder) {
+   *       this.recognizer = new LabelledClassRecognizer<Prop>(tagSpec, builder, 2, INDEX_FN);
+   *     }
+   *   }
+   * </pre>
+   * Otherwise, it uses an ordinal index function:
    * <pre>
    *   {@code
    *     private GenericBodyRecognizer(GenericBodyBuilder builder) {
@@ -378,9 +403,7 @@ public class Recognizer {
     Elements elementUtils = processingEnvironment.getElementUtils();
 
     String recognizerName = fields.body.isReplaced() ? DELEGATE_CLASS_RECOGNIZER : LABELLED_CLASS_RECOGNIZER;
-    CodeBlock indexFn = fields.body.isReplaced() ? buildOrdinalIndexFn(fields, context) : buildStandardIndexFn(
-        fields,
-        context);
+    CodeBlock indexFn = fields.body.isReplaced() ? buildOrdinalIndexFn(fields, context) : CodeBlock.of("INDEX_FN");
 
     TypeElement classRecognizerElement = elementUtils.getTypeElement(recognizerName);
     ParameterizedTypeName classRecognizerDeclaredType = ParameterizedTypeName.get(
@@ -449,72 +472,87 @@ public class Recognizer {
     return body.build();
   }
 
-  private static CodeBlock buildStandardIndexFn(PartitionedFields fields, RecognizerContext context) {
-    ProcessingEnvironment processingEnvironment = context.getProcessingEnvironment();
-    Elements elementUtils = processingEnvironment.getElementUtils();
-
-    CodeBlock.Builder body = CodeBlock.builder();
-    body.beginControlFlow("(key) ->");
-
+  /**
+   * Builds the index function for a class whose body is not replaced. The function selects fields by name, without
+   * allocating a key, and is shared by all instances of the recognizer:
+   * <pre>
+   *   {@code
+   *     private static final LabelledIndexFn INDEX_FN = new LabelledIndexFn() {
+   *       @Override
+   *       public int selectHeader() {
+   *         return LabelledIndexFn.NONE;
+   *       }
+   *
+   *       @Override
+   *       public int selectAttr(CharSequence name) {
+   *         return LabelledIndexFn.NONE;
+   *       }
+   *
+   *       @Override
+   *       public int selectItem(CharSequence name) {
+   *         switch (name.length()) {
+   *           case 1:
+   *             switch (name.charAt(0)) {
+   *               case 'a':
+   *                 return 0;
+   *               case 'b':
+   *                 return 1;
+   *             }
+   *             break;
+   *         }
+   *         throw new RuntimeException("Unexpected key: " + name);
+   *       }
+   *     };
+   *   }
+   * </pre>
+   */
+  private static FieldSpec buildStandardIndexFn(PartitionedFields fields, RecognizerContext context) {
+    ClassName indexFnClass = ClassName.bestGuess(LABELLED_INDEX_FN);
     HeaderSpec headerSpec = fields.headerSpec;
 
     int idx = 0;
 
+    CodeBlock.Builder header = CodeBlock.builder();
     if (headerSpec.hasTagBody() || fields.hasHeaderFields()) {
-      body.beginControlFlow("if (key.isHeader())");
-      body.addStatement("return $L", idx);
-      body.endControlFlow();
+      header.addStatement("return $L", idx);
       idx += 1;
+    } else {
+      header.addStatement("return $T.NONE", indexFnClass);
     }
 
-    if (!headerSpec.attributes.isEmpty()) {
-      body.beginControlFlow("if (key.isAttribute())");
-      TypeElement attrFieldKeyElement = elementUtils.getTypeElement(LABELLED_ATTR_FIELD_KEY);
-
-      body.addStatement("$T attrFieldKey = ($T) key", attrFieldKeyElement, attrFieldKeyElement);
-      body.beginControlFlow("switch (attrFieldKey.getKey())");
-
-      int attrCount = headerSpec.attributes.size();
-
-      for (int i = 0; i < attrCount; i++) {
-        FieldModel recognizer = headerSpec.attributes.get(i);
-
-        body.add("case \"$L\":", recognizer.propertyName());
-        body.addStatement("\t return $L", i + idx);
-      }
-
-      body.endControlFlow();
-      body.endControlFlow();
-
-      idx += attrCount;
-    }
-
-    List<FieldModel> items = fields.body.getFields();
-
-    if (!items.isEmpty()) {
-      body.beginControlFlow("if (key.isItem())");
-
-      TypeElement itemFieldKeyElement = elementUtils.getTypeElement(LABELLED_ITEM_FIELD_KEY);
-      body.addStatement("$T itemFieldKey = ($T) key", itemFieldKeyElement, itemFieldKeyElement);
-      body.beginControlFlow("switch (itemFieldKey.getName())");
-
-      for (int i = 0; i < items.size(); i++) {
-        FieldModel recognizer = items.get(i);
+    List<String> attrNames = headerSpec.attributes.stream().map(FieldModel::propertyName).collect(Collectors.toList());
+    CodeBlock.Builder attr = CodeBlock.builder();
+    FieldIndexTree.write(attr, indexFnClass, "name", attrNames, idx);
+    attr.addStatement("return $T.NONE", indexFnClass);
+    idx += attrNames.size();
 
-        body.add("case \"$L\":", recognizer.propertyName());
-        body.addStatement("\t return $L", i + idx);
-      }
+    List<String> itemNames = fields.body
+        .getFields()
+        .stream()
+        .map(FieldModel::propertyName)
+        .collect(Collectors.toList());
+    CodeBlock.Builder item = CodeBlock.builder();
+    FieldIndexTree.write(item, indexFnClass, "name", itemNames, idx);
 
-      body.add("default:");
-      body.addStatement("\tthrow new RuntimeException(\"Unexpected key: \" + key)");
-      body.endControlFlow();
-      body.endControlFlow();
+    if (itemNames.isEmpty()) {
+      item.addStatement("return $T.NONE", indexFnClass);
+    } else {
+      item.addStatement("throw new RuntimeException(\"Unexpected key: \" + name)");
     }
 
-    body.addStatement("return null");
-    body.endControlFlow();
+    ParameterSpec name = ParameterSpec.builder(CharSequence.class, "name").build();
+    TypeSpec indexFn = TypeSpec
+        .anonymousClassBuilder("")
+        .addSuperinterface(indexFnClass)
+        .addMethod(buildPolymorphicMethod(TypeName.INT, "selectHeader", null, header.build()))
+        .addMethod(buildPolymorphicMethod(TypeName.INT, "selectAttr", name, attr.build()))
+        .addMethod(buildPolymorphicMethod(TypeName.INT, "selectItem", name, item.build()))
+        .build();
 
-    return body.build();
+    return FieldSpec
+        .builder(indexFnClass, "INDEX_FN", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+        .initializer("$L", indexFn)
+        .build();
   }
 
   /**
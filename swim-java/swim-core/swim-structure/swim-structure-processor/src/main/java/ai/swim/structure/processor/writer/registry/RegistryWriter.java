@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.structure.processor.writer.registry;
+
+import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.annotations.AutoloadedRecognizer;
+import ai.swim.structure.annotations.AutoloadedWriter;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_CLASS;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_PROXY;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.RECOGNIZER_REGISTRY;
+import static ai.swim.structure.processor.writer.recognizerForm.Lookups.TYPE_PARAMETER;
+import static ai.swim.structure.processor.writer.writerForm.Lookups.WRITABLE_CLASS;
+import static ai.swim.structure.processor.writer.writerForm.Lookups.WRITER_PROXY;
+import static ai.swim.structure.processor.writer.writerForm.Lookups.WRITER_REGISTRY;
+import static ai.swim.structure.processor.writer.writerForm.Lookups.WRITER_TYPE_PARAMETER;
+
+/**
+ * Registry writer functionality.
+ * <p>
+ * Classes that are annotated with {@link AutoloadedRecognizer} or {@link AutoloadedWriter}, including those that are
+ * derived for classes annotated with {@link AutoForm}, are registered with the recognizer and writer proxies through a
+ * registry class that is written for each package in which they are found. The registries are listed as
+ * {@link java.util.ServiceLoader} providers once processing is complete:
+ *
+ * <pre>
+ *   {@code
+ *     @SuppressWarnings({"unchecked", "rawtypes"})
+ *     public final class AutoFormRegistry_5e3b4c1a implements RecognizerRegistry {
+ *       @Override
+ *       public void registerRecognizers(RecognizerProxy proxy) {
+ *         proxy.register(Prop.class, PropRecognizer.class, PropRecognizer::new, null);
+ *         proxy.register(Generic.class, GenericRecognizer.class, GenericRecognizer::new,
+ *           typeParameters -> new GenericRecognizer((RecognizerTypeParameter) typeParameters[0]));
+ *       }
+ *     }
+ *   }
+ * </pre>
+ * <p>
+ * A registry is written in the round in which its classes are found, rather than once processing is complete, so that
+ * the derived recognizers and writers, which are processed in the round after they are written, are included. The
+ * name of each registry is suffixed with a hash of the classes that it registers so that the registries of separate
+ * compilation units, such as the main and test sources of a project, do not clash.
+ */
+public class RegistryWriter {
+  private final ProcessingEnvironment environment;
+  private final Set<String> recognizerRegistries;
+  private final Set<String> writerRegistries;
+
+  public RegistryWriter(ProcessingEnvironment environment) {
+    this.environment = environment;
+    this.recognizerRegistries = new TreeSet<>();
+    this.writerRegistries = new TreeSet<>();
+  }
+
+  /**
+   * Returns the type of the {@code value} of the {@code annotation} on {@code element}.
+   */
+  private static TypeMirror annotationValue(Element element, Class<?> annotation) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationElement = (TypeElement) mirror.getAnnotationType().asElement();
+
+      if (annotationElement.getQualifiedName().contentEquals(annotation.getCanonicalName())) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror
+            .getElementValues()
+            .entrySet()) {
+          if (entry.getKey().getSimpleName().contentEquals("value")) {
+            return (TypeMirror) entry.getValue().getValue();
+          }
+        }
+      }
+    }
+
+    throw new AssertionError(element + " is not annotated with " + annotation);
+  }
+
+  /**
+   * Writes a registry for each package that contains classes annotated with {@link AutoloadedRecognizer} or
+   * {@link AutoloadedWriter} in this round.
+   *
+   * @param roundEnv the environment of this round.
+   * @throws IOException if there is a failure to write a registry to disk.
+   */
+  public void writeRegistries(RoundEnvironment roundEnv) throws IOException {
+    Map<String, List<Entry>> recognizers = collect(roundEnv, AutoloadedRecognizer.class, RECOGNIZER_CLASS);
+    Map<String, List<Entry>> writers = collect(roundEnv, AutoloadedWriter.class, WRITABLE_CLASS);
+
+    Set<String> packages = new TreeSet<>(recognizers.keySet());
+    packages.addAll(writers.keySet());
+
+    for (String packageName : packages) {
+      writeRegistry(packageName, recognizers.getOrDefault(packageName, List.of()), writers.getOrDefault(packageName, List.of()));
+    }
+  }
+
+  /**
+   * Lists the registries that have been written as {@link java.util.ServiceLoader} providers.
+   *
+   * @throws IOException if there is a failure to write a provider configuration file to disk.
+   */
+  public void writeServices() throws IOException {
+    writeServices(RECOGNIZER_REGISTRY, recognizerRegistries);
+    writeServices(WRITER_REGISTRY, writerRegistries);
+  }
+
+  private void writeServices(String service, Set<String> providers) throws IOException {
+    if (providers.isEmpty()) {
+      return;
+    }
+
+    FileObject file = environment
+        .getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + service);
+
+    try (Writer writer = file.openWriter()) {
+      for (String provider : providers) {
+        writer.write(provider);
+        writer.write('\n');
+      }
+    }
+  }
+
+  private Map<String, List<Entry>> collect(RoundEnvironment roundEnv,
+      Class<? extends Annotation> annotation,
+      String superType) {
+    Elements elementUtils = environment.getElementUtils();
+    Types typeUtils = environment.getTypeUtils();
+    TypeMirror superTypeMirror = typeUtils.erasure(elementUtils.getTypeElement(superType).asType());
+    Map<String, List<Entry>> entries = new TreeMap<>();
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+      TypeMirror target = annotationValue(element, annotation);
+      String error = validate(element, annotation, target, superTypeMirror);
+
+      if (error != null) {
+        environment.getMessager().printMessage(Diagnostic.Kind.ERROR, error, element);
+        continue;
+      }
+
+      TypeElement typeElement = (TypeElement) element;
+      ExecutableElement typedConstructor = null;
+
+      for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+        if (constructor.getAnnotation(AutoForm.TypedConstructor.class) != null) {
+          typedConstructor = constructor;
+        }
+      }
+
+      String packageName = elementUtils.getPackageOf(typeElement).getQualifiedName().toString();
+      entries
+          .computeIfAbsent(packageName, k -> new ArrayList<>())
+          .add(new Entry(typeElement, typeUtils.erasure(target), typedConstructor));
+    }
+
+    return entries;
+  }
+
+  private String validate(Element element,
+      Class<? extends Annotation> annotation,
+      TypeMirror target,
+      TypeMirror superType) {
+    Types typeUtils = environment.getTypeUtils();
+    String name = element.toString();
+    String superTypeName = ((TypeElement) typeUtils.asElement(superType)).getSimpleName().toString();
+
+    if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+      return String.format("@%s may only be used on concrete classes", annotation.getSimpleName());
+    }
+
+    if (!typeUtils.isAssignable(typeUtils.erasure(element.asType()), superType)) {
+      return String.format(
+          "%s is annotated with @%s(%s.class) but %s does not extend %s",
+          name,
+          annotation.getSimpleName(),
+          target,
+          name,
+          superTypeName);
+    }
+
+    for (Element e = element; e.getKind().isClass() || e.getKind().isInterface(); e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) {
+        return String.format("%s must not be private or be nested in a private class", name);
+      }
+
+      Element enclosing = e.getEnclosingElement();
+      if ((enclosing.getKind().isClass() || enclosing.getKind().isInterface()) && e.getKind() == ElementKind.CLASS && !e
+          .getModifiers()
+          .contains(Modifier.STATIC)) {
+        return String.format("Nested non-static classes are not supported by %s: %s", superTypeName, name);
+      }
+    }
+
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+        return null;
+      }
+    }
+
+    return String.format("%s '%s' does not contain a public zero-arg constructor", superTypeName, name);
+  }
+
+  private void writeRegistry(String packageName, List<Entry> recognizers, List<Entry> writers) throws IOException {
+    StringJoiner registered = new StringJoiner(",");
+    recognizers.forEach(entry -> registered.add(entry.element.getQualifiedName()));
+    writers.forEach(entry -> registered.add(entry.element.getQualifiedName()));
+
+    String className = String.format("AutoFormRegistry_%08x", registered.toString().hashCode());
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    TypeSpec.Builder classSpec = TypeSpec
+        .classBuilder(className)
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        .addAnnotation(AnnotationSpec
+            .builder(SuppressWarnings.class)
+            .addMember("value", "{$S, $S}", "unchecked", "rawtypes")
+            .build());
+
+    if (!recognizers.isEmpty()) {
+      classSpec.addSuperinterface(ClassName.bestGuess(RECOGNIZER_REGISTRY));
+      classSpec.addMethod(buildRegisterMethod(
+          "registerRecognizers",
+          ClassName.bestGuess(RECOGNIZER_PROXY),
+          ClassName.bestGuess(TYPE_PARAMETER),
+          recognizers));
+      recognizerRegistries.add(qualifiedName);
+    }
+
+    if (!writers.isEmpty()) {
+      classSpec.addSuperinterface(ClassName.bestGuess(WRITER_REGISTRY));
+      classSpec.addMethod(buildRegisterMethod(
+          "registerWriters",
+          ClassName.bestGuess(WRITER_PROXY),
+          ClassName.bestGuess(WRITER_TYPE_PARAMETER),
+          writers));
+      writerRegistries.add(qualifiedName);
+    }
+
+    JavaFile.builder(packageName, classSpec.build()).build().writeTo(environment.getFiler());
+  }
+
+  private MethodSpec buildRegisterMethod(String name,
+      ClassName proxyType,
+      ClassName typeParameterType,
+      List<Entry> entries) {
+    CodeBlock.Builder body = CodeBlock.builder();
+
+    for (Entry entry : entries) {
+      ClassName implType = ClassName.get(entry.element);
+      CodeBlock typedSupplier;
+
+      if (entry.typedConstructor == null) {
+        typedSupplier = CodeBlock.of("null");
+      } else {
+        CodeBlock.Builder arguments = CodeBlock.builder();
+        List<? extends VariableElement> parameters = entry.typedConstructor.getParameters();
+
+        for (int i = 0; i < parameters.size(); i++) {
+          arguments.add("$L($T) typeParameters[$L]", i == 0 ? "" : ", ", typeParameterType, i);
+        }
+
+        typedSupplier = CodeBlock.of("typeParameters -> new $T($L)", implType, arguments.build());
+      }
+
+      body.addStatement(
+          "proxy.register($T.class, $T.class, $T::new, $L)",
+          TypeName.get(entry.target),
+          implType,
+          implType,
+          typedSupplier);
+    }
+
+    return MethodSpec
+        .methodBuilder(name)
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .addParameter(ParameterSpec.builder(proxyType, "proxy").build())
+        .addCode(body.build())
+        .build();
+  }
+
+  private static final class Entry {
+    private final TypeElement element;
+    private final TypeMirror target;
+    private final ExecutableElement typedConstructor;
+
+    private Entry(TypeElement element, TypeMirror target, ExecutableElement typedConstructor) {
+      this.element = element;
+      this.target = target;
+      this.typedConstructor = typedConstructor;
+    }
+  }
+}
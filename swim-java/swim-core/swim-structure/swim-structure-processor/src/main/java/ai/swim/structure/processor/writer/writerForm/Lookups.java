@@ -26,6 +26,8 @@ public class Lookups {
   public static final String WRITABLE_WRITE_INTO = "writeInto";
   public static final String STRUCTURAL_WRITER_CLASS = "ai.swim.structure.writer.StructuralWriter";
   public static final String WRITER_PROXY = "ai.swim.structure.writer.proxy.WriterProxy";
+  public static final String WRITER_REGISTRY = "ai.swim.structure.writer.proxy.WriterRegistry";
+  public static final String WRITER_TYPE_PARAMETER = "ai.swim.structure.writer.proxy.WriterTypeParameter";
   public static final String WRITER_EXCEPTION = "ai.swim.structure.writer.WriterException";
   public static final String HEADER_WRITER = "ai.swim.structure.writer.HeaderWriter";
   public static final String BODY_WRITER = "ai.swim.structure.writer.BodyWriter";
@@ -19,6 +19,7 @@ package ai.swim.structure.processor;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import org.junit.jupiter.api.Test;
+import javax.tools.StandardLocation;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
 
@@ -153,4 +154,30 @@ public class TestProcessor {
         .hadErrorContaining("Recursive types are not supported by the form annotation processor.");
   }
 
+  @Test
+  void autoloadedNoConstructor() {
+    assertThat(compile("AutoloadedNoConstructor.java"))
+        .hadErrorContaining("Recognizer 'AutoloadedNoConstructor' does not contain a public zero-arg constructor");
+  }
+
+  @Test
+  void autoloadedNotRecognizer() {
+    assertThat(compile("AutoloadedNotRecognizer.java"))
+        .hadErrorContaining("AutoloadedNotRecognizer does not extend Recognizer");
+  }
+
+  @Test
+  void registry() {
+    Compilation compilation = compile("Registered.java");
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedFile(StandardLocation.CLASS_OUTPUT, "META-INF/services/ai.swim.structure.recognizer.proxy.RecognizerRegistry")
+        .contentsAsUtf8String()
+        .startsWith("registered.AutoFormRegistry_");
+    assertThat(compilation)
+        .generatedFile(StandardLocation.CLASS_OUTPUT, "META-INF/services/ai.swim.structure.writer.proxy.WriterRegistry")
+        .contentsAsUtf8String()
+        .startsWith("registered.AutoFormRegistry_");
+  }
+
 }
@@ -0,0 +1,22 @@
+import ai.swim.structure.annotations.AutoloadedRecognizer;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.recon.event.ReadEvent;
+
+@AutoloadedRecognizer(Integer.class)
+public class AutoloadedNoConstructor extends Recognizer<Integer> {
+  private final Recognizer<Integer> delegate;
+
+  public AutoloadedNoConstructor(Recognizer<Integer> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Recognizer<Integer> feedEvent(ReadEvent event) {
+    return delegate.feedEvent(event);
+  }
+
+  @Override
+  public Recognizer<Integer> reset() {
+    return new AutoloadedNoConstructor(delegate.reset());
+  }
+}
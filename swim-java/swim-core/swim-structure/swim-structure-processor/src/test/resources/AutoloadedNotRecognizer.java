@@ -0,0 +1,7 @@
+import ai.swim.structure.annotations.AutoloadedRecognizer;
+
+@AutoloadedRecognizer(Integer.class)
+public class AutoloadedNotRecognizer {
+  public AutoloadedNotRecognizer() {
+  }
+}
@@ -0,0 +1,11 @@
+package registered;
+
+import ai.swim.structure.annotations.AutoForm;
+
+@AutoForm
+public class Registered {
+  public int a;
+
+  public Registered() {
+  }
+}
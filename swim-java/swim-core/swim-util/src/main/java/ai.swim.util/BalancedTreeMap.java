@@ -0,0 +1,582 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * An immutable sorted map that is implemented as a persistent weight-balanced binary tree.
+ * <p>
+ * Updating the map returns a new map that shares all but O(log n) nodes with the original, so a map may be handed out
+ * as a consistent snapshot while its owner continues to update it. As every node records the size of its subtree,
+ * positional operations are O(log n) as well: {@link #take(int)} and {@link #drop(int)} return the first or all but the
+ * first n entries and {@link #subMap}, {@link #headMap} and {@link #tailMap} return range copies, rather than views,
+ * of the map.
+ * <p>
+ * The mutating operations of {@link Map} are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public final class BalancedTreeMap<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+  /**
+   * A subtree is rebalanced once it is more than DELTA times the size of its sibling.
+   */
+  private static final int DELTA = 3;
+  /**
+   * Chooses between a single and a double rotation.
+   */
+  private static final int RATIO = 2;
+  private static final BalancedTreeMap<?, ?> EMPTY = new BalancedTreeMap<>(null, null);
+
+  private final Node<K, V> root;
+  /**
+   * The comparator that orders the keys, or null if the keys are in their natural order.
+   */
+  private final Comparator<? super K> comparator;
+
+  private BalancedTreeMap(Node<K, V> root, Comparator<? super K> comparator) {
+    this.root = root;
+    this.comparator = comparator;
+  }
+
+  /**
+   * Returns an empty map whose keys are in their natural order.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K extends Comparable<? super K>, V> BalancedTreeMap<K, V> empty() {
+    return (BalancedTreeMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Returns an empty map whose keys are ordered by {@code comparator}.
+   */
+  public static <K, V> BalancedTreeMap<K, V> empty(Comparator<? super K> comparator) {
+    return new BalancedTreeMap<>(null, Objects.requireNonNull(comparator, "comparator"));
+  }
+
+  private BalancedTreeMap<K, V> withRoot(Node<K, V> newRoot) {
+    if (newRoot == root) {
+      return this;
+    } else {
+      return new BalancedTreeMap<>(newRoot, comparator);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private int compare(Object key, K other) {
+    if (comparator == null) {
+      return ((Comparable<Object>) key).compareTo(other);
+    } else {
+      return comparator.compare((K) key, other);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size(root);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  @Override
+  public V get(Object key) {
+    Node<K, V> node = find(key);
+    return node == null ? null : node.value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  private Node<K, V> find(Object key) {
+    Objects.requireNonNull(key, "key");
+    Node<K, V> node = root;
+
+    while (node != null) {
+      int c = compare(key, node.key);
+      if (c < 0) {
+        node = node.left;
+      } else if (c > 0) {
+        node = node.right;
+      } else {
+        return node;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns a map that associates {@code key} with {@code value}, or this map if it already does.
+   */
+  public BalancedTreeMap<K, V> updated(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    return withRoot(insert(root, key, value));
+  }
+
+  /**
+   * Returns a map without a mapping for {@code key}, or this map if it does not contain one.
+   */
+  public BalancedTreeMap<K, V> removed(Object key) {
+    Objects.requireNonNull(key, "key");
+    return withRoot(delete(root, key));
+  }
+
+  /**
+   * Returns a map of the first {@code n} entries of this map, in O(log n).
+   */
+  public BalancedTreeMap<K, V> take(int n) {
+    return withRoot(take(root, n));
+  }
+
+  /**
+   * Returns a map of the entries of this map other than the first {@code n}, in O(log n).
+   */
+  public BalancedTreeMap<K, V> drop(int n) {
+    return withRoot(drop(root, n));
+  }
+
+  /**
+   * Returns the entry at {@code index} in the order of the keys, in O(log n).
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is not within the bounds of this map.
+   */
+  public Map.Entry<K, V> entryAt(int index) {
+    Objects.checkIndex(index, size());
+    Node<K, V> node = root;
+
+    while (true) {
+      int leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index > leftSize) {
+        index -= leftSize + 1;
+        node = node.right;
+      } else {
+        return node;
+      }
+    }
+  }
+
+  @Override
+  public Comparator<? super K> comparator() {
+    return comparator;
+  }
+
+  /**
+   * Returns a map of the entries of this map whose keys are greater than or equal to {@code fromKey} and less than
+   * {@code toKey}, in O(log n).
+   *
+   * @throws IllegalArgumentException if {@code fromKey} is greater than {@code toKey}.
+   */
+  @Override
+  public BalancedTreeMap<K, V> subMap(K fromKey, K toKey) {
+    Objects.requireNonNull(fromKey, "fromKey");
+    Objects.requireNonNull(toKey, "toKey");
+    if (compare(fromKey, toKey) > 0) {
+      throw new IllegalArgumentException("fromKey > toKey");
+    }
+    return withRoot(lessThan(greaterOrEqual(root, fromKey), toKey));
+  }
+
+  /**
+   * Returns a map of the entries of this map whose keys are less than {@code toKey}, in O(log n).
+   */
+  @Override
+  public BalancedTreeMap<K, V> headMap(K toKey) {
+    Objects.requireNonNull(toKey, "toKey");
+    return withRoot(lessThan(root, toKey));
+  }
+
+  /**
+   * Returns a map of the entries of this map whose keys are greater than or equal to {@code fromKey}, in O(log n).
+   */
+  @Override
+  public BalancedTreeMap<K, V> tailMap(K fromKey) {
+    Objects.requireNonNull(fromKey, "fromKey");
+    return withRoot(greaterOrEqual(root, fromKey));
+  }
+
+  /**
+   * @throws NoSuchElementException if this map is empty.
+   */
+  @Override
+  public K firstKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return min(root).key;
+  }
+
+  /**
+   * @throws NoSuchElementException if this map is empty.
+   */
+  @Override
+  public K lastKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return max(root).key;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return BalancedTreeMap.this.size();
+      }
+    };
+  }
+
+  private Node<K, V> insert(Node<K, V> node, K key, V value) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+
+    int c = compare(key, node.key);
+    if (c < 0) {
+      Node<K, V> left = insert(node.left, key, value);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    } else if (c > 0) {
+      Node<K, V> right = insert(node.right, key, value);
+      return right == node.right ? node : balance(node.key, node.value, node.left, right);
+    } else if (value == node.value) {
+      return node;
+    } else {
+      return new Node<>(node.key, value, node.left, node.right);
+    }
+  }
+
+  private Node<K, V> delete(Node<K, V> node, Object key) {
+    if (node == null) {
+      return null;
+    }
+
+    int c = compare(key, node.key);
+    if (c < 0) {
+      Node<K, V> left = delete(node.left, key);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    } else if (c > 0) {
+      Node<K, V> right = delete(node.right, key);
+      return right == node.right ? node : balance(node.key, node.value, node.left, right);
+    } else {
+      return glue(node.left, node.right);
+    }
+  }
+
+  private static <K, V> Node<K, V> take(Node<K, V> node, int n) {
+    if (n >= size(node)) {
+      return node;
+    } else if (n <= 0) {
+      return null;
+    }
+
+    int leftSize = size(node.left);
+    if (n < leftSize) {
+      return take(node.left, n);
+    } else if (n == leftSize) {
+      return node.left;
+    } else {
+      return link(node.key, node.value, node.left, take(node.right, n - leftSize - 1));
+    }
+  }
+
+  private static <K, V> Node<K, V> drop(Node<K, V> node, int n) {
+    if (n <= 0) {
+      return node;
+    } else if (n >= size(node)) {
+      return null;
+    }
+
+    int leftSize = size(node.left);
+    if (n < leftSize) {
+      return link(node.key, node.value, drop(node.left, n), node.right);
+    } else if (n == leftSize) {
+      return insertMin(node.key, node.value, node.right);
+    } else {
+      return drop(node.right, n - leftSize - 1);
+    }
+  }
+
+  private Node<K, V> greaterOrEqual(Node<K, V> node, K fromKey) {
+    if (node == null) {
+      return null;
+    }
+
+    int c = compare(fromKey, node.key);
+    if (c < 0) {
+      return link(node.key, node.value, greaterOrEqual(node.left, fromKey), node.right);
+    } else if (c > 0) {
+      return greaterOrEqual(node.right, fromKey);
+    } else {
+      return insertMin(node.key, node.value, node.right);
+    }
+  }
+
+  private Node<K, V> lessThan(Node<K, V> node, K toKey) {
+    if (node == null) {
+      return null;
+    }
+
+    if (compare(toKey, node.key) <= 0) {
+      return lessThan(node.left, toKey);
+    } else {
+      return link(node.key, node.value, node.left, lessThan(node.right, toKey));
+    }
+  }
+
+  private static int size(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static <K, V> Node<K, V> min(Node<K, V> node) {
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  private static <K, V> Node<K, V> max(Node<K, V> node) {
+    while (node.right != null) {
+      node = node.right;
+    }
+    return node;
+  }
+
+  /**
+   * Returns a balanced tree of the entry and the subtrees, which must have been balanced before a single entry was
+   * inserted into or removed from one of them.
+   */
+  private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+    int leftSize = size(left);
+    int rightSize = size(right);
+
+    if (leftSize + rightSize <= 1) {
+      return new Node<>(key, value, left, right);
+    } else if (rightSize > (long) DELTA * leftSize) {
+      if (size(right.left) < (long) RATIO * size(right.right)) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+      } else {
+        Node<K, V> rl = right.left;
+        return new Node<>(
+            rl.key,
+            rl.value,
+            new Node<>(key, value, left, rl.left),
+            new Node<>(right.key, right.value, rl.right, right.right));
+      }
+    } else if (leftSize > (long) DELTA * rightSize) {
+      if (size(left.right) < (long) RATIO * size(left.left)) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+      } else {
+        Node<K, V> lr = left.right;
+        return new Node<>(
+            lr.key,
+            lr.value,
+            new Node<>(left.key, left.value, left.left, lr.left),
+            new Node<>(key, value, lr.right, right));
+      }
+    } else {
+      return new Node<>(key, value, left, right);
+    }
+  }
+
+  /**
+   * Returns a balanced tree of the entry and two balanced subtrees of any size, whose keys are less than and greater
+   * than the entry's key respectively.
+   */
+  private static <K, V> Node<K, V> link(K key, V value, Node<K, V> left, Node<K, V> right) {
+    if (left == null) {
+      return insertMin(key, value, right);
+    } else if (right == null) {
+      return insertMax(key, value, left);
+    } else if ((long) DELTA * left.size < right.size) {
+      return balance(right.key, right.value, link(key, value, left, right.left), right.right);
+    } else if ((long) DELTA * right.size < left.size) {
+      return balance(left.key, left.value, left.left, link(key, value, left.right, right));
+    } else {
+      return new Node<>(key, value, left, right);
+    }
+  }
+
+  /**
+   * Returns a balanced tree of two subtrees that were balanced with respect to each other before an entry was removed
+   * from between them.
+   */
+  private static <K, V> Node<K, V> glue(Node<K, V> left, Node<K, V> right) {
+    if (left == null) {
+      return right;
+    } else if (right == null) {
+      return left;
+    } else if (left.size > right.size) {
+      Node<K, V> max = max(left);
+      return balance(max.key, max.value, deleteMax(left), right);
+    } else {
+      Node<K, V> min = min(right);
+      return balance(min.key, min.value, left, deleteMin(right));
+    }
+  }
+
+  private static <K, V> Node<K, V> insertMin(K key, V value, Node<K, V> node) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    return balance(node.key, node.value, insertMin(key, value, node.left), node.right);
+  }
+
+  private static <K, V> Node<K, V> insertMax(K key, V value, Node<K, V> node) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    return balance(node.key, node.value, node.left, insertMax(key, value, node.right));
+  }
+
+  private static <K, V> Node<K, V> deleteMin(Node<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.key, node.value, deleteMin(node.left), node.right);
+  }
+
+  private static <K, V> Node<K, V> deleteMax(Node<K, V> node) {
+    if (node.right == null) {
+      return node.left;
+    }
+    return balance(node.key, node.value, node.left, deleteMax(node.right));
+  }
+
+  /**
+   * A node of the tree, which is also the entry that it contains.
+   */
+  private static final class Node<K, V> implements Map.Entry<K, V> {
+    private final K key;
+    private final V value;
+    private final Node<K, V> left;
+    private final Node<K, V> right;
+    private final int size;
+
+    private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.size = size(left) + size(right) + 1;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+      return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * Iterates over the entries of a tree in the order of their keys.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+    /**
+     * The nodes whose entry and right subtree have yet to be visited.
+     */
+    private Node<?, ?>[] stack;
+    private int depth;
+
+    private EntryIterator(Node<K, V> root) {
+      stack = new Node<?, ?>[16];
+      pushLeft(root);
+    }
+
+    private void pushLeft(Node<K, V> node) {
+      while (node != null) {
+        if (depth == stack.length) {
+          stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = node;
+        node = node.left;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return depth > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<K, V> next() {
+      if (depth == 0) {
+        throw new NoSuchElementException();
+      }
+
+      Node<K, V> node = (Node<K, V>) stack[--depth];
+      stack[depth] = null;
+      pushLeft(node.right);
+      return node;
+    }
+  }
+
+}
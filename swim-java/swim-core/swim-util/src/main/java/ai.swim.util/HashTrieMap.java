@@ -0,0 +1,514 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable, persistent, hash array mapped trie.
+ * <p>
+ * Updating or removing an entry returns a new map that shares all the unmodified nodes of the trie with this map; this
+ * map is left unchanged. As such, taking a snapshot of a map is O(1) and the snapshot may be iterated over while the
+ * map that it was taken from continues to be updated.
+ * <p>
+ * The trie consumes five bits of a key's hash code at each level. Each node stores its entries inline, ahead of its
+ * sub-nodes, and the trie is kept in a canonical form where no sub-node contains a single entry. Keys with identical
+ * hash codes are stored in a collision node once the hash code has been exhausted.
+ * <p>
+ * This map permits null keys and values. The {@link Map} mutator operations are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public final class HashTrieMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  /**
+   * The maximum depth of the trie: seven bitmap nodes, which consume all 32 bits of a hash code, and a collision node.
+   */
+  private static final int MAX_DEPTH = 8;
+  private static final Object NOT_FOUND = new Object();
+  private static final HashTrieMap<?, ?> EMPTY = new HashTrieMap<>(BitmapNode.EMPTY, 0);
+
+  private final Node root;
+  private final int size;
+
+  private HashTrieMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns an empty {@link HashTrieMap}.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> HashTrieMap<K, V> empty() {
+    return (HashTrieMap<K, V>) EMPTY;
+  }
+
+  private static int hash(Object key) {
+    return key == null ? 0 : key.hashCode();
+  }
+
+  private static int bitPos(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(Object key) {
+    Object value = root.find(key, hash(key), 0);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return root.find(key, hash(key), 0) != NOT_FOUND;
+  }
+
+  /**
+   * Returns a map that associates {@code value} with {@code key} and contains all the other entries of this map.
+   *
+   * @param key   key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   * @return the updated map, or this map if {@code key} is already associated with {@code value}.
+   */
+  public HashTrieMap<K, V> updated(K key, V value) {
+    int hash = hash(key);
+    Object current = root.find(key, hash, 0);
+
+    if (current == value) {
+      return this;
+    } else {
+      return new HashTrieMap<>(root.updated(key, value, hash, 0), current == NOT_FOUND ? size + 1 : size);
+    }
+  }
+
+  /**
+   * Returns a map that contains all the entries of this map except for the entry for {@code key}.
+   *
+   * @param key key whose mapping is to be removed from the map.
+   * @return the updated map, or this map if it does not contain {@code key}.
+   */
+  public HashTrieMap<K, V> removed(K key) {
+    int hash = hash(key);
+
+    if (root.find(key, hash, 0) == NOT_FOUND) {
+      return this;
+    } else if (size == 1) {
+      return empty();
+    } else {
+      return new HashTrieMap<>(root.removed(key, hash, 0), size - 1);
+    }
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private abstract static class Node {
+    /**
+     * Returns the value associated with {@code key}, or {@link HashTrieMap#NOT_FOUND}.
+     */
+    abstract Object find(Object key, int hash, int shift);
+
+    /**
+     * Returns a node that associates {@code value} with {@code key}. The key must not already be associated with
+     * {@code value}.
+     */
+    abstract Node updated(Object key, Object value, int hash, int shift);
+
+    /**
+     * Returns a node without the entry for {@code key}. The key must be present in this node or one of its sub-nodes.
+     */
+    abstract Node removed(Object key, int hash, int shift);
+
+    /**
+     * Returns the number of entries that are stored in this node.
+     */
+    abstract int payloadArity();
+
+    /**
+     * Returns the number of sub-nodes of this node.
+     */
+    abstract int nodeArity();
+
+    abstract Object keyAt(int index);
+
+    abstract Object valueAt(int index);
+
+    abstract Node nodeAt(int index);
+  }
+
+  private static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+    /**
+     * The hash fragments of the entries that are stored in this node.
+     */
+    private final int dataMap;
+    /**
+     * The hash fragments of the sub-nodes of this node.
+     */
+    private final int nodeMap;
+    /**
+     * The keys and values of the entries, interleaved, followed by the sub-nodes.
+     */
+    private final Object[] content;
+
+    BitmapNode(int dataMap, int nodeMap, Object[] content) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.content = content;
+    }
+
+    private static Node merge(Object key0, Object value0, int hash0, Object key1, Object value1, int hash1, int shift) {
+      if (shift >= Integer.SIZE) {
+        return new CollisionNode(hash0, new Object[] {key0, key1}, new Object[] {value0, value1});
+      }
+
+      int frag0 = (hash0 >>> shift) & MASK;
+      int frag1 = (hash1 >>> shift) & MASK;
+
+      if (frag0 == frag1) {
+        Node node = merge(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+        return new BitmapNode(0, 1 << frag0, new Object[] {node});
+      } else if (frag0 < frag1) {
+        return new BitmapNode((1 << frag0) | (1 << frag1), 0, new Object[] {key0, value0, key1, value1});
+      } else {
+        return new BitmapNode((1 << frag0) | (1 << frag1), 0, new Object[] {key1, value1, key0, value0});
+      }
+    }
+
+    private int dataIndex(int bit) {
+      return Integer.bitCount(dataMap & (bit - 1));
+    }
+
+    private int nodeSlot(int bit) {
+      return 2 * Integer.bitCount(dataMap) + Integer.bitCount(nodeMap & (bit - 1));
+    }
+
+    @Override
+    Object find(Object key, int hash, int shift) {
+      int bit = bitPos(hash, shift);
+
+      if ((dataMap & bit) != 0) {
+        int index = 2 * dataIndex(bit);
+        return Objects.equals(key, content[index]) ? content[index + 1] : NOT_FOUND;
+      } else if ((nodeMap & bit) != 0) {
+        return ((Node) content[nodeSlot(bit)]).find(key, hash, shift + BITS);
+      } else {
+        return NOT_FOUND;
+      }
+    }
+
+    @Override
+    Node updated(Object key, Object value, int hash, int shift) {
+      int bit = bitPos(hash, shift);
+
+      if ((dataMap & bit) != 0) {
+        int index = 2 * dataIndex(bit);
+        Object currentKey = content[index];
+
+        if (Objects.equals(key, currentKey)) {
+          Object[] newContent = content.clone();
+          newContent[index + 1] = value;
+          return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+
+        // Push both entries down into a new sub-node.
+        Node node = merge(currentKey, content[index + 1], hash(currentKey), key, value, hash, shift + BITS);
+        int slot = nodeSlot(bit) - 2;
+        Object[] newContent = new Object[content.length - 1];
+        System.arraycopy(content, 0, newContent, 0, index);
+        System.arraycopy(content, index + 2, newContent, index, slot - index);
+        newContent[slot] = node;
+        System.arraycopy(content, slot + 2, newContent, slot + 1, content.length - slot - 2);
+
+        return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+      } else if ((nodeMap & bit) != 0) {
+        int slot = nodeSlot(bit);
+        Node node = (Node) content[slot];
+        Node newNode = node.updated(key, value, hash, shift + BITS);
+
+        if (newNode == node) {
+          return this;
+        }
+
+        Object[] newContent = content.clone();
+        newContent[slot] = newNode;
+        return new BitmapNode(dataMap, nodeMap, newContent);
+      } else {
+        int index = 2 * dataIndex(bit);
+        Object[] newContent = new Object[content.length + 2];
+        System.arraycopy(content, 0, newContent, 0, index);
+        newContent[index] = key;
+        newContent[index + 1] = value;
+        System.arraycopy(content, index, newContent, index + 2, content.length - index);
+
+        return new BitmapNode(dataMap | bit, nodeMap, newContent);
+      }
+    }
+
+    @Override
+    Node removed(Object key, int hash, int shift) {
+      int bit = bitPos(hash, shift);
+
+      if ((dataMap & bit) != 0) {
+        int index = 2 * dataIndex(bit);
+
+        if (!Objects.equals(key, content[index])) {
+          return this;
+        }
+
+        Object[] newContent = new Object[content.length - 2];
+        System.arraycopy(content, 0, newContent, 0, index);
+        System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+
+        return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+      } else if ((nodeMap & bit) != 0) {
+        int slot = nodeSlot(bit);
+        Node node = (Node) content[slot];
+        Node newNode = node.removed(key, hash, shift + BITS);
+
+        if (newNode == node) {
+          return this;
+        }
+
+        if (newNode.payloadArity() == 1 && newNode.nodeArity() == 0) {
+          // Inline the sub-node's remaining entry into this node to keep the trie canonical.
+          int index = 2 * dataIndex(bit);
+          Object[] newContent = new Object[content.length + 1];
+          System.arraycopy(content, 0, newContent, 0, index);
+          newContent[index] = newNode.keyAt(0);
+          newContent[index + 1] = newNode.valueAt(0);
+          System.arraycopy(content, index, newContent, index + 2, slot - index);
+          System.arraycopy(content, slot + 1, newContent, slot + 2, content.length - slot - 1);
+
+          return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+        }
+
+        Object[] newContent = content.clone();
+        newContent[slot] = newNode;
+        return new BitmapNode(dataMap, nodeMap, newContent);
+      } else {
+        return this;
+      }
+    }
+
+    @Override
+    int payloadArity() {
+      return Integer.bitCount(dataMap);
+    }
+
+    @Override
+    int nodeArity() {
+      return Integer.bitCount(nodeMap);
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return content[2 * index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return content[2 * index + 1];
+    }
+
+    @Override
+    Node nodeAt(int index) {
+      return (Node) content[2 * Integer.bitCount(dataMap) + index];
+    }
+  }
+
+  /**
+   * A node containing entries whose keys have identical hash codes.
+   */
+  private static final class CollisionNode extends Node {
+    private final int hash;
+    private final Object[] keys;
+    private final Object[] values;
+
+    CollisionNode(int hash, Object[] keys, Object[] values) {
+      this.hash = hash;
+      this.keys = keys;
+      this.values = values;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (Objects.equals(key, keys[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(Object key, int hash, int shift) {
+      int index = indexOf(key);
+      return index == -1 ? NOT_FOUND : values[index];
+    }
+
+    @Override
+    Node updated(Object key, Object value, int hash, int shift) {
+      int index = indexOf(key);
+
+      if (index == -1) {
+        Object[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        Object[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+
+        return new CollisionNode(this.hash, newKeys, newValues);
+      } else {
+        Object[] newValues = values.clone();
+        newValues[index] = value;
+        return new CollisionNode(this.hash, keys, newValues);
+      }
+    }
+
+    @Override
+    Node removed(Object key, int hash, int shift) {
+      int index = indexOf(key);
+
+      if (index == -1) {
+        return this;
+      }
+
+      Object[] newKeys = new Object[keys.length - 1];
+      Object[] newValues = new Object[values.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+      System.arraycopy(values, 0, newValues, 0, index);
+      System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+
+      return new CollisionNode(this.hash, newKeys, newValues);
+    }
+
+    @Override
+    int payloadArity() {
+      return keys.length;
+    }
+
+    @Override
+    int nodeArity() {
+      return 0;
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return keys[index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return values[index];
+    }
+
+    @Override
+    Node nodeAt(int index) {
+      throw new IndexOutOfBoundsException(index);
+    }
+  }
+
+  /**
+   * Depth-first iterator over the entries of a trie.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+    private final Node[] nodes;
+    /**
+     * The index of the next sub-node to visit at each level.
+     */
+    private final int[] nodeCursors;
+    private int depth;
+    private Node current;
+    private int dataCursor;
+
+    EntryIterator(Node root) {
+      this.nodes = new Node[MAX_DEPTH];
+      this.nodeCursors = new int[MAX_DEPTH];
+      this.nodes[0] = root;
+      this.current = root;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (dataCursor == current.payloadArity()) {
+        if (nodeCursors[depth] < current.nodeArity()) {
+          Node next = current.nodeAt(nodeCursors[depth]++);
+          depth += 1;
+          nodes[depth] = next;
+          nodeCursors[depth] = 0;
+          current = next;
+          dataCursor = 0;
+        } else if (depth == 0) {
+          return false;
+        } else {
+          nodes[depth] = null;
+          depth -= 1;
+          current = nodes[depth];
+          dataCursor = current.payloadArity();
+        }
+      }
+
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      int index = dataCursor++;
+      return new SimpleImmutableEntry<>((K) current.keyAt(index), (V) current.valueAt(index));
+    }
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalancedTreeMapTest {
+
+  private static <K, V> void assertSameEntries(Map<K, V> expected, Map<K, V> actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+  }
+
+  @Test
+  void matchesTreeMap() {
+    Random random = new Random(3);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    BalancedTreeMap<Integer, Integer> map = BalancedTreeMap.empty();
+
+    for (int i = 0; i < 50_000; i++) {
+      int key = random.nextInt(5_000);
+
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.removed(key);
+      } else {
+        expected.put(key, i);
+        map = map.updated(key, i);
+      }
+
+      assertEquals(expected.size(), map.size());
+    }
+
+    assertSameEntries(expected, map);
+    assertEquals(expected.firstKey(), map.firstKey());
+    assertEquals(expected.lastKey(), map.lastKey());
+
+    for (int key = 0; key < 5_000; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+
+  @Test
+  void positionalOperations() {
+    TreeMap<Integer, String> expected = new TreeMap<>();
+    BalancedTreeMap<Integer, String> map = BalancedTreeMap.empty();
+
+    for (int i = 0; i < 1_000; i += 2) {
+      expected.put(i, Integer.toString(i));
+      map = map.updated(i, Integer.toString(i));
+    }
+
+    List<Map.Entry<Integer, String>> entries = new ArrayList<>(expected.entrySet());
+
+    for (int n = -1; n <= entries.size() + 1; n++) {
+      int bounded = Math.max(0, Math.min(n, entries.size()));
+      assertEquals(entries.subList(0, bounded), new ArrayList<>(map.take(n).entrySet()));
+      assertEquals(entries.subList(bounded, entries.size()), new ArrayList<>(map.drop(n).entrySet()));
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      assertEquals(entries.get(i), map.entryAt(i));
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> BalancedTreeMap.empty().entryAt(0));
+
+    for (int from = -1; from <= 1_001; from += 7) {
+      for (int to = from; to <= 1_001; to += 13) {
+        assertSameEntries(expected.subMap(from, to), map.subMap(from, to));
+      }
+      assertSameEntries(expected.headMap(from), map.headMap(from));
+      assertSameEntries(expected.tailMap(from), map.tailMap(from));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> BalancedTreeMap.<Integer, String>empty().subMap(2, 1));
+  }
+
+  @Test
+  void persistence() {
+    BalancedTreeMap<Integer, Integer> empty = BalancedTreeMap.empty();
+    BalancedTreeMap<Integer, Integer> map = empty;
+
+    for (int i = 0; i < 100; i++) {
+      map = map.updated(i, i);
+    }
+
+    BalancedTreeMap<Integer, Integer> snapshot = map;
+    map = map.drop(50).updated(75, -1).removed(99);
+
+    assertEquals(100, snapshot.size());
+    assertEquals(75, snapshot.get(75));
+    assertEquals(49, map.size());
+    assertEquals(-1, map.get(75));
+    assertEquals(0, empty.size());
+
+    // Unchanged maps are returned as is.
+    assertSame(map, map.removed(1000));
+    assertSame(snapshot, snapshot.updated(1, snapshot.get(1)));
+    assertSame(snapshot, snapshot.take(100));
+    assertSame(snapshot, snapshot.drop(0));
+  }
+
+  @Test
+  void comparator() {
+    BalancedTreeMap<String, Integer> map = BalancedTreeMap.<String, Integer>empty(Comparator.reverseOrder())
+        .updated("a", 1)
+        .updated("c", 3)
+        .updated("b", 2);
+
+    assertEquals(List.of("c", "b", "a"), new ArrayList<>(map.keySet()));
+    assertEquals("c", map.firstKey());
+    assertEquals(List.of("b"), new ArrayList<>(map.subMap("b", "a").keySet()));
+    assertThrows(NoSuchElementException.class, () -> BalancedTreeMap.empty().firstKey());
+  }
+
+  @Test
+  void largeTakeAndDrop() {
+    BalancedTreeMap<Integer, Integer> map = BalancedTreeMap.empty();
+    for (int i = 0; i < 1_000_000; i++) {
+      map = map.updated(i, i);
+    }
+
+    // Dropping from the head of a large map repeatedly must keep it balanced.
+    for (int i = 0; i < 10_000; i++) {
+      map = map.drop(10).updated(1_000_000 + i, i);
+    }
+
+    assertEquals(1_000_000 - 90_000, map.size());
+    assertEquals(100_000, map.firstKey());
+    assertEquals(map.firstKey(), map.entryAt(0).getKey());
+    assertEquals(1_009_999, map.take(map.size()).lastKey());
+  }
+
+}
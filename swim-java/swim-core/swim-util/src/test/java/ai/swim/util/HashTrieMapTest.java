@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashTrieMapTest {
+
+  /**
+   * A key with a poor hash code, to exercise the collision nodes.
+   */
+  private static final class Colliding {
+    private final int id;
+
+    Colliding(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Colliding && ((Colliding) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % 4;
+    }
+  }
+
+  @Test
+  void matchesHashMap() {
+    Random random = new Random(7);
+    Map<Integer, Integer> expected = new HashMap<>();
+    HashTrieMap<Integer, Integer> map = HashTrieMap.empty();
+
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(5_000) * (random.nextBoolean() ? 1 : 65_536);
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.get(key));
+        map = map.removed(key);
+      } else {
+        assertEquals(expected.put(key, i), map.get(key));
+        map = map.updated(key, i);
+      }
+
+      assertEquals(expected.size(), map.size());
+    }
+
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+
+    for (Integer key : expected.keySet().toArray(new Integer[0])) {
+      map = map.removed(key);
+    }
+
+    assertTrue(map.isEmpty());
+    assertFalse(map.entrySet().iterator().hasNext());
+  }
+
+  @Test
+  void collisions() {
+    HashTrieMap<Colliding, Integer> map = HashTrieMap.empty();
+
+    for (int i = 0; i < 64; i++) {
+      map = map.updated(new Colliding(i), i);
+    }
+
+    assertEquals(64, map.size());
+    for (int i = 0; i < 64; i++) {
+      assertEquals(i, map.get(new Colliding(i)));
+    }
+
+    for (int i = 0; i < 64; i += 2) {
+      map = map.removed(new Colliding(i));
+    }
+
+    assertEquals(32, map.size());
+    for (int i = 0; i < 64; i++) {
+      assertEquals(i % 2 == 0 ? null : i, map.get(new Colliding(i)));
+    }
+  }
+
+  @Test
+  void snapshotsAreUnaffectedByUpdates() {
+    HashTrieMap<Integer, Integer> map = HashTrieMap.empty();
+    for (int i = 0; i < 1000; i++) {
+      map = map.updated(i, i);
+    }
+
+    HashTrieMap<Integer, Integer> snapshot = map;
+    Iterator<Map.Entry<Integer, Integer>> entries = snapshot.entrySet().iterator();
+
+    for (int i = 0; i < 1000; i++) {
+      map = map.updated(i, -i);
+    }
+    for (int i = 1; i < 1000; i++) {
+      map = map.removed(i);
+    }
+
+    int count = 0;
+    while (entries.hasNext()) {
+      Map.Entry<Integer, Integer> entry = entries.next();
+      assertEquals(entry.getKey(), entry.getValue());
+      count += 1;
+    }
+
+    assertEquals(1000, count);
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void unchangedMapIsReturned() {
+    HashTrieMap<String, String> map = HashTrieMap.<String, String>empty().updated("a", "b");
+
+    assertSame(map, map.removed("c"));
+    assertSame(map, map.updated("a", "b"));
+    assertNull(map.get("c"));
+    assertTrue(map.updated(null, null).containsKey(null));
+  }
+
+}
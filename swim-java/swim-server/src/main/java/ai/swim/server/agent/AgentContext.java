@@ -21,6 +21,7 @@ import ai.swim.lang.ffi.NativeResource;
 import ai.swim.server.agent.task.Schedule;
 import ai.swim.server.agent.task.Task;
 import ai.swim.server.agent.task.TaskRegistry;
+import ai.swim.server.agent.task.TimerWheel;
 import ai.swim.server.lanes.Lane;
 import ai.swim.server.lanes.LaneModel;
 import ai.swim.server.lanes.LaneView;
@@ -42,6 +43,7 @@ public class AgentContext implements NativeResource {
   private final AtomicDestructor destructor;
   private final String agentName;
   private AgentNode agentNode;
+  private TimerWheel timerWheel;
 
   public AgentContext(long ptr, String agentName) {
     this.ptr = ptr;
@@ -184,6 +186,55 @@ public class AgentContext implements NativeResource {
     return task;
   }
 
+  /**
+   * Returns this agent's {@link TimerWheel}, creating one with a tick of {@link TimerWheel#DEFAULT_TICK} if the agent
+   * does not yet have one.
+   *
+   * @return this agent's timer wheel.
+   * @see AgentContext#timerWheel(Duration)
+   */
+  public TimerWheel timerWheel() {
+    return timerWheel(TimerWheel.DEFAULT_TICK);
+  }
+
+  /**
+   * Returns this agent's {@link TimerWheel}, creating one with a tick of {@code tick} if the agent does not yet have
+   * one.
+   * <p>
+   * All the tasks that are scheduled on the timer wheel share a single timer in the Rust runtime and the tasks that
+   * become due in a tick are all run in a single call into the agent. This is preferable to scheduling tasks directly
+   * on this context for agents that run many short-interval tasks.
+   *
+   * @param tick the interval at which the timer wheel advances.
+   * @return this agent's timer wheel.
+   * @throws IllegalStateException if the agent already has a timer wheel with a different tick.
+   */
+  public TimerWheel timerWheel(Duration tick) {
+    assertAgentStarted();
+
+    if (timerWheel == null) {
+      timerWheel = new TimerWheel(tick, new TimerWheel.Ticker() {
+        private Task task;
+
+        @Override
+        public void start(Duration interval, Runnable onTick) {
+          task = scheduleTaskIndefinitely(interval, onTick);
+        }
+
+        @Override
+        public void stop() {
+          task.cancel();
+          task = null;
+        }
+      });
+    } else if (!timerWheel.getTick().equals(tick)) {
+      throw new IllegalStateException(String.format("Agent already has a timer wheel with a tick of %s",
+          timerWheel.getTick()));
+    }
+
+    return timerWheel;
+  }
+
   /**
    * Cancels the provided task from executing again.
    * 
@@ -16,31 +16,12 @@
 
 package ai.swim.server.agent;
 
-import ai.swim.server.annotations.SwimLane;
-import ai.swim.server.lanes.Lane;
 import ai.swim.server.lanes.LaneModel;
-import ai.swim.server.lanes.command.CommandLane;
-import ai.swim.server.lanes.command.CommandLaneView;
-import ai.swim.server.lanes.demand.DemandLane;
-import ai.swim.server.lanes.demand.DemandLaneView;
-import ai.swim.server.lanes.demandmap.DemandMapLane;
-import ai.swim.server.lanes.demandmap.DemandMapLaneView;
-import ai.swim.server.lanes.map.MapLane;
-import ai.swim.server.lanes.map.MapLaneView;
 import ai.swim.server.lanes.state.StateCollector;
-import ai.swim.server.lanes.supply.SupplyLane;
-import ai.swim.server.lanes.supply.SupplyLaneView;
-import ai.swim.server.lanes.value.ValueLane;
-import ai.swim.server.lanes.value.ValueLaneView;
 import ai.swim.server.schema.AgentSchema;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.ServiceLoader;
 
 /**
  * A factory for constructing agents of type {@code A}.
@@ -48,218 +29,93 @@ import java.util.Objects;
  * An initialised agent is an {@link AgentView}s that is used to dispatch events from the Rust runtime to lanes;
  * decoding the message requests, setting the state of the lanes, invoking user-defined lifecycle events and encoding
  * responses.
+ * <p>
+ * Agents are constructed by an {@link AgentInitializer}. If the agent annotation processor has derived an initializer
+ * for the agent then it is used, otherwise the agent is reflected by a {@link ReflectiveAgentInitializer}.
  *
  * @param <A>
  */
 public class AgentFactory<A extends AbstractAgent> {
   private final String agentName;
-  private final Constructor<A> constructor;
+  private final AgentInitializer<A> initializer;
   private final Map<String, Integer> laneMappings;
 
-  private AgentFactory(String agentName, Constructor<A> constructor, Map<String, Integer> laneMappings) {
+  private AgentFactory(String agentName, AgentInitializer<A> initializer, Map<String, Integer> laneMappings) {
     this.agentName = agentName;
-    this.constructor = constructor;
+    this.initializer = initializer;
     this.laneMappings = laneMappings;
   }
 
   /**
-   * Reflects and returns a new {@link AgentFactory} for {@code agentSchema}.
+   * Returns a new {@link AgentFactory} for {@code agentSchema}. If no {@link AgentInitializer} has been derived for the
+   * agent, then it is reflected.
    *
    * @param <A>         the agent type.
-   * @param agentSchema to reflect.
+   * @param agentSchema to build a factory for.
    * @return a factory for constructing agents of type {@code A}.
-   * @throws NoSuchMethodException if there is no zero-arg constructor in the agent.
+   * @throws NoSuchMethodException if the agent is reflected and there is no constructor that accepts an
+   *                               {@link AgentContext}.
    */
   public static <A extends AbstractAgent> AgentFactory<A> forSchema(AgentSchema<A> agentSchema) throws NoSuchMethodException {
-    try {
-      Class<A> agentClass = agentSchema.getAgentClass();
-      Constructor<A> constructor = agentClass.getDeclaredConstructor(AgentContext.class);
-      constructor.setAccessible(true);
-      return new AgentFactory<>(agentSchema.getAgentName(), constructor, agentSchema.laneMappings());
-    } catch (NoSuchMethodException e) {
-      throw new NoSuchMethodException("Missing constructor with AgentContext");
-    }
-  }
-
-  /**
-   * Reflects agent {@code agent}. This involves reflecting the agent's lanes and setting their lane models with a
-   * reference to the agent's {@link StateCollector}.
-   */
-  private static <A extends AbstractAgent> AgentView reflectAgent(A agent, Map<String, Integer> laneMappings) {
-    Class<? extends AbstractAgent> agentClass = agent.getClass();
-    Field[] fields = agentClass.getDeclaredFields();
-    Map<Integer, LaneModel> lanes = new HashMap<>();
-    StateCollector collector = new StateCollector();
-
-    for (Field field : fields) {
-      if (Lane.class.isAssignableFrom(field.getType())) {
-        SwimLane anno = field.getAnnotation(SwimLane.class);
-        if (anno != null) {
-          String annoValue = anno.value();
-          annoValue = annoValue.isEmpty() ? null : annoValue;
-          String laneUri = Objects.requireNonNullElse(annoValue, field.getName());
-
-          Type type = field.getGenericType();
-
-          if (type instanceof ParameterizedType) {
-            Type rawType = ((ParameterizedType) type).getRawType();
-            Integer laneId = laneMappings.get(laneUri);
+    Class<A> agentClass = agentSchema.getAgentClass();
+    AgentInitializer<A> initializer = loadInitializer(agentClass);
 
-            field.setAccessible(true);
-
-            if (rawType instanceof Class<?>) {
-              lanes.put(laneId, reflectLane(agent, laneUri, laneId, field, (Class<?>) rawType, collector));
-            } else {
-              throw unsupportedLaneType(type, agentClass);
-            }
-          } else {
-            throw unsupportedLaneType(type, agentClass);
-          }
-        }
-      }
+    if (initializer == null) {
+      initializer = ReflectiveAgentInitializer.forClass(agentClass);
     }
 
-    return new AgentView(agent, new AgentNode(collector, lanes, laneMappings));
-  }
-
-  private static <A extends AbstractAgent> IllegalArgumentException unsupportedLaneType(Type type,
-      Class<A> agentClass) {
-    return new IllegalArgumentException("Unsupported lane type: " + type + " in " + agentClass.getCanonicalName());
+    return forSchema(agentSchema, initializer);
   }
 
   /**
-   * Reflects a {@link Lane} and creates and sets its corresponding {@link LaneModel}. This allows for users to directly
-   * operate on a {@link Lane} when a lifecycle event is fired (which happens on the {@link ai.swim.server.lanes.LaneView}
-   * as well as the runtime setting its state using the {@link LaneModel}.
+   * Returns a new {@link AgentFactory} for {@code agentSchema} that constructs agents using {@code initializer}.
+   *
+   * @param <A>         the agent type.
+   * @param agentSchema to build a factory for.
+   * @param initializer to construct agents with.
+   * @return a factory for constructing agents of type {@code A}.
    */
-  private static LaneModel reflectLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      Class<?> type,
-      StateCollector collector) {
-    if (ValueLane.class.isAssignableFrom(type)) {
-      return reflectValueLane(agent, laneUri, laneId, field, collector);
-    } else if (MapLane.class.isAssignableFrom(type)) {
-      return reflectMapLane(agent, laneUri, laneId, field, collector);
-    } else if (DemandLane.class.isAssignableFrom(type)) {
-      return reflectDemandLane(agent, laneUri, laneId, field, collector);
-    } else if (DemandMapLane.class.isAssignableFrom(type)) {
-      return reflectDemandMapLane(agent, laneUri, laneId, field, collector);
-    } else if (SupplyLane.class.isAssignableFrom(type)) {
-      return reflectSupplyLane(agent, laneUri, laneId, field, collector);
-    } else if (CommandLane.class.isAssignableFrom(type)) {
-      return reflectCommandLane(agent, laneUri, laneId, field, collector);
-    } else {
-      throw unsupportedLaneType(type, agent.getClass());
-    }
+  public static <A extends AbstractAgent> AgentFactory<A> forSchema(AgentSchema<A> agentSchema,
+      AgentInitializer<A> initializer) {
+    return new AgentFactory<>(agentSchema.getAgentName(), initializer, agentSchema.laneMappings());
   }
 
-  private static LaneModel reflectDemandLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      DemandLaneView<?> laneView = (DemandLaneView<?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
-    }
-  }
-
-  private static LaneModel reflectDemandMapLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      DemandMapLaneView<?,?> laneView = (DemandMapLaneView<?,?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
-    }
-  }
-
-  private static LaneModel reflectValueLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      ValueLaneView<?> laneView = (ValueLaneView<?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
-    }
-  }
-
-  private static LaneModel reflectMapLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      MapLaneView<?, ?> laneView = (MapLaneView<?, ?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
-    }
-  }
-
-  private static LaneModel reflectSupplyLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      SupplyLaneView<?> laneView = (SupplyLaneView<?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
+  /**
+   * Loads the {@link AgentInitializer} that has been derived for {@code agentClass}, if one exists.
+   */
+  @SuppressWarnings("unchecked")
+  private static <A extends AbstractAgent> AgentInitializer<A> loadInitializer(Class<A> agentClass) {
+    ClassLoader classLoader = agentClass.getClassLoader();
+    if (classLoader == null) {
+      classLoader = AgentFactory.class.getClassLoader();
     }
-  }
 
-  private static LaneModel reflectCommandLane(AbstractAgent agent,
-      String laneUri,
-      int laneId,
-      Field field,
-      StateCollector collector) {
-    try {
-      CommandLaneView<?> laneView = (CommandLaneView<?>) field.get(agent);
-      return laneView.initLaneModel(collector, laneId);
-    } catch (IllegalAccessException e) {
-      throw laneInitFailure(agent, laneUri, e);
+    for (AgentInitializer<?> initializer : ServiceLoader.load(AgentInitializer.class, classLoader)) {
+      if (initializer.agentClass() == agentClass) {
+        return (AgentInitializer<A>) initializer;
+      }
     }
-  }
 
-  private static AgentInitializationException laneInitFailure(AbstractAgent agent,
-      String laneUri,
-      IllegalAccessException e) {
-    return new AgentInitializationException(String.format(
-        "Failed to initialise lane '%s' on agent '%s'",
-        laneUri,
-        agent.getContext().getAgentName()), e);
+    return null;
   }
 
   /**
-   * Reflects and initialises a new {@link AgentView}.
+   * Constructs and initialises a new {@link AgentView}.
    *
    * @return an initialised agent.
    */
   public AgentView newInstance(long agentContextPtr) {
-    try {
-      AgentContext context = new AgentContext(agentContextPtr, agentName);
-      constructor.setAccessible(true);
-      A agent = constructor.newInstance(context);
+    AgentContext context = new AgentContext(agentContextPtr, agentName);
+    A agent = initializer.newAgent(context);
 
-      AgentView agentView = reflectAgent(agent, laneMappings);
-      context.setAgent(agentView.getNode());
+    StateCollector collector = new StateCollector();
+    Map<Integer, LaneModel> lanes = new HashMap<>();
+    initializer.initLanes(agent, collector, laneMappings, lanes);
 
-      return agentView;
-    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-      throw new AgentInitializationException("Failed to create new agent", e);
-    }
+    AgentView agentView = new AgentView(agent, new AgentNode(collector, lanes, laneMappings));
+    context.setAgent(agentView.getNode());
+
+    return agentView;
   }
 
   public int idFor(String laneUri) {
@@ -275,7 +131,7 @@ public class AgentFactory<A extends AbstractAgent> {
   public String toString() {
     return "AgentFactory{" +
         "agentName='" + agentName + '\'' +
-        ", constructor=" + constructor +
+        ", initializer=" + initializer +
         ", laneMappings=" + laneMappings +
         '}';
   }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.agent;
+
+import ai.swim.server.annotations.SwimAgent;
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.LaneModel;
+import ai.swim.server.lanes.state.StateCollector;
+import java.util.Map;
+
+/**
+ * An initializer for constructing agents of type {@code A} and initialising the {@link LaneModel}s of their lanes.
+ * <p>
+ * Initializers are derived by the agent annotation processor for classes annotated with {@link SwimAgent} and are
+ * discovered by an {@link AgentFactory} using a {@link java.util.ServiceLoader}. If an agent does not have a derived
+ * initializer, then a {@link ReflectiveAgentInitializer} is used instead.
+ *
+ * @param <A> the type of the agent.
+ */
+public interface AgentInitializer<A extends AbstractAgent> {
+
+  /**
+   * Returns the class of the agents that this initializer constructs.
+   *
+   * @return the class of the agents that this initializer constructs.
+   */
+  Class<? extends A> agentClass();
+
+  /**
+   * Constructs a new agent.
+   *
+   * @param context the agent's context.
+   * @return a new agent.
+   * @throws AgentInitializationException if the agent's constructor fails.
+   */
+  A newAgent(AgentContext context);
+
+  /**
+   * Initialises the {@link LaneModel} of each of {@code agent}'s fields that are annotated with {@link SwimLane}.
+   *
+   * @param agent        the agent to initialise the lanes of.
+   * @param collector    the agent's {@link StateCollector}.
+   * @param laneMappings a mapping from lane URI to lane ID.
+   * @param lanes        a mapping from lane ID to {@link LaneModel} to put the initialised lane models into.
+   */
+  void initLanes(A agent, StateCollector collector, Map<String, Integer> laneMappings, Map<Integer, LaneModel> lanes);
+
+}
@@ -24,7 +24,7 @@ import ai.swim.server.lanes.Lane;
 import ai.swim.server.lanes.LaneModel;
 import ai.swim.server.lanes.state.StateCollector;
 import java.nio.ByteBuffer;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 
@@ -40,21 +40,41 @@ public class AgentNode {
    */
   private final StateCollector collector;
   /**
-   * A map containing a key that is a unique lane identifier that has been registered with the Rust runtime and a value
-   * that is an initialised {@link LaneModel} that has been registered with the {@link StateCollector} below.
+   * A table, indexed by the unique lane identifiers that have been registered with the Rust runtime, of initialised
+   * {@link LaneModel}s that have been registered with the {@link StateCollector} above. Lane identifiers are allocated
+   * densely and so dispatching to a lane is a single array access.
    */
-  private final Map<Integer, LaneModel> lanes;
+  private LaneModel[] lanes;
   /**
    * Mapping from laneUri -> laneId.
    */
   private final Map<String, Integer> laneMappings;
   private final TaskRegistry taskRegistry;
+  /**
+   * The identifier that will be allocated to the next lane that is opened.
+   */
+  private int nextLaneId;
   private AgentState state;
+  /**
+   * The last direct buffer that was provided by the Rust runtime and a reader over it. The runtime reuses the same
+   * buffer for envelopes that fit into it and so the reader, which holds no state of its own, is only rebuilt when it
+   * provides a different buffer.
+   */
+  private ByteBuffer dispatchBuffer;
+  private ReadBuffer dispatchReader;
 
   public AgentNode(StateCollector collector, Map<Integer, LaneModel> lanes, Map<String, Integer> laneMappings) {
     this.collector = collector;
-    this.lanes = lanes;
+    this.lanes = new LaneModel[0];
     this.laneMappings = laneMappings;
+
+    for (Map.Entry<Integer, LaneModel> entry : lanes.entrySet()) {
+      putLane(entry.getKey(), entry.getValue());
+    }
+    for (int id : laneMappings.values()) {
+      nextLaneId = Math.max(nextLaneId, id + 1);
+    }
+
     taskRegistry = new TaskRegistry();
     state = AgentState.NotStarted;
   }
@@ -64,16 +84,52 @@ public class AgentNode {
    *
    * @param laneIdx the URI of the lane.
    * @param buffer  the event data.
-   * @return an array containing encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] dispatch(int laneIdx, ByteBuffer buffer) throws DecoderException {
+  public int dispatch(int laneIdx, ByteBuffer buffer) throws DecoderException {
     CallContext.enter();
 
-    lanes.get(laneIdx).dispatch(ReadBuffer.byteBuffer(buffer));
-    byte[] bytes = flushState();
+    lane(laneIdx).dispatch(reader(buffer));
+    int len = flushState();
 
     CallContext.exit();
-    return bytes;
+    return len;
+  }
+
+  /**
+   * Dispatch a batch of events to the agent's lanes, in order, and then flush the state of the agent once.
+   * <p>
+   * {@code buffer} contains a sequence of records, each of which contains:
+   * <ul>
+   *   <li>an integer containing the identifier of the lane that the event is for.</li>
+   *   <li>an integer containing the length of the event.</li>
+   *   <li>the event data.</li>
+   * </ul>
+   *
+   * @param buffer the batch of events.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
+   */
+  public int dispatchBatch(ByteBuffer buffer) throws DecoderException {
+    CallContext.enter();
+
+    ReadBuffer reader = reader(buffer);
+    int end = buffer.limit();
+
+    while (buffer.position() < end) {
+      int laneIdx = buffer.getInt();
+      int next = buffer.getInt() + buffer.position();
+
+      buffer.limit(next);
+      lane(laneIdx).dispatch(reader);
+      buffer.limit(end).position(next);
+    }
+
+    int len = flushState();
+
+    CallContext.exit();
+    return len;
   }
 
   /**
@@ -82,10 +138,11 @@ public class AgentNode {
    * @param laneIdx the URI of the lane.
    * @param uuidMsb UUID most significant bits.
    * @param uuidLsb UUID least significant bits.
-   * @return an array containing an encoded {@link ai.swim.server.lanes.models.response.LaneResponse} sync.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse} sync in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] sync(int laneIdx, long uuidMsb, long uuidLsb) throws DecoderException {
-    lanes.get(laneIdx).sync(new UUID(uuidMsb, uuidLsb));
+  public int sync(int laneIdx, long uuidMsb, long uuidLsb) throws DecoderException {
+    lane(laneIdx).sync(new UUID(uuidMsb, uuidLsb));
     return flushState();
   }
 
@@ -96,16 +153,46 @@ public class AgentNode {
    * @param from    the store initialisation data.
    */
   public void init(int laneIdx, ByteBuffer from) throws DecoderException {
-    lanes.get(laneIdx).init(ReadBuffer.byteBuffer(from));
+    lane(laneIdx).init(reader(from));
+  }
+
+  ReadBuffer reader(ByteBuffer buffer) {
+    if (buffer != dispatchBuffer) {
+      dispatchBuffer = buffer;
+      dispatchReader = ReadBuffer.byteBuffer(buffer);
+    }
+    return dispatchReader;
+  }
+
+  private LaneModel lane(int laneIdx) {
+    LaneModel model = laneIdx >= 0 && laneIdx < lanes.length ? lanes[laneIdx] : null;
+
+    if (model == null) {
+      throw new IllegalArgumentException("Unknown lane: " + laneIdx);
+    } else {
+      return model;
+    }
   }
 
+  private void putLane(int id, LaneModel laneModel) {
+    if (id >= lanes.length) {
+      lanes = Arrays.copyOf(lanes, Math.max(id + 1, lanes.length * 2));
+    }
+
+    lanes[id] = laneModel;
+    nextLaneId = Math.max(nextLaneId, id + 1);
+  }
+
+  /**
+   * Returns the identifier that will be allocated to the next lane that is opened.
+   */
   public int nextLaneId() {
-    return Collections.max(laneMappings.values()) + 1;
+    return nextLaneId;
   }
 
   public void addLane(String laneUri, int id, LaneModel laneModel) {
     laneMappings.put(laneUri, id);
-    lanes.put(id, laneModel);
+    putLane(id, laneModel);
   }
 
   /**
@@ -118,14 +205,22 @@ public class AgentNode {
   /**
    * Flush any pending state from the {@link StateCollector}.
    *
-   * @return an array containing encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] flushState() {
+  public int flushState() {
     CallContext.enter();
-    byte[] state = collector.flushState();
+    int len = collector.flushState();
     CallContext.exit();
 
-    return state;
+    return len;
+  }
+
+  /**
+   * Returns the direct buffer that the {@link StateCollector} flushes responses into.
+   */
+  public ByteBuffer responseBuffer() {
+    return collector.responseBuffer();
   }
 
   /**
@@ -148,7 +243,7 @@ public class AgentNode {
     if (id == null) {
       throw new IllegalArgumentException("Unknown lane: " + laneUri);
     } else {
-      return lanes.get(id).getLaneView();
+      return lanes[id].getLaneView();
     }
   }
 
@@ -29,7 +29,8 @@ import java.util.UUID;
  * This class receives events from the Rust runtime and dispatches them to the corresponding lanes. When an event is
  * received, its corresponding lane is looked up and the event is dispatched to it. This dispatch may result in N
  * lifecycle events being fired that generate subsequent events in lanes. Once the dispatch has completed, the {@link StateCollector}
- * has any pending events flushed out into a byte array that is returned to the Rust runtime for dispatching to peers.
+ * has any pending events flushed out into a direct response buffer, shared with the Rust runtime, and the length of the
+ * responses is returned to the Rust runtime for dispatching to peers.
  * <p>
  * This class is not thread safe and is designed to be invoked by the Rust runtime by one thread at a given time. Once
  * the JNI call has been made, the {@link AgentContext} may make calls back to the Rust runtime before returning the
@@ -61,12 +62,30 @@ public class AgentView {
    * @param laneIdx the URI of the lane.
    * @param buffer  the event data.
    * @param len     the number of elements written into the buffer
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    * @throws AgentException if an error is encountered when deserialising the envelope.
    */
-  public byte[] dispatch(int laneIdx, ByteBuffer buffer, int len) throws DecoderException {
-    byte[] response = node.dispatch(laneIdx, buffer.limit(len));
+  public int dispatch(int laneIdx, ByteBuffer buffer, int len) throws DecoderException {
+    int written = node.dispatch(laneIdx, buffer.limit(len));
     buffer.clear();
-    return response;
+    return written;
+  }
+
+  /**
+   * Dispatch a batch of events to the agent's lanes, flushing the state of the agent once all the events have been
+   * dispatched.
+   *
+   * @param buffer the batch of events. See {@link AgentNode#dispatchBatch(ByteBuffer)} for its layout.
+   * @param len    the number of elements written into the buffer
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
+   * @throws AgentException if an error is encountered when deserialising an envelope.
+   */
+  public int dispatchBatch(ByteBuffer buffer, int len) throws DecoderException {
+    int written = node.dispatchBatch(buffer.limit(len));
+    buffer.clear();
+    return written;
   }
 
   /**
@@ -75,8 +94,10 @@ public class AgentView {
    * @param laneIdx the URI of the lane.
    * @param uuidMsb UUID most significant bits.
    * @param uuidLsb UUID least significant bits.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse} sync in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] sync(int laneIdx, long uuidMsb, long uuidLsb) throws DecoderException {
+  public int sync(int laneIdx, long uuidMsb, long uuidLsb) throws DecoderException {
     return node.sync(laneIdx, uuidMsb, uuidLsb);
   }
 
@@ -93,9 +114,10 @@ public class AgentView {
   /**
    * Invoked when the agent is started.
    *
-   * @return an array containing encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] didStart() {
+  public int didStart() {
     CallContext.enter();
     node.setState(AgentState.Running);
 
@@ -110,9 +132,10 @@ public class AgentView {
   /**
    * Invoked when the agent has stopped.
    *
-   * @return an array containing encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] didStop() {
+  public int didStop() {
     CallContext.enter();
     try {
       this.agent.didStop();
@@ -126,12 +149,23 @@ public class AgentView {
   /**
    * Flush any pending state from the {@link StateCollector}.
    *
-   * @return an array containing encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s.
+   * @return the length of the encoded {@link ai.swim.server.lanes.models.response.LaneResponse}s in the response
+   * buffer. See {@link StateCollector#flushState()}.
    */
-  public byte[] flushState() {
+  public int flushState() {
     return node.flushState();
   }
 
+  /**
+   * Returns the direct buffer that this agent's responses are written into. The Rust runtime fetches this once and
+   * only fetches it again when a call signals that it has been reallocated.
+   *
+   * @return the direct buffer that this agent's responses are written into.
+   */
+  public ByteBuffer responseBuffer() {
+    return node.responseBuffer();
+  }
+
   /**
    * Returns the {@link AgentNode} associated with this {@link AgentView}.
    *
@@ -141,7 +175,16 @@ public class AgentView {
     return node;
   }
 
-  public byte[] runTask(long idMsb, long idLsb, boolean remove) {
+  /**
+   * Returns the user's definition of the agent associated with this {@link AgentView}.
+   *
+   * @return the user's definition of the agent associated with this {@link AgentView}.
+   */
+  public AbstractAgent getAgent() {
+    return agent;
+  }
+
+  public int runTask(long idMsb, long idLsb, boolean remove) {
     TaskRegistry taskRegistry = node.getTaskRegistry();
     taskRegistry.runTask(new UUID(idMsb, idLsb), remove);
     return flushState();
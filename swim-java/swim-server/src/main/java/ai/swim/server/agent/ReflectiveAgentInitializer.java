@@ -0,0 +1,254 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent;
+
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.Lane;
+import ai.swim.server.lanes.LaneModel;
+import ai.swim.server.lanes.command.CommandLane;
+import ai.swim.server.lanes.command.CommandLaneView;
+import ai.swim.server.lanes.demand.DemandLane;
+import ai.swim.server.lanes.demand.DemandLaneView;
+import ai.swim.server.lanes.demandmap.DemandMapLane;
+import ai.swim.server.lanes.demandmap.DemandMapLaneView;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.map.MapLaneView;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.server.lanes.supply.SupplyLane;
+import ai.swim.server.lanes.supply.SupplyLaneView;
+import ai.swim.server.lanes.value.ValueLane;
+import ai.swim.server.lanes.value.ValueLaneView;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link AgentInitializer} that reflects an agent's constructor and the fields of its lanes.
+ * <p>
+ * This is used for agents that do not have an initializer that has been derived by the agent annotation processor;
+ * such as agents that were compiled without the processor. Every agent that is constructed by this initializer has
+ * its fields reflected.
+ *
+ * @param <A> the type of the agent.
+ */
+public final class ReflectiveAgentInitializer<A extends AbstractAgent> implements AgentInitializer<A> {
+  private final Constructor<A> constructor;
+
+  private ReflectiveAgentInitializer(Constructor<A> constructor) {
+    this.constructor = constructor;
+  }
+
+  /**
+   * Reflects and returns a new {@link ReflectiveAgentInitializer} for {@code agentClass}.
+   *
+   * @param <A>        the agent type.
+   * @param agentClass to reflect.
+   * @return an initializer for agents of type {@code A}.
+   * @throws NoSuchMethodException if there is no constructor in the agent that accepts an {@link AgentContext}.
+   */
+  public static <A extends AbstractAgent> ReflectiveAgentInitializer<A> forClass(Class<A> agentClass) throws NoSuchMethodException {
+    try {
+      Constructor<A> constructor = agentClass.getDeclaredConstructor(AgentContext.class);
+      constructor.setAccessible(true);
+      return new ReflectiveAgentInitializer<>(constructor);
+    } catch (NoSuchMethodException e) {
+      throw new NoSuchMethodException("Missing constructor with AgentContext");
+    }
+  }
+
+  @Override
+  public Class<? extends A> agentClass() {
+    return constructor.getDeclaringClass();
+  }
+
+  @Override
+  public A newAgent(AgentContext context) {
+    try {
+      return constructor.newInstance(context);
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      throw new AgentInitializationException("Failed to create new agent", e);
+    }
+  }
+
+  /**
+   * Reflects {@code agent}'s lanes and sets their lane models with a reference to the agent's {@link StateCollector}.
+   */
+  @Override
+  public void initLanes(A agent, StateCollector collector, Map<String, Integer> laneMappings, Map<Integer, LaneModel> lanes) {
+    Class<? extends AbstractAgent> agentClass = agent.getClass();
+    Field[] fields = agentClass.getDeclaredFields();
+
+    for (Field field : fields) {
+      if (Lane.class.isAssignableFrom(field.getType())) {
+        SwimLane anno = field.getAnnotation(SwimLane.class);
+        if (anno != null) {
+          String annoValue = anno.value();
+          annoValue = annoValue.isEmpty() ? null : annoValue;
+          String laneUri = Objects.requireNonNullElse(annoValue, field.getName());
+
+          Type type = field.getGenericType();
+
+          if (type instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) type).getRawType();
+            Integer laneId = laneMappings.get(laneUri);
+
+            field.setAccessible(true);
+
+            if (rawType instanceof Class<?>) {
+              lanes.put(laneId, reflectLane(agent, laneUri, laneId, field, (Class<?>) rawType, collector));
+            } else {
+              throw unsupportedLaneType(type, agentClass);
+            }
+          } else {
+            throw unsupportedLaneType(type, agentClass);
+          }
+        }
+      }
+    }
+  }
+
+  private static <A extends AbstractAgent> IllegalArgumentException unsupportedLaneType(Type type,
+      Class<A> agentClass) {
+    return new IllegalArgumentException("Unsupported lane type: " + type + " in " + agentClass.getCanonicalName());
+  }
+
+  /**
+   * Reflects a {@link Lane} and creates and sets its corresponding {@link LaneModel}. This allows for users to directly
+   * operate on a {@link Lane} when a lifecycle event is fired (which happens on the {@link ai.swim.server.lanes.LaneView}
+   * as well as the runtime setting its state using the {@link LaneModel}.
+   */
+  private static LaneModel reflectLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      Class<?> type,
+      StateCollector collector) {
+    if (ValueLane.class.isAssignableFrom(type)) {
+      return reflectValueLane(agent, laneUri, laneId, field, collector);
+    } else if (MapLane.class.isAssignableFrom(type)) {
+      return reflectMapLane(agent, laneUri, laneId, field, collector);
+    } else if (DemandLane.class.isAssignableFrom(type)) {
+      return reflectDemandLane(agent, laneUri, laneId, field, collector);
+    } else if (DemandMapLane.class.isAssignableFrom(type)) {
+      return reflectDemandMapLane(agent, laneUri, laneId, field, collector);
+    } else if (SupplyLane.class.isAssignableFrom(type)) {
+      return reflectSupplyLane(agent, laneUri, laneId, field, collector);
+    } else if (CommandLane.class.isAssignableFrom(type)) {
+      return reflectCommandLane(agent, laneUri, laneId, field, collector);
+    } else {
+      throw unsupportedLaneType(type, agent.getClass());
+    }
+  }
+
+  private static LaneModel reflectDemandLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      DemandLaneView<?> laneView = (DemandLaneView<?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static LaneModel reflectDemandMapLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      DemandMapLaneView<?,?> laneView = (DemandMapLaneView<?,?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static LaneModel reflectValueLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      ValueLaneView<?> laneView = (ValueLaneView<?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static LaneModel reflectMapLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      MapLaneView<?, ?> laneView = (MapLaneView<?, ?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static LaneModel reflectSupplyLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      SupplyLaneView<?> laneView = (SupplyLaneView<?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static LaneModel reflectCommandLane(AbstractAgent agent,
+      String laneUri,
+      int laneId,
+      Field field,
+      StateCollector collector) {
+    try {
+      CommandLaneView<?> laneView = (CommandLaneView<?>) field.get(agent);
+      return laneView.initLaneModel(collector, laneId);
+    } catch (IllegalAccessException e) {
+      throw laneInitFailure(agent, laneUri, e);
+    }
+  }
+
+  private static AgentInitializationException laneInitFailure(AbstractAgent agent,
+      String laneUri,
+      IllegalAccessException e) {
+    return new AgentInitializationException(String.format(
+        "Failed to initialise lane '%s' on agent '%s'",
+        laneUri,
+        agent.getContext().getAgentName()), e);
+  }
+
+  @Override
+  public String toString() {
+    return "ReflectiveAgentInitializer{" +
+        "constructor=" + constructor +
+        '}';
+  }
+}
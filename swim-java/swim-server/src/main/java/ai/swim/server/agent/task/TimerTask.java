@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent.task;
+
+/**
+ * A handle to a task that has been scheduled on a {@link TimerWheel}.
+ */
+public final class TimerTask {
+  private final TimerWheel wheel;
+  private final long id;
+  private final long intervalTicks;
+  private final Schedule schedule;
+  private final Runnable runnable;
+  /**
+   * The tick at which this task is next due to run.
+   */
+  long deadline;
+  /**
+   * Links to the neighbouring tasks in the wheel's bucket or due list that this task is in.
+   */
+  TimerTask prev;
+  TimerTask next;
+  /**
+   * Whether this task is in one of the wheel's buckets, as opposed to its due list or no list at all.
+   */
+  boolean inBucket;
+  private int runCount;
+  private boolean cancelled;
+
+  TimerTask(TimerWheel wheel, long id, long intervalTicks, Schedule schedule, Runnable runnable) {
+    this.wheel = wheel;
+    this.id = id;
+    this.intervalTicks = intervalTicks;
+    this.schedule = schedule;
+    this.runnable = runnable;
+  }
+
+  /**
+   * Cancels this task from executing again.
+   */
+  public void cancel() {
+    if (isScheduled()) {
+      wheel.cancel(this);
+    }
+  }
+
+  /**
+   * Returns the identifier of this task, which is unique to the {@link TimerWheel} that it was scheduled on.
+   */
+  public long getId() {
+    return id;
+  }
+
+  public boolean isScheduled() {
+    return schedule.isScheduled() && !cancelled;
+  }
+
+  public int getRunCount() {
+    return runCount;
+  }
+
+  long intervalTicks() {
+    return intervalTicks;
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  void markCancelled() {
+    cancelled = true;
+  }
+
+  void run() {
+    schedule.decrement();
+    runCount += 1;
+    runnable.run();
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent.task;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timer wheel that multiplexes an agent's tasks onto a single, periodic, tick that is provided by the Rust
+ * runtime.
+ * <p>
+ * Each task that is scheduled directly through the {@link ai.swim.server.agent.AgentContext} registers its own timer
+ * with the Rust runtime, which then makes a call into the agent and flushes the agent's state every time that the
+ * task fires. Tasks that are scheduled on a timer wheel are instead placed into one of a fixed number of buckets by
+ * their deadline and the wheel only requires the runtime to invoke {@link TimerWheel#advance()} once per tick; every
+ * task that has become due is run in that single call. The wheel only requests ticks from the runtime while it
+ * contains a scheduled task.
+ * <p>
+ * Deadlines are rounded up to a whole number of ticks and so a task may run up to one tick later than requested.
+ * <p>
+ * This class is not thread safe and must only be used from the agent's call context.
+ */
+public final class TimerWheel {
+  /**
+   * The tick interval of an agent's timer wheel if one is not provided.
+   */
+  public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+  static final int DEFAULT_SLOTS = 512;
+
+  /**
+   * A source of periodic ticks for a {@link TimerWheel}.
+   */
+  public interface Ticker {
+    /**
+     * Starts invoking {@code onTick} every {@code tick}.
+     */
+    void start(Duration tick, Runnable onTick);
+
+    /**
+     * Stops invoking the callback that was provided to {@link Ticker#start(Duration, Runnable)}.
+     */
+    void stop();
+  }
+
+  private final Duration tick;
+  private final long tickNanos;
+  /**
+   * The heads and tails of the buckets of tasks. Tasks are appended to their bucket so that tasks that become due in
+   * the same tick are run in the order in which they were scheduled.
+   */
+  private final TimerTask[] buckets;
+  private final TimerTask[] tails;
+  private final int mask;
+  private final Ticker ticker;
+  private final LongSupplier clock;
+  private final long startNanos;
+  /**
+   * The last tick that has been processed.
+   */
+  private long currentTick;
+  private long nextId;
+  /**
+   * The number of tasks that are scheduled to run again.
+   */
+  private int size;
+  private boolean ticking;
+
+  public TimerWheel(Duration tick, Ticker ticker) {
+    this(tick, DEFAULT_SLOTS, ticker, System::nanoTime);
+  }
+
+  TimerWheel(Duration tick, int slots, Ticker ticker, LongSupplier clock) {
+    if (tick.isNegative() || tick.isZero()) {
+      throw new IllegalArgumentException("Tick must be positive: " + tick);
+    }
+    if (Integer.bitCount(slots) != 1) {
+      throw new IllegalArgumentException("Slot count must be a power of two: " + slots);
+    }
+
+    this.tick = tick;
+    this.tickNanos = tick.toNanos();
+    this.buckets = new TimerTask[slots];
+    this.tails = new TimerTask[slots];
+    this.mask = slots - 1;
+    this.ticker = ticker;
+    this.clock = clock;
+    this.startNanos = clock.getAsLong();
+  }
+
+  public Duration getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns the number of tasks that are scheduled on this wheel.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Suspend a task to be executed once {@code resumeAfter} has elapsed.
+   *
+   * @param resumeAfter the duration to suspend the task for.
+   * @param runnable    to invoke once the duration has elapsed.
+   * @return a handle to the task.
+   */
+  public TimerTask suspend(Duration resumeAfter, Runnable runnable) {
+    return schedule(resumeAfter, new Schedule(1), runnable);
+  }
+
+  /**
+   * Schedules a task to run indefinitely with an interval inbetween the invocations.
+   *
+   * @param interval to suspend the task for between invocation.
+   * @param runnable to invoke.
+   * @return a handle to the task.
+   */
+  public TimerTask scheduleTaskIndefinitely(Duration interval, Runnable runnable) {
+    return schedule(interval, new Schedule(-1), runnable);
+  }
+
+  /**
+   * Schedules a task to run a fixed number of times with an interval between the invocations.
+   *
+   * @param runCount the number of times to run the task.
+   * @param interval to suspend the task for between invocation.
+   * @param runnable to invoke.
+   * @return a handle to the task.
+   */
+  public TimerTask repeatTask(int runCount, Duration interval, Runnable runnable) {
+    if (runCount < 1) {
+      throw new IllegalArgumentException(String.format("Run count (%s) < 1", runCount));
+    }
+
+    return schedule(interval, new Schedule(runCount), runnable);
+  }
+
+  private TimerTask schedule(Duration delay, Schedule schedule, Runnable runnable) {
+    long ticks = Math.max(1, (delay.toNanos() + tickNanos - 1) / tickNanos);
+    TimerTask task = new TimerTask(this, nextId++, ticks, schedule, runnable);
+
+    insert(task, Math.max(currentTick, elapsedTicks()) + ticks);
+    size += 1;
+
+    if (!ticking) {
+      ticking = true;
+      ticker.start(tick, this::advance);
+    }
+
+    return task;
+  }
+
+  void cancel(TimerTask task) {
+    if (task.inBucket) {
+      unlink(task);
+    }
+
+    task.markCancelled();
+    size -= 1;
+  }
+
+  /**
+   * Advances this wheel to the current time and runs every task that has become due. If a task throws, it is not
+   * scheduled again and the remaining due tasks are run on the next tick.
+   *
+   * @return the number of tasks that were run.
+   */
+  public int advance() {
+    long target = elapsedTicks();
+
+    // Each bucket only needs visiting once to find all the tasks that are overdue.
+    if (target - currentTick > buckets.length) {
+      currentTick = target - buckets.length;
+    }
+
+    TimerTask head = null;
+    TimerTask tail = null;
+
+    while (currentTick < target) {
+      currentTick += 1;
+      TimerTask task = buckets[(int) (currentTick & mask)];
+
+      while (task != null) {
+        TimerTask next = task.next;
+
+        if (task.deadline <= currentTick) {
+          unlink(task);
+
+          if (tail == null) {
+            head = task;
+          } else {
+            tail.next = task;
+          }
+          tail = task;
+        }
+
+        task = next;
+      }
+    }
+
+    int ran = 0;
+
+    try {
+      while (head != null) {
+        TimerTask task = head;
+        head = task.next;
+        task.next = null;
+
+        if (task.isCancelled()) {
+          continue;
+        }
+
+        try {
+          task.run();
+          ran += 1;
+        } catch (Throwable e) {
+          if (!task.isCancelled()) {
+            cancel(task);
+          }
+          for (TimerTask pending = head; pending != null; pending = head) {
+            head = pending.next;
+            pending.next = null;
+
+            if (!pending.isCancelled()) {
+              insert(pending, currentTick + 1);
+            }
+          }
+          throw e;
+        }
+
+        if (task.isScheduled()) {
+          insert(task, currentTick + task.intervalTicks());
+        } else if (!task.isCancelled()) {
+          size -= 1;
+        }
+      }
+    } finally {
+      if (size == 0 && ticking) {
+        ticking = false;
+        ticker.stop();
+      }
+    }
+
+    return ran;
+  }
+
+  private long elapsedTicks() {
+    return (clock.getAsLong() - startNanos) / tickNanos;
+  }
+
+  private void insert(TimerTask task, long deadline) {
+    int idx = (int) (deadline & mask);
+    TimerTask tail = tails[idx];
+
+    task.deadline = deadline;
+    task.inBucket = true;
+    task.prev = tail;
+    task.next = null;
+
+    if (tail == null) {
+      buckets[idx] = task;
+    } else {
+      tail.next = task;
+    }
+
+    tails[idx] = task;
+  }
+
+  private void unlink(TimerTask task) {
+    int idx = (int) (task.deadline & mask);
+
+    if (task.prev == null) {
+      buckets[idx] = task.next;
+    } else {
+      task.prev.next = task.next;
+    }
+
+    if (task.next == null) {
+      tails[idx] = task.prev;
+    } else {
+      task.next.prev = task.prev;
+    }
+
+    task.prev = null;
+    task.next = null;
+    task.inBucket = false;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.codec;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.codec.encoder.EncoderException;
+import ai.swim.structure.Form;
+import ai.swim.structure.writer.Writable;
+import ai.swim.structure.writer.print.StructurePrinter;
+import ai.swim.structure.writer.print.strategy.PrintStrategy;
+import ai.swim.structure.writer.std.ScalarWriters;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Prints values as compact Recon directly into a {@link ByteWriter}.
+ * <p>
+ * Values that are written by one of the integral, floating point or boolean {@link ScalarWriters} are the most common
+ * lane payloads and these are printed straight into the buffer as ASCII. All other values are printed by a compact
+ * {@link StructurePrinter} that encodes its output directly into the buffer.
+ */
+public final class ReconPrinter {
+  private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+  private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+  private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes();
+
+  private ReconPrinter() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Prints {@code value} into {@code dst} using {@code writable}.
+   *
+   * @param writable to print {@code value} with.
+   * @param value    to print.
+   * @param dst      to print into.
+   * @param <V>      the type of the value.
+   * @throws EncoderException if the value could not be printed.
+   */
+  public static <V> void print(Writable<V> writable, V value, ByteWriter dst) {
+    if (value != null && printScalar(unwrap(writable), value, dst)) {
+      return;
+    }
+
+    Writer writer = dst.utf8Writer();
+    writable.writeInto(value, new StructurePrinter(writer, PrintStrategy.COMPACT));
+
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new EncoderException(e);
+    }
+  }
+
+  private static Writable<?> unwrap(Writable<?> writable) {
+    while (writable instanceof Form) {
+      writable = ((Form<?>) writable).getWritable();
+    }
+    return writable;
+  }
+
+  private static boolean printScalar(Writable<?> writable, Object value, ByteWriter dst) {
+    if (writable == ScalarWriters.INTEGER
+        || writable == ScalarWriters.LONG
+        || writable == ScalarWriters.SHORT
+        || writable == ScalarWriters.BYTE) {
+      printLong(((Number) value).longValue(), dst);
+      return true;
+    } else if (writable == ScalarWriters.DOUBLE) {
+      printAscii(Double.toString((Double) value), dst);
+      return true;
+    } else if (writable == ScalarWriters.FLOAT) {
+      printAscii(Float.toString((Float) value), dst);
+      return true;
+    } else if (writable == ScalarWriters.BOOLEAN) {
+      dst.writeByteArray((Boolean) value ? TRUE : FALSE);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private static void printAscii(String value, ByteWriter dst) {
+    int len = value.length();
+    dst.reserve(len);
+
+    for (int i = 0; i < len; i++) {
+      dst.writeByte((byte) value.charAt(i));
+    }
+  }
+
+  private static void printLong(long value, ByteWriter dst) {
+    if (value == Long.MIN_VALUE) {
+      dst.writeByteArray(LONG_MIN_VALUE);
+      return;
+    } else if (value < 0) {
+      dst.writeByte((byte) '-');
+      value = -value;
+    }
+
+    long divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+
+    while (divisor > 0) {
+      dst.writeByte((byte) ('0' + (value / divisor) % 10));
+      divisor /= 10;
+    }
+  }
+
+}
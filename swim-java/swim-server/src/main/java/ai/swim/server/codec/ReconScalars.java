@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.codec;
+
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.structure.Form;
+import ai.swim.structure.ReconDecoder;
+import ai.swim.structure.recognizer.Recognizer;
+import ai.swim.structure.recognizer.std.ScalarRecognizer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes numeric Recon values directly from the bytes in a {@link ReadBuffer}, without a parser or
+ * {@link Recognizer}, when the value is in its plain form. E.g, {@code -13} or {@code 1.5e3}.
+ * <p>
+ * A {@link ScalarKind} is only available for the numeric {@link ScalarRecognizer}s; a caller falls back to its
+ * {@link ReconDecoder} if a value is not in its plain form, so values such as an integer wrapped in a record are still
+ * decoded by the recognizer.
+ */
+public final class ReconScalars {
+  /**
+   * The maximum number of digits that a plain integer may have and still be guaranteed to fit into a {@code long}.
+   */
+  private static final int MAX_LONG_DIGITS = 18;
+  /**
+   * The maximum number of digits that a plain integer may have and still be guaranteed to fit into an {@code int}.
+   */
+  private static final int MAX_INT_DIGITS = 9;
+
+  private ReconScalars() {
+    throw new AssertionError();
+  }
+
+  /**
+   * The numeric types that may be decoded directly.
+   */
+  public enum ScalarKind {
+    Int, Long, Double;
+
+    /**
+     * Returns the kind of scalar that {@code recognizer} decodes, or null if the values that it decodes cannot be
+     * decoded directly.
+     */
+    public static ScalarKind of(Recognizer<?> recognizer) {
+      while (recognizer instanceof Form) {
+        recognizer = ((Form<?>) recognizer).getRecognizer();
+      }
+
+      if (recognizer == ScalarRecognizer.INTEGER) {
+        return Int;
+      } else if (recognizer == ScalarRecognizer.LONG) {
+        return Long;
+      } else if (recognizer == ScalarRecognizer.DOUBLE) {
+        return Double;
+      } else {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Decodes the next {@code len} bytes of {@code buffer} as a plain value of {@code kind} and advances the buffer past
+   * them, or returns null and leaves the buffer unchanged if the bytes are not a plain value that can be decoded
+   * directly.
+   *
+   * @param kind   of the value.
+   * @param buffer to decode from.
+   * @param len    the number of bytes that the value spans.
+   * @return the decoded value, or null.
+   */
+  public static Object decode(ScalarKind kind, ReadBuffer buffer, int len) {
+    switch (kind) {
+      case Int:
+        if (integerDigits(buffer, len) <= MAX_INT_DIGITS) {
+          return (int) parseInteger(buffer, len);
+        }
+        return null;
+      case Long:
+        if (integerDigits(buffer, len) <= MAX_LONG_DIGITS) {
+          return parseInteger(buffer, len);
+        }
+        return null;
+      case Double:
+        if (integerDigits(buffer, len) <= MAX_LONG_DIGITS) {
+          return (double) parseInteger(buffer, len);
+        } else if (isDecimal(buffer, len)) {
+          byte[] bytes = new byte[len];
+          for (int i = 0; i < len; i++) {
+            bytes[i] = buffer.getByte();
+          }
+          return java.lang.Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        }
+        return null;
+      default:
+        throw new AssertionError("Unhandled scalar kind: " + kind);
+    }
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  /**
+   * Returns the number of digits in the plain integer in the next {@code len} bytes of {@code buffer}, or
+   * {@link Integer#MAX_VALUE} if the bytes are not a plain integer.
+   */
+  private static int integerDigits(ReadBuffer buffer, int len) {
+    int start = len > 0 && buffer.peekByte(0) == '-' ? 1 : 0;
+
+    if (start == len) {
+      return Integer.MAX_VALUE;
+    }
+
+    for (int i = start; i < len; i++) {
+      if (!isDigit(buffer.peekByte(i))) {
+        return Integer.MAX_VALUE;
+      }
+    }
+
+    return len - start;
+  }
+
+  private static long parseInteger(ReadBuffer buffer, int len) {
+    boolean negative = buffer.peekByte() == '-';
+    if (negative) {
+      buffer.advance(1);
+      len -= 1;
+    }
+
+    long value = 0;
+    for (int i = 0; i < len; i++) {
+      value = 10 * value + (buffer.getByte() - '0');
+    }
+
+    return negative ? -value : value;
+  }
+
+  /**
+   * Returns whether the next {@code len} bytes of {@code buffer} are a plain decimal: an optional sign, at least one
+   * integral digit, an optional fractional part and an optional exponent.
+   */
+  private static boolean isDecimal(ReadBuffer buffer, int len) {
+    int i = len > 0 && buffer.peekByte(0) == '-' ? 1 : 0;
+
+    int integral = i;
+    while (i < len && isDigit(buffer.peekByte(i))) {
+      i++;
+    }
+    if (i == integral) {
+      return false;
+    }
+
+    if (i < len && buffer.peekByte(i) == '.') {
+      int fraction = ++i;
+      while (i < len && isDigit(buffer.peekByte(i))) {
+        i++;
+      }
+      if (i == fraction) {
+        return false;
+      }
+    }
+
+    if (i < len && (buffer.peekByte(i) == 'e' || buffer.peekByte(i) == 'E')) {
+      i++;
+      if (i < len && (buffer.peekByte(i) == '-' || buffer.peekByte(i) == '+')) {
+        i++;
+      }
+      int exponent = i;
+      while (i < len && isDigit(buffer.peekByte(i))) {
+        i++;
+      }
+      if (i == exponent) {
+        return false;
+      }
+    }
+
+    return i == len;
+  }
+
+}
@@ -18,13 +18,7 @@ package ai.swim.server.codec;
 
 import ai.swim.codec.data.ByteWriter;
 import ai.swim.codec.encoder.Encoder;
-import ai.swim.codec.encoder.EncoderException;
 import ai.swim.structure.writer.Writable;
-import ai.swim.structure.writer.print.StructurePrinter;
-import ai.swim.structure.writer.print.strategy.PrintStrategy;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 
 /**
  * An encoder that a {@link Writable} into {@link ByteWriter} and prefixes it by the length of the produced number of bytes.
@@ -42,14 +36,7 @@ public class WithLenReconEncoder<V, T extends Writable<V>> implements Encoder<V>
     dst.writeLong(0);
     int startLen = dst.writePosition();
 
-    OutputStreamWriter writer = new OutputStreamWriter(dst.outputStream(), StandardCharsets.UTF_8);
-    writable.writeInto(target, new StructurePrinter(writer, PrintStrategy.COMPACT));
-
-    try {
-      writer.flush();
-    } catch (IOException e) {
-      throw new EncoderException(e);
-    }
+    ReconPrinter.print(writable, target, dst);
 
     dst.writeLong(dst.writePosition() - startLen, startIdx);
   }
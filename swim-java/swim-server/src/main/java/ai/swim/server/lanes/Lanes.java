@@ -19,10 +19,20 @@ package ai.swim.server.lanes;
 import ai.swim.server.lanes.command.CommandLaneView;
 import ai.swim.server.lanes.demand.DemandLaneView;
 import ai.swim.server.lanes.demandmap.DemandMapLaneView;
+import ai.swim.server.lanes.map.HashTrieMapStore;
+import ai.swim.server.lanes.map.MapLaneStore;
 import ai.swim.server.lanes.map.MapLaneView;
+import ai.swim.server.lanes.map.OrderedMapLaneView;
+import ai.swim.server.lanes.map.offheap.OffHeapMapStore;
+import ai.swim.server.lanes.map.offheap.OffHeapStorage;
+import ai.swim.server.lanes.map.primitive.IntObjectTable;
+import ai.swim.server.lanes.map.primitive.LongDoubleTable;
+import ai.swim.server.lanes.map.primitive.LongLongTable;
+import ai.swim.server.lanes.map.primitive.LongObjectTable;
 import ai.swim.server.lanes.supply.SupplyLaneView;
 import ai.swim.server.lanes.value.ValueLaneView;
 import ai.swim.structure.Form;
+import java.util.function.Supplier;
 
 public class Lanes {
   /**
@@ -62,6 +72,11 @@ public class Lanes {
 
   /**
    * Returns a new Map Lane.
+   * <p>
+   * If {@code keyClass} is {@code long.class} or {@code int.class}, then the lane's state is stored in a primitive
+   * table that does not box its keys or allocate an entry per mapping; if {@code keyClass} is {@code long.class} and
+   * {@code valueClass} is {@code long.class} or {@code double.class}, then the values are not boxed either. E.g,
+   * {@code mapLane(long.class, double.class)}. The boxed classes select the general purpose storage.
    *
    * @param keyClass   class of {@code K}.
    * @param valueClass class of {@code V}.
@@ -70,7 +85,87 @@ public class Lanes {
    * @return a new Map Lane.
    */
   public static <K, V> MapLaneView<K, V> mapLane(Class<K> keyClass, Class<V> valueClass) {
-    return new MapLaneView<>(Form.forClass(keyClass), Form.forClass(valueClass));
+    return new MapLaneView<>(Form.forClass(keyClass), Form.forClass(valueClass), mapLaneStore(keyClass, valueClass));
+  }
+
+  /**
+   * Returns a new Map Lane whose entries are stored, encoded, outside the Java heap using {@code storage}. Only the
+   * lane's keys are kept on the heap and values are decoded whenever they are read. This is suited to lanes whose
+   * state is too large to be held on the heap.
+   *
+   * @param keyForm   for encoding and decoding {@code K}
+   * @param valueForm for encoding and decoding {@code V}
+   * @param storage   where the lane's entries are stored.
+   * @param <K>       the lane's key type.
+   * @param <V>       the lane's value type.
+   * @return a new Map Lane.
+   */
+  public static <K, V> MapLaneView<K, V> mapLane(Form<K> keyForm, Form<V> valueForm, OffHeapStorage storage) {
+    return new MapLaneView<>(keyForm, valueForm, () -> new OffHeapMapStore<>(keyForm, valueForm, storage));
+  }
+
+  /**
+   * Returns a new Map Lane whose entries are stored, encoded, outside the Java heap using {@code storage}.
+   *
+   * @param keyClass   class of {@code K}.
+   * @param valueClass class of {@code V}.
+   * @param storage    where the lane's entries are stored.
+   * @param <K>        the lane's key type.
+   * @param <V>        the lane's value type.
+   * @return a new Map Lane.
+   * @see #mapLane(Form, Form, OffHeapStorage)
+   */
+  public static <K, V> MapLaneView<K, V> mapLane(Class<K> keyClass, Class<V> valueClass, OffHeapStorage storage) {
+    return mapLane(Form.forClass(keyClass), Form.forClass(valueClass), storage);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Supplier<MapLaneStore<K, V>> mapLaneStore(Class<K> keyClass, Class<V> valueClass) {
+    Supplier<?> supplier;
+
+    if (keyClass == long.class) {
+      if (valueClass == long.class) {
+        supplier = LongLongTable::new;
+      } else if (valueClass == double.class) {
+        supplier = LongDoubleTable::new;
+      } else {
+        supplier = LongObjectTable::new;
+      }
+    } else if (keyClass == int.class) {
+      supplier = IntObjectTable::new;
+    } else {
+      supplier = HashTrieMapStore::new;
+    }
+
+    return (Supplier<MapLaneStore<K, V>>) supplier;
+  }
+
+  /**
+   * Returns a new Map Lane whose entries are ordered by their keys.
+   *
+   * @param keyForm   for encoding and decoding {@code K}
+   * @param valueForm for encoding and decoding {@code V}
+   * @param <K>       the lane's key type.
+   * @param <V>       the lane's value type.
+   * @return a new Ordered Map Lane.
+   */
+  public static <K extends Comparable<? super K>, V> OrderedMapLaneView<K, V> orderedMapLane(Form<K> keyForm,
+      Form<V> valueForm) {
+    return new OrderedMapLaneView<>(keyForm, valueForm);
+  }
+
+  /**
+   * Returns a new Map Lane whose entries are ordered by their keys.
+   *
+   * @param keyClass   class of {@code K}.
+   * @param valueClass class of {@code V}.
+   * @param <K>        the lane's key type.
+   * @param <V>        the lane's value type.
+   * @return a new Ordered Map Lane.
+   */
+  public static <K extends Comparable<? super K>, V> OrderedMapLaneView<K, V> orderedMapLane(Class<K> keyClass,
+      Class<V> valueClass) {
+    return orderedMapLane(Form.forClass(keyClass), Form.forClass(valueClass));
   }
 
   /**
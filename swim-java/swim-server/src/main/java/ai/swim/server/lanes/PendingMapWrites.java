@@ -3,6 +3,7 @@ package ai.swim.server.lanes;
 import ai.swim.codec.data.BufferOverflowException;
 import ai.swim.codec.data.ByteWriter;
 import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.MapOperationVisitor;
 import ai.swim.server.lanes.map.MapSyncRequest;
 import ai.swim.server.lanes.map.codec.MapOperationEncoder;
 import ai.swim.server.lanes.models.response.IdentifiedLaneResponse;
@@ -12,17 +13,38 @@ import ai.swim.structure.writer.Writable;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Stack of pending writes that need to be written.
+ * <p>
+ * By default, every map operation that is pushed is written. If the pending writes coalesce events, then only the
+ * latest operation for each key since the last flush is written and a clear operation discards every operation that
+ * was pushed before it. The relative order of operations for different keys is the order in which each key was first
+ * written to since the last flush or clear; a peer will observe the same final state of the map but may not observe
+ * the intermediate states.
  *
  * @param <K> map lane's key type.
  * @param <V> map lane's value type.
  */
 public class PendingMapWrites<K, V> {
-  private final Deque<MapSyncRequest<K>> syncQueue;
+  private final Deque<MapSyncRequest<K, V>> syncQueue;
   private final Deque<MapOperation<K, V>> operationQueue;
+  /**
+   * The latest operation for each key if events are being coalesced, or null.
+   */
+  private final Map<K, MapOperation<K, V>> keyedOperations;
+  /**
+   * A pending clear operation that precedes all of the keyed operations if events are being coalesced, or null.
+   */
+  private MapOperation<K, V> pendingClear;
+  private final Coalescer coalescer;
+  /**
+   * Encoder for the lane's responses; created on the first write as the lane's forms are provided by the caller.
+   */
+  private IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder;
   private Bias bias;
 
   private enum Bias {
@@ -30,8 +52,19 @@ public class PendingMapWrites<K, V> {
   }
 
   public PendingMapWrites() {
+    this(false);
+  }
+
+  /**
+   * Constructs a new {@link PendingMapWrites}.
+   *
+   * @param coalesce whether to only write the latest operation for each key since the last flush.
+   */
+  public PendingMapWrites(boolean coalesce) {
     syncQueue = new ArrayDeque<>();
     operationQueue = new ArrayDeque<>();
+    keyedOperations = coalesce ? new LinkedHashMap<>() : null;
+    coalescer = coalesce ? new Coalescer() : null;
     bias = Bias.Sync;
   }
 
@@ -42,7 +75,28 @@ public class PendingMapWrites<K, V> {
    * @param keys   that were contained in the map's state.
    */
   public void pushSync(UUID remote, Iterator<K> keys) {
-    syncQueue.addLast(new MapSyncRequest<>(remote, keys));
+    syncQueue.addLast(MapSyncRequest.keyed(remote, keys));
+  }
+
+  /**
+   * Pushes a new sync request that writes the entries of an immutable snapshot of the map's state. Unlike a sync
+   * request over the map's keys, every remaining entry of the snapshot is written in one go rather than being
+   * interleaved with the map operations.
+   *
+   * @param remote   UUID.
+   * @param snapshot of the map's state which must not be modified until the sync request has completed.
+   */
+  public void pushSync(UUID remote, Map<K, V> snapshot) {
+    syncQueue.addLast(MapSyncRequest.snapshot(remote, snapshot));
+  }
+
+  /**
+   * Pushes a sync request that has been provided by the map's state.
+   *
+   * @param request to push.
+   */
+  public void pushSync(MapSyncRequest<K, V> request) {
+    syncQueue.addLast(request);
   }
 
   /**
@@ -51,13 +105,51 @@ public class PendingMapWrites<K, V> {
    * @param operation to add.
    */
   public void pushOperation(MapOperation<K, V> operation) {
-    operationQueue.addLast(operation);
+    if (keyedOperations == null) {
+      operationQueue.addLast(operation);
+    } else {
+      coalescer.operation = operation;
+      operation.accept(coalescer);
+    }
+  }
+
+  private boolean hasOperations() {
+    if (keyedOperations == null) {
+      return !operationQueue.isEmpty();
+    } else {
+      return pendingClear != null || !keyedOperations.isEmpty();
+    }
+  }
+
+  private MapOperation<K, V> peekOperation() {
+    if (keyedOperations == null) {
+      return operationQueue.peek();
+    } else if (pendingClear != null) {
+      return pendingClear;
+    } else if (keyedOperations.isEmpty()) {
+      return null;
+    } else {
+      return keyedOperations.values().iterator().next();
+    }
+  }
+
+  private void pollOperation() {
+    if (keyedOperations == null) {
+      operationQueue.poll();
+    } else if (pendingClear != null) {
+      pendingClear = null;
+    } else {
+      Iterator<MapOperation<K, V>> iterator = keyedOperations.values().iterator();
+      iterator.next();
+      iterator.remove();
+    }
   }
 
   /**
    * Writes any pending events into {@code byteWriter}.
    * <p>
-   * Sync events are interleaved with any map operations.
+   * Sync events are interleaved with any map operations. Once a round has written {@link MapSyncRequest#WRITE_BUDGET}
+   * bytes of sync events, {@link WriteResult#DataStillAvailable} is returned and the sync resumes on the next call.
    *
    * @param laneId     the ID of the map lane.
    * @param mapLookup      the map's current state.
@@ -71,20 +163,27 @@ public class PendingMapWrites<K, V> {
       ByteWriter byteWriter,
       Writable<K> keyForm,
       Writable<V> valueForm) {
-    if (syncQueue.isEmpty() && operationQueue.isEmpty()) {
+    if (syncQueue.isEmpty() && !hasOperations()) {
       return WriteResult.NoData;
     }
 
+    if (encoder == null) {
+      encoder = new IdentifiedLaneResponseEncoder<>(new MapOperationEncoder<>(keyForm, valueForm));
+    }
+
     boolean syncComplete = false;
+    int start = byteWriter.writePosition();
 
     while (true) {
       switch (bias) {
         case Sync:
-          MapSyncRequest<K> syncRequest = syncQueue.peek();
+          MapSyncRequest<K, V> syncRequest = syncQueue.peek();
           if (syncRequest != null) {
             try {
-              if (syncRequest.encodeInto(laneId, byteWriter, keyForm, valueForm, mapLookup)) {
+              if (syncRequest.encodeInto(laneId, byteWriter, encoder, mapLookup)) {
                 syncQueue.poll();
+              } else if (byteWriter.writePosition() - start >= MapSyncRequest.WRITE_BUDGET) {
+                return WriteResult.DataStillAvailable;
               }
             } catch (BufferOverflowException ignored) {
               return WriteResult.DataStillAvailable;
@@ -95,14 +194,11 @@ public class PendingMapWrites<K, V> {
           bias = Bias.Event;
           break;
         case Event:
-          MapOperation<K, V> event = operationQueue.peek();
+          MapOperation<K, V> event = peekOperation();
           if (event != null) {
             try {
-              IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder = new IdentifiedLaneResponseEncoder<>(new MapOperationEncoder<>(
-                  keyForm,
-                  valueForm));
               encoder.encode(new IdentifiedLaneResponse<>(laneId, LaneResponse.event(event)), byteWriter);
-              operationQueue.poll();
+              pollOperation();
             } catch (BufferOverflowException ignored) {
               return WriteResult.DataStillAvailable;
             }
@@ -121,4 +217,28 @@ public class PendingMapWrites<K, V> {
     }
   }
 
+  /**
+   * Replaces any pending operation for the key of an operation, or discards all pending operations if it is a clear
+   * operation.
+   */
+  private final class Coalescer implements MapOperationVisitor<K, V> {
+    private MapOperation<K, V> operation;
+
+    @Override
+    public void visitUpdate(K key, V value) {
+      keyedOperations.put(key, operation);
+    }
+
+    @Override
+    public void visitRemove(K key) {
+      keyedOperations.put(key, operation);
+    }
+
+    @Override
+    public void visitClear() {
+      keyedOperations.clear();
+      pendingClear = operation;
+    }
+  }
+
 }
@@ -1,43 +1,30 @@
 package ai.swim.server.lanes.command;
 
-import ai.swim.codec.Parser;
-import ai.swim.codec.ParserError;
 import ai.swim.codec.data.ReadBuffer;
-import ai.swim.codec.input.Input;
 import ai.swim.server.lanes.LaneModel;
 import ai.swim.server.lanes.LaneView;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
-import ai.swim.structure.FormParser;
-import ai.swim.structure.recognizer.RecognizerException;
+import ai.swim.structure.ReconDecoder;
 import java.util.UUID;
 
 public final class CommandLaneModel<T> extends LaneModel {
   private final CommandLaneView<T> view;
-  private final Form<T> form;
+  private final ReconDecoder<T> decoder;
   private final CommandState<T> state;
 
   public CommandLaneModel(int laneId, CommandLaneView<T> view, StateCollector collector) {
     this.view = view;
-    this.form = view.valueForm();
-    this.state = new CommandState<>(laneId, view.valueForm(), collector);
+    Form<T> form = view.valueForm();
+    this.decoder = new ReconDecoder<>(form);
+    this.state = new CommandState<>(laneId, form, collector);
   }
 
   @Override
   public void dispatch(ReadBuffer buffer) {
-    Parser<T> parser = new FormParser<>(form.reset());
-    parser = parser.feed(Input.readBuffer(buffer));
-
-    if (parser.isDone()) {
-      T value = parser.bind();
-      view.onCommand(value);
-      state.command(value);
-    } else if (parser.isError()) {
-      ParserError<T> error = (ParserError<T>) parser;
-      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
-    } else {
-      throw new RecognizerException("Unconsumed input");
-    }
+    T value = decoder.decode(buffer);
+    view.onCommand(value);
+    state.command(value);
   }
 
   @Override
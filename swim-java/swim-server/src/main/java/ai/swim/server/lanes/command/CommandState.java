@@ -42,7 +42,7 @@ public class CommandState<T> implements State {
 
     dirty = true;
     events.add(value);
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   private void write(ByteWriter buffer, LaneResponse<T> item) {
@@ -90,7 +90,7 @@ public class CommandState<T> implements State {
 
   public void sync(UUID uuid) {
     syncRequests.add(uuid);
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
 }
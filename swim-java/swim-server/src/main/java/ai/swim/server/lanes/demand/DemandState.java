@@ -78,13 +78,13 @@ public class DemandState<T> implements State {
       syncRequests.add(LaneResponse.syncEvent(uuid, value));
     }
     syncRequests.add(LaneResponse.synced(uuid));
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   public void cue(T value) {
     if (value != null) {
       events.add(value);
-      collector.add(this);
+      collector.add(laneId, this);
     }
   }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.demandmap;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the values that have been produced by a {@link DemandMapLane}'s
+ * {@link ai.swim.server.lanes.lifecycle.OnCueKey} callback while syncing peers.
+ * <p>
+ * Without a cache, every sync request invokes the callback once for every key that the lane's
+ * {@link ai.swim.server.lanes.lifecycle.OnSyncKeys} callback returns. The cache is shared by all of the lane's sync
+ * requests and so a key only has to be cued once while its entry is live. Entries expire once {@code timeToLive} has
+ * elapsed since they were cached and the least recently used entry is evicted once the cache holds
+ * {@code maximumSize} entries. Cueing a key through {@link DemandMapLane#cueKey(Object)} replaces its entry with the
+ * value that was cued, or invalidates it if the key was removed.
+ * <p>
+ * Only non-null values are cached. This class is not thread safe and must only be used from the agent's call context.
+ *
+ * @param <K> the lane's key type.
+ * @param <V> the lane's value type.
+ */
+public final class CueCache<K, V> {
+  private final int maximumSize;
+  private final long timeToLiveNanos;
+  private final LongSupplier clock;
+  private final Map<K, Entry<V>> entries;
+  private long hits;
+  private long misses;
+
+  CueCache(int maximumSize, Duration timeToLive) {
+    this(maximumSize, timeToLive, System::nanoTime);
+  }
+
+  CueCache(int maximumSize, Duration timeToLive, LongSupplier clock) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be at least one: " + maximumSize);
+    }
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("Time to live must be positive: " + timeToLive);
+    }
+
+    this.maximumSize = maximumSize;
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > CueCache.this.maximumSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the live value that is cached for {@code key}, or null if there is not one.
+   */
+  V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses += 1;
+      return null;
+    } else if (clock.getAsLong() - entry.cachedAt >= timeToLiveNanos) {
+      entries.remove(key);
+      misses += 1;
+      return null;
+    } else {
+      hits += 1;
+      return entry.value;
+    }
+  }
+
+  /**
+   * Caches {@code value} for {@code key}, or invalidates the key's entry if {@code value} is null.
+   */
+  void put(K key, V value) {
+    if (value == null) {
+      entries.remove(key);
+    } else {
+      entries.put(key, new Entry<>(value, clock.getAsLong()));
+    }
+  }
+
+  /**
+   * Removes the entry for {@code key}.
+   */
+  void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  /**
+   * Removes every entry from the cache.
+   */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the maximum number of entries that the cache holds.
+   */
+  public int maximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Returns the duration for which an entry is live after it has been cached.
+   */
+  public Duration timeToLive() {
+    return Duration.ofNanos(timeToLiveNanos);
+  }
+
+  /**
+   * Returns the number of entries in the cache, including any that have expired but have not yet been evicted.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of lookups that were served from the cache.
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that required the lane's {@link ai.swim.server.lanes.lifecycle.OnCueKey} callback
+   * to be invoked.
+   */
+  public long misses() {
+    return misses;
+  }
+
+  @Override
+  public String toString() {
+    return "CueCache{" +
+        "maximumSize=" + maximumSize +
+        ", timeToLive=" + timeToLive() +
+        ", size=" + entries.size() +
+        ", hits=" + hits +
+        ", misses=" + misses +
+        '}';
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long cachedAt;
+
+    private Entry(V value, long cachedAt) {
+      this.value = value;
+      this.cachedAt = cachedAt;
+    }
+  }
+}
@@ -5,6 +5,7 @@ import ai.swim.server.lanes.lifecycle.OnCue;
 import ai.swim.server.lanes.lifecycle.OnCueKey;
 import ai.swim.server.lanes.lifecycle.OnSyncKeys;
 import ai.swim.structure.Form;
+import java.time.Duration;
 import java.util.Iterator;
 
 /**
@@ -34,6 +35,24 @@ public interface DemandMapLane<K, V> extends Lane {
    */
   DemandMapLaneView<K, V> onSyncKeys(OnSyncKeys<K> onSyncKeys);
 
+  /**
+   * Sets whether the lane's events are coalesced between flushes. If they are, then only the latest event for each
+   * cued key is sent to peers. This must be set before the lane is opened.
+   */
+  DemandMapLaneView<K, V> coalesceEvents(boolean coalesce);
+
+  /**
+   * Caches the values that are produced by the {@link OnCueKey} callback while syncing peers so that concurrent sync
+   * requests do not cue the same key repeatedly. At most {@code maximumSize} values are cached and each is cued again
+   * once {@code timeToLive} has elapsed; cueing a key replaces its cached value. This must be set before the lane is
+   * opened.
+   *
+   * @throws IllegalArgumentException if {@code maximumSize} is less than one or {@code timeToLive} is not positive.
+   * @throws IllegalStateException    if the lane has already been opened.
+   * @see CueCache
+   */
+  DemandMapLaneView<K, V> cueCache(int maximumSize, Duration timeToLive);
+
   /**
    * Invokes the registered {@link OnCueKey} callback. If a callback has been registered and 'null' is returned then a
    * remove operation is propagated.
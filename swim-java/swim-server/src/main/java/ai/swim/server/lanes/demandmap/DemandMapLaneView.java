@@ -6,6 +6,7 @@ import ai.swim.server.lanes.lifecycle.OnCueKey;
 import ai.swim.server.lanes.lifecycle.OnSyncKeys;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Iterator;
 
@@ -14,6 +15,8 @@ public final class DemandMapLaneView<K, V> extends LaneView implements DemandMap
   private final Form<V> valueForm;
   private OnCueKey<K, V> onCueKey;
   private OnSyncKeys<K> onSyncKeys;
+  private boolean coalesceEvents;
+  private CueCache<K, V> cueCache;
   private DemandMapLaneModel<K, V> model;
 
   public DemandMapLaneView(Form<K> keyForm, Form<V> valueForm) {
@@ -48,6 +51,35 @@ public final class DemandMapLaneView<K, V> extends LaneView implements DemandMap
     return this;
   }
 
+  @Override
+  public DemandMapLaneView<K, V> coalesceEvents(boolean coalesce) {
+    this.coalesceEvents = coalesce;
+    return this;
+  }
+
+  /**
+   * Returns whether the lane's events are coalesced between flushes.
+   */
+  public boolean coalescesEvents() {
+    return coalesceEvents;
+  }
+
+  @Override
+  public DemandMapLaneView<K, V> cueCache(int maximumSize, Duration timeToLive) {
+    if (model != null) {
+      throw new IllegalStateException("Attempted to set the cue cache of a demand map lane that has already been opened");
+    }
+    this.cueCache = new CueCache<>(maximumSize, timeToLive);
+    return this;
+  }
+
+  /**
+   * Returns the lane's {@link CueCache}, or null if sync requests are not cached.
+   */
+  public CueCache<K, V> cueCache() {
+    return cueCache;
+  }
+
   @Override
   public V onCueKey(K key) {
     if (onCueKey != null) {
@@ -4,13 +4,42 @@ import ai.swim.server.lanes.MapLookup;
 
 public class DemandMapLookup<K, V> implements MapLookup<K, V> {
   private final DemandMapLaneView<K, V> view;
+  private final CueCache<K, V> cache;
 
   public DemandMapLookup(DemandMapLaneView<K, V> view) {
     this.view = view;
+    this.cache = view.cueCache();
   }
 
   @Override
   public V get(K key) {
-    return view.onCueKey(key);
+    if (cache == null) {
+      return view.onCueKey(key);
+    }
+
+    V value = cache.get(key);
+    if (value == null) {
+      value = view.onCueKey(key);
+      cache.put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Replaces any cached value for {@code key} with a value that has just been cued.
+   */
+  public void update(K key, V value) {
+    if (cache != null) {
+      cache.put(key, value);
+    }
+  }
+
+  /**
+   * Invalidates any cached value for {@code key}.
+   */
+  public void invalidate(K key) {
+    if (cache != null) {
+      cache.invalidate(key);
+    }
   }
 }
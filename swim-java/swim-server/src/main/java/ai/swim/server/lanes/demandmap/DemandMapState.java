@@ -24,7 +24,7 @@ public class DemandMapState<K, V> implements State {
     this.valueForm = view.valueForm();
     this.laneId = laneId;
     this.collector = collector;
-    pendingWrites = new PendingMapWrites<>();
+    pendingWrites = new PendingMapWrites<>(view.coalescesEvents());
     lookup = new DemandMapLookup<>(view);
   }
 
@@ -35,17 +35,19 @@ public class DemandMapState<K, V> implements State {
 
   public void sync(UUID uuid, Iterator<K> keys) {
     pendingWrites.pushSync(uuid, keys);
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   public void pushUpdateEvent(K key, V value) {
+    lookup.update(key, value);
     pendingWrites.pushOperation(MapOperation.update(key, value));
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   public void pushRemoveEvent(K key) {
+    lookup.invalidate(key);
     pendingWrites.pushOperation(MapOperation.remove(key));
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
 }
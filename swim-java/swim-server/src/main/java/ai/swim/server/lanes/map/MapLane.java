@@ -58,6 +58,13 @@ public interface MapLane<K, V> extends Lane, TypedMap<K, V> {
    */
   MapLaneView<K, V> onClear(OnClear onClear);
 
+  /**
+   * Sets whether the lane's events are coalesced between flushes. If they are, then only the latest update or remove
+   * for each key is sent to peers and a clear discards any operations that were queued before it. This must be set
+   * before the lane is opened.
+   */
+  MapLaneView<K, V> coalesceEvents(boolean coalesce);
+
   /**
    * Invokes the {@link OnUpdate} callback if one has been registered.
    *
@@ -24,12 +24,12 @@ import ai.swim.server.lanes.LaneView;
 import ai.swim.server.lanes.map.codec.MapOperationDecoder;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
-import ai.swim.structure.recognizer.Recognizer;
 import ai.swim.structure.recognizer.RecognizerException;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 public final class MapLaneModel<K, V> extends LaneModel {
   private final MapLaneView<K, V> view;
@@ -38,19 +38,21 @@ public final class MapLaneModel<K, V> extends LaneModel {
   private final MapLaneState<K, V> state;
   private final OperationDispatcher<V, K> operationDispatcher;
   private final Initialiser<V, K> initVisitor;
+  private final MapOperationDecoder<K, V> decoder;
 
   public MapLaneModel(int laneId, MapLaneView<K, V> view, StateCollector collector) {
     this.view = view;
     this.keyForm = view.keyForm();
     this.valueForm = view.valueForm();
-    this.state = new MapLaneState<>(laneId, keyForm, valueForm, collector);
+    this.state = new MapLaneState<>(laneId, keyForm, valueForm, collector, view.coalescesEvents(), view.newStore());
     this.operationDispatcher = new OperationDispatcher<>(state, view);
     this.initVisitor = new Initialiser<>(state);
+    this.decoder = new MapOperationDecoder<>(keyForm, valueForm);
   }
 
   @Override
   public void dispatch(ReadBuffer buffer) {
-    decodeAndDispatch(buffer, keyForm.reset(), valueForm.reset(), operationDispatcher);
+    decodeAndDispatch(buffer, operationDispatcher);
   }
 
   @Override
@@ -60,14 +62,12 @@ public final class MapLaneModel<K, V> extends LaneModel {
 
   @Override
   public void init(ReadBuffer buffer) {
-    decodeAndDispatch(buffer, keyForm.reset(), valueForm.reset(), initVisitor);
+    decodeAndDispatch(buffer, initVisitor);
   }
 
-  private static <K, V> void decodeAndDispatch(ReadBuffer buffer,
-      Recognizer<K> keyRecognizer,
-      Recognizer<V> valueRecognizer,
-      MapOperationVisitor<K, V> visitor) {
-    Decoder<MapOperation<K, V>> decoder = new MapOperationDecoder<>(keyRecognizer, valueRecognizer);
+  private void decodeAndDispatch(ReadBuffer buffer, MapOperationVisitor<K, V> visitor) {
+    // The decoder is shared between invocations; discard any partial state left by a previous, malformed, buffer.
+    Decoder<MapOperation<K, V>> decoder = this.decoder.reset();
 
     boolean dispatched = false;
 
@@ -114,6 +114,14 @@ public final class MapLaneModel<K, V> extends LaneModel {
   }
 
 
+  public Map<K, V> removeAll(Function<MapLaneStore<K, V>, Map<K, V>> operation) {
+    return state.removeAll(operation);
+  }
+
+  MapLaneStore<K, V> store() {
+    return state.store();
+  }
+
   public int size() {
     return state.size();
   }
@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 public class MapLaneState<K, V> implements State {
   private final Form<K> keyForm;
@@ -36,15 +37,27 @@ public class MapLaneState<K, V> implements State {
   private final StateCollector collector;
   private final PendingMapWrites<K, V> pendingWrites;
   private final int laneId;
-  private final TypedHashMap<K, V> state;
+  /**
+   * The current state of the map. Sync requests iterate over a consistent snapshot of the store.
+   */
+  private final MapLaneStore<K, V> state;
+
+  public MapLaneState(int laneId, Form<K> keyForm, Form<V> valueForm, StateCollector collector, boolean coalesce) {
+    this(laneId, keyForm, valueForm, collector, coalesce, new HashTrieMapStore<>());
+  }
 
-  public MapLaneState(int laneId, Form<K> keyForm, Form<V> valueForm, StateCollector collector) {
+  public MapLaneState(int laneId,
+      Form<K> keyForm,
+      Form<V> valueForm,
+      StateCollector collector,
+      boolean coalesce,
+      MapLaneStore<K, V> store) {
     this.laneId = laneId;
     this.keyForm = keyForm;
     this.valueForm = valueForm;
     this.collector = collector;
-    state = new TypedHashMap<>();
-    pendingWrites = new PendingMapWrites<>();
+    state = store;
+    pendingWrites = new PendingMapWrites<>(coalesce);
   }
 
   /**
@@ -57,7 +70,7 @@ public class MapLaneState<K, V> implements State {
 
     state.clear();
     pendingWrites.pushOperation(MapOperation.clear());
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   /**
@@ -71,7 +84,7 @@ public class MapLaneState<K, V> implements State {
 
     V oldValue = state.put(key, value);
     pendingWrites.pushOperation(MapOperation.update(key, value));
-    collector.add(this);
+    collector.add(laneId, this);
 
     return oldValue;
   }
@@ -87,11 +100,33 @@ public class MapLaneState<K, V> implements State {
 
     V oldValue = state.remove(key);
     pendingWrites.pushOperation(MapOperation.remove(key));
-    collector.add(this);
+    collector.add(laneId, this);
 
     return oldValue;
   }
 
+  /**
+   * Removes the entries that {@code operation} removes from the store in a single operation, such as removing a range
+   * of entries, and pushes a remove operation for each of them.
+   *
+   * @param operation that removes entries from the store and returns the entries that it removed.
+   * @return the entries that were removed.
+   * @throws CallContextException if not invoked from a valid call context.
+   */
+  public Map<K, V> removeAll(Function<MapLaneStore<K, V>, Map<K, V>> operation) {
+    CallContext.check();
+
+    Map<K, V> removed = operation.apply(state);
+    if (!removed.isEmpty()) {
+      for (K key : removed.keySet()) {
+        pendingWrites.pushOperation(MapOperation.remove(key));
+      }
+      collector.add(laneId, this);
+    }
+
+    return removed;
+  }
+
   /**
    * Gets the value associated with the key.
    *
@@ -108,8 +143,12 @@ public class MapLaneState<K, V> implements State {
   }
 
   public void sync(UUID uuid) {
-    pendingWrites.pushSync(uuid, state.keySet().iterator());
-    collector.add(this);
+    pendingWrites.pushSync(state.syncRequest(uuid));
+    collector.add(laneId, this);
+  }
+
+  MapLaneStore<K, V> store() {
+    return state;
   }
 
   public int size() {
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map;
+
+import ai.swim.server.lanes.MapLookup;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The storage that backs the state of a {@link MapLane}.
+ *
+ * @param <K> the type of keys maintained by this store.
+ * @param <V> the type of mapped values.
+ */
+public interface MapLaneStore<K, V> extends TypedMap<K, V>, MapLookup<K, V> {
+
+  /**
+   * Returns a snapshot of the entries in this store that remains consistent while the store continues to be modified.
+   * This is used to serve sync requests and the snapshot is iterated over exactly once.
+   *
+   * @return a snapshot of the entries in this store.
+   */
+  Map<K, V> snapshot();
+
+  /**
+   * Returns a request that syncs {@code remote} with the current entries in this store. By default, the request writes
+   * the entries of a {@link #snapshot()}; stores which hold their entries in an encoded form may write them directly.
+   *
+   * @param remote UUID.
+   * @return a sync request for the current entries in this store.
+   */
+  default MapSyncRequest<K, V> syncRequest(UUID remote) {
+    return MapSyncRequest.snapshot(remote, snapshot());
+  }
+
+}
@@ -27,18 +27,29 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
-public final class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
+public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
   private final Form<K> keyForm;
   private final Form<V> valueForm;
   private OnUpdate<K, V> onUpdate;
   private OnRemove<K, V> onRemove;
   private OnClear onClear;
+  private boolean coalesceEvents;
+  /**
+   * Factory for the storage that backs the lane's state.
+   */
+  private final Supplier<MapLaneStore<K, V>> storeFactory;
   private MapLaneModel<K, V> model;
 
   public MapLaneView(Form<K> keyForm, Form<V> valueForm) {
+    this(keyForm, valueForm, HashTrieMapStore::new);
+  }
+
+  public MapLaneView(Form<K> keyForm, Form<V> valueForm, Supplier<MapLaneStore<K, V>> storeFactory) {
     this.keyForm = keyForm;
     this.valueForm = valueForm;
+    this.storeFactory = storeFactory;
   }
 
   @SuppressWarnings({"unchecked", "unused"})
@@ -81,6 +92,33 @@ public final class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
     return this;
   }
 
+  @Override
+  public MapLaneView<K, V> coalesceEvents(boolean coalesce) {
+    this.coalesceEvents = coalesce;
+    return this;
+  }
+
+  /**
+   * Returns the lane's model, which is only available once the lane has been opened.
+   */
+  MapLaneModel<K, V> model() {
+    return model;
+  }
+
+  /**
+   * Returns a new, empty, store for the lane's state.
+   */
+  public MapLaneStore<K, V> newStore() {
+    return storeFactory.get();
+  }
+
+  /**
+   * Returns whether the lane's events are coalesced between flushes.
+   */
+  public boolean coalescesEvents() {
+    return coalesceEvents;
+  }
+
   @Override
   public void onUpdate(K key, V oldValue, V newValue) {
     if (onUpdate != null) {
@@ -18,13 +18,8 @@ package ai.swim.server.lanes.map;
 
 import ai.swim.codec.Size;
 import ai.swim.codec.data.ByteWriter;
-import ai.swim.codec.encoder.EncoderException;
+import ai.swim.server.codec.ReconPrinter;
 import ai.swim.structure.writer.Writable;
-import ai.swim.structure.writer.print.StructurePrinter;
-import ai.swim.structure.writer.print.strategy.PrintStrategy;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public abstract class MapOperation<K, V> {
@@ -86,22 +81,14 @@ public abstract class MapOperation<K, V> {
       buffer.writeLong(0);
       int keyStart = buffer.writePosition();
 
-      try (OutputStreamWriter writer = new OutputStreamWriter(buffer.outputStream(), StandardCharsets.UTF_8)) {
-        kEncoder.writeInto(key, new StructurePrinter(writer, PrintStrategy.COMPACT));
-        writer.flush();
+      ReconPrinter.print(kEncoder, key, buffer);
+      int keyLen = buffer.writePosition() - keyStart;
 
-        int keyLen = buffer.writePosition() - keyStart;
+      ReconPrinter.print(vEncoder, value, buffer);
+      int totalLen = buffer.writePosition() - startLen;
 
-        vEncoder.writeInto(value, new StructurePrinter(writer, PrintStrategy.COMPACT));
-        writer.flush();
-
-        int totalLen = buffer.writePosition() - startLen;
-
-        buffer.writeLong(totalLen, startPosition);
-        buffer.writeLong(keyLen, keyPosition);
-      } catch (IOException e) {
-        throw new EncoderException(e);
-      }
+      buffer.writeLong(totalLen, startPosition);
+      buffer.writeLong(keyLen, keyPosition);
     }
 
     @Override
@@ -155,11 +142,7 @@ public abstract class MapOperation<K, V> {
       int startPosition = buffer.writePosition();
       buffer.writeByte(REMOVE);
 
-      try (OutputStreamWriter writer = new OutputStreamWriter(buffer.outputStream(), StandardCharsets.UTF_8)) {
-        kEncoder.writeInto(key, new StructurePrinter(writer, PrintStrategy.COMPACT));
-      } catch (IOException e) {
-        throw new EncoderException(e);
-      }
+      ReconPrinter.print(kEncoder, key, buffer);
 
       int totalLen = buffer.writePosition() - startPosition;
 
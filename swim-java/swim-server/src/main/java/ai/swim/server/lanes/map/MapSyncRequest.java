@@ -19,57 +19,163 @@ package ai.swim.server.lanes.map;
 import ai.swim.codec.data.BufferOverflowException;
 import ai.swim.codec.data.ByteWriter;
 import ai.swim.server.lanes.MapLookup;
-import ai.swim.server.lanes.map.codec.MapOperationEncoder;
 import ai.swim.server.lanes.models.response.IdentifiedLaneResponse;
 import ai.swim.server.lanes.models.response.IdentifiedLaneResponseEncoder;
 import ai.swim.server.lanes.models.response.LaneResponse;
-import ai.swim.structure.writer.Writable;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
-public class MapSyncRequest<K> {
-  private final UUID remote;
-  private final Iterator<K> keyIter;
+/**
+ * A pending request from a remote to sync with the state of a map.
+ *
+ * @param <K> the map's key type.
+ * @param <V> the map's value type.
+ */
+public abstract class MapSyncRequest<K, V> {
+  /**
+   * The number of bytes that a sync request writes in a single round before it yields, so that the sync of a large map
+   * is spread over several flushes instead of growing the response buffers to the size of the map.
+   */
+  public static final int WRITE_BUDGET = 64 * 1024;
 
-  public MapSyncRequest(UUID remote, Iterator<K> keyIter) {
+  protected final UUID remote;
+
+  protected MapSyncRequest(UUID remote) {
     this.remote = remote;
-    this.keyIter = keyIter;
   }
 
-  public <V> boolean encodeInto(int laneId,
+  /**
+   * Returns a sync request that looks up the value of each key in {@code keys} when it is written. Keys which no
+   * longer have a value are skipped.
+   *
+   * @param remote UUID.
+   * @param keys   to sync.
+   */
+  public static <K, V> MapSyncRequest<K, V> keyed(UUID remote, Iterator<K> keys) {
+    return new Keyed<>(remote, keys);
+  }
+
+  /**
+   * Returns a sync request that writes the entries of {@code snapshot}. The snapshot must not be modified until the
+   * request has completed.
+   *
+   * @param remote   UUID.
+   * @param snapshot of the map's state.
+   */
+  public static <K, V> MapSyncRequest<K, V> snapshot(UUID remote, Map<K, V> snapshot) {
+    return new Snapshot<>(remote, snapshot.entrySet().iterator());
+  }
+
+  /**
+   * Writes the next part of this sync request into {@code byteWriter}.
+   *
+   * @param laneId     the ID of the map lane.
+   * @param byteWriter to write the events into.
+   * @param encoder    for the map lane's responses.
+   * @param mapLookup  the map's current state.
+   * @return whether the sync request has completed.
+   * @throws BufferOverflowException if there was insufficient capacity in {@code byteWriter}.
+   */
+  public abstract boolean encodeInto(int laneId,
       ByteWriter byteWriter,
-      Writable<K> keyForm,
-      Writable<V> valueForm,
-      MapLookup<K, V> mapLookup) throws BufferOverflowException {
-    IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder = new IdentifiedLaneResponseEncoder<>(new MapOperationEncoder<>(
-        keyForm,
-        valueForm));
-
-    if (keyIter.hasNext()) {
-      while (keyIter.hasNext()) {
-        K key = keyIter.next();
-        V value = mapLookup.get(key);
-
-        if (value != null) {
-          encoder.encode(
-              new IdentifiedLaneResponse<>(laneId, LaneResponse.syncEvent(remote, MapOperation.update(key, value))),
-              byteWriter);
+      IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder,
+      MapLookup<K, V> mapLookup) throws BufferOverflowException;
+
+  /**
+   * Writes a single entry per invocation, interleaving the sync with any other events on the lane.
+   */
+  private static final class Keyed<K, V> extends MapSyncRequest<K, V> {
+    private final Iterator<K> keyIter;
+
+    private Keyed(UUID remote, Iterator<K> keyIter) {
+      super(remote);
+      this.keyIter = keyIter;
+    }
+
+    @Override
+    public boolean encodeInto(int laneId,
+        ByteWriter byteWriter,
+        IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder,
+        MapLookup<K, V> mapLookup) throws BufferOverflowException {
+      if (keyIter.hasNext()) {
+        while (keyIter.hasNext()) {
+          K key = keyIter.next();
+          V value = mapLookup.get(key);
+
+          if (value != null) {
+            encoder.encode(
+                new IdentifiedLaneResponse<>(laneId, LaneResponse.syncEvent(remote, MapOperation.update(key, value))),
+                byteWriter);
+            return false;
+          }
+        }
+      } else {
+        encoder.encode(new IdentifiedLaneResponse<>(laneId, LaneResponse.synced(remote)), byteWriter);
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "MapSyncRequest.Keyed{" +
+          "remote=" + remote +
+          ", keyIter=" + keyIter +
+          '}';
+    }
+  }
+
+  /**
+   * Streams the entries of a consistent snapshot, writing up to {@link MapSyncRequest#WRITE_BUDGET} bytes per
+   * invocation.
+   */
+  private static final class Snapshot<K, V> extends MapSyncRequest<K, V> {
+    private final Iterator<Map.Entry<K, V>> entries;
+    /**
+     * An entry that has been taken from the iterator but was not written due to insufficient capacity.
+     */
+    private Map.Entry<K, V> pending;
+
+    private Snapshot(UUID remote, Iterator<Map.Entry<K, V>> entries) {
+      super(remote);
+      this.entries = entries;
+    }
+
+    @Override
+    public boolean encodeInto(int laneId,
+        ByteWriter byteWriter,
+        IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder,
+        MapLookup<K, V> mapLookup) throws BufferOverflowException {
+      int start = byteWriter.writePosition();
+
+      while (pending != null || entries.hasNext()) {
+        if (byteWriter.writePosition() - start >= WRITE_BUDGET) {
           return false;
         }
+
+        if (pending == null) {
+          pending = entries.next();
+        }
+
+        encoder.encode(
+            new IdentifiedLaneResponse<>(
+                laneId,
+                LaneResponse.syncEvent(remote, MapOperation.update(pending.getKey(), pending.getValue()))),
+            byteWriter);
+        pending = null;
       }
-    } else {
+
       encoder.encode(new IdentifiedLaneResponse<>(laneId, LaneResponse.synced(remote)), byteWriter);
+      return true;
     }
-    return true;
-  }
 
-  @Override
-  public String toString() {
-    return "MapSyncRequest{" +
-        "remote=" + remote +
-        ", keyIter=" + keyIter +
-        '}';
+    @Override
+    public String toString() {
+      return "MapSyncRequest.Snapshot{" +
+          "remote=" + remote +
+          ", entries=" + entries +
+          '}';
+    }
   }
+
 }
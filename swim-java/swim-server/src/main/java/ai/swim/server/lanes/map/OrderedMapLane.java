@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map;
+
+import ai.swim.server.lanes.lifecycle.OnClear;
+import ai.swim.server.lanes.lifecycle.OnRemove;
+import ai.swim.server.lanes.lifecycle.OnUpdate;
+import java.util.SortedMap;
+
+/**
+ * Swim Map Lane whose entries are ordered by their keys.
+ * <p>
+ * In addition to the operations of a {@link MapLane}, this interface provides range queries and positional removals
+ * that do not scan the map. Peers are synced in the order of the keys.
+ *
+ * @param <K> the type of the keys contained in the map.
+ * @param <V> the type of the values contained in the map.
+ */
+public interface OrderedMapLane<K extends Comparable<? super K>, V> extends MapLane<K, V> {
+
+  @Override
+  OrderedMapLaneView<K, V> onUpdate(OnUpdate<K, V> onUpdate);
+
+  @Override
+  OrderedMapLaneView<K, V> onRemove(OnRemove<K, V> onRemove);
+
+  @Override
+  OrderedMapLaneView<K, V> onClear(OnClear onClear);
+
+  @Override
+  OrderedMapLaneView<K, V> coalesceEvents(boolean coalesce);
+
+  /**
+   * Returns the lowest key in the map, or null if the map is empty.
+   */
+  K firstKey();
+
+  /**
+   * Returns the highest key in the map, or null if the map is empty.
+   */
+  K lastKey();
+
+  /**
+   * Returns an immutable snapshot of the entries whose keys are greater than or equal to {@code fromKey} and less than
+   * {@code toKey}, in O(log n).
+   *
+   * @throws IllegalArgumentException if {@code fromKey} is greater than {@code toKey}.
+   */
+  SortedMap<K, V> subMap(K fromKey, K toKey);
+
+  /**
+   * Returns an immutable snapshot of the entries whose keys are less than {@code toKey}, in O(log n).
+   */
+  SortedMap<K, V> headMap(K toKey);
+
+  /**
+   * Returns an immutable snapshot of the entries whose keys are greater than or equal to {@code fromKey}, in O(log n).
+   */
+  SortedMap<K, V> tailMap(K fromKey);
+
+  /**
+   * Retains the first {@code n} entries of the map and removes the rest. The map is updated in O(log n) and then a
+   * remove event is sent to peers, and the {@link OnRemove} callback is invoked, for each of the removed entries.
+   */
+  void take(int n);
+
+  /**
+   * Removes the first {@code n} entries of the map. The map is updated in O(log n) and then a remove event is sent to
+   * peers, and the {@link OnRemove} callback is invoked, for each of the removed entries.
+   */
+  void drop(int n);
+
+}
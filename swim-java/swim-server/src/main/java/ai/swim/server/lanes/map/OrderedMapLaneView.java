@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map;
+
+import ai.swim.server.lanes.lifecycle.OnClear;
+import ai.swim.server.lanes.lifecycle.OnRemove;
+import ai.swim.server.lanes.lifecycle.OnUpdate;
+import ai.swim.structure.Form;
+import ai.swim.util.BalancedTreeMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * A {@link MapLaneView} whose state is stored in an {@link OrderedMapStore}.
+ *
+ * @param <K> the type of the keys contained in the map.
+ * @param <V> the type of the values contained in the map.
+ */
+public final class OrderedMapLaneView<K extends Comparable<? super K>, V> extends MapLaneView<K, V> implements
+    OrderedMapLane<K, V> {
+
+  public OrderedMapLaneView(Form<K> keyForm, Form<V> valueForm) {
+    super(keyForm, valueForm, OrderedMapStore::new);
+  }
+
+  private OrderedMapStore<K, V> store() {
+    return (OrderedMapStore<K, V>) model().store();
+  }
+
+  @Override
+  public OrderedMapLaneView<K, V> onUpdate(OnUpdate<K, V> onUpdate) {
+    super.onUpdate(onUpdate);
+    return this;
+  }
+
+  @Override
+  public OrderedMapLaneView<K, V> onRemove(OnRemove<K, V> onRemove) {
+    super.onRemove(onRemove);
+    return this;
+  }
+
+  @Override
+  public OrderedMapLaneView<K, V> onClear(OnClear onClear) {
+    super.onClear(onClear);
+    return this;
+  }
+
+  @Override
+  public OrderedMapLaneView<K, V> coalesceEvents(boolean coalesce) {
+    super.coalesceEvents(coalesce);
+    return this;
+  }
+
+  @Override
+  public K firstKey() {
+    BalancedTreeMap<K, V> state = store().snapshot();
+    return state.isEmpty() ? null : state.firstKey();
+  }
+
+  @Override
+  public K lastKey() {
+    BalancedTreeMap<K, V> state = store().snapshot();
+    return state.isEmpty() ? null : state.lastKey();
+  }
+
+  @Override
+  public SortedMap<K, V> subMap(K fromKey, K toKey) {
+    return store().snapshot().subMap(fromKey, toKey);
+  }
+
+  @Override
+  public SortedMap<K, V> headMap(K toKey) {
+    return store().snapshot().headMap(toKey);
+  }
+
+  @Override
+  public SortedMap<K, V> tailMap(K fromKey) {
+    return store().snapshot().tailMap(fromKey);
+  }
+
+  @Override
+  public void take(int n) {
+    dispatchRemoved(model().removeAll(store -> ((OrderedMapStore<K, V>) store).take(n)));
+  }
+
+  @Override
+  public void drop(int n) {
+    dispatchRemoved(model().removeAll(store -> ((OrderedMapStore<K, V>) store).drop(n)));
+  }
+
+  private void dispatchRemoved(Map<K, V> removed) {
+    for (Map.Entry<K, V> entry : removed.entrySet()) {
+      onRemove(entry.getKey(), entry.getValue());
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map;
+
+import ai.swim.util.BalancedTreeMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link MapLaneStore} that keeps its entries in the order of their keys in a persistent balanced tree. Snapshots are
+ * free and are synced in key order, and range and positional operations are O(log n).
+ *
+ * @param <K> the type of keys maintained by this store.
+ * @param <V> the type of mapped values.
+ */
+public final class OrderedMapStore<K extends Comparable<? super K>, V> implements MapLaneStore<K, V> {
+  private BalancedTreeMap<K, V> state;
+
+  public OrderedMapStore() {
+    state = BalancedTreeMap.empty();
+  }
+
+  @Override
+  public int size() {
+    return state.size();
+  }
+
+  @Override
+  public V get(K key) {
+    return state.get(key);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    V oldValue = state.get(key);
+    state = state.updated(key, value);
+    return oldValue;
+  }
+
+  @Override
+  public V remove(K key) {
+    V oldValue = state.get(key);
+    state = state.removed(key);
+    return oldValue;
+  }
+
+  @Override
+  public void clear() {
+    state = BalancedTreeMap.empty();
+  }
+
+  @Override
+  public void putAll(TypedMap<? extends K, ? extends V> m) {
+    BalancedTreeMap<K, V> newState = state;
+    for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+      newState = newState.updated(entry.getKey(), entry.getValue());
+    }
+    state = newState;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return state.keySet();
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return state.entrySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    return state.values();
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return state.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(V value) {
+    return state.containsValue(value);
+  }
+
+  @Override
+  public BalancedTreeMap<K, V> snapshot() {
+    return state;
+  }
+
+  /**
+   * Retains the first {@code n} entries.
+   *
+   * @return the entries that were removed.
+   */
+  public BalancedTreeMap<K, V> take(int n) {
+    BalancedTreeMap<K, V> removed = state.drop(n);
+    state = state.take(n);
+    return removed;
+  }
+
+  /**
+   * Removes the first {@code n} entries.
+   *
+   * @return the entries that were removed.
+   */
+  public BalancedTreeMap<K, V> drop(int n) {
+    BalancedTreeMap<K, V> removed = state.take(n);
+    state = state.drop(n);
+    return removed;
+  }
+
+}
@@ -16,125 +16,145 @@
 
 package ai.swim.server.lanes.map.codec;
 
-import ai.swim.codec.Parser;
-import ai.swim.codec.ParserError;
 import ai.swim.codec.Size;
 import ai.swim.codec.data.ReadBuffer;
 import ai.swim.codec.decoder.Decoder;
 import ai.swim.codec.decoder.DecoderException;
-import ai.swim.codec.input.Input;
-import ai.swim.codec.input.ReadBufferInput;
+import ai.swim.server.codec.ReconScalars;
+import ai.swim.server.codec.ReconScalars.ScalarKind;
 import ai.swim.server.lanes.map.MapOperation;
-import ai.swim.structure.FormParser;
+import ai.swim.structure.ReconDecoder;
 import ai.swim.structure.recognizer.Recognizer;
-import ai.swim.structure.recognizer.RecognizerException;
 import static ai.swim.server.lanes.map.MapOperation.CLEAR;
 import static ai.swim.server.lanes.map.MapOperation.REMOVE;
 import static ai.swim.server.lanes.map.MapOperation.UPDATE;
 
+/**
+ * A decoder for length-prefixed {@link MapOperation}s.
+ * <p>
+ * This decoder is reusable: once an operation has been decoded, {@link #reset()} returns this decoder back to its
+ * initial state and the key and value parsers are reused for the next operation.
+ * <p>
+ * If the key or value type is an integer, long or double that is decoded by its standard recognizer, then plain values
+ * are decoded directly from the buffer by {@link ReconScalars} rather than by a parser and recognizer.
+ *
+ * @param <K> the type of the map's keys.
+ * @param <V> the type of the map's values.
+ */
 public class MapOperationDecoder<K, V> extends Decoder<MapOperation<K, V>> {
-  private final Recognizer<K> keyRecognizer;
-  private final Recognizer<V> valueRecognizer;
+  private static final int NO_VALUE = -1;
+  private final ReconDecoder<K> keyDecoder;
+  private final ReconDecoder<V> valueDecoder;
+  private final ScalarKind keyKind;
+  private final ScalarKind valueKind;
   private State state;
   private int remaining;
-  private Integer valueSize;
+  private int valueSize;
   private K key;
 
   public MapOperationDecoder(Recognizer<K> keyRecognizer, Recognizer<V> valueRecognizer) {
-    this.keyRecognizer = keyRecognizer;
-    this.valueRecognizer = valueRecognizer;
+    this.keyDecoder = new ReconDecoder<>(keyRecognizer);
+    this.valueDecoder = new ReconDecoder<>(valueRecognizer);
+    this.keyKind = ScalarKind.of(keyRecognizer);
+    this.valueKind = ScalarKind.of(valueRecognizer);
     this.state = State.ReadingHeader;
-  }
-
-  private static <T> T parseRecognise(ReadBuffer reader, int limit, Recognizer<T> recognizer) {
-    ReadBufferInput readBufferInput = Input.readBuffer(reader).limit(reader.readPointer() + limit);
-    FormParser<T> parser = new FormParser<>(recognizer.reset());
-    Parser<T> parseResult = parser.feed(readBufferInput);
-
-    if (parseResult.isDone()) {
-      reader.advance(limit);
-      return parseResult.bind();
-    } else if (parseResult.isError()) {
-      ParserError<T> parserError = (ParserError<T>) parseResult;
-      String message = String.format("Parse error: %s at %s", parserError.cause(), parserError.location());
-      throw new RecognizerException(message);
-    } else {
-      throw new RecognizerException("Unconsumed input by parser");
-    }
+    this.valueSize = NO_VALUE;
   }
 
   @Override
   public Decoder<MapOperation<K, V>> decode(ReadBuffer buffer) throws DecoderException {
-    if (buffer.remaining() < Size.LONG + Size.BYTE) {
-      return this;
-    } else {
-      while (true) {
-        switch (state) {
-          case ReadingHeader:
-            int totalLen = longToInt(buffer.peekLong());
-            byte tag = buffer.peekByte(Size.LONG);
+    while (true) {
+      switch (state) {
+        case ReadingHeader:
+          if (buffer.remaining() < Size.LONG + Size.BYTE) {
+            return this;
+          }
 
-            switch (tag) {
-              case UPDATE:
-                int required = Size.BYTE + 2 * Size.LONG;
-                if (buffer.remaining() < required) {
-                  return this;
-                } else {
-                  buffer.advance(Size.BYTE + Size.LONG);
+          int totalLen = longToInt(buffer.peekLong());
+          byte tag = buffer.peekByte(Size.LONG);
 
-                  int keyLen = longToInt(buffer.getLong());
-                  int valueLen = totalLen - keyLen - Size.LONG - Size.BYTE;
+          switch (tag) {
+            case UPDATE:
+              int required = Size.BYTE + 2 * Size.LONG;
+              if (buffer.remaining() < required) {
+                return this;
+              } else {
+                buffer.advance(Size.BYTE + Size.LONG);
 
-                  if (valueLen <= 0) {
-                    throw new DecoderException("Invalid header. Value length <= 0");
-                  }
+                int keyLen = longToInt(buffer.getLong());
+                int valueLen = totalLen - keyLen - Size.LONG - Size.BYTE;
 
-                  state = State.ReadingKey;
-                  remaining = keyLen;
-                  valueSize = valueLen;
-                  continue;
-                }
-              case REMOVE:
-                int keyLen = totalLen - Size.BYTE;
-                if (keyLen <= 0) {
+                if (valueLen <= 0) {
                   throw new DecoderException("Invalid header. Value length <= 0");
                 }
 
-                buffer.advance(Size.LONG + Size.BYTE);
                 state = State.ReadingKey;
                 remaining = keyLen;
+                valueSize = valueLen;
                 continue;
-              case CLEAR:
-                buffer.advance(Size.BYTE + Size.LONG);
-                return Decoder.done(this, MapOperation.clear());
-              default:
-                throw new DecoderException(String.format("Unknown tag: %s", tag));
-            }
-          case ReadingKey:
-            if (buffer.remaining() < remaining) {
-              return this;
-            } else {
-              key = parseRecognise(buffer, remaining, keyRecognizer);
-              state = State.AfterKey;
-              break;
-            }
-          case AfterKey:
-            if (valueSize != null) {
-              state = State.ReadingValue;
-              break;
-            } else {
-              return Decoder.done(this, MapOperation.remove(key));
-            }
-          case ReadingValue:
-            return Decoder.done(this, MapOperation.update(key, parseRecognise(buffer, remaining, valueRecognizer)));
-        }
+              }
+            case REMOVE:
+              int keyLen = totalLen - Size.BYTE;
+              if (keyLen <= 0) {
+                throw new DecoderException("Invalid header. Value length <= 0");
+              }
+
+              buffer.advance(Size.LONG + Size.BYTE);
+              state = State.ReadingKey;
+              remaining = keyLen;
+              valueSize = NO_VALUE;
+              continue;
+            case CLEAR:
+              buffer.advance(Size.BYTE + Size.LONG);
+              return Decoder.done(this, MapOperation.clear());
+            default:
+              throw new DecoderException(String.format("Unknown tag: %s", tag));
+          }
+        case ReadingKey:
+          if (buffer.remaining() < remaining) {
+            return this;
+          } else {
+            key = decode(keyDecoder, keyKind, buffer, remaining);
+            state = State.AfterKey;
+            break;
+          }
+        case AfterKey:
+          if (valueSize != NO_VALUE) {
+            state = State.ReadingValue;
+            remaining = valueSize;
+            break;
+          } else {
+            return Decoder.done(this, MapOperation.remove(key));
+          }
+        case ReadingValue:
+          if (buffer.remaining() < remaining) {
+            return this;
+          } else {
+            return Decoder.done(this, MapOperation.update(key, decode(valueDecoder, valueKind, buffer, remaining)));
+          }
       }
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static <T> T decode(ReconDecoder<T> decoder, ScalarKind kind, ReadBuffer buffer, int len) {
+    if (kind != null) {
+      Object value = ReconScalars.decode(kind, buffer, len);
+      if (value != null) {
+        return (T) value;
+      }
+    }
+
+    return decoder.decode(buffer, len);
+  }
+
   @Override
   public Decoder<MapOperation<K, V>> reset() {
-    return new MapOperationDecoder<>(keyRecognizer.reset(), valueRecognizer.reset());
+    state = State.ReadingHeader;
+    remaining = 0;
+    valueSize = NO_VALUE;
+    key = null;
+    return this;
   }
 
   private enum State {
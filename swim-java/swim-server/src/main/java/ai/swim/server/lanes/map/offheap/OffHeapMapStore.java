@@ -0,0 +1,746 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map.offheap;
+
+import ai.swim.codec.Size;
+import ai.swim.codec.data.BufferOverflowException;
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.server.codec.ReconPrinter;
+import ai.swim.server.codec.ReconScalars;
+import ai.swim.server.codec.ReconScalars.ScalarKind;
+import ai.swim.server.lanes.MapLookup;
+import ai.swim.server.lanes.map.MapLaneStore;
+import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.MapSyncRequest;
+import ai.swim.server.lanes.map.TypedMap;
+import ai.swim.server.lanes.models.response.IdentifiedLaneResponse;
+import ai.swim.server.lanes.models.response.IdentifiedLaneResponseEncoder;
+import ai.swim.server.lanes.models.response.LaneResponse;
+import ai.swim.structure.Form;
+import ai.swim.structure.ReconDecoder;
+import ai.swim.structure.writer.Writable;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A {@link MapLaneStore} that keeps its entries encoded as Recon outside the Java heap, so that large lanes do not
+ * contribute to garbage collection pauses.
+ * <p>
+ * Entries are appended to a log of segments that are allocated by an {@link OffHeapStorage}; each record contains the
+ * encoded key and value. An open addressing hash table on the heap maps each key to the address of its latest record,
+ * so only the keys remain on the heap. Values are decoded whenever they are read, including the previous value that
+ * is returned by {@link #put} and {@link #remove}. Updating or removing a key leaves its previous record in the log
+ * and, once the log contains more garbage than live records, the live records are copied into new segments.
+ * <p>
+ * Records are never modified once they have been written and so a snapshot only needs to capture the addresses of the
+ * live records, rather than copying the entries. A sync request writes the encoded records directly, without decoding
+ * and re-encoding the entries.
+ * <p>
+ * Entries are iterated over in an unspecified order. This class is not thread safe.
+ *
+ * @param <K> the type of keys maintained by this store.
+ * @param <V> the type of mapped values.
+ */
+public final class OffHeapMapStore<K, V> implements MapLaneStore<K, V> {
+  private static final int MIN_CAPACITY = 16;
+  /**
+   * Each record is prefixed by the length of the encoded key and the length of the encoded value.
+   */
+  private static final int HEADER_LEN = 2 * Size.INT;
+
+  private final Writable<K> keyWriter;
+  private final Writable<V> valueWriter;
+  private final ReconDecoder<V> valueDecoder;
+  /**
+   * If the values are scalars that {@link ReconScalars} decodes directly, their kind; otherwise null.
+   */
+  private final ScalarKind valueKind;
+  private final OffHeapStorage storage;
+  /**
+   * Buffer that an entry is encoded into before it is appended to the log.
+   */
+  private final ByteWriter scratch;
+  private final EntrySet entrySet;
+
+  /**
+   * Open addressing hash table, with linear probing, of the keys and the addresses of their records. An empty slot has
+   * a null key.
+   */
+  private Object[] keys;
+  private long[] addresses;
+  private int size;
+
+  /**
+   * The segments of the log. The array is replaced, rather than modified, when the log is cleared or compacted so that
+   * snapshots may share it.
+   */
+  private Segment[] segments;
+  private int segmentCount;
+  private int nextSegmentSize;
+  private long liveBytes;
+  private long garbageBytes;
+
+  public OffHeapMapStore(Form<K> keyForm, Form<V> valueForm, OffHeapStorage storage) {
+    this.keyWriter = keyForm;
+    this.valueWriter = valueForm;
+    this.valueDecoder = new ReconDecoder<>(valueForm);
+    this.valueKind = ScalarKind.of(valueForm);
+    this.storage = storage;
+    this.scratch = new ByteWriter();
+    this.entrySet = new EntrySet();
+    reset();
+  }
+
+  private void reset() {
+    keys = new Object[MIN_CAPACITY];
+    addresses = new long[MIN_CAPACITY];
+    size = 0;
+    segments = new Segment[4];
+    segmentCount = 0;
+    nextSegmentSize = OffHeapStorage.MIN_SEGMENT_SIZE;
+    liveBytes = 0;
+    garbageBytes = 0;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int segmentOf(long address) {
+    return (int) (address >>> 32);
+  }
+
+  private static int offsetOf(long address) {
+    return (int) address;
+  }
+
+  /**
+   * Returns the slot of {@code key} or, if it is absent, {@code -(slot + 1)} where slot is the empty slot that it
+   * would be inserted at.
+   */
+  private int slotOf(Object key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    Object candidate;
+
+    while ((candidate = keys[slot]) != null) {
+      if (candidate.equals(key)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return -(slot + 1);
+  }
+
+  private void insertAt(int slot, Object key, long address) {
+    keys[slot] = key;
+    addresses[slot] = address;
+    size += 1;
+
+    if (size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  private void resize(int capacity) {
+    Object[] oldKeys = keys;
+    long[] oldAddresses = addresses;
+    keys = new Object[capacity];
+    addresses = new long[capacity];
+
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      Object key = oldKeys[i];
+      if (key != null) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        addresses[slot] = oldAddresses[i];
+      }
+    }
+  }
+
+  /**
+   * Removes the entry in {@code slot} and shifts any following entries in its probe sequence back into the hole.
+   */
+  private void removeAt(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    Object key;
+
+    while ((key = keys[next]) != null) {
+      int home = hash(key) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = key;
+        addresses[hole] = addresses[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+
+    keys[hole] = null;
+    size -= 1;
+  }
+
+  /**
+   * Returns a segment at the end of the log with at least {@code recordLen} bytes remaining.
+   */
+  private Segment reserve(int recordLen) {
+    if (segmentCount != 0) {
+      Segment segment = segments[segmentCount - 1];
+      if (segment.remaining() >= recordLen) {
+        return segment;
+      }
+    }
+
+    int capacity = Math.max(nextSegmentSize, recordLen);
+    nextSegmentSize = (int) Math.min(2L * nextSegmentSize, storage.segmentSize());
+
+    if (segmentCount == segments.length) {
+      segments = Arrays.copyOf(segments, segmentCount * 2);
+    }
+
+    Segment segment = new Segment(storage.allocate(capacity));
+    segments[segmentCount++] = segment;
+    return segment;
+  }
+
+  /**
+   * Appends the entry that has been encoded into the scratch buffer to the log.
+   *
+   * @return the address of the new record.
+   */
+  private long append(int keyLen) {
+    int valueLen = scratch.writePosition() - keyLen;
+    int recordLen = HEADER_LEN + keyLen + valueLen;
+    Segment segment = reserve(recordLen);
+    int offset = segment.end;
+
+    ByteBuffer buffer = segment.buffer;
+    buffer.position(offset);
+    buffer.putInt(keyLen).putInt(valueLen);
+    scratch.transferTo(buffer);
+
+    segment.end = offset + recordLen;
+    liveBytes += recordLen;
+
+    return ((long) (segmentCount - 1) << 32) | offset;
+  }
+
+  /**
+   * Marks the record at {@code address} as garbage.
+   */
+  private void release(long address) {
+    int recordLen = segments[segmentOf(address)].recordLen(offsetOf(address));
+    liveBytes -= recordLen;
+    garbageBytes += recordLen;
+  }
+
+  /**
+   * Copies the live records into new segments if the log contains more garbage than live records. The previous
+   * segments are left intact for any snapshots that refer to them.
+   */
+  private void compactIfRequired() {
+    if (garbageBytes <= Math.max(liveBytes, OffHeapStorage.MIN_SEGMENT_SIZE)) {
+      return;
+    }
+
+    Segment[] from = segments;
+    segments = new Segment[4];
+    segmentCount = 0;
+    nextSegmentSize = (int) Math.min(Math.max(liveBytes, OffHeapStorage.MIN_SEGMENT_SIZE), storage.segmentSize());
+    liveBytes = 0;
+    garbageBytes = 0;
+
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        long address = addresses[slot];
+        Segment source = from[segmentOf(address)];
+        int offset = offsetOf(address);
+        int recordLen = source.recordLen(offset);
+
+        Segment target = reserve(recordLen);
+        target.buffer.position(target.end);
+        target.buffer.put(source.slice(offset, recordLen));
+
+        addresses[slot] = ((long) (segmentCount - 1) << 32) | target.end;
+        target.end += recordLen;
+        liveBytes += recordLen;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private V decodeValue(Segment[] segments, long address) {
+    Segment segment = segments[segmentOf(address)];
+    int offset = offsetOf(address);
+    int valueLen = segment.valueLen(offset);
+    segment.slice(offset + HEADER_LEN + segment.keyLen(offset), valueLen);
+
+    if (valueKind != null) {
+      Object value = ReconScalars.decode(valueKind, segment.reader, valueLen);
+      if (value != null) {
+        return (V) value;
+      }
+    }
+
+    return valueDecoder.decode(segment.reader, valueLen);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public V get(K key) {
+    if (key == null) {
+      return null;
+    }
+
+    int slot = slotOf(key);
+    return slot < 0 ? null : decodeValue(segments, addresses[slot]);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+
+    scratch.clear();
+    ReconPrinter.print(keyWriter, key, scratch);
+    int keyLen = scratch.writePosition();
+    ReconPrinter.print(valueWriter, value, scratch);
+
+    int slot = slotOf(key);
+
+    if (slot < 0) {
+      insertAt(-(slot + 1), key, append(keyLen));
+      return null;
+    } else {
+      long previous = addresses[slot];
+      V oldValue = decodeValue(segments, previous);
+
+      addresses[slot] = append(keyLen);
+      release(previous);
+      compactIfRequired();
+
+      return oldValue;
+    }
+  }
+
+  @Override
+  public V remove(K key) {
+    if (key == null) {
+      return null;
+    }
+
+    int slot = slotOf(key);
+    if (slot < 0) {
+      return null;
+    }
+
+    long address = addresses[slot];
+    V oldValue = decodeValue(segments, address);
+
+    removeAt(slot);
+    release(address);
+    compactIfRequired();
+
+    return oldValue;
+  }
+
+  @Override
+  public void clear() {
+    reset();
+  }
+
+  @Override
+  public void putAll(TypedMap<? extends K, ? extends V> m) {
+    for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<K> iterator() {
+        Iterator<Map.Entry<K, V>> entries = entrySet.iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public K next() {
+            return entries.next().getKey();
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return o != null && slotOf(o) >= 0;
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return entrySet;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new AbstractMap<K, V>() {
+      @Override
+      public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+      }
+    }.values();
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return key != null && slotOf(key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(V value) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null && Objects.equals(value, decodeValue(segments, addresses[slot]))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a snapshot of the entries in this store. Taking a snapshot copies the keys and the addresses of their
+   * records but not the records themselves.
+   */
+  @Override
+  public Map<K, V> snapshot() {
+    return new Snapshot();
+  }
+
+  @Override
+  public MapSyncRequest<K, V> syncRequest(UUID remote) {
+    return new EncodedSyncRequest(remote, new Snapshot());
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapMapStore{" +
+        "size=" + size +
+        ", segments=" + segmentCount +
+        ", liveBytes=" + liveBytes +
+        ", garbageBytes=" + garbageBytes +
+        ", storage=" + storage +
+        '}';
+  }
+
+  /**
+   * A region of off-heap memory that records are appended to.
+   */
+  private static final class Segment {
+    /**
+     * The buffer that records are written through.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * A view of the buffer, and a reader over it, that records are read through.
+     */
+    private final ByteBuffer view;
+    private final ReadBuffer reader;
+    private int end;
+
+    private Segment(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.view = buffer.duplicate();
+      this.reader = ReadBuffer.byteBuffer(view);
+    }
+
+    private int remaining() {
+      return buffer.capacity() - end;
+    }
+
+    private int keyLen(int offset) {
+      return buffer.getInt(offset);
+    }
+
+    private int valueLen(int offset) {
+      return buffer.getInt(offset + Size.INT);
+    }
+
+    private int recordLen(int offset) {
+      return HEADER_LEN + keyLen(offset) + valueLen(offset);
+    }
+
+    /**
+     * Returns the view of the buffer, bounded to {@code len} bytes from {@code offset}. The view is only valid until
+     * the segment is next read from.
+     */
+    private ByteBuffer slice(int offset, int len) {
+      view.limit(view.capacity()).position(offset);
+      view.limit(offset + len);
+      return view;
+    }
+  }
+
+  /**
+   * An entry whose value is decoded when it is first read.
+   */
+  private final class LazyEntry implements Map.Entry<K, V> {
+    private final K key;
+    private final Segment[] segments;
+    private final long address;
+    private V value;
+
+    private LazyEntry(K key, Segment[] segments, long address) {
+      this.key = key;
+      this.segments = segments;
+      this.address = address;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      if (value == null) {
+        value = decodeValue(segments, address);
+      }
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+      return key.equals(entry.getKey()) && getValue().equals(entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ getValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + getValue();
+    }
+  }
+
+  /**
+   * The live entries of the store.
+   */
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator<>() {
+        private final Object[] keys = OffHeapMapStore.this.keys;
+        private final long[] addresses = OffHeapMapStore.this.addresses;
+        private int slot = advance(0);
+
+        private int advance(int from) {
+          while (from < keys.length && keys[from] == null) {
+            from += 1;
+          }
+          return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return slot < keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map.Entry<K, V> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+
+          Map.Entry<K, V> entry = new LazyEntry((K) keys[slot], segments, addresses[slot]);
+          slot = advance(slot + 1);
+          return entry;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * The keys and record addresses of the store at the time that the snapshot was taken.
+   */
+  private final class Snapshot extends AbstractMap<K, V> {
+    private final Object[] keys;
+    private final long[] addresses;
+    private final Segment[] segments;
+
+    private Snapshot() {
+      Object[] storeKeys = OffHeapMapStore.this.keys;
+      long[] storeAddresses = OffHeapMapStore.this.addresses;
+
+      keys = new Object[size];
+      addresses = new long[size];
+      segments = OffHeapMapStore.this.segments;
+
+      int idx = 0;
+      for (int slot = 0; slot < storeKeys.length; slot++) {
+        if (storeKeys[slot] != null) {
+          keys[idx] = storeKeys[slot];
+          addresses[idx] = storeAddresses[slot];
+          idx += 1;
+        }
+      }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new Iterator<>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+              return idx < keys.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Entry<K, V> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+
+              Entry<K, V> entry = new LazyEntry((K) keys[idx], segments, addresses[idx]);
+              idx += 1;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+      };
+    }
+  }
+
+  /**
+   * Streams every remaining record of a snapshot, as it is encoded in the log, per invocation.
+   */
+  private final class EncodedSyncRequest extends MapSyncRequest<K, V> {
+    private final Snapshot snapshot;
+    private int next;
+
+    private EncodedSyncRequest(UUID remote, Snapshot snapshot) {
+      super(remote);
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public boolean encodeInto(int laneId,
+        ByteWriter byteWriter,
+        IdentifiedLaneResponseEncoder<MapOperation<K, V>> encoder,
+        MapLookup<K, V> mapLookup) throws BufferOverflowException {
+      while (next < snapshot.addresses.length) {
+        long address = snapshot.addresses[next];
+        Segment segment = snapshot.segments[segmentOf(address)];
+        int offset = offsetOf(address);
+        int keyLen = segment.keyLen(offset);
+        int valueLen = segment.valueLen(offset);
+
+        // Equivalent to encoding a sync event containing an update operation for the entry.
+        byteWriter.writeInteger(laneId);
+        int lenPosition = byteWriter.writePosition();
+        byteWriter.writeInteger(0);
+        int startLen = byteWriter.writePosition();
+
+        byteWriter.writeByte(LaneResponse.SYNC);
+        byteWriter.writeLong(remote.getMostSignificantBits());
+        byteWriter.writeLong(remote.getLeastSignificantBits());
+
+        byteWriter.writeLong(Size.BYTE + Size.LONG + keyLen + valueLen);
+        byteWriter.writeByte(MapOperation.UPDATE);
+        byteWriter.writeLong(keyLen);
+        byteWriter.writeByteBuffer(segment.slice(offset + HEADER_LEN, keyLen + valueLen));
+
+        byteWriter.writeInteger(byteWriter.writePosition() - startLen, lenPosition);
+        next += 1;
+      }
+
+      encoder.encode(new IdentifiedLaneResponse<>(laneId, LaneResponse.synced(remote)), byteWriter);
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "OffHeapMapStore.EncodedSyncRequest{" +
+          "remote=" + remote +
+          ", next=" + next +
+          ", size=" + snapshot.addresses.length +
+          '}';
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map.offheap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Where an {@link OffHeapMapStore} allocates the memory that its encoded entries are stored in.
+ * <p>
+ * Entries are stored in segments that are allocated on demand. Segments start small and double in size up to the
+ * {@link #segmentSize()} so that small lanes do not reserve a full segment; an entry that is larger than the segment
+ * size is stored in a segment of its own. Segments are either allocated directly, outside the Java heap, or are mapped
+ * from files in a directory. A mapped file is unlinked as soon as it has been mapped and so it only uses space on the
+ * file system while it is mapped; the files are scratch space for the lane's state and not a persistent copy of it.
+ * <p>
+ * The memory of a segment is released once it is no longer reachable and it has been garbage collected.
+ */
+public final class OffHeapStorage {
+  /**
+   * The default maximum size of a segment.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+  /**
+   * The size of the first segment that is allocated.
+   */
+  static final int MIN_SEGMENT_SIZE = 64 << 10;
+  private final Path directory;
+  private final int segmentSize;
+
+  private OffHeapStorage(Path directory, int segmentSize) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * Returns a storage that allocates segments as direct buffers.
+   */
+  public static OffHeapStorage direct() {
+    return new OffHeapStorage(null, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Returns a storage that allocates segments as memory-mapped files in {@code directory}.
+   *
+   * @param directory that the files are created in. The directory must exist.
+   */
+  public static OffHeapStorage mapped(Path directory) {
+    return new OffHeapStorage(Objects.requireNonNull(directory, "directory"), DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Returns a copy of this storage with a maximum segment size of {@code segmentSize} bytes.
+   *
+   * @throws IllegalArgumentException if {@code segmentSize} is not positive.
+   */
+  public OffHeapStorage segmentSize(int segmentSize) {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+    }
+    return new OffHeapStorage(directory, segmentSize);
+  }
+
+  /**
+   * Returns the maximum size of a segment.
+   */
+  public int segmentSize() {
+    return segmentSize;
+  }
+
+  /**
+   * Returns the directory that segments are mapped from, or null if segments are allocated as direct buffers.
+   */
+  public Path directory() {
+    return directory;
+  }
+
+  /**
+   * Allocates a new, zeroed, segment of {@code capacity} bytes.
+   *
+   * @throws UncheckedIOException if the segment could not be mapped.
+   */
+  ByteBuffer allocate(int capacity) {
+    if (directory == null) {
+      return ByteBuffer.allocateDirect(capacity);
+    }
+
+    try {
+      Path file = Files.createTempFile(directory, "map-lane-", ".segment");
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        // The mapping remains valid after the channel has been closed and the file has been unlinked.
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+      } finally {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          // Some platforms do not allow a mapped file to be deleted.
+          file.toFile().deleteOnExit();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapStorage{" +
+        "directory=" + directory +
+        ", segmentSize=" + segmentSize +
+        '}';
+  }
+
+}
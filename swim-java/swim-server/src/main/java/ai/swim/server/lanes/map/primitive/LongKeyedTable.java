@@ -0,0 +1,475 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map.primitive;
+
+import ai.swim.server.lanes.map.MapLaneStore;
+import ai.swim.server.lanes.map.TypedMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link MapLaneStore} whose keys are stored as primitive {@code long}s in an open addressing hash table.
+ * <p>
+ * Entries are stored in dense arrays, in insertion order, and the hash table maps a key to its position in the dense
+ * arrays; this avoids allocating an entry node per mapping and keeps iteration in insertion order. Removing an entry
+ * leaves a hole in the dense arrays that is reclaimed once the arrays fill up. Subclasses store the values in a dense
+ * array of their choosing, so that primitive values are not boxed either.
+ * <p>
+ * A snapshot shares the dense arrays of the table. Inserting a new key appends to the arrays beyond the end of any
+ * snapshot and does not disturb it, but updating or removing an entry while a snapshot is outstanding first copies the
+ * affected arrays. A snapshot is released once it has been iterated over.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <K> the boxed type of the keys.
+ * @param <V> the boxed type of the values.
+ */
+public abstract class LongKeyedTable<K, V> implements MapLaneStore<K, V> {
+  private static final int MIN_CAPACITY = 8;
+
+  /**
+   * Open addressing hash table, with linear probing, of one plus the position of each key in the dense arrays, or zero
+   * if a slot is empty. The table is twice the capacity of the dense arrays.
+   */
+  private int[] index;
+  private long[] keys;
+  private boolean[] live;
+  private Object values;
+  /**
+   * The number of positions in the dense arrays that have been used, including removed entries.
+   */
+  private int end;
+  private int size;
+  /**
+   * Incremented whenever the dense arrays are replaced.
+   */
+  private int generation;
+  /**
+   * The number of outstanding snapshots that share the current dense arrays.
+   */
+  private int shares;
+  private final View view;
+
+  protected LongKeyedTable() {
+    view = new View();
+    allocate(MIN_CAPACITY);
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Returns a new array for {@code capacity} values.
+   */
+  protected abstract Object newValues(int capacity);
+
+  /**
+   * Returns a copy of {@code values}.
+   */
+  protected abstract Object copyValues(Object values);
+
+  /**
+   * Copies the value at {@code fromPos} in {@code from} to {@code toPos} in {@code to}.
+   */
+  protected abstract void moveValue(Object from, int fromPos, Object to, int toPos);
+
+  /**
+   * Releases the value at {@code pos} after its entry has been removed.
+   */
+  protected abstract void clearValue(Object values, int pos);
+
+  protected abstract V boxedValue(Object values, int pos);
+
+  protected abstract void putBoxedValue(Object values, int pos, V value);
+
+  protected abstract K boxKey(long key);
+
+  protected abstract long unboxKey(K key);
+
+  /**
+   * Returns the array of values, which is only valid until the table is next modified.
+   */
+  protected final Object valueArray() {
+    return values;
+  }
+
+  private void allocate(int capacity) {
+    index = new int[capacity * 2];
+    keys = new long[capacity];
+    live = new boolean[capacity];
+    values = newValues(capacity);
+    end = 0;
+    size = 0;
+    generation += 1;
+    shares = 0;
+  }
+
+  private int slotOf(long key) {
+    int mask = index.length - 1;
+    int slot = hash(key) & mask;
+    int entry;
+
+    while ((entry = index[slot]) != 0) {
+      if (keys[entry - 1] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the position of {@code key} in the dense arrays, or -1 if the table does not contain the key.
+   */
+  protected final int position(long key) {
+    int slot = slotOf(key);
+    return slot == -1 ? -1 : index[slot] - 1;
+  }
+
+  /**
+   * Returns the position at which the value for {@code key} may be written.
+   *
+   * @param key to write.
+   * @param pos the current position of the key, as returned by {@link #position(long)}.
+   * @return the position to write the value to in {@link #valueArray()}.
+   */
+  protected final int acquire(long key, int pos) {
+    if (pos >= 0) {
+      unshare();
+      return pos;
+    }
+
+    if (end == keys.length) {
+      // Reclaim the removed entries if there are enough of them, otherwise grow.
+      rehash(size < keys.length / 2 ? keys.length : keys.length * 2);
+    }
+
+    pos = end++;
+    keys[pos] = key;
+    live[pos] = true;
+    size += 1;
+
+    int mask = index.length - 1;
+    int slot = hash(key) & mask;
+    while (index[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = pos + 1;
+
+    return pos;
+  }
+
+  /**
+   * Removes the entry at {@code pos}.
+   */
+  protected final void removeAt(int pos) {
+    unshare();
+
+    int mask = index.length - 1;
+    int slot = slotOf(keys[pos]);
+
+    live[pos] = false;
+    clearValue(values, pos);
+    size -= 1;
+
+    // Shift back any entries that probed past the removed slot.
+    int next = slot;
+    while (true) {
+      next = (next + 1) & mask;
+      int entry = index[next];
+
+      if (entry == 0) {
+        break;
+      }
+
+      int home = hash(keys[entry - 1]) & mask;
+      boolean movable = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+
+      if (movable) {
+        index[slot] = entry;
+        slot = next;
+      }
+    }
+
+    index[slot] = 0;
+  }
+
+  /**
+   * Copies the arrays that a removal or an update would modify if they are shared with a snapshot.
+   */
+  private void unshare() {
+    if (shares > 0) {
+      live = live.clone();
+      values = copyValues(values);
+      generation += 1;
+      shares = 0;
+    }
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    boolean[] oldLive = live;
+    Object oldValues = values;
+    int oldEnd = end;
+
+    allocate(capacity);
+
+    int mask = index.length - 1;
+    for (int i = 0; i < oldEnd; i++) {
+      if (oldLive[i]) {
+        int pos = end++;
+        keys[pos] = oldKeys[i];
+        live[pos] = true;
+        moveValue(oldValues, i, values, pos);
+
+        int slot = hash(oldKeys[i]) & mask;
+        while (index[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        index[slot] = pos + 1;
+      }
+    }
+
+    size = end;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public V get(K key) {
+    if (key == null) {
+      return null;
+    }
+
+    int pos = position(unboxKey(key));
+    return pos < 0 ? null : boxedValue(values, pos);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    long k = unboxKey(Objects.requireNonNull(key, "Null keys are not supported"));
+    int pos = position(k);
+    V oldValue = pos < 0 ? null : boxedValue(values, pos);
+
+    // Acquiring the slot may replace the value array, so it must be read afterwards.
+    int slot = acquire(k, pos);
+    putBoxedValue(values, slot, value);
+    return oldValue;
+  }
+
+  @Override
+  public V remove(K key) {
+    if (key == null) {
+      return null;
+    }
+
+    int pos = position(unboxKey(key));
+    if (pos < 0) {
+      return null;
+    }
+
+    V oldValue = boxedValue(values, pos);
+    removeAt(pos);
+    return oldValue;
+  }
+
+  @Override
+  public void clear() {
+    allocate(MIN_CAPACITY);
+  }
+
+  @Override
+  public void putAll(TypedMap<? extends K, ? extends V> m) {
+    for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return key != null && position(unboxKey(key)) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(V value) {
+    return view.containsValue(value);
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return view.keySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    return view.values();
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return view.entrySet();
+  }
+
+  @Override
+  public Map<K, V> snapshot() {
+    shares += 1;
+    return new Snapshot(keys, live, values, end, size, generation);
+  }
+
+  /**
+   * Iterates over the live entries in a set of dense arrays.
+   */
+  private final class Entries implements Iterator<Map.Entry<K, V>> {
+    private final long[] keys;
+    private final boolean[] live;
+    private final Object values;
+    private final int end;
+    /**
+     * Whether the arrays are shared by a snapshot that must be released once the iterator is exhausted.
+     */
+    private boolean shared;
+    private final int generation;
+    private int pos;
+
+    Entries(long[] keys, boolean[] live, Object values, int end, boolean shared, int generation) {
+      this.keys = keys;
+      this.live = live;
+      this.values = values;
+      this.end = end;
+      this.shared = shared;
+      this.generation = generation;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (pos < end && !live[pos]) {
+        pos++;
+      }
+
+      if (pos < end) {
+        return true;
+      }
+
+      if (shared) {
+        shared = false;
+        if (generation == LongKeyedTable.this.generation && shares > 0) {
+          shares -= 1;
+        }
+      }
+
+      return false;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      int current = pos++;
+      return new AbstractMap.SimpleImmutableEntry<>(boxKey(keys[current]), boxedValue(values, current));
+    }
+  }
+
+  /**
+   * An immutable snapshot of the table that shares its dense arrays.
+   */
+  private final class Snapshot extends AbstractMap<K, V> {
+    private final long[] keys;
+    private final boolean[] live;
+    private final Object values;
+    private final int end;
+    private final int size;
+    private final int generation;
+
+    Snapshot(long[] keys, boolean[] live, Object values, int end, int size, int generation) {
+      this.keys = keys;
+      this.live = live;
+      this.values = values;
+      this.end = end;
+      this.size = size;
+      this.generation = generation;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new Entries(keys, live, values, end, true, generation);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+
+  /**
+   * A view of the current state of the table.
+   */
+  private final class View extends AbstractMap<K, V> {
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+      return LongKeyedTable.this.get((K) key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsKey(Object key) {
+      return LongKeyedTable.this.containsKey((K) key);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new Entries(
+              LongKeyedTable.this.keys,
+              LongKeyedTable.this.live,
+              LongKeyedTable.this.values,
+              LongKeyedTable.this.end,
+              false,
+              LongKeyedTable.this.generation);
+        }
+
+        @Override
+        public int size() {
+          return LongKeyedTable.this.size;
+        }
+      };
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.map.primitive;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link LongKeyedTable} that maps primitive {@code long} keys to primitive {@code long} values. Null values are not
+ * supported.
+ */
+public final class LongLongTable extends LongKeyedTable<Long, Long> {
+
+  @Override
+  protected Object newValues(int capacity) {
+    return new long[capacity];
+  }
+
+  @Override
+  protected Object copyValues(Object values) {
+    long[] array = (long[]) values;
+    return Arrays.copyOf(array, array.length);
+  }
+
+  @Override
+  protected void moveValue(Object from, int fromPos, Object to, int toPos) {
+    ((long[]) to)[toPos] = ((long[]) from)[fromPos];
+  }
+
+  @Override
+  protected void clearValue(Object values, int pos) {
+    // Primitive values do not hold on to any references.
+  }
+
+  @Override
+  protected Long boxedValue(Object values, int pos) {
+    return ((long[]) values)[pos];
+  }
+
+  @Override
+  protected void putBoxedValue(Object values, int pos, Long value) {
+    ((long[]) values)[pos] = Objects.requireNonNull(value, "Null values are not supported");
+  }
+
+  @Override
+  protected Long boxKey(long key) {
+    return key;
+  }
+
+  @Override
+  protected long unboxKey(Long key) {
+    return key;
+  }
+
+  public boolean containsKey(long key) {
+    return position(key) >= 0;
+  }
+
+  /**
+   * Returns the value associated with {@code key}, or {@code defaultValue} if there is no mapping for the key.
+   */
+  public long getOrDefault(long key, long defaultValue) {
+    int pos = position(key);
+    return pos < 0 ? defaultValue : ((long[]) valueArray())[pos];
+  }
+
+  /**
+   * Associates {@code value} with {@code key}.
+   */
+  public void put(long key, long value) {
+    int pos = acquire(key, position(key));
+    ((long[]) valueArray())[pos] = value;
+  }
+
+  /**
+   * Removes the mapping for {@code key} and returns whether there was a mapping for the key.
+   */
+  public boolean remove(long key) {
+    int pos = position(key);
+    if (pos < 0) {
+      return false;
+    }
+
+    removeAt(pos);
+    return true;
+  }
+
+}
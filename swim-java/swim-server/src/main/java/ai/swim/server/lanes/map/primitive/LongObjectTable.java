@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.map.primitive;
+
+/**
+ * A {@link LongKeyedTable} that maps primitive {@code long} keys to objects.
+ *
+ * @param <V> the type of the values.
+ */
+public final class LongObjectTable<V> extends ObjectValuedTable<Long, V> {
+
+  @Override
+  protected Long boxKey(long key) {
+    return key;
+  }
+
+  @Override
+  protected long unboxKey(Long key) {
+    return key;
+  }
+
+  public boolean containsKey(long key) {
+    return position(key) >= 0;
+  }
+
+  /**
+   * Returns the value associated with {@code key}, or null if there is no mapping for the key.
+   */
+  public V get(long key) {
+    int pos = position(key);
+    return pos < 0 ? null : valueAt(pos);
+  }
+
+  /**
+   * Associates {@code value} with {@code key} and returns the previous value, or null if there was no mapping for the
+   * key.
+   */
+  public V put(long key, V value) {
+    int pos = position(key);
+    V oldValue = pos < 0 ? null : valueAt(pos);
+
+    setValueAt(acquire(key, pos), value);
+    return oldValue;
+  }
+
+  /**
+   * Removes the mapping for {@code key} and returns its value, or null if there was no mapping for the key.
+   */
+  public V remove(long key) {
+    int pos = position(key);
+    if (pos < 0) {
+      return null;
+    }
+
+    V oldValue = valueAt(pos);
+    removeAt(pos);
+    return oldValue;
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.map.primitive;
+
+import java.util.Arrays;
+
+/**
+ * A {@link LongKeyedTable} that stores its values in an {@code Object} array.
+ *
+ * @param <K> the boxed type of the keys.
+ * @param <V> the type of the values.
+ */
+abstract class ObjectValuedTable<K, V> extends LongKeyedTable<K, V> {
+
+  @Override
+  protected Object newValues(int capacity) {
+    return new Object[capacity];
+  }
+
+  @Override
+  protected Object copyValues(Object values) {
+    Object[] array = (Object[]) values;
+    return Arrays.copyOf(array, array.length);
+  }
+
+  @Override
+  protected void moveValue(Object from, int fromPos, Object to, int toPos) {
+    ((Object[]) to)[toPos] = ((Object[]) from)[fromPos];
+  }
+
+  @Override
+  protected void clearValue(Object values, int pos) {
+    ((Object[]) values)[pos] = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected V boxedValue(Object values, int pos) {
+    return (V) ((Object[]) values)[pos];
+  }
+
+  @Override
+  protected void putBoxedValue(Object values, int pos, V value) {
+    ((Object[]) values)[pos] = value;
+  }
+
+  @SuppressWarnings("unchecked")
+  final V valueAt(int pos) {
+    return (V) ((Object[]) valueArray())[pos];
+  }
+
+  final void setValueAt(int pos, V value) {
+    ((Object[]) valueArray())[pos] = value;
+  }
+
+}
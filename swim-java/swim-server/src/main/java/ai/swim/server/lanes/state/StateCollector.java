@@ -20,73 +20,192 @@ import ai.swim.codec.data.BufferOverflowException;
 import ai.swim.codec.data.ByteWriter;
 import ai.swim.server.agent.AgentView;
 import ai.swim.server.lanes.WriteResult;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Manages the state of all the lanes on an {@link AgentView}. Lanes may register that their state
  * is now dirty and requires flushing to their peers.
  * <p>
- * When the state of this collector is flushed, a byte buffer is returned that has the following layout:
+ * When the state of this collector is flushed, its responses are written into a direct response buffer, shared with
+ * the Rust runtime, that has the following layout:
  * <ul>
  *   <li>[0]: boolean representing whether there is more data available</li>
  *   <li>[1..]: elements are the responses from lanes. These are {@link ai.swim.server.lanes.models.response.IdentifiedLaneResponse}s. Where the
  *   first 4 elements are an integer containing the lane identifier and the remaining element's are a lane response.
  *   </li>
  * </ul>
+ * <p>
+ * Dirty lanes are tracked by their lane identifier in a bitset alongside a dense table of their states; registering a
+ * state neither hashes nor allocates and a flush writes the dirty lanes out in ascending lane identifier order.
+ * <p>
+ * Responses are encoded into a single, long-lived buffer that is cleared after each flush rather than reallocated and
+ * are then copied into the response buffer; no array is allocated per flush and the Rust runtime reads the responses
+ * directly out of the response buffer. The capacity of both buffers tracks the high-water mark of the responses that
+ * have been flushed: they grow as required and are periodically shrunk back down if a burst of events inflated them
+ * beyond what recent flushes have required. As the response buffer is only reallocated when its capacity changes, the
+ * Rust runtime caches its address and {@link StateCollector#flushState()} signals when it must be fetched again.
  */
 public class StateCollector {
-  private final Set<State> stack;
-  private ByteWriter buffer;
+  /**
+   * The initial, and minimum, capacity of the response buffer.
+   */
+  private static final int MIN_CAPACITY = 256;
+  /**
+   * The number of flushes after which the capacity of the response buffer is compared against the high-water mark
+   * observed over the interval.
+   */
+  private static final int SHRINK_INTERVAL = 1024;
+
+  private final ByteWriter buffer;
+  /**
+   * The direct buffer that flushed responses are written into and that the Rust runtime reads them from.
+   */
+  private ByteBuffer responses;
+  /**
+   * Whether {@link StateCollector#responses} has been reallocated since the last flush.
+   */
+  private boolean reallocated;
+  /**
+   * A bitset of the identifiers of the lanes whose state is dirty.
+   */
+  private long[] dirty;
+  /**
+   * Dirty states, indexed by their lane identifier.
+   */
+  private State[] states;
+  /**
+   * The largest response that has been flushed during the current shrink interval.
+   */
+  private int highWaterMark;
+  /**
+   * The number of flushes that have taken place during the current shrink interval.
+   */
+  private int flushCount;
 
   public StateCollector() {
-    this.buffer = new ByteWriter();
-    this.stack = new HashSet<>();
+    this.buffer = new ByteWriter(MIN_CAPACITY);
+    this.responses = ByteBuffer.allocateDirect(MIN_CAPACITY).limit(0);
+    this.dirty = new long[1];
+    this.states = new State[Long.SIZE];
   }
 
   /**
-   * Notifies this {@link StateCollector} that {@code state} requires flushing.
+   * Notifies this {@link StateCollector} that {@code state}, belonging to lane {@code laneId}, requires flushing.
    *
-   * @param state to register.
+   * @param laneId the identifier of the lane that {@code state} belongs to.
+   * @param state  to register.
    */
-  public void add(State state) {
-    stack.add(state);
+  public void add(int laneId, State state) {
+    if (laneId >= states.length) {
+      grow(laneId);
+    }
+
+    states[laneId] = state;
+    dirty[laneId >>> 6] |= 1L << laneId;
+  }
+
+  private void grow(int laneId) {
+    if (laneId < 0) {
+      throw new IllegalArgumentException("Invalid lane identifier: " + laneId);
+    }
+
+    int words = (laneId >>> 6) + 1;
+    dirty = Arrays.copyOf(dirty, Math.max(words, dirty.length * 2));
+    states = Arrays.copyOf(states, dirty.length * Long.SIZE);
   }
 
   /**
-   * Flushes the state of all the lanes that have been registered.
+   * Flushes the state of all the lanes that have been registered into the response buffer. Once this method returns,
+   * the response buffer's position is zero and its limit is the number of bytes that were written.
    * <p>
-   * See this class's root-level documentation for the array's layout.
+   * See this class's root-level documentation for the buffer's layout.
    *
-   * @return a buffer containing the state of all the lanes that were registered.
+   * @return the number of bytes written into the response buffer or, if the response buffer has been reallocated
+   * since the previous flush, the negation of that number; in that case any cached reference to the response buffer
+   * is stale and it must be fetched again using {@link StateCollector#responseBuffer()}.
    */
-  public byte[] flushState() {
+  public int flushState() {
     WriteResult writeResult = WriteResult.NoData;
-    Iterator<State> iter = stack.iterator();
 
     int startIdx = buffer.writePosition();
     buffer.writeByte((byte) 0);
 
-    while (iter.hasNext()) {
-      State dirty = iter.next();
-      try {
-        if (dirty.writeInto(buffer).done()) {
-          iter.remove();
-        } else {
+    outer:
+    for (int word = 0; word < dirty.length; word++) {
+      long bits = dirty[word];
+
+      while (bits != 0) {
+        int laneId = (word << 6) + Long.numberOfTrailingZeros(bits);
+        long bit = bits & -bits;
+        bits ^= bit;
+
+        try {
+          if (states[laneId].writeInto(buffer).done()) {
+            dirty[word] &= ~bit;
+            states[laneId] = null;
+          } else {
+            writeResult = WriteResult.DataStillAvailable;
+          }
+        } catch (BufferOverflowException ignored) {
           writeResult = WriteResult.DataStillAvailable;
+          break outer;
         }
-      } catch (BufferOverflowException ignored) {
-        writeResult = WriteResult.DataStillAvailable;
-        break;
       }
     }
 
     buffer.writeByte(writeResult.statusCode(), startIdx);
 
-    byte[] data = buffer.getArray();
-    buffer = new ByteWriter();
+    int len = buffer.writePosition();
+    if (len > responses.capacity()) {
+      responses = ByteBuffer.allocateDirect(buffer.capacity());
+      reallocated = true;
+    }
+
+    responses.clear();
+    buffer.transferTo(responses);
+    responses.flip();
+    buffer.clear();
+    trackCapacity(len);
+
+    if (reallocated) {
+      reallocated = false;
+      return -len;
+    } else {
+      return len;
+    }
+  }
+
+  /**
+   * Records the size of a flushed response and, once every {@link StateCollector#SHRINK_INTERVAL} flushes, shrinks
+   * the response buffer down to the high-water mark observed over the interval.
+   */
+  private void trackCapacity(int len) {
+    highWaterMark = Math.max(highWaterMark, len);
+
+    if (++flushCount == SHRINK_INTERVAL) {
+      buffer.shrinkTo(Math.max(MIN_CAPACITY, highWaterMark));
+      if (responses.capacity() > buffer.capacity()) {
+        // The responses that were just flushed have not yet been read by the Rust runtime.
+        responses = ByteBuffer.allocateDirect(buffer.capacity()).put(responses).flip();
+        reallocated = true;
+      }
+      highWaterMark = 0;
+      flushCount = 0;
+    }
+  }
 
-    return data;
+  /**
+   * Returns the direct buffer that responses are flushed into.
+   */
+  public ByteBuffer responseBuffer() {
+    return responses;
+  }
+
+  /**
+   * Returns the current capacity of the response buffer.
+   */
+  int capacity() {
+    return responses.capacity();
   }
 }
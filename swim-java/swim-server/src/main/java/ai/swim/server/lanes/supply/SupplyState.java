@@ -57,13 +57,13 @@ public class SupplyState<T> implements State {
 
   public void sync(UUID uuid) {
     events.add(LaneResponse.synced(uuid));
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
   public void push(T value) {
     if (value != null) {
       events.add(LaneResponse.event(value));
-      collector.add(this);
+      collector.add(laneId, this);
     }
   }
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.value;
+
+/**
+ * A policy that determines which of the values that have been set on a {@link ValueLane} since its state was last
+ * flushed are sent to its peers. Regardless of the policy, the lane's {@link ai.swim.server.lanes.lifecycle.OnSet}
+ * handler is invoked for every value that is set.
+ */
+public final class ConflationPolicy {
+  private static final ConflationPolicy NONE = new ConflationPolicy(Integer.MAX_VALUE);
+  private static final ConflationPolicy LATEST = new ConflationPolicy(1);
+
+  /**
+   * The maximum number of values that are retained between flushes.
+   */
+  private final int capacity;
+
+  private ConflationPolicy(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns a policy that sends every value that is set. This is the default policy of a {@link ValueLane}.
+   *
+   * @return a policy that sends every value that is set.
+   */
+  public static ConflationPolicy none() {
+    return NONE;
+  }
+
+  /**
+   * Returns a policy that only sends the latest value that was set since the lane's state was last flushed.
+   *
+   * @return a policy that only sends the latest value.
+   */
+  public static ConflationPolicy latest() {
+    return LATEST;
+  }
+
+  /**
+   * Returns a policy that sends, at most, the {@code capacity} most recent values that were set since the lane's state
+   * was last flushed; older values are dropped.
+   *
+   * @param capacity the maximum number of values to send.
+   * @return a policy that drops the oldest values.
+   * @throws IllegalArgumentException if {@code capacity} is less than one.
+   */
+  public static ConflationPolicy dropOldest(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be at least one: " + capacity);
+    }
+    return capacity == 1 ? LATEST : new ConflationPolicy(capacity);
+  }
+
+  /**
+   * Returns the maximum number of values that are retained between flushes.
+   *
+   * @return the maximum number of values that are retained between flushes.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public String toString() {
+    return "ConflationPolicy{" +
+        "capacity=" + capacity +
+        '}';
+  }
+}
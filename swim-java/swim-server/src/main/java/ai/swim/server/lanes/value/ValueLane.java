@@ -50,6 +50,15 @@ public interface ValueLane<T> extends Lane {
    */
   ValueLaneView<T> onEvent(OnEvent<T> onEvent);
 
+  /**
+   * Sets the {@link ConflationPolicy} that determines which of the values that have been set since the lane's state was
+   * last flushed are sent to its peers. This must be set before the lane is opened.
+   *
+   * @param conflationPolicy the new policy.
+   * @return this
+   */
+  ValueLaneView<T> conflationPolicy(ConflationPolicy conflationPolicy);
+
   /**
    * Invokes the {@link OnSet} handler if one has been registered.
    *
@@ -16,16 +16,12 @@
 
 package ai.swim.server.lanes.value;
 
-import ai.swim.codec.Parser;
-import ai.swim.codec.ParserError;
 import ai.swim.codec.data.ReadBuffer;
-import ai.swim.codec.input.Input;
 import ai.swim.server.lanes.LaneModel;
 import ai.swim.server.lanes.LaneView;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
-import ai.swim.structure.FormParser;
-import ai.swim.structure.recognizer.RecognizerException;
+import ai.swim.structure.ReconDecoder;
 import java.util.UUID;
 
 /**
@@ -39,9 +35,9 @@ public final class ValueLaneModel<T> extends LaneModel {
    */
   private final ValueLaneView<T> view;
   /**
-   * Form for T.
+   * Decoder for T, reused across invocations.
    */
-  private final Form<T> form;
+  private final ReconDecoder<T> decoder;
   /**
    * The state of the lane.
    */
@@ -49,27 +45,18 @@ public final class ValueLaneModel<T> extends LaneModel {
 
   public ValueLaneModel(int laneId, ValueLaneView<T> view, StateCollector collector) {
     this.view = view;
-    this.form = view.valueForm();
-    this.state = new ValueState<>(laneId, form, collector);
+    Form<T> form = view.valueForm();
+    this.decoder = new ReconDecoder<>(form);
+    this.state = new ValueState<>(laneId, form, collector, view.conflationPolicy());
   }
 
   @Override
   public void dispatch(ReadBuffer buffer) {
-    Parser<T> parser = new FormParser<>(form.reset());
-    parser = parser.feed(Input.readBuffer(buffer));
+    T newValue = decoder.decode(buffer);
+    T oldValue = state.set(newValue);
 
-    if (parser.isDone()) {
-      T newValue = parser.bind();
-      T oldValue = state.set(newValue);
-
-      view.onEvent(newValue);
-      view.onSet(oldValue, newValue);
-    } else if (parser.isError()) {
-      ParserError<T> error = (ParserError<T>) parser;
-      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
-    } else {
-      throw new RecognizerException("Unconsumed input");
-    }
+    view.onEvent(newValue);
+    view.onSet(oldValue, newValue);
   }
 
   @Override
@@ -79,16 +66,7 @@ public final class ValueLaneModel<T> extends LaneModel {
 
   @Override
   public void init(ReadBuffer buffer) {
-    Parser<T> parser = new FormParser<>(form.reset());
-    parser = parser.feed(Input.readBuffer(buffer));
-    if (parser.isDone()) {
-      state.set(parser.bind());
-    } else if (parser.isError()) {
-      ParserError<T> error = (ParserError<T>) parser;
-      throw new RecognizerException(String.format("%s at: %s", error.cause(), error.location()));
-    } else {
-      throw new RecognizerException("Unconsumed input");
-    }
+    state.set(decoder.decode(buffer));
   }
 
   @Override
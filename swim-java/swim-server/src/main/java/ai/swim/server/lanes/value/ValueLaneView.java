@@ -22,6 +22,7 @@ import ai.swim.server.lanes.lifecycle.OnEvent;
 import ai.swim.server.lanes.lifecycle.OnSet;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
+import java.util.Objects;
 
 /**
  * {@link ValueLane} and {@link LaneView} implementation.
@@ -41,6 +42,10 @@ public final class ValueLaneView<T> extends LaneView implements ValueLane<T> {
    * {@link OnEvent} handler.
    */
   private OnEvent<T> onEvent;
+  /**
+   * The policy for which values are sent to peers when the lane's state is flushed.
+   */
+  private ConflationPolicy conflationPolicy;
   /**
    * Lane model for dispatching events and retrieving the lane's current state.
    */
@@ -48,6 +53,7 @@ public final class ValueLaneView<T> extends LaneView implements ValueLane<T> {
 
   public ValueLaneView(Form<T> form) {
     this.form = form;
+    this.conflationPolicy = ConflationPolicy.none();
   }
 
   @SuppressWarnings("unchecked")
@@ -72,6 +78,21 @@ public final class ValueLaneView<T> extends LaneView implements ValueLane<T> {
     return this;
   }
 
+  @Override
+  public ValueLaneView<T> conflationPolicy(ConflationPolicy conflationPolicy) {
+    this.conflationPolicy = Objects.requireNonNull(conflationPolicy);
+    return this;
+  }
+
+  /**
+   * Returns the policy for which values are sent to peers when the lane's state is flushed.
+   *
+   * @return the lane's conflation policy.
+   */
+  public ConflationPolicy conflationPolicy() {
+    return conflationPolicy;
+  }
+
   @Override
   public void onSet(T oldValue, T newValue) {
     if (onSet != null) {
@@ -27,25 +27,37 @@ import ai.swim.server.lanes.models.response.LaneResponse;
 import ai.swim.server.lanes.state.State;
 import ai.swim.server.lanes.state.StateCollector;
 import ai.swim.structure.Form;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.UUID;
 
 public class ValueState<T> implements State {
-  private final Form<T> form;
+  private final IdentifiedLaneResponseEncoder<T> encoder;
   private final StateCollector collector;
-  private final List<T> events;
+  /**
+   * The values that have been set since the state was last flushed, bounded by the capacity of the lane's
+   * {@link ConflationPolicy}.
+   */
+  private final Deque<T> events;
+  private final int capacity;
   private final List<LaneResponse<T>> syncRequests;
   private final int laneId;
   private T state;
   private boolean dirty;
 
   public ValueState(int laneId, Form<T> form, StateCollector collector) {
+    this(laneId, form, collector, ConflationPolicy.none());
+  }
+
+  public ValueState(int laneId, Form<T> form, StateCollector collector, ConflationPolicy conflationPolicy) {
     this.laneId = laneId;
-    this.form = form;
+    this.encoder = new IdentifiedLaneResponseEncoder<>(new WithLenReconEncoder<>(form));
     this.collector = collector;
-    events = new ArrayList<>();
+    this.capacity = conflationPolicy.capacity();
+    events = new ArrayDeque<>();
     syncRequests = new ArrayList<>();
   }
 
@@ -60,8 +72,13 @@ public class ValueState<T> implements State {
     T oldState = state;
     dirty = true;
     state = to;
-    events.add(to);
-    collector.add(this);
+
+    if (events.size() == capacity) {
+      events.pollFirst();
+    }
+
+    events.addLast(to);
+    collector.add(laneId, this);
     return oldState;
   }
 
@@ -76,7 +93,6 @@ public class ValueState<T> implements State {
   }
 
   private void write(ByteWriter buffer, LaneResponse<T> item) {
-    IdentifiedLaneResponseEncoder<T> encoder = new IdentifiedLaneResponseEncoder<>(new WithLenReconEncoder<>(form));
     encoder.encode(new IdentifiedLaneResponse<>(laneId, item), buffer);
   }
 
@@ -97,10 +113,8 @@ public class ValueState<T> implements State {
     }
 
     if (dirty) {
-      ListIterator<T> iter = events.listIterator();
-
-      while (iter.hasNext()) {
-        T item = iter.next();
+      while (!events.isEmpty()) {
+        T item = events.peekFirst();
 
         try {
           write(bytes, LaneResponse.event(item));
@@ -108,7 +122,7 @@ public class ValueState<T> implements State {
           return WriteResult.DataStillAvailable;
         }
 
-        iter.remove();
+        events.pollFirst();
       }
 
       dirty = false;
@@ -121,7 +135,7 @@ public class ValueState<T> implements State {
   public void sync(UUID uuid) {
     syncRequests.add(LaneResponse.syncEvent(uuid, state));
     syncRequests.add(LaneResponse.synced(uuid));
-    collector.add(this);
+    collector.add(laneId, this);
   }
 
 }
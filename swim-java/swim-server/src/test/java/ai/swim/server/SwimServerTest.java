@@ -86,7 +86,8 @@ class SwimServerTest {
     ByteBuffer buffer = ByteBuffer.wrap(new byte[] {49, 51}); // 13
 
     ByteWriter bytes = new ByteWriter();
-    bytes.writeByteArray(agentView.dispatch(laneId, buffer, buffer.remaining()));
+    agentView.dispatch(laneId, buffer, buffer.remaining());
+    bytes.writeByteBuffer(agentView.responseBuffer().duplicate());
 
     // assert that there isn't any more data available. only three events should have been written and these would fit
     // in the buffer
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.agent;
+
+import ai.swim.server.SwimServerException;
+import ai.swim.server.annotations.SwimAgent;
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.LaneModel;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.server.lanes.value.ValueLane;
+import ai.swim.server.lanes.value.ValueLaneView;
+import ai.swim.server.schema.AgentSchema;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import static ai.swim.server.lanes.Lanes.mapLane;
+import static ai.swim.server.lanes.Lanes.valueLane;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AgentFactoryTest {
+
+  private static <A extends AbstractAgent> Map<Integer, LaneModel> initLanes(AgentInitializer<A> initializer,
+      Map<String, Integer> laneMappings) {
+    A agent = initializer.newAgent(new AgentContext(0, "agent"));
+    Map<Integer, LaneModel> lanes = new HashMap<>();
+    initializer.initLanes(agent, new StateCollector(), laneMappings, lanes);
+    return lanes;
+  }
+
+  @Test
+  void derivedInitializer() throws SwimServerException, NoSuchMethodException {
+    AgentSchema<TestAgent> schema = AgentSchema.reflectSchema(TestAgent.class);
+    Map<String, Integer> laneMappings = schema.laneMappings();
+
+    AgentFactoryTest_TestAgentInitializer initializer = new AgentFactoryTest_TestAgentInitializer();
+    assertSame(TestAgent.class, initializer.agentClass());
+
+    Map<Integer, LaneModel> derived = initLanes(initializer, laneMappings);
+    Map<Integer, LaneModel> reflected = initLanes(ReflectiveAgentInitializer.forClass(TestAgent.class), laneMappings);
+
+    assertEquals(new HashSet<>(laneMappings.values()), derived.keySet());
+    assertEquals(reflected.keySet(), derived.keySet());
+
+    for (Map.Entry<Integer, LaneModel> entry : reflected.entrySet()) {
+      assertSame(entry.getValue().getClass(), derived.get(entry.getKey()).getClass());
+    }
+  }
+
+  @Test
+  void derivedInitializerPrivateAgent() throws SwimServerException {
+    AgentSchema<PrivateAgent> schema = AgentSchema.reflectSchema(PrivateAgent.class);
+    AgentFactoryTest_PrivateAgentInitializer initializer = new AgentFactoryTest_PrivateAgentInitializer();
+    assertSame(PrivateAgent.class, initializer.agentClass());
+
+    Map<Integer, LaneModel> lanes = initLanes(initializer, schema.laneMappings());
+    assertEquals(new HashSet<>(schema.laneMappings().values()), lanes.keySet());
+  }
+
+  @SwimAgent
+  static class TestAgent extends AbstractAgent {
+    @SwimLane("value")
+    private final ValueLane<Integer> valueLane = valueLane(Integer.class);
+    @SwimLane
+    final ValueLaneView<Integer> viewLane = valueLane(Integer.class);
+    @SwimLane
+    MapLane<Integer, Integer> mapLane = mapLane(Integer.class, Integer.class);
+
+    TestAgent(AgentContext context) {
+      super(context);
+    }
+  }
+
+  @SwimAgent
+  private static class PrivateAgent extends AbstractAgent {
+    @SwimLane
+    private final ValueLane<Integer> valueLane = valueLane(Integer.class);
+
+    private PrivateAgent(AgentContext context) {
+      super(context);
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent;
+
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.decoder.DecoderException;
+import ai.swim.server.lanes.LaneModel;
+import ai.swim.server.lanes.LaneView;
+import ai.swim.server.lanes.state.StateCollector;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentNodeTest {
+
+  private static final class CountingLaneModel extends LaneModel {
+    private final List<String> events;
+    private final boolean consume;
+    private int dispatched;
+
+    CountingLaneModel() {
+      this(new ArrayList<>(), false);
+    }
+
+    CountingLaneModel(List<String> events, boolean consume) {
+      this.events = events;
+      this.consume = consume;
+    }
+
+    @Override
+    public void dispatch(ReadBuffer buffer) {
+      dispatched++;
+      if (consume) {
+        events.add(new String(buffer.getArray(), StandardCharsets.UTF_8));
+      }
+    }
+
+    @Override
+    public void sync(UUID remote) {
+
+    }
+
+    @Override
+    public void init(ReadBuffer buffer) {
+
+    }
+
+    @Override
+    public LaneView getLaneView() {
+      return null;
+    }
+  }
+
+  @Test
+  void allocatesLaneIds() throws DecoderException {
+    AgentNode node = new AgentNode(new StateCollector(), new HashMap<>(), new HashMap<>());
+    assertEquals(0, node.nextLaneId());
+
+    CountingLaneModel first = new CountingLaneModel();
+    node.addLane("first", node.nextLaneId(), first);
+    assertEquals(1, node.nextLaneId());
+
+    CountingLaneModel second = new CountingLaneModel();
+    node.addLane("second", 70, second);
+    assertEquals(71, node.nextLaneId());
+    assertTrue(node.containsLane("second"));
+
+    node.dispatch(70, ByteBuffer.allocate(0));
+    node.dispatch(70, ByteBuffer.allocate(0));
+    node.dispatch(0, ByteBuffer.allocate(0));
+
+    assertEquals(1, first.dispatched);
+    assertEquals(2, second.dispatched);
+  }
+
+  @Test
+  void seedsLaneIdsFromMappings() {
+    Map<Integer, LaneModel> lanes = new HashMap<>();
+    lanes.put(3, new CountingLaneModel());
+
+    Map<String, Integer> mappings = new HashMap<>();
+    mappings.put("lane", 3);
+
+    AgentNode node = new AgentNode(new StateCollector(), lanes, mappings);
+    assertEquals(4, node.nextLaneId());
+  }
+
+  private static void putRecord(ByteBuffer buffer, int laneIdx, String event) {
+    byte[] bytes = event.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(laneIdx).putInt(bytes.length).put(bytes);
+  }
+
+  @Test
+  void dispatchesBatch() throws DecoderException {
+    List<String> events = new ArrayList<>();
+    CountingLaneModel first = new CountingLaneModel(events, true);
+    // Does not read the events that it receives.
+    CountingLaneModel second = new CountingLaneModel();
+
+    AgentNode node = new AgentNode(new StateCollector(), new HashMap<>(), new HashMap<>());
+    node.addLane("first", 0, first);
+    node.addLane("second", 1, second);
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+    putRecord(buffer, 0, "a");
+    putRecord(buffer, 1, "skipped");
+    putRecord(buffer, 0, "bc");
+    putRecord(buffer, 0, "");
+    buffer.flip();
+
+    node.dispatchBatch(buffer);
+
+    assertEquals(List.of("a", "bc", ""), events);
+    assertEquals(3, first.dispatched);
+    assertEquals(1, second.dispatched);
+    assertEquals(buffer.limit(), buffer.position());
+  }
+
+  @Test
+  void unknownLane() {
+    AgentNode node = new AgentNode(new StateCollector(), Map.of(), Map.of());
+    assertThrows(IllegalArgumentException.class, () -> node.dispatch(1, ByteBuffer.allocate(0)));
+    assertThrows(IllegalArgumentException.class, () -> node.dispatch(-1, ByteBuffer.allocate(0)));
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.codec.decoder.Decoder;
+import ai.swim.codec.decoder.DecoderException;
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.LaneModel;
+import ai.swim.server.lanes.map.MapLaneModel;
+import ai.swim.server.lanes.map.MapLaneView;
+import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.codec.MapOperationDecoder;
+import ai.swim.server.lanes.map.codec.MapOperationEncoder;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.server.lanes.value.ValueLaneModel;
+import ai.swim.server.lanes.value.ValueLaneView;
+import ai.swim.structure.Form;
+import ai.swim.structure.ReconDecoder;
+import ai.swim.structure.writer.std.ScalarWriters;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Asserts that dispatching an envelope from the direct buffer that the Rust runtime provides allocates no more than
+ * decoding the envelope's value itself requires; no per-dispatch readers, inputs, parsers or decoders.
+ */
+class DispatchAllocationTest {
+  private static final int WARMUP = 20_000;
+  private static final int ITERATIONS = 10_000;
+  /**
+   * Allowance, in bytes per dispatch, for allocations that are made by the lane's state rather than by the dispatch
+   * path. E.g, the queue entry that is required to track a map lane event.
+   */
+  private static final long STATE_ALLOWANCE = 64;
+
+  private interface Operation {
+    void run(ReadBuffer reader) throws DecoderException;
+  }
+
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counters are not supported");
+
+    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(sunBean.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+    sunBean.setThreadAllocatedMemoryEnabled(true);
+
+    return sunBean;
+  }
+
+  private static ByteBuffer directBuffer(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer;
+  }
+
+  private static AgentNode node(StateCollector collector, LaneModel model) {
+    Map<Integer, LaneModel> lanes = new HashMap<>();
+    lanes.put(0, model);
+
+    Map<String, Integer> mappings = new HashMap<>();
+    mappings.put("lane", 0);
+
+    return new AgentNode(collector, lanes, mappings);
+  }
+
+  /**
+   * Runs {@code operation} against the contents of {@code buffer}, rewinding the buffer between each run in the same
+   * way that the Rust runtime reuses its direct buffer, and returns the average number of bytes allocated by the
+   * operation. Flushing the lane's state back to the runtime is not measured.
+   */
+  private static long allocatedPerRun(com.sun.management.ThreadMXBean bean,
+      AgentNode node,
+      StateCollector collector,
+      ByteBuffer buffer,
+      Operation operation) throws DecoderException {
+    long threadId = Thread.currentThread().getId();
+    int len = buffer.limit();
+    long allocated = 0;
+
+    for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+      buffer.clear().limit(len);
+      ReadBuffer reader = node.reader(buffer);
+
+      CallContext.enter();
+      long before = bean.getThreadAllocatedBytes(threadId);
+      operation.run(reader);
+      long after = bean.getThreadAllocatedBytes(threadId);
+
+      collector.flushState();
+      CallContext.exit();
+
+      if (i >= WARMUP) {
+        allocated += after - before;
+      }
+    }
+
+    return allocated / ITERATIONS;
+  }
+
+  @Test
+  void reusesReader() {
+    AgentNode node = node(new StateCollector(), null);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+    ReadBuffer reader = node.reader(buffer);
+
+    assertSame(reader, node.reader(buffer));
+  }
+
+  @Test
+  void valueLaneDispatch() throws DecoderException {
+    com.sun.management.ThreadMXBean bean = threadMXBean();
+
+    StateCollector collector = new StateCollector();
+    ValueLaneView<Integer> view = new ValueLaneView<>(Form.forClass(Integer.class));
+    ValueLaneModel<Integer> model = new ValueLaneModel<>(0, view, collector);
+    view.setModel(model);
+
+    AgentNode node = node(collector, model);
+    ByteBuffer buffer = directBuffer("13".getBytes(StandardCharsets.UTF_8));
+
+    ReconDecoder<Integer> decoder = new ReconDecoder<>(Form.forClass(Integer.class));
+    long decoding = allocatedPerRun(bean, node, collector, buffer, decoder::decode);
+    long dispatching = allocatedPerRun(bean, node, collector, buffer, model::dispatch);
+
+    CallContext.enter();
+    assertEquals(13, model.get());
+    CallContext.exit();
+
+    assertTrue(dispatching <= decoding + STATE_ALLOWANCE,
+        String.format("Dispatch allocated %d bytes but decoding only requires %d bytes", dispatching, decoding));
+  }
+
+  @Test
+  void mapLaneDispatch() throws DecoderException {
+    com.sun.management.ThreadMXBean bean = threadMXBean();
+
+    StateCollector collector = new StateCollector();
+    MapLaneView<Integer, Integer> view = new MapLaneView<>(Form.forClass(Integer.class), Form.forClass(Integer.class));
+    MapLaneModel<Integer, Integer> model = new MapLaneModel<>(0, view, collector);
+    view.setModel(model);
+
+    ByteWriter writer = new ByteWriter();
+    new MapOperationEncoder<>(ScalarWriters.INTEGER, ScalarWriters.INTEGER).encode(MapOperation.update(1, 2), writer);
+
+    AgentNode node = node(collector, model);
+    ByteBuffer buffer = directBuffer(writer.getArray());
+
+    Decoder<MapOperation<Integer, Integer>> decoder = new MapOperationDecoder<>(
+        Form.forClass(Integer.class),
+        Form.forClass(Integer.class));
+    long decoding = allocatedPerRun(bean, node, collector, buffer, reader -> decoder.decode(reader).reset());
+    long dispatching = allocatedPerRun(bean, node, collector, buffer, model::dispatch);
+
+    CallContext.enter();
+    assertEquals(2, model.get(1));
+    CallContext.exit();
+
+    assertTrue(dispatching <= decoding + STATE_ALLOWANCE,
+        String.format("Dispatch allocated %d bytes but decoding only requires %d bytes", dispatching, decoding));
+  }
+
+}
@@ -53,6 +53,39 @@ class MapOperationDecoderTest {
     roundTrip(MapOperation.update(1, 2));
   }
 
+  @Test
+  public void roundTripUpdateDifferentLengths() throws DecoderException {
+    roundTrip(MapOperation.update(1, 123456));
+    roundTrip(MapOperation.update(123456, 1));
+  }
+
+  @Test
+  public void partialMessage() throws DecoderException {
+    MapOperationEncoder<Integer, Integer> encoder = new MapOperationEncoder<>(
+        ScalarWriters.INTEGER,
+        ScalarWriters.INTEGER);
+    ByteWriter writer = new ByteWriter();
+    encoder.encode(MapOperation.update(12, 345678), writer);
+
+    byte[] bytes = writer.getArray();
+    Decoder<MapOperation<Integer, Integer>> decoder = new MapOperationDecoder<>(
+        ScalarRecognizer.INTEGER,
+        ScalarRecognizer.INTEGER);
+
+    ByteWriter partial = new ByteWriter();
+    for (byte b : bytes) {
+      assertTrue(!decoder.isDone());
+      partial.writeByte(b);
+      ByteReader reader = partial.reader();
+      decoder = decoder.decode(reader);
+      partial = new ByteWriter();
+      partial.writeByteArray(reader.getArray());
+    }
+
+    assertTrue(decoder.isDone());
+    assertEquals(MapOperation.update(12, 345678), decoder.bind());
+  }
+
   @Test
   public void multipleMessages() throws DecoderException {
     MapOperationEncoder<Integer, Integer> encoder = new MapOperationEncoder<>(
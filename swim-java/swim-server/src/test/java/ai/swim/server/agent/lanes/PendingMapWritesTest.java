@@ -8,6 +8,7 @@ import ai.swim.server.agent.lanes.models.response.IdentifiedLaneResponseDecoder;
 import ai.swim.server.lanes.PendingMapWrites;
 import ai.swim.server.lanes.WriteResult;
 import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.MapSyncRequest;
 import ai.swim.server.lanes.map.TypedHashMap;
 import ai.swim.server.lanes.map.codec.MapOperationDecoder;
 import ai.swim.server.lanes.models.response.IdentifiedLaneResponse;
@@ -15,11 +16,15 @@ import ai.swim.server.lanes.models.response.LaneResponse;
 import ai.swim.server.lanes.models.response.LaneResponseDecoder;
 import ai.swim.server.lanes.models.response.LaneResponseVisitor;
 import ai.swim.structure.Form;
+import ai.swim.util.HashTrieMap;
 import org.junit.jupiter.api.Test;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -244,4 +249,184 @@ class PendingMapWritesTest {
     assertEquals(WriteResult.NoData, writeResult);
   }
 
-}
\ No newline at end of file
+  @Test
+  void coalescesEventsPerKey() throws DecoderException {
+    PendingMapWrites<Integer, Integer> pendingWrites = new PendingMapWrites<>(true);
+    Form<Integer> integerForm = Form.forClass(Integer.class);
+    TypedHashMap<Integer, Integer> state = buildMap();
+
+    for (int i = 0; i < 500; i++) {
+      pendingWrites.pushOperation(MapOperation.update(1, i));
+    }
+
+    pendingWrites.pushOperation(MapOperation.update(2, 2));
+    pendingWrites.pushOperation(MapOperation.remove(1));
+    pendingWrites.pushOperation(MapOperation.update(3, 3));
+    pendingWrites.pushOperation(MapOperation.update(2, 4));
+
+    ByteWriter buffer = new ByteWriter();
+    WriteResult writeResult = pendingWrites.writeInto(0, state, buffer, integerForm, integerForm);
+
+    assertEquals(WriteResult.Done, writeResult);
+
+    Decoder<IdentifiedLaneResponse<MapOperation<Integer, Integer>>> decoder = new IdentifiedLaneResponseDecoder<>(new LaneResponseDecoder<>(
+        new MapOperationDecoder<>(integerForm, integerForm)));
+    ByteReader reader = buffer.reader();
+
+    // Keys are written in the order that they were first written to and only their latest operation is written.
+    decoder = decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.remove(1)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.update(2, 4)));
+    decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.update(3, 3)));
+
+    assertTrue(reader.isEmpty());
+
+    writeResult = pendingWrites.writeInto(0, state, buffer, integerForm, integerForm);
+    assertEquals(WriteResult.NoData, writeResult);
+  }
+
+  @Test
+  void coalescedClearSupersedesEvents() throws DecoderException {
+    PendingMapWrites<Integer, Integer> pendingWrites = new PendingMapWrites<>(true);
+    Form<Integer> integerForm = Form.forClass(Integer.class);
+    TypedHashMap<Integer, Integer> state = buildMap();
+    UUID remote = UUID.randomUUID();
+
+    pendingWrites.pushOperation(MapOperation.update(1, 1));
+    pendingWrites.pushOperation(MapOperation.remove(6));
+    pendingWrites.pushOperation(MapOperation.clear());
+    pendingWrites.pushOperation(MapOperation.update(1, 2));
+    pendingWrites.pushOperation(MapOperation.clear());
+    pendingWrites.pushOperation(MapOperation.update(7, 7));
+    pendingWrites.pushSync(remote, state.keySet().iterator());
+
+    ByteWriter buffer = new ByteWriter();
+    WriteResult writeResult = pendingWrites.writeInto(0, state, buffer, integerForm, integerForm);
+
+    assertEquals(WriteResult.Done, writeResult);
+
+    Decoder<IdentifiedLaneResponse<MapOperation<Integer, Integer>>> decoder = new IdentifiedLaneResponseDecoder<>(new LaneResponseDecoder<>(
+        new MapOperationDecoder<>(integerForm, integerForm)));
+    ByteReader reader = buffer.reader();
+
+    // Sync requests are interleaved with the coalesced events in the same manner as uncoalesced events.
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(1, 1)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.clear()));
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(2, 2)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.update(7, 7)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(3, 3)));
+    decodeAndVisit(decoder, reader, () -> expectSynced(remote));
+
+    assertTrue(reader.isEmpty());
+
+    writeResult = pendingWrites.writeInto(0, state, buffer, integerForm, integerForm);
+    assertEquals(WriteResult.NoData, writeResult);
+  }
+
+  @Test
+  void snapshotSync() throws DecoderException {
+    PendingMapWrites<Integer, Integer> pendingWrites = new PendingMapWrites<>();
+    Form<Integer> integerForm = Form.forClass(Integer.class);
+    HashTrieMap<Integer, Integer> state = HashTrieMap.<Integer, Integer>empty()
+        .updated(1, 1)
+        .updated(2, 2)
+        .updated(3, 3);
+    UUID remote = UUID.randomUUID();
+
+    pendingWrites.pushSync(remote, state);
+
+    // Updates made after the sync request was pushed must not be visible to it.
+    state = state.updated(1, 10).removed(2);
+    pendingWrites.pushOperation(MapOperation.update(1, 10));
+    pendingWrites.pushOperation(MapOperation.remove(2));
+
+    ByteWriter buffer = new ByteWriter();
+    WriteResult writeResult = pendingWrites.writeInto(0, state::get, buffer, integerForm, integerForm);
+
+    assertEquals(WriteResult.Done, writeResult);
+
+    Decoder<IdentifiedLaneResponse<MapOperation<Integer, Integer>>> decoder = new IdentifiedLaneResponseDecoder<>(new LaneResponseDecoder<>(
+        new MapOperationDecoder<>(integerForm, integerForm)));
+    ByteReader reader = buffer.reader();
+
+    // The snapshot is streamed in full before the operations.
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(1, 1)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(2, 2)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectSyncEvent(remote, MapOperation.update(3, 3)));
+    decoder = decodeAndVisit(decoder, reader, () -> expectSynced(remote));
+    decoder = decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.update(1, 10)));
+    decodeAndVisit(decoder, reader, () -> expectEvent(MapOperation.remove(2)));
+
+    assertTrue(reader.isEmpty());
+
+    writeResult = pendingWrites.writeInto(0, state::get, buffer, integerForm, integerForm);
+    assertEquals(WriteResult.NoData, writeResult);
+  }
+
+  @Test
+  void largeSnapshotSpansSeveralRounds() throws DecoderException {
+    PendingMapWrites<Integer, Integer> pendingWrites = new PendingMapWrites<>();
+    Form<Integer> integerForm = Form.forClass(Integer.class);
+    HashTrieMap<Integer, Integer> state = HashTrieMap.empty();
+    Set<MapOperation<Integer, Integer>> expected = new HashSet<>();
+
+    for (int i = 0; i < 20000; i++) {
+      state = state.updated(i, i);
+      expected.add(MapOperation.update(i, i));
+    }
+
+    UUID remote = UUID.randomUUID();
+    pendingWrites.pushSync(remote, state);
+
+    Decoder<IdentifiedLaneResponse<MapOperation<Integer, Integer>>> decoder = new IdentifiedLaneResponseDecoder<>(new LaneResponseDecoder<>(
+        new MapOperationDecoder<>(integerForm, integerForm)));
+    HashTrieMap<Integer, Integer> lookup = state;
+    boolean[] synced = new boolean[1];
+    int rounds = 0;
+    WriteResult writeResult;
+
+    do {
+      ByteWriter buffer = new ByteWriter();
+      writeResult = pendingWrites.writeInto(0, lookup::get, buffer, integerForm, integerForm);
+      rounds += 1;
+
+      // A round may overshoot the budget by at most one entry.
+      assertTrue(buffer.writePosition() < MapSyncRequest.WRITE_BUDGET * 2);
+
+      // Every round ends on a frame boundary.
+      ByteReader reader = buffer.reader();
+      while (!reader.isEmpty()) {
+        assertFalse(synced[0]);
+        decoder = decodeAndVisit(decoder, reader, () -> new LaneResponseVisitor<MapOperation<Integer, Integer>>() {
+          @Override
+          public void visitInitialized() {
+            fail("Unexpected initialized response");
+          }
+
+          @Override
+          public void visitEvent(MapOperation<Integer, Integer> event) {
+            fail("Unexpected event " + event);
+          }
+
+          @Override
+          public void visitSyncEvent(UUID id, MapOperation<Integer, Integer> event) {
+            assertEquals(remote, id);
+            assertTrue(expected.remove(event));
+          }
+
+          @Override
+          public void visitSynced(UUID id) {
+            assertEquals(remote, id);
+            synced[0] = true;
+          }
+        });
+      }
+    } while (writeResult == WriteResult.DataStillAvailable);
+
+    assertEquals(WriteResult.Done, writeResult);
+    assertTrue(rounds > 1);
+    assertTrue(expected.isEmpty());
+    assertTrue(synced[0]);
+    assertEquals(WriteResult.NoData, pendingWrites.writeInto(0, lookup::get, new ByteWriter(), integerForm, integerForm));
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.agent.task;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+  private static final Duration TICK = Duration.ofMillis(10);
+
+  private static final class TestTicker implements TimerWheel.Ticker {
+    private int starts;
+    private int stops;
+    private boolean running;
+
+    @Override
+    public void start(Duration tick, Runnable onTick) {
+      assertFalse(running);
+      assertEquals(TICK, tick);
+      running = true;
+      starts += 1;
+    }
+
+    @Override
+    public void stop() {
+      assertTrue(running);
+      running = false;
+      stops += 1;
+    }
+  }
+
+  private long now;
+
+  private void elapse(Duration duration) {
+    now += duration.toNanos();
+  }
+
+  private TimerWheel wheel(TestTicker ticker, int slots) {
+    return new TimerWheel(TICK, slots, ticker, () -> now);
+  }
+
+  @Test
+  void runsDueTasksInOneAdvance() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 8);
+    List<String> runs = new ArrayList<>();
+
+    TimerTask a = wheel.suspend(Duration.ofMillis(10), () -> runs.add("a"));
+    TimerTask b = wheel.suspend(Duration.ofMillis(15), () -> runs.add("b"));
+    wheel.suspend(Duration.ofMillis(50), () -> runs.add("c"));
+
+    assertNotEquals(a.getId(), b.getId());
+    assertEquals(1, ticker.starts);
+    assertEquals(3, wheel.size());
+
+    elapse(Duration.ofMillis(10));
+    assertEquals(1, wheel.advance());
+    assertEquals(List.of("a"), runs);
+
+    elapse(Duration.ofMillis(10));
+    assertEquals(1, wheel.advance());
+    assertEquals(List.of("a", "b"), runs);
+    assertFalse(b.isScheduled());
+    assertEquals(1, wheel.size());
+
+    elapse(Duration.ofMillis(30));
+    assertEquals(1, wheel.advance());
+    assertEquals(List.of("a", "b", "c"), runs);
+
+    assertEquals(0, wheel.size());
+    assertEquals(1, ticker.stops);
+  }
+
+  @Test
+  void repeatsTasks() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 8);
+
+    TimerTask task = wheel.repeatTask(3, Duration.ofMillis(20), () -> {
+    });
+
+    for (int i = 0; i < 10; i++) {
+      elapse(TICK);
+      wheel.advance();
+    }
+
+    assertEquals(3, task.getRunCount());
+    assertFalse(task.isScheduled());
+    assertFalse(ticker.running);
+  }
+
+  @Test
+  void runsTasksBeyondOneRotation() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 4);
+    TimerTask task = wheel.suspend(Duration.ofMillis(100), () -> {
+    });
+
+    for (int i = 0; i < 9; i++) {
+      elapse(TICK);
+      wheel.advance();
+    }
+    assertEquals(0, task.getRunCount());
+
+    elapse(TICK);
+    wheel.advance();
+    assertEquals(1, task.getRunCount());
+  }
+
+  @Test
+  void catchesUpAfterMissedTicks() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 4);
+    List<Integer> runs = new ArrayList<>();
+
+    for (int i = 1; i <= 6; i++) {
+      int id = i;
+      wheel.suspend(TICK.multipliedBy(i), () -> runs.add(id));
+    }
+
+    elapse(TICK.multipliedBy(20));
+    assertEquals(6, wheel.advance());
+    assertEquals(6, runs.size());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancelsTasks() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 8);
+    List<String> runs = new ArrayList<>();
+
+    TimerTask[] tasks = new TimerTask[2];
+    // The first task cancels the second, which is due in the same tick.
+    tasks[0] = wheel.scheduleTaskIndefinitely(TICK, () -> {
+      runs.add("a");
+      tasks[1].cancel();
+    });
+    tasks[1] = wheel.scheduleTaskIndefinitely(TICK, () -> runs.add("b"));
+
+    elapse(TICK);
+    assertEquals(1, wheel.advance());
+    assertEquals(List.of("a"), runs);
+    assertFalse(tasks[1].isScheduled());
+
+    tasks[0].cancel();
+    assertEquals(0, wheel.size());
+
+    elapse(TICK);
+    assertEquals(0, wheel.advance());
+    assertFalse(ticker.running);
+
+    // Scheduling a new task restarts the ticker.
+    wheel.suspend(TICK, () -> {
+    });
+    assertTrue(ticker.running);
+    assertEquals(2, ticker.starts);
+  }
+
+  @Test
+  void failingTask() {
+    TestTicker ticker = new TestTicker();
+    TimerWheel wheel = wheel(ticker, 8);
+    List<String> runs = new ArrayList<>();
+
+    TimerTask failing = wheel.scheduleTaskIndefinitely(TICK, () -> {
+      throw new IllegalStateException();
+    });
+    TimerTask other = wheel.scheduleTaskIndefinitely(TICK, () -> runs.add("b"));
+
+    elapse(TICK);
+    assertThrows(IllegalStateException.class, wheel::advance);
+    assertFalse(failing.isScheduled());
+    assertTrue(other.isScheduled());
+    assertEquals(1, wheel.size());
+    assertEquals(List.of(), runs);
+
+    // The tasks that were due after the failing task are run on the next tick.
+    elapse(TICK);
+    assertEquals(1, wheel.advance());
+    assertEquals(List.of("b"), runs);
+  }
+
+  @Test
+  void invalidArguments() {
+    TestTicker ticker = new TestTicker();
+    assertThrows(IllegalArgumentException.class, () -> new TimerWheel(Duration.ZERO, ticker));
+    assertThrows(IllegalArgumentException.class, () -> wheel(ticker, 6));
+    assertThrows(IllegalArgumentException.class, () -> wheel(ticker, 8).repeatTask(0, TICK, () -> {
+    }));
+  }
+
+}
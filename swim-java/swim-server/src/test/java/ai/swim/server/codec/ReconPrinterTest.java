@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.codec;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.structure.Form;
+import ai.swim.structure.Recon;
+import ai.swim.structure.annotations.AutoForm;
+import ai.swim.structure.writer.Writable;
+import ai.swim.structure.writer.std.ScalarWriters;
+import org.junit.jupiter.api.Test;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReconPrinterTest {
+
+  private static <V> void printsAsRecon(Writable<V> writable, V value) {
+    ByteWriter writer = new ByteWriter();
+    ReconPrinter.print(writable, value, writer);
+
+    StringWriter expected = new StringWriter();
+    Recon.printReconCompact(expected, writable, value);
+
+    assertEquals(expected.toString(), new String(writer.getArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void integral() {
+    List<Long> longs = List.of(0L, 1L, -1L, 9L, 10L, 99L, 100L, 123456789L, -987654321L, Long.MAX_VALUE, Long.MIN_VALUE);
+    for (long value : longs) {
+      printsAsRecon(ScalarWriters.LONG, value);
+    }
+
+    for (int value : List.of(0, 7, -7, 1000, Integer.MAX_VALUE, Integer.MIN_VALUE)) {
+      printsAsRecon(ScalarWriters.INTEGER, value);
+      printsAsRecon(Form.forClass(Integer.class), value);
+    }
+
+    printsAsRecon(ScalarWriters.SHORT, Short.MIN_VALUE);
+    printsAsRecon(ScalarWriters.BYTE, Byte.MAX_VALUE);
+  }
+
+  @Test
+  void floating() {
+    for (double value : List.of(0.0, -0.0, 1.5, -2.25, 0.1, 1e300, Double.MIN_VALUE, Double.NaN, Double.NEGATIVE_INFINITY)) {
+      printsAsRecon(ScalarWriters.DOUBLE, value);
+      printsAsRecon(Form.forClass(Double.class), value);
+    }
+
+    printsAsRecon(ScalarWriters.FLOAT, 3.75f);
+  }
+
+  @Test
+  void bool() {
+    printsAsRecon(ScalarWriters.BOOLEAN, true);
+    printsAsRecon(Form.forClass(Boolean.class), false);
+  }
+
+  @Test
+  void text() {
+    printsAsRecon(ScalarWriters.STRING, "identifier");
+    printsAsRecon(ScalarWriters.STRING, "not an identifier");
+    printsAsRecon(ScalarWriters.STRING, "caf\u00e9 \ud83d\ude00");
+  }
+
+  @Test
+  void structural() {
+    printsAsRecon(new EntryWriter(), new Entry("name with spaces", -13L));
+  }
+
+  @AutoForm
+  public static class Entry {
+    public String name;
+    public long value;
+
+    public Entry() {
+
+    }
+
+    public Entry(String name, long value) {
+      this.name = name;
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.codec;
+
+import ai.swim.codec.data.ReadBuffer;
+import ai.swim.server.codec.ReconScalars.ScalarKind;
+import ai.swim.structure.Form;
+import ai.swim.structure.ReconDecoder;
+import ai.swim.structure.recognizer.Recognizer;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReconScalarsTest {
+
+  /**
+   * Asserts that {@code recon} is decoded directly to the same value as {@code recognizer} decodes it to, or not at all.
+   */
+  private static <T> void decodesAsRecognizer(Recognizer<T> recognizer, String recon, boolean plain) {
+    byte[] bytes = recon.getBytes(StandardCharsets.UTF_8);
+    ReadBuffer buffer = ReadBuffer.fromArray(bytes);
+    Object actual = ReconScalars.decode(ScalarKind.of(recognizer), buffer, bytes.length);
+
+    if (plain) {
+      T expected = new ReconDecoder<>(recognizer).decode(ReadBuffer.fromArray(bytes), bytes.length);
+      assertEquals(expected, actual, recon);
+      assertTrue(buffer.isEmpty());
+    } else {
+      assertNull(actual, recon);
+      assertEquals(bytes.length, buffer.remaining());
+    }
+  }
+
+  @Test
+  void integers() {
+    Form<Integer> form = Form.forClass(Integer.class);
+    for (String recon : List.of("0", "7", "-7", "123456789", "-999999999")) {
+      decodesAsRecognizer(form, recon, true);
+    }
+
+    decodesAsRecognizer(form, "2147483647", false);
+    decodesAsRecognizer(form, "0x10", false);
+    decodesAsRecognizer(form, "1.0", false);
+  }
+
+  @Test
+  void longs() {
+    Form<Long> form = Form.forClass(long.class);
+    for (String recon : List.of("0", "-1", "4294967296", "999999999999999999", "-999999999999999999")) {
+      decodesAsRecognizer(form, recon, true);
+    }
+
+    decodesAsRecognizer(form, "9223372036854775807", false);
+    decodesAsRecognizer(form, "-", false);
+  }
+
+  @Test
+  void doubles() {
+    Form<Double> form = Form.forClass(Double.class);
+    for (String recon : List.of("0", "-3", "1.5", "-0.1", "2.5e3", "1E-7", "123456.789", "9007199254740993")) {
+      decodesAsRecognizer(form, recon, true);
+    }
+
+    decodesAsRecognizer(form, "1.", false);
+    decodesAsRecognizer(form, "1e", false);
+  }
+
+  @Test
+  void unsupportedRecognizers() {
+    assertNull(ScalarKind.of(Form.forClass(String.class)));
+    assertNull(ScalarKind.of(Form.forClass(Boolean.class)));
+  }
+
+}
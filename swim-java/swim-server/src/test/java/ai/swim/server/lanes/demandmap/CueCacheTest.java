@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.demandmap;
+
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.structure.Form;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CueCacheTest {
+
+  @BeforeEach
+  void enter() {
+    CallContext.enter();
+  }
+
+  @AfterEach
+  void exit() {
+    CallContext.exit();
+  }
+
+  @Test
+  void expiresEntries() {
+    long[] now = {0};
+    CueCache<String, Integer> cache = new CueCache<>(8, Duration.ofNanos(10), () -> now[0]);
+
+    cache.put("a", 1);
+    now[0] = 9;
+    assertEquals(1, cache.get("a"));
+    now[0] = 10;
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    CueCache<String, Integer> cache = new CueCache<>(2, Duration.ofHours(1));
+
+    cache.put("a", 1);
+    cache.put("b", 2);
+    assertEquals(1, cache.get("a"));
+    cache.put("c", 3);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(3, cache.get("c"));
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new CueCache<>(0, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class, () -> new CueCache<>(1, Duration.ZERO));
+  }
+
+  @Test
+  void sharedBetweenSyncRequests() {
+    Map<String, Integer> lut = new HashMap<>(Map.of("1", 1, "2", 2, "3", 3));
+    List<String> cued = new ArrayList<>();
+    StateCollector collector = new StateCollector();
+    DemandMapLaneView<String, Integer> lane = new DemandMapLaneView<>(Form.forClass(String.class),
+                                                                      Form.forClass(Integer.class))
+        .onCueKey(key -> {
+          cued.add(key);
+          return lut.get(key);
+        })
+        .onSyncKeys(() -> lut.keySet().iterator())
+        .cueCache(16, Duration.ofHours(1));
+    DemandMapLaneModel<String, Integer> model = (DemandMapLaneModel<String, Integer>) lane.initLaneModel(collector, 0);
+
+    model.sync(UUID.randomUUID());
+    model.sync(UUID.randomUUID());
+    collector.flushState();
+
+    assertEquals(3, cued.size());
+    assertEquals(3, lane.cueCache().hits());
+    assertEquals(3, lane.cueCache().misses());
+
+    lut.put("1", 10);
+    lane.cueKey("1");
+    lut.remove("2");
+    lane.cueKey("2");
+    collector.flushState();
+    cued.clear();
+
+    model.sync(UUID.randomUUID());
+    collector.flushState();
+
+    assertEquals(List.of(), cued);
+    assertEquals(5, lane.cueCache().hits());
+    assertEquals(3, lane.cueCache().misses());
+    assertEquals(2, lane.cueCache().size());
+  }
+
+  @Test
+  void rejectedOnceOpened() {
+    DemandMapLaneView<String, Integer> lane = new DemandMapLaneView<>(Form.forClass(String.class),
+                                                                      Form.forClass(Integer.class));
+    lane.initLaneModel(new StateCollector(), 0);
+
+    assertThrows(IllegalStateException.class, () -> lane.cueCache(16, Duration.ofHours(1)));
+    assertNull(lane.cueCache());
+  }
+
+}
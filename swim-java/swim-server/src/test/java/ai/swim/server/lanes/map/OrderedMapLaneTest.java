@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map;
+
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.Lanes;
+import ai.swim.server.lanes.state.StateCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderedMapLaneTest {
+
+  private static final List<Integer> KEYS = List.of(5, 1, 4, 2, 3);
+
+  @BeforeEach
+  void enter() {
+    CallContext.enter();
+  }
+
+  @AfterEach
+  void exit() {
+    CallContext.exit();
+  }
+
+  /**
+   * Flushes {@code collector} and returns a copy of the responses that were written into its response buffer.
+   */
+  private static byte[] flush(StateCollector collector) {
+    collector.flushState();
+    ByteBuffer responses = collector.responseBuffer();
+    byte[] bytes = new byte[responses.remaining()];
+    responses.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private static OrderedMapLaneView<Integer, String> orderedLane(StateCollector collector) {
+    OrderedMapLaneView<Integer, String> lane = Lanes.orderedMapLane(Integer.class, String.class);
+    lane.initLaneModel(collector, 0);
+
+    for (Integer key : KEYS) {
+      lane.put(key, "v" + key);
+    }
+
+    return lane;
+  }
+
+  /**
+   * Returns a lane whose store iterates in insertion order, populated with {@code keys} in order.
+   */
+  private static MapLaneView<Integer, String> insertionOrderedLane(StateCollector collector, List<Integer> keys) {
+    MapLaneView<Integer, String> lane = Lanes.mapLane(int.class, String.class);
+    lane.initLaneModel(collector, 0);
+
+    for (Integer key : keys) {
+      lane.put(key, "v" + key);
+    }
+
+    return lane;
+  }
+
+  @Test
+  void rangeQueries() {
+    OrderedMapLaneView<Integer, String> lane = orderedLane(new StateCollector());
+
+    assertEquals(1, lane.firstKey());
+    assertEquals(5, lane.lastKey());
+    assertEquals(List.of(2, 3), new ArrayList<>(lane.subMap(2, 4).keySet()));
+    assertEquals(List.of(1, 2), new ArrayList<>(lane.headMap(3).keySet()));
+    assertEquals(List.of(4, 5), new ArrayList<>(lane.tailMap(4).keySet()));
+    assertEquals(List.of(1, 2, 3, 4, 5), new ArrayList<>(lane.keySet()));
+
+    lane.clear();
+    assertNull(lane.firstKey());
+    assertNull(lane.lastKey());
+  }
+
+  @Test
+  void takeAndDrop() {
+    StateCollector collector = new StateCollector();
+    List<Integer> removed = new ArrayList<>();
+    OrderedMapLaneView<Integer, String> lane = orderedLane(collector).onRemove((key, value) -> {
+      assertEquals("v" + key, value);
+      removed.add(key);
+    });
+
+    lane.drop(2);
+    assertEquals(List.of(1, 2), removed);
+    lane.take(2);
+    assertEquals(List.of(1, 2, 5), removed);
+    assertEquals(Map.of(3, "v3", 4, "v4"), Map.copyOf(lane.subMap(0, 10)));
+
+    // A remove event is sent for each of the removed entries.
+    StateCollector expectedCollector = new StateCollector();
+    MapLaneView<Integer, String> expected = insertionOrderedLane(expectedCollector, KEYS);
+    expected.remove(1);
+    expected.remove(2);
+    expected.remove(5);
+
+    assertArrayEquals(flush(expectedCollector), flush(collector));
+  }
+
+  @Test
+  void syncsInKeyOrder() {
+    StateCollector collector = new StateCollector();
+    OrderedMapLaneView<Integer, String> lane = orderedLane(collector);
+    collector.flushState();
+
+    StateCollector expectedCollector = new StateCollector();
+    MapLaneView<Integer, String> expected = insertionOrderedLane(expectedCollector, List.of(1, 2, 3, 4, 5));
+    expectedCollector.flushState();
+
+    UUID remote = UUID.randomUUID();
+    expected.model().sync(remote);
+    lane.model().sync(remote);
+
+    assertArrayEquals(flush(expectedCollector), flush(collector));
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.map.offheap;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.server.lanes.map.MapOperation;
+import ai.swim.server.lanes.map.MapSyncRequest;
+import ai.swim.server.lanes.map.codec.MapOperationEncoder;
+import ai.swim.server.lanes.models.response.IdentifiedLaneResponseEncoder;
+import ai.swim.structure.Form;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapMapStoreTest {
+
+  private static OffHeapMapStore<Integer, String> newStore(OffHeapStorage storage) {
+    return new OffHeapMapStore<>(Form.forClass(Integer.class), Form.forClass(String.class), storage);
+  }
+
+  private static String randomValue(Random random) {
+    // Occasionally larger than a segment.
+    int len = random.nextInt(50) == 0 ? 5000 : random.nextInt(64);
+    StringBuilder builder = new StringBuilder(len);
+    for (int i = 0; i < len; i++) {
+      builder.append((char) ('a' + random.nextInt(26)));
+    }
+    return builder.toString();
+  }
+
+  private static void matchesHashMap(OffHeapStorage storage) {
+    Random random = new Random(7);
+    Map<Integer, String> expected = new HashMap<>();
+    OffHeapMapStore<Integer, String> store = newStore(storage);
+
+    for (int i = 0; i < 50_000; i++) {
+      int key = random.nextInt(500);
+
+      if (random.nextInt(4) == 0) {
+        assertEquals(expected.remove(key), store.remove(key));
+      } else {
+        String value = randomValue(random);
+        assertEquals(expected.put(key, value), store.put(key, value));
+      }
+
+      assertEquals(expected.size(), store.size());
+    }
+
+    for (int key = 0; key < 500; key++) {
+      assertEquals(expected.get(key), store.get(key));
+      assertEquals(expected.containsKey(key), store.containsKey(key));
+    }
+
+    assertEquals(expected, new HashMap<>(store.snapshot()));
+    assertEquals(expected.keySet(), store.keySet());
+    assertEquals(expected.entrySet(), store.entrySet());
+
+    store.clear();
+    assertEquals(0, store.size());
+    assertNull(store.get(0));
+  }
+
+  @Test
+  void direct() {
+    matchesHashMap(OffHeapStorage.direct().segmentSize(1024));
+  }
+
+  @Test
+  void mapped(@TempDir Path directory) throws Exception {
+    matchesHashMap(OffHeapStorage.mapped(directory).segmentSize(1024));
+
+    // Segment files are unlinked once they have been mapped.
+    try (var files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void snapshotsAreUnaffectedByModifications() {
+    OffHeapMapStore<Integer, String> store = newStore(OffHeapStorage.direct().segmentSize(1024));
+    Map<Integer, String> expected = new HashMap<>();
+
+    for (int i = 0; i < 100; i++) {
+      store.put(i, "value" + i);
+      expected.put(i, "value" + i);
+    }
+
+    Map<Integer, String> snapshot = store.snapshot();
+
+    // Enough garbage to compact the log several times.
+    for (int i = 0; i < 100_000; i++) {
+      store.put(i % 100, "new" + i);
+    }
+    for (int i = 0; i < 50; i++) {
+      store.remove(i);
+    }
+
+    assertEquals(expected, new HashMap<>(snapshot));
+    assertEquals(50, store.size());
+    assertEquals("new99999", store.get(99));
+
+    snapshot = store.snapshot();
+    store.clear();
+    assertEquals(50, new HashMap<>(snapshot).size());
+    assertFalse(store.containsKey(99));
+  }
+
+  @Test
+  void encodedSyncMatchesSnapshotSync() {
+    Form<Integer> keyForm = Form.forClass(Integer.class);
+    Form<String> valueForm = Form.forClass(String.class);
+    OffHeapMapStore<Integer, String> store = new OffHeapMapStore<>(keyForm, valueForm, OffHeapStorage.direct());
+
+    for (int i = 0; i < 100; i++) {
+      store.put(i, "value \"" + i + "\"");
+    }
+    store.remove(50);
+
+    UUID remote = UUID.randomUUID();
+    IdentifiedLaneResponseEncoder<MapOperation<Integer, String>> encoder = new IdentifiedLaneResponseEncoder<>(new MapOperationEncoder<>(
+        keyForm,
+        valueForm));
+
+    ByteWriter expected = new ByteWriter();
+    assertTrue(MapSyncRequest.snapshot(remote, store.snapshot()).encodeInto(7, expected, encoder, store));
+
+    ByteWriter actual = new ByteWriter();
+    MapSyncRequest<Integer, String> request = store.syncRequest(remote);
+
+    // Modifications after the request was created are not visible to it.
+    store.put(0, "changed");
+    store.clear();
+
+    assertTrue(request.encodeInto(7, actual, encoder, store));
+    assertArrayEquals(expected.getArray(), actual.getArray());
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.map.primitive;
+
+import ai.swim.server.lanes.map.TypedMap;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongKeyedTableTest {
+
+  private static <K, V> List<Map.Entry<K, V>> entries(Map<K, V> map) {
+    return new ArrayList<>(map.entrySet());
+  }
+
+  @Test
+  void matchesLinkedHashMap() {
+    Random random = new Random(11);
+    Map<Long, Long> expected = new LinkedHashMap<>();
+    LongLongTable table = new LongLongTable();
+
+    for (int i = 0; i < 100_000; i++) {
+      long key = random.nextInt(2_000) * (random.nextBoolean() ? 1L : 1L << 40);
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key) != null, table.remove(key));
+      } else {
+        expected.put(key, (long) i);
+        table.put(key, i);
+      }
+
+      assertEquals(expected.size(), table.size());
+    }
+
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), table.getOrDefault(entry.getKey(), -1));
+    }
+
+    // Iteration follows insertion order.
+    assertEquals(entries(expected), new ArrayList<>(table.entrySet()));
+
+    table.clear();
+    assertEquals(0, table.size());
+    assertFalse(table.containsKey(0L));
+  }
+
+  @Test
+  void boxedApi() {
+    TypedMap<Long, Double> table = new LongDoubleTable();
+
+    assertNull(table.put(1L, 1.5));
+    assertEquals(1.5, table.put(1L, 2.5));
+    assertEquals(2.5, table.get(1L));
+    assertTrue(table.containsValue(2.5));
+    assertEquals(2.5, table.remove(1L));
+    assertNull(table.get(1L));
+
+    IntObjectTable<String> ints = new IntObjectTable<>();
+    ints.put(-4, "a");
+    ints.put(Integer.valueOf(5), "b");
+
+    assertEquals("a", ints.get(Integer.valueOf(-4)));
+    assertEquals("b", ints.get(5));
+    assertEquals(List.of(-4, 5), new ArrayList<>(ints.keySet()));
+  }
+
+  @Test
+  void boxedApiGrows() {
+    List<TypedMap<Long, ?>> tables = List.of(new LongLongTable(), new LongDoubleTable(), new LongObjectTable<>());
+
+    for (TypedMap<Long, ?> untyped : tables) {
+      @SuppressWarnings("unchecked")
+      TypedMap<Long, Object> table = (TypedMap<Long, Object>) untyped;
+      boolean isDouble = untyped instanceof LongDoubleTable;
+
+      for (long i = 0; i < 1000; i++) {
+        table.put(i, isDouble ? (Object) (double) i : (Object) i);
+      }
+
+      assertEquals(1000, table.size());
+      for (long i = 0; i < 1000; i++) {
+        assertEquals(isDouble ? (Object) (double) i : (Object) i, table.get(i));
+      }
+    }
+  }
+
+  @Test
+  void boxedUpdateWithOutstandingSnapshot() {
+    TypedMap<Long, Double> table = new LongDoubleTable();
+    table.put(1L, 1.5);
+
+    Map<Long, Double> snapshot = ((LongDoubleTable) table).snapshot();
+    Iterator<Map.Entry<Long, Double>> iterator = snapshot.entrySet().iterator();
+
+    assertEquals(1.5, table.put(1L, 2.5));
+    assertEquals(2.5, table.get(1L));
+    assertEquals(List.of(Map.entry(1L, 1.5)), entriesOf(iterator));
+  }
+
+  @Test
+  void snapshotsAreUnaffectedByModifications() {
+    LongObjectTable<String> table = new LongObjectTable<>();
+    Map<Long, String> expected = new LinkedHashMap<>();
+
+    for (long i = 0; i < 100; i++) {
+      table.put(i, Long.toString(i));
+      expected.put(i, Long.toString(i));
+    }
+
+    Map<Long, String> snapshot = table.snapshot();
+    Iterator<Map.Entry<Long, String>> iterator = snapshot.entrySet().iterator();
+
+    // Appends, updates, removals and growth.
+    for (long i = 0; i < 1000; i++) {
+      table.put(i, "new");
+      table.remove(i / 2);
+    }
+
+    assertEquals(entries(expected), entriesOf(iterator));
+    assertEquals(500, table.size());
+
+    // Clearing the table must not affect an outstanding snapshot either.
+    snapshot = table.snapshot();
+    table.clear();
+    assertEquals(500, entries(snapshot).size());
+  }
+
+  @Test
+  void releasedSnapshotsAreNotCopied() {
+    LongObjectTable<String> table = new LongObjectTable<>();
+    table.put(1, "a");
+
+    Map<Long, String> snapshot = table.snapshot();
+    assertEquals(1, entries(snapshot).size());
+
+    Object values = table.valueArray();
+    table.put(1, "b");
+    assertTrue(values == table.valueArray());
+  }
+
+  private static <K, V> List<Map.Entry<K, V>> entriesOf(Iterator<Map.Entry<K, V>> iterator) {
+    List<Map.Entry<K, V>> entries = new ArrayList<>();
+    iterator.forEachRemaining(entries::add);
+    return entries;
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.swim.server.lanes.state;
+
+import ai.swim.codec.data.ByteWriter;
+import ai.swim.server.lanes.WriteResult;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateCollectorTest {
+
+  private static State bytesState(byte[] bytes) {
+    return into -> {
+      into.writeByteArray(bytes);
+      return WriteResult.Done;
+    };
+  }
+
+  private static byte[] flush(StateCollector collector) {
+    collector.flushState();
+    ByteBuffer responses = collector.responseBuffer();
+    byte[] bytes = new byte[responses.remaining()];
+    responses.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private static byte[] filled(int len, byte value) {
+    byte[] bytes = new byte[len];
+    Arrays.fill(bytes, value);
+    return bytes;
+  }
+
+  @Test
+  void reusesBufferAcrossFlushes() {
+    StateCollector collector = new StateCollector();
+
+    byte[] large = filled(999, (byte) 1);
+    collector.add(0, bytesState(large));
+    byte[] first = flush(collector);
+
+    assertEquals(1 + large.length, first.length);
+    assertEquals(WriteResult.Done.statusCode(), first[0]);
+
+    int capacity = collector.capacity();
+    ByteBuffer responses = collector.responseBuffer();
+
+    byte[] small = filled(4, (byte) 2);
+    collector.add(0, bytesState(small));
+
+    // The response buffer has not been reallocated and so the length is positive.
+    assertEquals(5, collector.flushState());
+    assertSame(responses, collector.responseBuffer());
+    assertEquals(capacity, collector.capacity());
+
+    // No data from the previous flush should be visible.
+    byte[] second = new byte[responses.remaining()];
+    responses.get(0, second);
+    assertArrayEquals(new byte[] {0, 2, 2, 2, 2}, second);
+  }
+
+  @Test
+  void signalsReallocation() {
+    StateCollector collector = new StateCollector();
+    ByteBuffer responses = collector.responseBuffer();
+
+    collector.add(0, bytesState(filled(999, (byte) 1)));
+    assertEquals(-1000, collector.flushState());
+    assertTrue(collector.responseBuffer().isDirect());
+    assertTrue(responses != collector.responseBuffer());
+
+    collector.add(0, bytesState(filled(999, (byte) 1)));
+    assertEquals(1000, collector.flushState());
+  }
+
+  @Test
+  void emptyFlush() {
+    StateCollector collector = new StateCollector();
+    assertArrayEquals(new byte[] {WriteResult.NoData.statusCode()}, flush(collector));
+  }
+
+  @Test
+  void shrinksToHighWaterMark() {
+    StateCollector collector = new StateCollector();
+
+    collector.add(0, bytesState(filled(10_000, (byte) 1)));
+    collector.flushState();
+    assertEquals(16384, collector.capacity());
+
+    byte[] bytes = filled(999, (byte) 1);
+    for (int i = 0; i < 4096; i++) {
+      collector.add(0, bytesState(bytes));
+      collector.flushState();
+    }
+
+    assertEquals(1024, collector.capacity());
+  }
+
+  @Test
+  void flushesInLaneIdOrder() {
+    StateCollector collector = new StateCollector();
+
+    collector.add(130, bytesState(new byte[] {3}));
+    collector.add(7, bytesState(new byte[] {2}));
+    collector.add(0, bytesState(new byte[] {1}));
+    // Registering a lane more than once only flushes its state once.
+    collector.add(7, bytesState(new byte[] {2}));
+
+    assertArrayEquals(new byte[] {0, 1, 2, 3}, flush(collector));
+    assertArrayEquals(new byte[] {WriteResult.NoData.statusCode()}, flush(collector));
+  }
+
+  @Test
+  void retainsPendingStates() {
+    StateCollector collector = new StateCollector();
+    int[] remaining = {2};
+
+    collector.add(1, into -> {
+      into.writeByte((byte) remaining[0]);
+      return --remaining[0] == 0 ? WriteResult.Done : WriteResult.DataStillAvailable;
+    });
+
+    assertArrayEquals(new byte[] {WriteResult.DataStillAvailable.statusCode(), 2}, flush(collector));
+    assertArrayEquals(new byte[] {WriteResult.NoData.statusCode(), 1}, flush(collector));
+    assertArrayEquals(new byte[] {WriteResult.NoData.statusCode()}, flush(collector));
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.lanes.value;
+
+import ai.swim.server.agent.call.CallContext;
+import ai.swim.server.lanes.state.StateCollector;
+import ai.swim.structure.Form;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValueLaneConflationTest {
+
+  @BeforeEach
+  void enter() {
+    CallContext.enter();
+  }
+
+  @AfterEach
+  void exit() {
+    CallContext.exit();
+  }
+
+  /**
+   * Sets {@code values} on a new lane with {@code policy} and returns the flushed state.
+   */
+  private static byte[] flush(ConflationPolicy policy, Integer... values) {
+    StateCollector collector = new StateCollector();
+    ValueLaneView<Integer> lane = new ValueLaneView<>(Form.forClass(Integer.class)).conflationPolicy(policy);
+    lane.initLaneModel(collector, 0);
+
+    for (Integer value : values) {
+      lane.set(value);
+    }
+
+    return flush(collector);
+  }
+
+  /**
+   * Flushes {@code collector} and returns a copy of the responses that were written into its response buffer.
+   */
+  private static byte[] flush(StateCollector collector) {
+    collector.flushState();
+    ByteBuffer responses = collector.responseBuffer();
+    byte[] bytes = new byte[responses.remaining()];
+    responses.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Test
+  void latestOnly() {
+    assertArrayEquals(flush(ConflationPolicy.none(), 3), flush(ConflationPolicy.latest(), 1, 2, 3));
+  }
+
+  @Test
+  void dropOldest() {
+    assertArrayEquals(flush(ConflationPolicy.none(), 3, 4), flush(ConflationPolicy.dropOldest(2), 1, 2, 3, 4));
+    assertArrayEquals(flush(ConflationPolicy.none(), 1), flush(ConflationPolicy.dropOldest(2), 1));
+    assertThrows(IllegalArgumentException.class, () -> ConflationPolicy.dropOldest(0));
+  }
+
+  @Test
+  void onSetFiresForEverySet() {
+    StateCollector collector = new StateCollector();
+    List<Integer> sets = new ArrayList<>();
+    ValueLaneView<Integer> lane = new ValueLaneView<>(Form.forClass(Integer.class))
+        .conflationPolicy(ConflationPolicy.latest())
+        .onSet((oldValue, newValue) -> sets.add(newValue));
+    lane.initLaneModel(collector, 0);
+
+    lane.set(1);
+    lane.set(2);
+    lane.set(3);
+
+    assertEquals(List.of(1, 2, 3), sets);
+    assertEquals(3, lane.get());
+  }
+
+  @Test
+  void retainsLatestAcrossFlushes() {
+    StateCollector collector = new StateCollector();
+    ValueLaneView<Integer> lane = new ValueLaneView<>(Form.forClass(Integer.class))
+        .conflationPolicy(ConflationPolicy.latest());
+    lane.initLaneModel(collector, 0);
+
+    lane.set(1);
+    lane.set(2);
+    collector.flushState();
+    lane.set(3);
+
+    assertArrayEquals(flush(ConflationPolicy.none(), 3), flush(collector));
+  }
+
+}
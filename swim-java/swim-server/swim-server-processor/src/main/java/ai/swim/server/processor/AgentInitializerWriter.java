@@ -0,0 +1,446 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import static ai.swim.server.processor.Lookups.ABSTRACT_AGENT;
+import static ai.swim.server.processor.Lookups.AGENT_CONTEXT;
+import static ai.swim.server.processor.Lookups.AGENT_INITIALIZATION_EXCEPTION;
+import static ai.swim.server.processor.Lookups.AGENT_INITIALIZER;
+import static ai.swim.server.processor.Lookups.LANE;
+import static ai.swim.server.processor.Lookups.LANE_MODEL;
+import static ai.swim.server.processor.Lookups.LANE_VIEW;
+import static ai.swim.server.processor.Lookups.STATE_COLLECTOR;
+import static ai.swim.server.processor.Lookups.SWIM_LANE;
+
+/**
+ * Agent initializer writer functionality.
+ * <p>
+ * For an agent:
+ * <pre>
+ *   {@code
+ *     @SwimAgent
+ *     public class UnitAgent extends AbstractAgent {
+ *       @SwimLane("lane")
+ *       private final ValueLane<Integer> lane = valueLane(Integer.class);
+ *
+ *       protected UnitAgent(AgentContext context) {
+ *         super(context);
+ *       }
+ *     }
+ *   }
+ * </pre>
+ * <p>
+ * the following initializer is written:
+ * <pre>
+ *   {@code
+ *     public final class UnitAgentInitializer implements AgentInitializer<UnitAgent> {
+ *       private static final VarHandle LANE_HANDLE;
+ *
+ *       static {
+ *         try {
+ *           MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(UnitAgent.class, MethodHandles.lookup());
+ *           LANE_HANDLE = lookup.findVarHandle(UnitAgent.class, "lane", ValueLane.class);
+ *         } catch (ReflectiveOperationException e) {
+ *           throw new ExceptionInInitializerError(e);
+ *         }
+ *       }
+ *
+ *       @Override
+ *       public Class<? extends UnitAgent> agentClass() {
+ *         return UnitAgent.class;
+ *       }
+ *
+ *       @Override
+ *       public UnitAgent newAgent(AgentContext context) {
+ *         return new UnitAgent(context);
+ *       }
+ *
+ *       @Override
+ *       public void initLanes(UnitAgent agent, StateCollector collector, Map<String, Integer> laneMappings,
+ *           Map<Integer, LaneModel> lanes) {
+ *         int laneId = laneMappings.get("lane");
+ *         lanes.put(laneId, ((LaneView) LANE_HANDLE.get(agent)).initLaneModel(collector, laneId));
+ *       }
+ *     }
+ *   }
+ * </pre>
+ * <p>
+ * Members of the agent that are not accessible from its package, such as private lanes, are accessed using method and
+ * var handles that are looked up once when the initializer is loaded. If the agent class itself is not accessible,
+ * then the initializer is typed as an {@code AbstractAgent} and all of its members are accessed using handles.
+ */
+public class AgentInitializerWriter {
+  private static final String INITIALIZER_SUFFIX = "Initializer";
+  private static final String HANDLE_SUFFIX = "_HANDLE";
+  private static final String AGENT_CLASS_FIELD = "AGENT_CLASS";
+  private static final String NEW_AGENT_FIELD = "NEW_AGENT";
+
+  private final ProcessingEnvironment environment;
+  private final Set<String> initializers;
+
+  public AgentInitializerWriter(ProcessingEnvironment environment) {
+    this.environment = environment;
+    this.initializers = new TreeSet<>();
+  }
+
+  /**
+   * Returns whether {@code element} is accessible from other classes in its package.
+   */
+  private static boolean isAccessible(Element element) {
+    for (Element e = element; e.getKind().isClass() || e.getKind().isInterface(); e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String constantName(String fieldName) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < fieldName.length(); i++) {
+      char c = fieldName.charAt(i);
+      if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(fieldName.charAt(i - 1))) {
+        sb.append('_');
+      }
+      sb.append(Character.toUpperCase(c));
+    }
+    return sb.append(HANDLE_SUFFIX).toString();
+  }
+
+  private static String initializerName(TypeElement element) {
+    StringBuilder name = new StringBuilder(element.getSimpleName());
+    for (Element e = element.getEnclosingElement(); e.getKind().isClass() || e.getKind().isInterface(); e = e.getEnclosingElement()) {
+      name.insert(0, '_').insert(0, e.getSimpleName());
+    }
+    return name.append(INITIALIZER_SUFFIX).toString();
+  }
+
+  /**
+   * Returns the URI of a lane field; either the value of its {@code SwimLane} annotation or the name of the field.
+   */
+  private static String laneUri(VariableElement field, AnnotationMirror annotation) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+        .getElementValues()
+        .entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals("value")) {
+        String value = (String) entry.getValue().getValue();
+        if (!value.isEmpty()) {
+          return value;
+        }
+      }
+    }
+    return field.getSimpleName().toString();
+  }
+
+  private static AnnotationMirror swimLaneAnnotation(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationElement = (TypeElement) mirror.getAnnotationType().asElement();
+      if (annotationElement.getQualifiedName().contentEquals(SWIM_LANE)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Writes an initializer for {@code agent}. No initializer is written for agents that cannot be constructed by one,
+   * such as abstract classes or classes without a constructor that accepts an {@code AgentContext}, and they are
+   * reflected at runtime instead.
+   *
+   * @param agent the agent to write an initializer for.
+   * @throws IOException if there is a failure to write the initializer to disk.
+   */
+  public void write(TypeElement agent) throws IOException {
+    Elements elementUtils = environment.getElementUtils();
+    Types typeUtils = environment.getTypeUtils();
+
+    NestingKind nestingKind = agent.getNestingKind();
+    Set<Modifier> modifiers = agent.getModifiers();
+
+    if (modifiers.contains(Modifier.ABSTRACT) || nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS || nestingKind == NestingKind.MEMBER && !modifiers.contains(
+        Modifier.STATIC)) {
+      return;
+    }
+
+    ExecutableElement constructor = findConstructor(agent);
+    if (constructor == null) {
+      return;
+    }
+
+    TypeMirror laneType = typeUtils.erasure(elementUtils.getTypeElement(LANE).asType());
+    TypeMirror laneViewType = typeUtils.erasure(elementUtils.getTypeElement(LANE_VIEW).asType());
+    List<LaneField> lanes = new ArrayList<>();
+
+    for (VariableElement field : ElementFilter.fieldsIn(agent.getEnclosedElements())) {
+      AnnotationMirror annotation = swimLaneAnnotation(field);
+      TypeMirror fieldType = field.asType();
+
+      if (annotation == null || !typeUtils.isAssignable(typeUtils.erasure(fieldType), laneType)) {
+        continue;
+      }
+
+      if (fieldType.getKind() != TypeKind.DECLARED || ((DeclaredType) fieldType).getTypeArguments().isEmpty()) {
+        environment
+            .getMessager()
+            .printMessage(Diagnostic.Kind.ERROR, "Unsupported lane type: " + fieldType, field);
+        return;
+      }
+
+      lanes.add(new LaneField(
+          field,
+          laneUri(field, annotation),
+          typeUtils.isAssignable(typeUtils.erasure(fieldType), laneViewType)));
+    }
+
+    writeInitializer(agent, constructor, lanes);
+  }
+
+  private ExecutableElement findConstructor(TypeElement agent) {
+    TypeMirror contextType = environment.getElementUtils().getTypeElement(AGENT_CONTEXT).asType();
+
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(agent.getEnclosedElements())) {
+      List<? extends VariableElement> parameters = constructor.getParameters();
+      if (parameters.size() == 1 && environment.getTypeUtils().isSameType(parameters.get(0).asType(), contextType)) {
+        return constructor;
+      }
+    }
+
+    return null;
+  }
+
+  private void writeInitializer(TypeElement agent, ExecutableElement constructor, List<LaneField> lanes) throws IOException {
+    Elements elementUtils = environment.getElementUtils();
+    Types typeUtils = environment.getTypeUtils();
+    String packageName = elementUtils.getPackageOf(agent).getQualifiedName().toString();
+    String className = initializerName(agent);
+
+    boolean agentAccessible = isAccessible(agent);
+    boolean constructorAccessible = agentAccessible && !constructor.getModifiers().contains(Modifier.PRIVATE);
+
+    TypeName agentType = agentAccessible ? TypeName.get(typeUtils.erasure(agent.asType())) : ClassName.bestGuess(ABSTRACT_AGENT);
+    CodeBlock agentClass = agentAccessible ? CodeBlock.of("$T.class", agentType) : CodeBlock.of("$L", AGENT_CLASS_FIELD);
+    TypeName classType = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(agentType));
+    ClassName contextType = ClassName.bestGuess(AGENT_CONTEXT);
+
+    TypeSpec.Builder classSpec = TypeSpec
+        .classBuilder(className)
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        .addSuperinterface(ParameterizedTypeName.get(ClassName.bestGuess(AGENT_INITIALIZER), agentType));
+
+    CodeBlock.Builder staticBlock = CodeBlock.builder().beginControlFlow("try");
+    CodeBlock.Builder lookups = CodeBlock.builder();
+
+    if (!agentAccessible) {
+      classSpec.addField(FieldSpec
+          .builder(classType, AGENT_CLASS_FIELD, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+          .build());
+      staticBlock.addStatement(
+          "$L = $T.forName($S, false, $L.class.getClassLoader()).asSubclass($T.class)",
+          AGENT_CLASS_FIELD,
+          Class.class,
+          elementUtils.getBinaryName(agent).toString(),
+          className,
+          agentType);
+    }
+
+    if (!constructorAccessible) {
+      classSpec.addField(FieldSpec
+          .builder(MethodHandle.class, NEW_AGENT_FIELD, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+          .build());
+      lookups.addStatement(
+          "$L = lookup.findConstructor($L, $T.methodType(void.class, $T.class)).asType($T.methodType($T.class, $T.class))",
+          NEW_AGENT_FIELD,
+          agentClass,
+          MethodType.class,
+          contextType,
+          MethodType.class,
+          agentType,
+          contextType);
+    }
+
+    CodeBlock.Builder initLanes = CodeBlock.builder();
+
+    for (LaneField lane : lanes) {
+      String fieldName = lane.field.getSimpleName().toString();
+      boolean isStatic = lane.field.getModifiers().contains(Modifier.STATIC);
+      String laneId = fieldName + "Id";
+      CodeBlock access;
+
+      if (agentAccessible && !lane.field.getModifiers().contains(Modifier.PRIVATE)) {
+        access = isStatic ? CodeBlock.of("$T.$L", agentType, fieldName) : CodeBlock.of("agent.$L", fieldName);
+        if (!lane.isView) {
+          access = CodeBlock.of("(($T) $L)", ClassName.bestGuess(LANE_VIEW), access);
+        }
+      } else {
+        String handle = constantName(fieldName);
+        classSpec.addField(FieldSpec
+            .builder(VarHandle.class, handle, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .build());
+        lookups.addStatement(
+            "$L = lookup.$L($L, $S, $T.class)",
+            handle,
+            isStatic ? "findStaticVarHandle" : "findVarHandle",
+            agentClass,
+            fieldName,
+            TypeName.get(typeUtils.erasure(lane.field.asType())));
+        access = CodeBlock.of("(($T) $L.get($L))", ClassName.bestGuess(LANE_VIEW), handle, isStatic ? "" : "agent");
+      }
+
+      initLanes.addStatement("int $L = laneMappings.get($S)", laneId, lane.uri);
+      initLanes.addStatement("lanes.put($L, $L.initLaneModel(collector, $L))", laneId, access, laneId);
+    }
+
+    if (!lookups.isEmpty()) {
+      staticBlock
+          .addStatement(
+              "$T.Lookup lookup = $T.privateLookupIn($L, $T.lookup())",
+              MethodHandles.class,
+              MethodHandles.class,
+              agentClass,
+              MethodHandles.class)
+          .add(lookups.build());
+    }
+
+    if (!agentAccessible || !lookups.isEmpty()) {
+      staticBlock
+          .nextControlFlow("catch ($T e)", ReflectiveOperationException.class)
+          .addStatement("throw new $T(e)", ExceptionInInitializerError.class)
+          .endControlFlow();
+      classSpec.addStaticBlock(staticBlock.build());
+    }
+
+    classSpec.addMethod(MethodSpec
+        .methodBuilder("agentClass")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(classType)
+        .addStatement("return $L", agentClass)
+        .build());
+
+    MethodSpec.Builder newAgent = MethodSpec
+        .methodBuilder("newAgent")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(agentType)
+        .addParameter(contextType, "context");
+
+    if (constructorAccessible) {
+      newAgent.addStatement("return new $T(context)", agentType);
+    } else {
+      newAgent
+          .beginControlFlow("try")
+          .addStatement("return ($T) $L.invokeExact(context)", agentType, NEW_AGENT_FIELD)
+          .nextControlFlow("catch ($T e)", Throwable.class)
+          .addStatement("throw new $T($S, e)", ClassName.bestGuess(AGENT_INITIALIZATION_EXCEPTION), "Failed to create new agent")
+          .endControlFlow();
+    }
+
+    classSpec.addMethod(newAgent.build());
+
+    ClassName mapType = ClassName.get(Map.class);
+    TypeName stringType = ClassName.get(String.class);
+    TypeName integerType = ClassName.get(Integer.class);
+
+    classSpec.addMethod(MethodSpec
+        .methodBuilder("initLanes")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .addParameter(agentType, "agent")
+        .addParameter(ClassName.bestGuess(STATE_COLLECTOR), "collector")
+        .addParameter(ParameterizedTypeName.get(mapType, stringType, integerType), "laneMappings")
+        .addParameter(ParameterizedTypeName.get(mapType, integerType, ClassName.bestGuess(LANE_MODEL)), "lanes")
+        .addCode(initLanes.build())
+        .build());
+
+    JavaFile.builder(packageName, classSpec.build()).build().writeTo(environment.getFiler());
+    initializers.add(packageName.isEmpty() ? className : packageName + "." + className);
+  }
+
+  /**
+   * Lists the initializers that have been written as {@link java.util.ServiceLoader} providers.
+   *
+   * @throws IOException if there is a failure to write the provider configuration file to disk.
+   */
+  public void writeServices() throws IOException {
+    if (initializers.isEmpty()) {
+      return;
+    }
+
+    FileObject file = environment
+        .getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + AGENT_INITIALIZER);
+
+    try (Writer writer = file.openWriter()) {
+      for (String initializer : initializers) {
+        writer.write(initializer);
+        writer.write('\n');
+      }
+    }
+  }
+
+  private static final class LaneField {
+    private final VariableElement field;
+    private final String uri;
+    private final boolean isView;
+
+    private LaneField(VariableElement field, String uri, boolean isView) {
+      this.field = field;
+      this.uri = uri;
+      this.isView = isView;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.processor;
+
+import com.google.auto.service.AutoService;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Annotation processor for deriving agent initializers for classes annotated with {@code SwimAgent}.
+ * <p>
+ * A derived initializer constructs its agent and initialises the lane models of its lanes without reflecting the
+ * agent's fields every time that an agent is constructed. The initializers are listed as {@link java.util.ServiceLoader}
+ * providers once processing is complete and agents that do not have one are reflected at runtime.
+ */
+@AutoService(Processor.class)
+public class AgentProcessor extends AbstractProcessor {
+  private AgentInitializerWriter writer;
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      try {
+        writer.writeServices();
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString());
+      }
+      return true;
+    }
+
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) {
+          continue;
+        }
+
+        try {
+          writer.write((TypeElement) element);
+        } catch (Throwable e) {
+          processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString(), element);
+          e.printStackTrace();
+        }
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    this.writer = new AgentInitializerWriter(processingEnv);
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Set.of(Lookups.SWIM_AGENT);
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.processor;
+
+public class Lookups {
+
+  public static final String SWIM_AGENT = "ai.swim.server.annotations.SwimAgent";
+  public static final String SWIM_LANE = "ai.swim.server.annotations.SwimLane";
+  public static final String ABSTRACT_AGENT = "ai.swim.server.agent.AbstractAgent";
+  public static final String AGENT_CONTEXT = "ai.swim.server.agent.AgentContext";
+  public static final String AGENT_INITIALIZER = "ai.swim.server.agent.AgentInitializer";
+  public static final String AGENT_INITIALIZATION_EXCEPTION = "ai.swim.server.agent.AgentInitializationException";
+  public static final String LANE = "ai.swim.server.lanes.Lane";
+  public static final String LANE_VIEW = "ai.swim.server.lanes.LaneView";
+  public static final String LANE_MODEL = "ai.swim.server.lanes.LaneModel";
+  public static final String STATE_COLLECTOR = "ai.swim.server.lanes.state.StateCollector";
+
+  private Lookups() {
+    throw new AssertionError();
+  }
+}
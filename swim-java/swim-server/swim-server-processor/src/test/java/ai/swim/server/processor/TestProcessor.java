@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2024 Swim Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.swim.server.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+import javax.tools.StandardLocation;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+public class TestProcessor {
+
+  private static Compilation compile(String resource) {
+    return javac()
+        .withProcessors(new AgentProcessor())
+        .compile(JavaFileObjects.forResource(resource));
+  }
+
+  @Test
+  void rawLane() {
+    assertThat(compile("RawLane.java"))
+        .hadErrorContaining("Unsupported lane type: ai.swim.server.lanes.value.ValueLane");
+  }
+
+  @Test
+  void initializer() {
+    Compilation compilation = compile("UnitAgent.java");
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("unit.UnitAgentInitializer")
+        .contentsAsUtf8String()
+        .contains("return new UnitAgent(context);");
+    assertThat(compilation)
+        .generatedSourceFile("unit.UnitAgentInitializer")
+        .contentsAsUtf8String()
+        .contains("lookup.findVarHandle(UnitAgent.class, \"valueLane\", ValueLane.class)");
+    assertThat(compilation)
+        .generatedSourceFile("unit.UnitAgentInitializer")
+        .contentsAsUtf8String()
+        .contains("lanes.put(mapLaneId, ((LaneView) agent.mapLane).initLaneModel(collector, mapLaneId));");
+    assertThat(compilation)
+        .generatedFile(StandardLocation.CLASS_OUTPUT, "META-INF/services/ai.swim.server.agent.AgentInitializer")
+        .contentsAsUtf8String()
+        .isEqualTo("unit.UnitAgentInitializer\n");
+  }
+
+}
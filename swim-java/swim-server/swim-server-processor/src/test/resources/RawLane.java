@@ -0,0 +1,17 @@
+import ai.swim.server.agent.AbstractAgent;
+import ai.swim.server.agent.AgentContext;
+import ai.swim.server.annotations.SwimAgent;
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.value.ValueLane;
+import static ai.swim.server.lanes.Lanes.valueLane;
+
+@SwimAgent
+public class RawLane extends AbstractAgent {
+  @SwimLane
+  @SuppressWarnings("rawtypes")
+  private final ValueLane lane = valueLane(Integer.class);
+
+  public RawLane(AgentContext context) {
+    super(context);
+  }
+}
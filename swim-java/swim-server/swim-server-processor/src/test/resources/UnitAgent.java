@@ -0,0 +1,22 @@
+package unit;
+
+import ai.swim.server.agent.AbstractAgent;
+import ai.swim.server.agent.AgentContext;
+import ai.swim.server.annotations.SwimAgent;
+import ai.swim.server.annotations.SwimLane;
+import ai.swim.server.lanes.map.MapLane;
+import ai.swim.server.lanes.value.ValueLane;
+import static ai.swim.server.lanes.Lanes.mapLane;
+import static ai.swim.server.lanes.Lanes.valueLane;
+
+@SwimAgent
+public class UnitAgent extends AbstractAgent {
+  @SwimLane("lane")
+  private final ValueLane<Integer> valueLane = valueLane(Integer.class);
+  @SwimLane
+  MapLane<Integer, Integer> mapLane = mapLane(Integer.class, Integer.class);
+
+  protected UnitAgent(AgentContext context) {
+    super(context);
+  }
+}